@@ -1,5 +1,6 @@
 package com.novicehacks.autobot;
 
+import java.util.Collection;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -12,11 +13,19 @@ import org.apache.logging.log4j.Logger;
 
 import com.novicehacks.autobot.config.ApplicationConfig;
 import com.novicehacks.autobot.config.ConfigurationManager;
+import com.novicehacks.autobot.config.ResourceConfig;
 import com.novicehacks.autobot.config.TimeDelay;
 import com.novicehacks.autobot.core.BotUtils;
 import com.novicehacks.autobot.core.ThreadManager;
 import com.novicehacks.autobot.core.annotations.Incomplete;
+import com.novicehacks.autobot.core.types.Executable;
+import com.novicehacks.autobot.core.types.ExecutableSchedule;
 import com.novicehacks.autobot.executor.CommandExecutorTask;
+import com.novicehacks.autobot.executor.ConnectionKeepaliveTask;
+import com.novicehacks.autobot.executor.ConnectionShutdownTask;
+import com.novicehacks.autobot.executor.ConnectionWarmupTask;
+import com.novicehacks.autobot.executor.ExecutableScheduler;
+import com.novicehacks.autobot.executor.ServerExecutableMapGenerator;
 
 /**
  * <p>
@@ -57,6 +66,8 @@ public class SysBotApp {
 		ThreadManager.getInstance ().createThreadPool (true);
 		logger.info ("Loading the Configurations");
 		ConfigurationManager.getSharedInstance ().loadResourceConfig ();
+		Runtime.getRuntime ().addShutdownHook (new Thread (new ConnectionShutdownTask (),
+				"ConnectionShutdownThread"));
 		logger.info ("Starting the ExecutableManager with a scheduled delay");
 		app.StartExecutableManager ();
 		logger.info ("Starting the ReportingManager with a scheduled delay");
@@ -85,9 +96,20 @@ public class SysBotApp {
 		logger.entry ();
 		String executableDelayStr = ApplicationConfig.getInstance ().executableDelayInHours ();
 		int executableDelay = BotUtils.convertStringToInt (executableDelayStr);
+		long executableDelayInSecs = TimeUnit.MINUTES.toSeconds (executableDelay);
 		ScheduledExecutorService service = Executors.newScheduledThreadPool (1);
-		ScheduledFuture<?> future = service.scheduleWithFixedDelay (new CommandExecutorTask (), 0,
-				executableDelay, TimeUnit.MINUTES);
+		if (ExecutableScheduler.isSpreadEnabled ()) {
+			scheduleConnectionKeepalive (service);
+			startSpreadExecution (executableDelayInSecs);
+			logger.exit ();
+			return;
+		}
+		scheduleConnectionKeepalive (service);
+		startExecutableScheduler ();
+		WarmedUpExecution execution = new WarmedUpExecution (service, executableDelayInSecs,
+				System.currentTimeMillis ());
+		ScheduledFuture<?> future = service.scheduleWithFixedDelay (execution, 0,
+				executableDelayInSecs, TimeUnit.SECONDS);
 		try {
 			logger.debug (future.getDelay (TimeUnit.MINUTES));
 			future.get (TimeDelay.largeDelayInMins.delay (), TimeUnit.MINUTES);
@@ -101,4 +123,94 @@ public class SysBotApp {
 		}
 		logger.exit ();
 	}
+
+	/**
+	 * The keepalive shares the thread with the runs, so that it does not ping
+	 * while a run is using the connections.
+	 */
+	private void scheduleConnectionKeepalive(ScheduledExecutorService service) {
+		if (!ConnectionKeepaliveTask.isKeepaliveEnabled ())
+			return;
+		long intervalInSecs = ConnectionKeepaliveTask.intervalInSecs ();
+		service.scheduleWithFixedDelay (new ConnectionKeepaliveTask (), intervalInSecs,
+				intervalInSecs, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * The executables having their own schedule are run by the
+	 * {@link ExecutableScheduler} on a thread of its own, so that its ticks are
+	 * not held up by the runs on the common <em>ExecutableDelay</em>.
+	 */
+	private void startExecutableScheduler() {
+		Collection<Executable> scheduledExecutables;
+		scheduledExecutables = ServerExecutableMapGenerator.getSharedInstance ()
+				.scheduledExecutables ();
+		if (scheduledExecutables.isEmpty ())
+			return;
+		ExecutableScheduler scheduler = new ExecutableScheduler ();
+		scheduler.scheduleExecutables (scheduledExecutables);
+		startTicking (scheduler);
+	}
+
+	/**
+	 * All the executables are run by the {@link ExecutableScheduler}, the ones
+	 * without a schedule every <em>ExecutableDelay</em>, each server at its own
+	 * offset within it. The servers connect a few at a time, so the warm-up of
+	 * all the connections ahead of a run is not done.
+	 */
+	private void startSpreadExecution(long executableDelayInSecs) {
+		logger.info ("Spreading the executables across the executable delay");
+		ExecutableScheduler scheduler = new ExecutableScheduler ();
+		scheduler.scheduleExecutables (ResourceConfig.getInstance ().executables (),
+				ExecutableSchedule.every (Math.max (1, executableDelayInSecs), TimeUnit.SECONDS));
+		startTicking (scheduler);
+	}
+
+	private void startTicking(ExecutableScheduler scheduler) {
+		long tickDurationInSecs = ExecutableScheduler.tickDurationInSecs ();
+		Executors.newSingleThreadScheduledExecutor ().scheduleAtFixedRate (scheduler,
+				tickDurationInSecs, tickDurationInSecs, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Executes the commands, and then schedules the {@link ConnectionWarmupTask}
+	 * for the next run <em>ConnectionWarmupLeadTime</em> ahead of it. The first
+	 * run starts right away and connects the servers itself, so the start of
+	 * the application is not held up by the lead time.
+	 * 
+	 * <p>
+	 * As the delay is counted from the end of a run, every run is due one
+	 * <em>ExecutableDelay</em> after the earlier run was due, and the lag of the
+	 * runs behind that schedule shows how far the slow runs have pushed them.
+	 * </p>
+	 */
+	private static class WarmedUpExecution implements Runnable {
+		private final ScheduledExecutorService service;
+		private final long executableDelayInSecs;
+		private long scheduledTimeInMillis;
+
+		WarmedUpExecution (ScheduledExecutorService service, long executableDelayInSecs,
+				long firstScheduledTimeInMillis) {
+			this.service = service;
+			this.executableDelayInSecs = executableDelayInSecs;
+			this.scheduledTimeInMillis = firstScheduledTimeInMillis;
+		}
+
+		@Override
+		public void run() {
+			try {
+				new CommandExecutorTask (null, this.scheduledTimeInMillis).run ();
+			} finally {
+				this.scheduledTimeInMillis += TimeUnit.SECONDS.toMillis (this.executableDelayInSecs);
+				scheduleNextConnectionWarmup ();
+			}
+		}
+
+		private void scheduleNextConnectionWarmup() {
+			long leadTimeInSecs = ConnectionWarmupTask.leadTimeInSecs ();
+			if (ConnectionWarmupTask.isWarmupEnabled () && leadTimeInSecs < this.executableDelayInSecs)
+				this.service.schedule (new ConnectionWarmupTask (), this.executableDelayInSecs
+						- leadTimeInSecs, TimeUnit.SECONDS);
+		}
+	}
 }
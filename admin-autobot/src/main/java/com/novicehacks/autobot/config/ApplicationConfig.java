@@ -44,6 +44,52 @@ public class ApplicationConfig {
 	private String executableDelayInHours;
 	private String monitoringEnabled;
 	private String executableTimeoutInMins;
+	private String connectionPoolEnabled;
+	private String connectionPoolMaxSize;
+	private String connectionPoolIdleTimeoutInMins;
+	private String credentialCacheFile;
+	private String credentialFailureExpiryInMins;
+	private String connectionWarmupLeadTimeInSecs;
+	private String connectionMaxChannels;
+	private String connectionMaxCount;
+	private String sshCiphers;
+	private String sshMACs;
+	private String sshHostKeyAlgorithms;
+	private String sshKexGroupLength;
+	private String knownHostsFile;
+	private String strictHostKeyChecking;
+	private String outputCompression;
+	private String circuitBreakerEnabled;
+	private String serverProbeTimeout;
+	private String circuitBreakerBackoff;
+	private String circuitBreakerMaxBackoff;
+	private String sshIOBackend;
+	private String sshIOThreads;
+	private String connectionKeepaliveInterval;
+	private String connectionThreads;
+	private String connectionQueueLimit;
+	private String connectionRejectionPolicy;
+	private String commandThreads;
+	private String commandQueueLimit;
+	private String commandRejectionPolicy;
+	private String loggingThreads;
+	private String loggingQueueLimit;
+	private String loggingRejectionPolicy;
+	private String virtualThreadsEnabled;
+	private String schedulerTickDurationInSecs;
+	private String schedulerWheelSize;
+	private String executionSpreadEnabled;
+	private String executionJitterInSecs;
+	private String loadSheddingEnabled;
+	private String loadSheddingQueueThreshold;
+	private String loadSheddingDeadlineMargin;
+	private String maxConcurrentServers;
+	private String maxConcurrentCommands;
+	private String maxConcurrentHandshakes;
+	private String overlapPolicy;
+	private String shellPipelining;
+	private String warmShellSessions;
+	private String shellInitQuietTime;
 
 	/**
 	 * unload method will reset all the configuration properties to null values.
@@ -65,6 +111,52 @@ public class ApplicationConfig {
 		this.executableDelayInHours = null;
 		this.monitoringEnabled = null;
 		this.executableTimeoutInMins = null;
+		this.connectionPoolEnabled = null;
+		this.connectionPoolMaxSize = null;
+		this.connectionPoolIdleTimeoutInMins = null;
+		this.credentialCacheFile = null;
+		this.credentialFailureExpiryInMins = null;
+		this.connectionWarmupLeadTimeInSecs = null;
+		this.connectionMaxChannels = null;
+		this.connectionMaxCount = null;
+		this.sshCiphers = null;
+		this.sshMACs = null;
+		this.sshHostKeyAlgorithms = null;
+		this.sshKexGroupLength = null;
+		this.knownHostsFile = null;
+		this.strictHostKeyChecking = null;
+		this.outputCompression = null;
+		this.circuitBreakerEnabled = null;
+		this.serverProbeTimeout = null;
+		this.circuitBreakerBackoff = null;
+		this.circuitBreakerMaxBackoff = null;
+		this.sshIOBackend = null;
+		this.sshIOThreads = null;
+		this.connectionKeepaliveInterval = null;
+		this.connectionThreads = null;
+		this.connectionQueueLimit = null;
+		this.connectionRejectionPolicy = null;
+		this.commandThreads = null;
+		this.commandQueueLimit = null;
+		this.commandRejectionPolicy = null;
+		this.loggingThreads = null;
+		this.loggingQueueLimit = null;
+		this.loggingRejectionPolicy = null;
+		this.virtualThreadsEnabled = null;
+		this.schedulerTickDurationInSecs = null;
+		this.schedulerWheelSize = null;
+		this.executionSpreadEnabled = null;
+		this.executionJitterInSecs = null;
+		this.loadSheddingEnabled = null;
+		this.loadSheddingQueueThreshold = null;
+		this.loadSheddingDeadlineMargin = null;
+		this.maxConcurrentServers = null;
+		this.maxConcurrentCommands = null;
+		this.maxConcurrentHandshakes = null;
+		this.overlapPolicy = null;
+		this.shellPipelining = null;
+		this.warmShellSessions = null;
+		this.shellInitQuietTime = null;
 	}
 
 	public String resourceFolder() {
@@ -150,6 +242,214 @@ public class ApplicationConfig {
 		return computedValue (this.monitoringEnabled, ConfigurationProperty.MonitoringEnabled);
 	}
 
+	public String connectionPoolEnabled() {
+		return computedValue (this.connectionPoolEnabled,
+				ConfigurationProperty.ConnectionPoolEnabled);
+	}
+
+	public String connectionPoolMaxSize() {
+		return computedValue (this.connectionPoolMaxSize,
+				ConfigurationProperty.ConnectionPoolMaxSize);
+	}
+
+	public String connectionPoolIdleTimeoutInMins() {
+		return computedValue (this.connectionPoolIdleTimeoutInMins,
+				ConfigurationProperty.ConnectionPoolIdleTimeout);
+	}
+
+	public String credentialCacheFile() {
+		return computedValue (this.credentialCacheFile, ConfigurationProperty.CredentialCacheFile);
+	}
+
+	public String credentialFailureExpiryInMins() {
+		return computedValue (this.credentialFailureExpiryInMins,
+				ConfigurationProperty.CredentialFailureExpiry);
+	}
+
+	public String connectionWarmupLeadTimeInSecs() {
+		return computedValue (this.connectionWarmupLeadTimeInSecs,
+				ConfigurationProperty.ConnectionWarmupLeadTime);
+	}
+
+	public String connectionMaxChannels() {
+		return computedValue (this.connectionMaxChannels,
+				ConfigurationProperty.ConnectionMaxChannels);
+	}
+
+	public String connectionMaxCount() {
+		return computedValue (this.connectionMaxCount, ConfigurationProperty.ConnectionMaxCount);
+	}
+
+	public String sshCiphers() {
+		return computedValue (this.sshCiphers, ConfigurationProperty.SSHCiphers);
+	}
+
+	public String sshMACs() {
+		return computedValue (this.sshMACs, ConfigurationProperty.SSHMACs);
+	}
+
+	public String sshHostKeyAlgorithms() {
+		return computedValue (this.sshHostKeyAlgorithms,
+				ConfigurationProperty.SSHHostKeyAlgorithms);
+	}
+
+	public String sshKexGroupLength() {
+		return computedValue (this.sshKexGroupLength, ConfigurationProperty.SSHKexGroupLength);
+	}
+
+	public String knownHostsFile() {
+		return computedValue (this.knownHostsFile, ConfigurationProperty.KnownHostsFile);
+	}
+
+	public String strictHostKeyChecking() {
+		return computedValue (this.strictHostKeyChecking,
+				ConfigurationProperty.StrictHostKeyChecking);
+	}
+
+	public String outputCompression() {
+		return computedValue (this.outputCompression, ConfigurationProperty.OutputCompression);
+	}
+
+	public String circuitBreakerEnabled() {
+		return computedValue (this.circuitBreakerEnabled,
+				ConfigurationProperty.CircuitBreakerEnabled);
+	}
+
+	public String serverProbeTimeoutInSecs() {
+		return computedValue (this.serverProbeTimeout, ConfigurationProperty.ServerProbeTimeout);
+	}
+
+	public String circuitBreakerBackoffInMins() {
+		return computedValue (this.circuitBreakerBackoff,
+				ConfigurationProperty.CircuitBreakerBackoff);
+	}
+
+	public String circuitBreakerMaxBackoffInMins() {
+		return computedValue (this.circuitBreakerMaxBackoff,
+				ConfigurationProperty.CircuitBreakerMaxBackoff);
+	}
+
+	public String sshIOBackend() {
+		return computedValue (this.sshIOBackend, ConfigurationProperty.SSHIOBackend);
+	}
+
+	public String sshIOThreads() {
+		return computedValue (this.sshIOThreads, ConfigurationProperty.SSHIOThreads);
+	}
+
+	public String connectionKeepaliveIntervalInSecs() {
+		return computedValue (this.connectionKeepaliveInterval,
+				ConfigurationProperty.ConnectionKeepaliveInterval);
+	}
+
+	public String connectionThreads() {
+		return computedValue (this.connectionThreads, ConfigurationProperty.ConnectionThreads);
+	}
+
+	public String connectionQueueLimit() {
+		return computedValue (this.connectionQueueLimit,
+				ConfigurationProperty.ConnectionQueueLimit);
+	}
+
+	public String connectionRejectionPolicy() {
+		return computedValue (this.connectionRejectionPolicy,
+				ConfigurationProperty.ConnectionRejectionPolicy);
+	}
+
+	public String commandThreads() {
+		return computedValue (this.commandThreads, ConfigurationProperty.CommandThreads);
+	}
+
+	public String commandQueueLimit() {
+		return computedValue (this.commandQueueLimit, ConfigurationProperty.CommandQueueLimit);
+	}
+
+	public String commandRejectionPolicy() {
+		return computedValue (this.commandRejectionPolicy,
+				ConfigurationProperty.CommandRejectionPolicy);
+	}
+
+	public String loggingThreads() {
+		return computedValue (this.loggingThreads, ConfigurationProperty.LoggingThreads);
+	}
+
+	public String loggingQueueLimit() {
+		return computedValue (this.loggingQueueLimit, ConfigurationProperty.LoggingQueueLimit);
+	}
+
+	public String loggingRejectionPolicy() {
+		return computedValue (this.loggingRejectionPolicy,
+				ConfigurationProperty.LoggingRejectionPolicy);
+	}
+
+	public String virtualThreadsEnabled() {
+		return computedValue (this.virtualThreadsEnabled,
+				ConfigurationProperty.VirtualThreadsEnabled);
+	}
+
+	public String schedulerTickDurationInSecs() {
+		return computedValue (this.schedulerTickDurationInSecs,
+				ConfigurationProperty.SchedulerTickDuration);
+	}
+
+	public String schedulerWheelSize() {
+		return computedValue (this.schedulerWheelSize, ConfigurationProperty.SchedulerWheelSize);
+	}
+
+	public String executionSpreadEnabled() {
+		return computedValue (this.executionSpreadEnabled,
+				ConfigurationProperty.ExecutionSpreadEnabled);
+	}
+
+	public String executionJitterInSecs() {
+		return computedValue (this.executionJitterInSecs, ConfigurationProperty.ExecutionJitter);
+	}
+
+	public String loadSheddingEnabled() {
+		return computedValue (this.loadSheddingEnabled, ConfigurationProperty.LoadSheddingEnabled);
+	}
+
+	public String loadSheddingQueueThreshold() {
+		return computedValue (this.loadSheddingQueueThreshold,
+				ConfigurationProperty.LoadSheddingQueueThreshold);
+	}
+
+	public String loadSheddingDeadlineMargin() {
+		return computedValue (this.loadSheddingDeadlineMargin,
+				ConfigurationProperty.LoadSheddingDeadlineMargin);
+	}
+
+	public String maxConcurrentServers() {
+		return computedValue (this.maxConcurrentServers,
+				ConfigurationProperty.MaxConcurrentServers);
+	}
+
+	public String maxConcurrentCommands() {
+		return computedValue (this.maxConcurrentCommands,
+				ConfigurationProperty.MaxConcurrentCommands);
+	}
+
+	public String maxConcurrentHandshakes() {
+		return computedValue (this.maxConcurrentHandshakes,
+				ConfigurationProperty.MaxConcurrentHandshakes);
+	}
+
+	public String overlapPolicy() {
+		return computedValue (this.overlapPolicy, ConfigurationProperty.OverlapPolicy);
+	}
+
+	public String shellPipelining() {
+		return computedValue (this.shellPipelining, ConfigurationProperty.ShellPipelining);
+	}
+
+	public String warmShellSessions() {
+		return computedValue (this.warmShellSessions, ConfigurationProperty.WarmShellSessions);
+	}
+
+	public String shellInitQuietTimeInMillis() {
+		return computedValue (this.shellInitQuietTime, ConfigurationProperty.ShellInitQuietTime);
+	}
+
 	final void setResourceFolder(String resourceFolder) {
 		this.resourceFolder = resourceFolder;
 	}
@@ -194,4 +494,188 @@ public class ApplicationConfig {
 		this.executableTimeoutInMins = timeoutInMins;
 	}
 
+	final void setConnectionPoolEnabled(String connectionPoolEnabled) {
+		this.connectionPoolEnabled = connectionPoolEnabled;
+	}
+
+	final void setConnectionPoolMaxSize(String connectionPoolMaxSize) {
+		this.connectionPoolMaxSize = connectionPoolMaxSize;
+	}
+
+	final void setConnectionPoolIdleTimeoutInMins(String timeoutInMins) {
+		this.connectionPoolIdleTimeoutInMins = timeoutInMins;
+	}
+
+	final void setCredentialCacheFile(String credentialCacheFile) {
+		this.credentialCacheFile = credentialCacheFile;
+	}
+
+	final void setCredentialFailureExpiryInMins(String expiryInMins) {
+		this.credentialFailureExpiryInMins = expiryInMins;
+	}
+
+	final void setConnectionWarmupLeadTimeInSecs(String leadTimeInSecs) {
+		this.connectionWarmupLeadTimeInSecs = leadTimeInSecs;
+	}
+
+	final void setConnectionMaxChannels(String maxChannels) {
+		this.connectionMaxChannels = maxChannels;
+	}
+
+	final void setConnectionMaxCount(String maxCount) {
+		this.connectionMaxCount = maxCount;
+	}
+
+	final void setSSHCiphers(String ciphers) {
+		this.sshCiphers = ciphers;
+	}
+
+	final void setSSHMACs(String macs) {
+		this.sshMACs = macs;
+	}
+
+	final void setSSHHostKeyAlgorithms(String hostKeyAlgorithms) {
+		this.sshHostKeyAlgorithms = hostKeyAlgorithms;
+	}
+
+	final void setSSHKexGroupLength(String groupLength) {
+		this.sshKexGroupLength = groupLength;
+	}
+
+	final void setKnownHostsFile(String knownHostsFile) {
+		this.knownHostsFile = knownHostsFile;
+	}
+
+	final void setStrictHostKeyChecking(String strictHostKeyChecking) {
+		this.strictHostKeyChecking = strictHostKeyChecking;
+	}
+
+	final void setOutputCompression(String outputCompression) {
+		this.outputCompression = outputCompression;
+	}
+
+	final void setCircuitBreakerEnabled(String enabled) {
+		this.circuitBreakerEnabled = enabled;
+	}
+
+	final void setServerProbeTimeout(String timeout) {
+		this.serverProbeTimeout = timeout;
+	}
+
+	final void setCircuitBreakerBackoff(String backoff) {
+		this.circuitBreakerBackoff = backoff;
+	}
+
+	final void setCircuitBreakerMaxBackoff(String backoff) {
+		this.circuitBreakerMaxBackoff = backoff;
+	}
+
+	final void setSSHIOBackend(String backend) {
+		this.sshIOBackend = backend;
+	}
+
+	final void setSSHIOThreads(String threads) {
+		this.sshIOThreads = threads;
+	}
+
+	final void setConnectionKeepaliveInterval(String interval) {
+		this.connectionKeepaliveInterval = interval;
+	}
+
+	final void setConnectionThreads(String threads) {
+		this.connectionThreads = threads;
+	}
+
+	final void setConnectionQueueLimit(String queueLimit) {
+		this.connectionQueueLimit = queueLimit;
+	}
+
+	final void setConnectionRejectionPolicy(String policy) {
+		this.connectionRejectionPolicy = policy;
+	}
+
+	final void setCommandThreads(String threads) {
+		this.commandThreads = threads;
+	}
+
+	final void setCommandQueueLimit(String queueLimit) {
+		this.commandQueueLimit = queueLimit;
+	}
+
+	final void setCommandRejectionPolicy(String policy) {
+		this.commandRejectionPolicy = policy;
+	}
+
+	final void setLoggingThreads(String threads) {
+		this.loggingThreads = threads;
+	}
+
+	final void setLoggingQueueLimit(String queueLimit) {
+		this.loggingQueueLimit = queueLimit;
+	}
+
+	final void setLoggingRejectionPolicy(String policy) {
+		this.loggingRejectionPolicy = policy;
+	}
+
+	final void setVirtualThreadsEnabled(String enabled) {
+		this.virtualThreadsEnabled = enabled;
+	}
+
+	final void setSchedulerTickDurationInSecs(String tickDurationInSecs) {
+		this.schedulerTickDurationInSecs = tickDurationInSecs;
+	}
+
+	final void setSchedulerWheelSize(String wheelSize) {
+		this.schedulerWheelSize = wheelSize;
+	}
+
+	final void setExecutionSpreadEnabled(String enabled) {
+		this.executionSpreadEnabled = enabled;
+	}
+
+	final void setExecutionJitterInSecs(String jitterInSecs) {
+		this.executionJitterInSecs = jitterInSecs;
+	}
+
+	final void setLoadSheddingEnabled(String enabled) {
+		this.loadSheddingEnabled = enabled;
+	}
+
+	final void setLoadSheddingQueueThreshold(String threshold) {
+		this.loadSheddingQueueThreshold = threshold;
+	}
+
+	final void setLoadSheddingDeadlineMargin(String margin) {
+		this.loadSheddingDeadlineMargin = margin;
+	}
+
+	final void setMaxConcurrentServers(String maxServers) {
+		this.maxConcurrentServers = maxServers;
+	}
+
+	final void setMaxConcurrentCommands(String maxCommands) {
+		this.maxConcurrentCommands = maxCommands;
+	}
+
+	final void setMaxConcurrentHandshakes(String maxHandshakes) {
+		this.maxConcurrentHandshakes = maxHandshakes;
+	}
+
+	final void setOverlapPolicy(String policy) {
+		this.overlapPolicy = policy;
+	}
+
+	final void setShellPipelining(String pipelining) {
+		this.shellPipelining = pipelining;
+	}
+
+	final void setWarmShellSessions(String warmShells) {
+		this.warmShellSessions = warmShells;
+	}
+
+	final void setShellInitQuietTime(String quietTime) {
+		this.shellInitQuietTime = quietTime;
+	}
+
 }
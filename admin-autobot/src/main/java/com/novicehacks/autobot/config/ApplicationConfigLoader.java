@@ -105,6 +105,144 @@ public class ApplicationConfigLoader {
 		case TokenSeperator:
 			config.setTokenSeperator (value);
 			break;
+		case ConnectionPoolEnabled:
+			config.setConnectionPoolEnabled (value);
+			break;
+		case ConnectionPoolMaxSize:
+			config.setConnectionPoolMaxSize (value);
+			break;
+		case ConnectionPoolIdleTimeout:
+			config.setConnectionPoolIdleTimeoutInMins (value);
+			break;
+		case CredentialCacheFile:
+			config.setCredentialCacheFile (value);
+			break;
+		case CredentialFailureExpiry:
+			config.setCredentialFailureExpiryInMins (value);
+			break;
+		case ConnectionWarmupLeadTime:
+			config.setConnectionWarmupLeadTimeInSecs (value);
+			break;
+		case ConnectionMaxChannels:
+			config.setConnectionMaxChannels (value);
+			break;
+		case ConnectionMaxCount:
+			config.setConnectionMaxCount (value);
+			break;
+		case SSHCiphers:
+			config.setSSHCiphers (value);
+			break;
+		case SSHMACs:
+			config.setSSHMACs (value);
+			break;
+		case SSHHostKeyAlgorithms:
+			config.setSSHHostKeyAlgorithms (value);
+			break;
+		case SSHKexGroupLength:
+			config.setSSHKexGroupLength (value);
+			break;
+		case KnownHostsFile:
+			config.setKnownHostsFile (value);
+			break;
+		case StrictHostKeyChecking:
+			config.setStrictHostKeyChecking (value);
+			break;
+		case OutputCompression:
+			config.setOutputCompression (value);
+			break;
+		case CircuitBreakerEnabled:
+			config.setCircuitBreakerEnabled (value);
+			break;
+		case ServerProbeTimeout:
+			config.setServerProbeTimeout (value);
+			break;
+		case CircuitBreakerBackoff:
+			config.setCircuitBreakerBackoff (value);
+			break;
+		case CircuitBreakerMaxBackoff:
+			config.setCircuitBreakerMaxBackoff (value);
+			break;
+		case SSHIOBackend:
+			config.setSSHIOBackend (value);
+			break;
+		case SSHIOThreads:
+			config.setSSHIOThreads (value);
+			break;
+		case ConnectionKeepaliveInterval:
+			config.setConnectionKeepaliveInterval (value);
+			break;
+		case ConnectionThreads:
+			config.setConnectionThreads (value);
+			break;
+		case ConnectionQueueLimit:
+			config.setConnectionQueueLimit (value);
+			break;
+		case ConnectionRejectionPolicy:
+			config.setConnectionRejectionPolicy (value);
+			break;
+		case CommandThreads:
+			config.setCommandThreads (value);
+			break;
+		case CommandQueueLimit:
+			config.setCommandQueueLimit (value);
+			break;
+		case CommandRejectionPolicy:
+			config.setCommandRejectionPolicy (value);
+			break;
+		case LoggingThreads:
+			config.setLoggingThreads (value);
+			break;
+		case LoggingQueueLimit:
+			config.setLoggingQueueLimit (value);
+			break;
+		case LoggingRejectionPolicy:
+			config.setLoggingRejectionPolicy (value);
+			break;
+		case VirtualThreadsEnabled:
+			config.setVirtualThreadsEnabled (value);
+			break;
+		case SchedulerTickDuration:
+			config.setSchedulerTickDurationInSecs (value);
+			break;
+		case SchedulerWheelSize:
+			config.setSchedulerWheelSize (value);
+			break;
+		case ExecutionSpreadEnabled:
+			config.setExecutionSpreadEnabled (value);
+			break;
+		case ExecutionJitter:
+			config.setExecutionJitterInSecs (value);
+			break;
+		case LoadSheddingEnabled:
+			config.setLoadSheddingEnabled (value);
+			break;
+		case LoadSheddingQueueThreshold:
+			config.setLoadSheddingQueueThreshold (value);
+			break;
+		case LoadSheddingDeadlineMargin:
+			config.setLoadSheddingDeadlineMargin (value);
+			break;
+		case MaxConcurrentServers:
+			config.setMaxConcurrentServers (value);
+			break;
+		case MaxConcurrentCommands:
+			config.setMaxConcurrentCommands (value);
+			break;
+		case MaxConcurrentHandshakes:
+			config.setMaxConcurrentHandshakes (value);
+			break;
+		case OverlapPolicy:
+			config.setOverlapPolicy (value);
+			break;
+		case ShellPipelining:
+			config.setShellPipelining (value);
+			break;
+		case WarmShellSessions:
+			config.setWarmShellSessions (value);
+			break;
+		case ShellInitQuietTime:
+			config.setShellInitQuietTime (value);
+			break;
 		}
 	}
 
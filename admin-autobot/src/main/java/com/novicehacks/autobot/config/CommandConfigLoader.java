@@ -9,6 +9,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.novicehacks.autobot.core.types.Command;
+import com.novicehacks.autobot.core.types.CommandPriority;
 import com.novicehacks.autobot.core.types.ShellCommand;
 
 /**
@@ -20,7 +21,9 @@ import com.novicehacks.autobot.core.types.ShellCommand;
  * </p>
  * <p>
  * The config definitions will be in this format <strong>
- * <em>description:command:id</em></strong> where ":" is the delimiter.
+ * <em>description:command:id[:priority]</em></strong> where ":" is the
+ * delimiter. The optional priority is one of the {@link CommandPriority}, in
+ * any case.
  * </p>
  * 
  * @author Sharath Chand Bhaskara for NoviceHacks
@@ -32,8 +35,11 @@ public class CommandConfigLoader implements Callable<Set<Command>> {
 	public static final int CommandIdTokenIndex = 2;
 	public static final int CommandStrTokenIndex = 1;
 	public static final int CommandDescriptionTokenIndex = 0;
+	public static final int CommandPriorityTokenIndex = 3;
 	private static final int MinConfigTokenCount = 3;
+	private static final int MaxConfigTokenCount = 4;
 	private static final String IncorrectCommandConfigTokenMsg = "Command Config token count is invalid";
+	private static final String InvalidCommandPriorityMsg = "Command priority is invalid";
 	private Set<Command> commandConfigSet;
 
 	CommandConfigLoader () {
@@ -60,15 +66,27 @@ public class CommandConfigLoader implements Callable<Set<Command>> {
 		command.setCommandTxt (commandString);
 		command.setDescription (commandDescription);
 		command.setId (commandId);
+		if (configTokens.length > CommandPriorityTokenIndex)
+			command.setPriority (createPriority (configTokens[CommandPriorityTokenIndex]));
 		return command;
 	}
 
+	private CommandPriority createPriority(String priorityToken) {
+		try {
+			return CommandPriority.parse (priorityToken);
+		} catch (IllegalArgumentException ex) {
+			throw new ResourceLoadingException (InvalidCommandPriorityMsg + ":" + priorityToken,
+					ex);
+		}
+	}
+
 	private ShellCommand createCommand(String commandConfigStr) {
 		return new ShellCommand (commandConfigStr);
 	}
 
 	private void checkAndRaiseExceptionForMinimumTokens(String[] configTokens) {
-		if (configTokens.length != MinConfigTokenCount)
+		if (configTokens.length < MinConfigTokenCount
+				|| configTokens.length > MaxConfigTokenCount)
 			throw new ResourceLoadingException (IncorrectCommandConfigTokenMsg + ":"
 					+ configTokens.length);
 	}
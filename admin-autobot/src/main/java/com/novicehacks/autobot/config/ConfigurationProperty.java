@@ -18,7 +18,53 @@ public enum ConfigurationProperty {
 	ServerConnectionTimeout ("ServerConnectionTimeout", "60"),
 	ExecutableDelay ("ExecutableDelay", "6"),
 	MonitoringEnabled ("MonitoringEnabled", "false"),
-	ExecutableTimeout ("ExecutableTimeout", "30");
+	ExecutableTimeout ("ExecutableTimeout", "30"),
+	ConnectionPoolEnabled ("ConnectionPoolEnabled", "true"),
+	ConnectionPoolMaxSize ("ConnectionPoolMaxSize", "100"),
+	ConnectionPoolIdleTimeout ("ConnectionPoolIdleTimeout", "30"),
+	CredentialCacheFile ("CredentialCacheFile", "credential.cache"),
+	CredentialFailureExpiry ("CredentialFailureExpiry", "60"),
+	ConnectionWarmupLeadTime ("ConnectionWarmupLeadTime", "60"),
+	ConnectionMaxChannels ("ConnectionMaxChannels", "10"),
+	ConnectionMaxCount ("ConnectionMaxCount", "1"),
+	SSHCiphers ("SSHCiphers", ""),
+	SSHMACs ("SSHMACs", ""),
+	SSHHostKeyAlgorithms ("SSHHostKeyAlgorithms", ""),
+	SSHKexGroupLength ("SSHKexGroupLength", "0"),
+	KnownHostsFile ("KnownHostsFile", "known_hosts"),
+	StrictHostKeyChecking ("StrictHostKeyChecking", "false"),
+	OutputCompression ("OutputCompression", "false"),
+	CircuitBreakerEnabled ("CircuitBreakerEnabled", "true"),
+	ServerProbeTimeout ("ServerProbeTimeout", "3"),
+	CircuitBreakerBackoff ("CircuitBreakerBackoff", "60"),
+	CircuitBreakerMaxBackoff ("CircuitBreakerMaxBackoff", "1440"),
+	SSHIOBackend ("SSHIOBackend", "blocking"),
+	SSHIOThreads ("SSHIOThreads", "2"),
+	ConnectionKeepaliveInterval ("ConnectionKeepaliveInterval", "120"),
+	ConnectionThreads ("ConnectionThreads", "16"),
+	ConnectionQueueLimit ("ConnectionQueueLimit", "256"),
+	ConnectionRejectionPolicy ("ConnectionRejectionPolicy", "callerRuns"),
+	CommandThreads ("CommandThreads", "32"),
+	CommandQueueLimit ("CommandQueueLimit", "1024"),
+	CommandRejectionPolicy ("CommandRejectionPolicy", "callerRuns"),
+	LoggingThreads ("LoggingThreads", "4"),
+	LoggingQueueLimit ("LoggingQueueLimit", "1024"),
+	LoggingRejectionPolicy ("LoggingRejectionPolicy", "callerRuns"),
+	VirtualThreadsEnabled ("VirtualThreadsEnabled", "false"),
+	SchedulerTickDuration ("SchedulerTickDuration", "1"),
+	SchedulerWheelSize ("SchedulerWheelSize", "512"),
+	ExecutionSpreadEnabled ("ExecutionSpreadEnabled", "false"),
+	ExecutionJitter ("ExecutionJitter", "0"),
+	LoadSheddingEnabled ("LoadSheddingEnabled", "true"),
+	LoadSheddingQueueThreshold ("LoadSheddingQueueThreshold", "80"),
+	LoadSheddingDeadlineMargin ("LoadSheddingDeadlineMargin", "20"),
+	MaxConcurrentServers ("MaxConcurrentServers", "0"),
+	MaxConcurrentCommands ("MaxConcurrentCommands", "0"),
+	MaxConcurrentHandshakes ("MaxConcurrentHandshakes", "0"),
+	OverlapPolicy ("OverlapPolicy", "coalesce"),
+	ShellPipelining ("ShellPipelining", "false"),
+	WarmShellSessions ("WarmShellSessions", "false"),
+	ShellInitQuietTime ("ShellInitQuietTime", "0");
 
 	private String key;
 	private String defaultValue;
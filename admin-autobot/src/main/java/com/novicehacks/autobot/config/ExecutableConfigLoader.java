@@ -9,6 +9,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.novicehacks.autobot.core.types.Executable;
+import com.novicehacks.autobot.core.types.ExecutableSchedule;
 
 /**
  * It loads the executable beans from the user config resources.
@@ -18,7 +19,9 @@ import com.novicehacks.autobot.core.types.Executable;
  * </p>
  * <p>
  * The configurations are defined in this format <strong>
- * <em>serverId:commandId</em></strong> where ":" is the delimiter.
+ * <em>serverId:commandId[:schedule]</em></strong> where ":" is the delimiter.
+ * The optional schedule is an interval or a cron expression as per
+ * {@link ExecutableSchedule}.
  * </p>
  * 
  * @author Sharath Chand Bhaskara for NoviceHacks
@@ -27,13 +30,16 @@ import com.novicehacks.autobot.core.types.Executable;
 public class ExecutableConfigLoader implements Callable<Set<Executable>> {
 	private static final int ServerIdTokenIndex = 0;
 	private static final int CommaindIdTokenIndex = 1;
+	private static final int ScheduleTokenIndex = 2;
 
 	private static final int MinTokenCount = 2;
+	private static final int MaxTokenCount = 3;
 	private Set<Executable> executableConfigSet;
 
 	private Logger logger = LogManager.getLogger (ExecutableConfigLoader.class);
 
 	private static final String InvalidTokenCountMsg = "Invalid count of tokens for executable";
+	private static final String InvalidScheduleMsg = "Invalid schedule for executable";
 
 	ExecutableConfigLoader () {
 
@@ -67,12 +73,22 @@ public class ExecutableConfigLoader implements Callable<Set<Executable>> {
 		Executable executable = new Executable (userConfig);
 		executable.setCommandId (configTokens[CommaindIdTokenIndex]);
 		executable.setServerId (configTokens[ServerIdTokenIndex]);
+		if (configTokens.length > ScheduleTokenIndex)
+			executable.setSchedule (createSchedule (configTokens[ScheduleTokenIndex]));
 		return executable;
 	}
 
+	private ExecutableSchedule createSchedule(String scheduleToken) {
+		try {
+			return ExecutableSchedule.parse (scheduleToken);
+		} catch (IllegalArgumentException ex) {
+			throw new ResourceLoadingException (InvalidScheduleMsg + ":" + scheduleToken, ex);
+		}
+	}
+
 	private void checkAndRaiseExceptionForMinTokens(String[] configTokens) {
 		int tokenCount = configTokens.length;
-		if (tokenCount != MinTokenCount)
+		if (tokenCount < MinTokenCount || tokenCount > MaxTokenCount)
 			throw new ResourceLoadingException (InvalidTokenCountMsg + ":" + configTokens.length);
 	}
 
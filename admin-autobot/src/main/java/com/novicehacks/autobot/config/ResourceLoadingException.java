@@ -9,4 +9,8 @@ public class ResourceLoadingException extends WrappingRuntimeException {
 		super (message);
 	}
 
+	public ResourceLoadingException (String message, Throwable reason) {
+		super (message, reason);
+	}
+
 }
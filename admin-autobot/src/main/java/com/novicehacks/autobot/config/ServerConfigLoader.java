@@ -2,8 +2,10 @@ package com.novicehacks.autobot.config;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 
@@ -13,6 +15,7 @@ import org.apache.logging.log4j.Logger;
 import com.novicehacks.autobot.core.types.SSHServer;
 import com.novicehacks.autobot.core.types.Server;
 import com.novicehacks.autobot.core.types.ServerCredential;
+import com.novicehacks.autobot.core.types.ServerOption;
 
 /**
  * This will load the server configurations from user defined resources.
@@ -22,14 +25,20 @@ import com.novicehacks.autobot.core.types.ServerCredential;
  * </p>
  * <p>
  * The configuration format can be as given below <strong>
- * <em>id:name:ipaddress:[initcommands:]username:password</em></strong> where
- * ":" is delimiter. username and password can be specified multiple times.
+ * <em>id:name:ipaddress:[initcommands:][options:]username:password</em></strong>
+ * where ":" is delimiter. username and password can be specified multiple
+ * times.
  * </p>
  * 
  * <p>
  * <strong>Init commands should have the prefix: "init#" followed by command.
  * </p>
  * 
+ * <p>
+ * <strong>Options should have the prefix: "option#" followed by
+ * <em>key=value</em>, where key is one of {@link ServerOption}.
+ * </p>
+ * 
  * @author Sharath Chand Bhaskara for NoviceHacks
  * @see Server
  * @see SSHServer
@@ -41,8 +50,11 @@ public class ServerConfigLoader implements Callable<Set<Server>> {
 	public static final int ServerIPAddressTokenIndex = 2;
 	public static final int CredentialOrInitCommandStartIndex = 3;
 	public static final String InitCommandPrefix = "init#";
+	public static final String OptionPrefix = "option#";
+	public static final String OptionValueSeperator = "=";
 	private static final String MinTokenCountMsg = "Server configuration didn't meet minimum config requirement";
 	private static final String ServerCredentialCountMsg = "Server credential count is incorrect with starting index";
+	private static final String ServerOptionFormatMsg = "Server option should be in key=value format";
 	private Logger logger = LogManager.getLogger (ServerConfigLoader.class);
 	private Set<Server> serverConfigSet = new HashSet<Server> ();
 
@@ -83,12 +95,14 @@ public class ServerConfigLoader implements Callable<Set<Server>> {
 		String serverName = configTokens[ServerNameTokenIndex];
 		String serverIpAddress = configTokens[ServerIPAddressTokenIndex];
 		String[] serverInitCommands = getInitCommandsIfAny (configTokens);
+		Map<String, String> serverOptions = getOptionsIfAny (configTokens);
 		ServerCredential[] serverCredentials = getServerLoginCredentials (configTokens);
 
 		server.setId (serverId);
 		server.setName (serverName);
 		server.setIpAddress (serverIpAddress);
 		server.setInitializationCommands (serverInitCommands);
+		server.setOptions (serverOptions);
 		server.setCredentials (serverCredentials);
 		return server;
 	}
@@ -112,11 +126,16 @@ public class ServerConfigLoader implements Callable<Set<Server>> {
 	private int skipInitCommandAndGetFirstCredentialsIndex(String[] configTokens) {
 		int credentialIndex = CredentialOrInitCommandStartIndex;
 		while (credentialIndex < configTokens.length
-				&& configTokens[credentialIndex].startsWith (getInitCommandPrefix ()))
+				&& isInitCommandOrOption (configTokens[credentialIndex]))
 			credentialIndex++;
 		return credentialIndex;
 	}
 
+	private boolean isInitCommandOrOption(String configToken) {
+		return configToken.startsWith (getInitCommandPrefix ())
+				|| configToken.startsWith (OptionPrefix);
+	}
+
 	private void checkAndRaiseExceptionForCredentialTokenCount(int length, int credentialIndex) {
 		int modOfCredentialCount = (length - credentialIndex) % 2;
 		if (modOfCredentialCount == 1 || length <= credentialIndex)
@@ -133,15 +152,42 @@ public class ServerConfigLoader implements Callable<Set<Server>> {
 		int initCommandIndex = CredentialOrInitCommandStartIndex;
 		List<String> initCommandList = new ArrayList<String> ();
 		while (initCommandIndex < configTokens.length
-				&& configTokens[initCommandIndex].startsWith (initCommandPrefix)) {
+				&& isInitCommandOrOption (configTokens[initCommandIndex])) {
 			String initCommand = configTokens[initCommandIndex];
-			initCommand = initCommand.replaceFirst (initCommandPrefix, "");
-			initCommandList.add (initCommand);
+			if (initCommand.startsWith (initCommandPrefix)) {
+				initCommand = initCommand.replaceFirst (initCommandPrefix, "");
+				initCommandList.add (initCommand);
+			}
 			initCommandIndex++;
 		}
 		return initCommandList.toArray (new String[] { });
 	}
 
+	private Map<String, String> getOptionsIfAny(String[] configTokens) {
+		int optionIndex = CredentialOrInitCommandStartIndex;
+		Map<String, String> options = new HashMap<String, String> ();
+		while (optionIndex < configTokens.length
+				&& isInitCommandOrOption (configTokens[optionIndex])) {
+			if (configTokens[optionIndex].startsWith (OptionPrefix))
+				addOption (options, configTokens[optionIndex].substring (OptionPrefix.length ()));
+			optionIndex++;
+		}
+		return options;
+	}
+
+	private void addOption(Map<String, String> options, String optionToken) {
+		int seperatorIndex = optionToken.indexOf (OptionValueSeperator);
+		if (seperatorIndex <= 0)
+			throw new ResourceLoadingException (ServerOptionFormatMsg + ":" + optionToken);
+		String optionKey = optionToken.substring (0, seperatorIndex).trim ();
+		String optionValue = optionToken.substring (seperatorIndex + 1).trim ();
+		ServerOption option = ServerOption.fromKey (optionKey);
+		if (option == null)
+			logger.warn ("Unknown option defined in the server config {}", optionKey);
+		else
+			options.put (option.key (), optionValue);
+	}
+
 	private void checkAndRaiseExceptionForMinimumTokens(int countOfUserConfigTokens) {
 		if (countOfUserConfigTokens >= MinTokenCount)
 			return;
@@ -0,0 +1,191 @@
+package com.novicehacks.autobot.core;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.novicehacks.autobot.core.types.CommandPriority;
+
+/**
+ * Thread pool with a maximum count of threads and a limited queue, used as a
+ * bulkhead for a single {@link TaskPool}.
+ *
+ * <p>
+ * Threads are named <em>autobot-&lt;pool&gt;-N</em>, and are let go after
+ * being idle for a minute. Tasks submitted while the queue is full are either
+ * run on the submitting thread (<em>callerRuns</em>), slowing down the
+ * submitter, or rejected with a {@link RejectedExecutionException}
+ * (<em>abort</em>).
+ * </p>
+ *
+ * <p>
+ * The queued tasks are taken by their {@link CommandPriority}, so that the
+ * critical tasks are not stuck behind the bulk ones when the pool falls
+ * behind. Tasks of the same priority are taken in the order of their
+ * submission, and the tasks without a priority are of the normal priority.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see ThreadManager
+ */
+public class BoundedThreadPool extends ThreadPoolExecutor implements
+		MonitoredExecutorService {
+	public static final String CallerRunsPolicy = "callerRuns";
+	public static final String AbortPolicy = "abort";
+	private static final long IdleThreadTimeoutInSecs = 60;
+	private final String name;
+	private final int queueLimit;
+	private final AtomicLong callerRunsCount = new AtomicLong ();
+	private final AtomicLong rejectedCount = new AtomicLong ();
+
+	/**
+	 * Names the threads of the pool with a running number.
+	 */
+	private static final class NamedThreadFactory implements ThreadFactory {
+		private final String name;
+		private final AtomicInteger threadCount = new AtomicInteger ();
+
+		NamedThreadFactory (String name) {
+			this.name = name;
+		}
+
+		@Override
+		public Thread newThread(Runnable task) {
+			int threadNumber = this.threadCount.incrementAndGet ();
+			return new Thread (task, "autobot-" + this.name + "-" + threadNumber);
+		}
+	}
+
+	/**
+	 * Priority queue refusing the tasks beyond its limit, like a bounded
+	 * queue, so that the rejection policy applies.
+	 */
+	private static final class BoundedPriorityQueue extends PriorityBlockingQueue<Runnable> {
+		private static final long serialVersionUID = 1L;
+		private final int limit;
+
+		BoundedPriorityQueue (int limit) {
+			super (Math.min (limit, 64));
+			this.limit = limit;
+		}
+
+		@Override
+		public synchronized boolean offer(Runnable task) {
+			if (size () >= this.limit)
+				return false;
+			return super.offer (PrioritizedTask.of (task));
+		}
+
+		@Override
+		public int remainingCapacity() {
+			return Math.max (0, this.limit - size ());
+		}
+	}
+
+	/**
+	 * Handles the tasks beyond the queue limit as per the rejection policy.
+	 */
+	private final class QueueLimitHandler implements RejectedExecutionHandler {
+		private final boolean callerRuns;
+
+		QueueLimitHandler (String rejectionPolicy) {
+			this.callerRuns = !AbortPolicy.equalsIgnoreCase (rejectionPolicy.trim ());
+		}
+
+		@Override
+		public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+			if (executor.isShutdown ())
+				throw new RejectedExecutionException ("Thread pool " + name + " is shutdown");
+			if (this.callerRuns) {
+				callerRunsCount.incrementAndGet ();
+				task.run ();
+			} else {
+				rejectedCount.incrementAndGet ();
+				throw new RejectedExecutionException ("Queue limit " + queueLimit
+						+ " of thread pool " + name + " is reached");
+			}
+		}
+	}
+
+	/**
+	 * @param name
+	 *        used in the names of the threads.
+	 * @param threads
+	 *        maximum threads of the pool.
+	 * @param queueLimit
+	 *        tasks that can wait for a thread.
+	 * @param rejectionPolicy
+	 *        <em>callerRuns</em> or <em>abort</em>, for the tasks beyond the
+	 *        queue limit.
+	 */
+	public BoundedThreadPool (String name, int threads, int queueLimit, String rejectionPolicy) {
+		super (threads, threads, IdleThreadTimeoutInSecs, TimeUnit.SECONDS,
+				new BoundedPriorityQueue (queueLimit), new NamedThreadFactory (name));
+		this.name = name;
+		this.queueLimit = queueLimit;
+		allowCoreThreadTimeOut (true);
+		setRejectedExecutionHandler (new QueueLimitHandler (rejectionPolicy));
+	}
+
+	/**
+	 * @param pool
+	 * @return bounded pool configured as per the configuration of the pool.
+	 */
+	public static BoundedThreadPool of(TaskPool pool) {
+		return new BoundedThreadPool (pool.poolName (), pool.threads (), pool.queueLimit (),
+				pool.rejectionPolicy ());
+	}
+
+	/**
+	 * Tasks without a priority are queued with the normal priority.
+	 */
+	@Override
+	public void execute(Runnable task) {
+		if (task == null)
+			throw new NullPointerException ();
+		super.execute (PrioritizedTask.of (task));
+	}
+
+	public String name() {
+		return this.name;
+	}
+
+	/**
+	 * @return tasks run on the submitting thread as the queue was full.
+	 */
+	public long callerRunsCount() {
+		return this.callerRunsCount.get ();
+	}
+
+	/**
+	 * @return tasks rejected as the queue was full.
+	 */
+	public long rejectedCount() {
+		return this.rejectedCount.get ();
+	}
+
+	/**
+	 * @return queued tasks as a percentage of the queue limit.
+	 */
+	@Override
+	public int queueUtilization() {
+		return (int) Math.min (100, getQueue ().size () * 100L / this.queueLimit);
+	}
+
+	/**
+	 * @return live threads, active threads, queued tasks, completed tasks and
+	 *         the tasks beyond the queue limit in a readable format for logging.
+	 */
+	@Override
+	public String statistics() {
+		return "threads=" + getPoolSize () + "/" + getMaximumPoolSize () + ", active="
+				+ getActiveCount () + ", queued=" + getQueue ().size () + "/" + this.queueLimit
+				+ ", completed=" + getCompletedTaskCount () + ", largest=" + getLargestPoolSize ()
+				+ ", callerRuns=" + callerRunsCount () + ", rejected=" + rejectedCount ();
+	}
+}
@@ -0,0 +1,267 @@
+package com.novicehacks.autobot.core;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Limits the tasks of a stage running at once with a fair semaphore of
+ * permits. Tasks beyond the limit wait in the order they arrived, until a
+ * permit is released or the run {@link Deadline} is reached.
+ *
+ * <p>
+ * A blocking task waits for its permit in {@link #acquire(Deadline)}. An
+ * asynchronous stage is queued by {@link #admit(Deadline, Supplier)} without
+ * blocking the caller, and is started by the thread releasing a permit.
+ * </p>
+ *
+ * <p>
+ * Keeps track of the tasks admitted, the tasks that had to wait, the total and
+ * the longest wait and the peak tasks running, for sizing the limit of the
+ * stage. A limit of zero or less does not limit the tasks, while still keeping
+ * track of them.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ */
+public class ConcurrencyLimit {
+	private final int limit;
+	private final Semaphore permits;
+	private final AtomicInteger running = new AtomicInteger ();
+	private final AtomicInteger peakRunning = new AtomicInteger ();
+	private final AtomicLong admittedCount = new AtomicLong ();
+	private final AtomicLong queuedCount = new AtomicLong ();
+	private final AtomicLong waitTimeInNanos = new AtomicLong ();
+	private final AtomicLong maxWaitTimeInNanos = new AtomicLong ();
+	private final Queue<PendingStage<?>> pendingStages;
+	private final AtomicInteger startRequests = new AtomicInteger ();
+
+	/**
+	 * Asynchronous stage waiting for a permit, started once it is admitted.
+	 */
+	private final class PendingStage<T> {
+		private final Deadline deadline;
+		private final Supplier<CompletableFuture<T>> stage;
+		private final CompletableFuture<T> admittedStage = new CompletableFuture<T> ();
+		private final long queuedTime = System.nanoTime ();
+		private volatile boolean started;
+
+		PendingStage (Deadline deadline, Supplier<CompletableFuture<T>> stage) {
+			this.deadline = deadline;
+			this.stage = stage;
+		}
+
+		/**
+		 * Starts the stage with the permit taken for it, the permit is
+		 * released once the stage completes.
+		 */
+		void start() {
+			this.started = true;
+			recordWaitTime (System.nanoTime () - this.queuedTime);
+			if (this.deadline != null && this.deadline.isExpired ()) {
+				releasePermit ();
+				this.admittedStage.completeExceptionally (new TimeoutException (
+						"Run deadline exceeded while waiting for admission"));
+				return;
+			}
+			admitted ();
+			CompletableFuture<T> startedStage;
+			try {
+				startedStage = this.stage.get ();
+			} catch (RuntimeException ex) {
+				release ();
+				this.admittedStage.completeExceptionally (ex);
+				return;
+			}
+			startedStage.whenComplete (new BiConsumer<T, Throwable> () {
+				@Override
+				public void accept(T result, Throwable failure) {
+					release ();
+					if (failure == null)
+						PendingStage.this.admittedStage.complete (result);
+					else
+						PendingStage.this.admittedStage.completeExceptionally (failure);
+				}
+			});
+		}
+	}
+
+	/**
+	 * @param limit
+	 *        maximum tasks running at once, zero or less for no limit.
+	 */
+	public ConcurrencyLimit (int limit) {
+		this.limit = Math.max (0, limit);
+		this.permits = this.limit > 0 ? new Semaphore (this.limit, true) : null;
+		this.pendingStages = new ConcurrentLinkedQueue<PendingStage<?>> ();
+	}
+
+	/**
+	 * Takes a permit, waiting for one to be released if the limit is reached.
+	 *
+	 * @param deadline
+	 *        until which to wait, null to wait without a deadline.
+	 * @return true if admitted, false if the deadline is reached while
+	 *         waiting, in which case {@link #release()} is not to be called.
+	 * @throws InterruptedException
+	 */
+	public boolean acquire(Deadline deadline) throws InterruptedException {
+		if (this.permits != null && !this.permits.tryAcquire () && !waitForPermit (deadline))
+			return false;
+		admitted ();
+		return true;
+	}
+
+	/**
+	 * Starts the asynchronous stage once a permit is available, without
+	 * waiting for it. The permit is released once the stage completes.
+	 *
+	 * @param deadline
+	 *        until which the stage can be started, null for no deadline.
+	 * @param stage
+	 *        starting the work of the stage, on the thread admitting it.
+	 * @return stage completed as the admitted stage, or failed with a
+	 *         {@link TimeoutException} if the deadline is reached before it is
+	 *         admitted.
+	 */
+	public <T> CompletableFuture<T> admit(Deadline deadline, Supplier<CompletableFuture<T>> stage) {
+		PendingStage<T> pendingStage = new PendingStage<T> (deadline, stage);
+		if (this.permits == null) {
+			pendingStage.start ();
+			return pendingStage.admittedStage;
+		}
+		this.pendingStages.add (pendingStage);
+		startPendingStages ();
+		if (!pendingStage.started)
+			this.queuedCount.incrementAndGet ();
+		return pendingStage.admittedStage;
+	}
+
+	/**
+	 * Starts the pending stages while the permits are available. Called after
+	 * every stage queued and every permit released, so that a stage is never
+	 * left queued with a permit available. A single thread starts the stages
+	 * at a time, the requests made meanwhile, including those of the stages
+	 * completing as they are started, are served by its next pass.
+	 */
+	private void startPendingStages() {
+		if (this.startRequests.getAndIncrement () != 0)
+			return;
+		int requests = 1;
+		do {
+			while (!this.pendingStages.isEmpty () && this.permits.tryAcquire ()) {
+				PendingStage<?> pendingStage = this.pendingStages.poll ();
+				if (pendingStage == null)
+					this.permits.release ();
+				else
+					pendingStage.start ();
+			}
+			requests = this.startRequests.addAndGet (-requests);
+		} while (requests != 0);
+	}
+
+	private void admitted() {
+		this.admittedCount.incrementAndGet ();
+		updatePeakRunning (this.running.incrementAndGet ());
+	}
+
+	private boolean waitForPermit(Deadline deadline) throws InterruptedException {
+		long waitStart = System.nanoTime ();
+		this.queuedCount.incrementAndGet ();
+		try {
+			if (deadline == null) {
+				this.permits.acquire ();
+				return true;
+			}
+			return this.permits.tryAcquire (deadline.remaining (TimeUnit.NANOSECONDS),
+					TimeUnit.NANOSECONDS);
+		} finally {
+			recordWaitTime (System.nanoTime () - waitStart);
+		}
+	}
+
+	private void recordWaitTime(long waitInNanos) {
+		this.waitTimeInNanos.addAndGet (waitInNanos);
+		long maxWait;
+		do {
+			maxWait = this.maxWaitTimeInNanos.get ();
+		} while (waitInNanos > maxWait
+				&& !this.maxWaitTimeInNanos.compareAndSet (maxWait, waitInNanos));
+	}
+
+	private void updatePeakRunning(int inUse) {
+		int peak;
+		do {
+			peak = this.peakRunning.get ();
+		} while (inUse > peak && !this.peakRunning.compareAndSet (peak, inUse));
+	}
+
+	/**
+	 * Returns the permit, to be called once for every admitted
+	 * {@link #acquire(Deadline)}.
+	 */
+	public void release() {
+		this.running.decrementAndGet ();
+		releasePermit ();
+	}
+
+	private void releasePermit() {
+		if (this.permits == null)
+			return;
+		this.permits.release ();
+		startPendingStages ();
+	}
+
+	public int limit() {
+		return this.limit;
+	}
+
+	public int running() {
+		return this.running.get ();
+	}
+
+	public int peakRunning() {
+		return this.peakRunning.get ();
+	}
+
+	public long admittedCount() {
+		return this.admittedCount.get ();
+	}
+
+	/**
+	 * @return stages waiting for a permit.
+	 */
+	public int pendingCount() {
+		return this.pendingStages.size ();
+	}
+
+	public long queuedCount() {
+		return this.queuedCount.get ();
+	}
+
+	public long waitTimeInMillis() {
+		return TimeUnit.NANOSECONDS.toMillis (this.waitTimeInNanos.get ());
+	}
+
+	public long maxWaitTimeInMillis() {
+		return TimeUnit.NANOSECONDS.toMillis (this.maxWaitTimeInNanos.get ());
+	}
+
+	/**
+	 * @return limit usage and the queue wait times in a readable format for
+	 *         logging.
+	 */
+	public String statistics() {
+		return "limit=" + (this.limit > 0 ? String.valueOf (this.limit) : "none") + ", admitted="
+				+ admittedCount () + ", queued=" + queuedCount () + ", peak=" + peakRunning ()
+				+ ", waitMillis=" + waitTimeInMillis () + ", maxWaitMillis="
+				+ maxWaitTimeInMillis ();
+	}
+}
@@ -0,0 +1,140 @@
+package com.novicehacks.autobot.core;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+
+/**
+ * Point in time by which a run has to complete, passed down to every stage of
+ * the run so that each stage gets only the budget remaining for the run.
+ *
+ * <p>
+ * A stage bound to the deadline by {@link #bound(CompletableFuture)} fails with
+ * a {@link TimeoutException} as soon as the deadline is reached, without
+ * waiting for the work behind it. The blocking calls of a stage limit their
+ * own timeouts by {@link #clampTimeoutInMillis(int)}.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ */
+public final class Deadline {
+	private final long budgetInNanos;
+	private final long deadlineInNanos;
+
+	private Deadline (long budgetInNanos) {
+		this.budgetInNanos = Math.max (0, budgetInNanos);
+		this.deadlineInNanos = System.nanoTime () + this.budgetInNanos;
+	}
+
+	/**
+	 * Single daemon thread failing the bound stages once their deadline is
+	 * reached.
+	 */
+	private static class DeadlineTimer {
+		private static final ScheduledThreadPoolExecutor timer;
+
+		static {
+			timer = new ScheduledThreadPoolExecutor (1, new ThreadFactory () {
+				@Override
+				public Thread newThread(Runnable task) {
+					Thread thread = new Thread (task, "autobot-deadline");
+					thread.setDaemon (true);
+					return thread;
+				}
+			});
+			timer.setRemoveOnCancelPolicy (true);
+		}
+
+		public static ScheduledExecutorService getInstance() {
+			return timer;
+		}
+	}
+
+	/**
+	 * @param budget
+	 * @param unit
+	 * @return deadline reached once the budget elapses from now.
+	 */
+	public static Deadline after(long budget, TimeUnit unit) {
+		return new Deadline (unit.toNanos (budget));
+	}
+
+	/**
+	 * @param unit
+	 * @return time remaining until the deadline, zero once it is reached.
+	 */
+	public long remaining(TimeUnit unit) {
+		long remainingInNanos = this.deadlineInNanos - System.nanoTime ();
+		return unit.convert (Math.max (0, remainingInNanos), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @param unit
+	 * @return total budget of the deadline, as given when it was created.
+	 */
+	public long budget(TimeUnit unit) {
+		return unit.convert (this.budgetInNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return true once the deadline is reached.
+	 */
+	public boolean isExpired() {
+		return this.deadlineInNanos - System.nanoTime () <= 0;
+	}
+
+	/**
+	 * @param timeoutInMillis
+	 *        of a blocking call, zero or less for no timeout.
+	 * @return the timeout, reduced to the time remaining until the deadline but
+	 *         never below a millisecond.
+	 */
+	public int clampTimeoutInMillis(int timeoutInMillis) {
+		long remainingInMillis = Math.max (1, remaining (TimeUnit.MILLISECONDS));
+		if (timeoutInMillis > 0 && timeoutInMillis <= remainingInMillis)
+			return timeoutInMillis;
+		return (int) Math.min (Integer.MAX_VALUE, remainingInMillis);
+	}
+
+	/**
+	 * @param stage
+	 * @return stage completed as the given stage, or failed with a
+	 *         {@link TimeoutException} if the deadline is reached first.
+	 */
+	public <T> CompletableFuture<T> bound(CompletableFuture<T> stage) {
+		final CompletableFuture<T> boundStage = new CompletableFuture<T> ();
+		final ScheduledFuture<?> expiry = DeadlineTimer.getInstance ().schedule (new Runnable () {
+			@Override
+			public void run() {
+				boundStage.completeExceptionally (new TimeoutException ("Deadline of "
+						+ TimeUnit.NANOSECONDS.toMillis (Deadline.this.budgetInNanos)
+						+ " ms exceeded"));
+			}
+		}, remaining (TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+		stage.whenComplete (new BiConsumer<T, Throwable> () {
+			@Override
+			public void accept(T result, Throwable failure) {
+				expiry.cancel (false);
+				if (failure == null)
+					boundStage.complete (result);
+				else
+					boundStage.completeExceptionally (failure);
+			}
+		});
+		return boundStage;
+	}
+
+	/**
+	 * @return remaining and total budget in a readable format for logging.
+	 */
+	@Override
+	public String toString() {
+		return "remaining=" + remaining (TimeUnit.MILLISECONDS) + " ms of "
+				+ TimeUnit.NANOSECONDS.toMillis (this.budgetInNanos) + " ms";
+	}
+}
@@ -0,0 +1,175 @@
+package com.novicehacks.autobot.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hashed timing wheel holding a large count of items, each due at its own
+ * time, with a constant cost of scheduling an item.
+ *
+ * <p>
+ * The wheel is a ring of buckets, one for every tick. An item is hashed into
+ * the bucket of the tick it is due in, along with the count of rounds of the
+ * wheel to wait before it is due. Every {@link #advance()} moves the wheel to
+ * the current time, and returns the items due in the ticks passed, so the
+ * items due together are returned together.
+ * </p>
+ *
+ * <p>
+ * Items can be scheduled from any thread, they are queued without a lock and
+ * moved into the buckets by the thread advancing the wheel. The wheel has to
+ * be advanced by a single thread at a time.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @param <T>
+ *        type of the items.
+ */
+public class HashedTimingWheel<T> {
+	private final long tickInNanos;
+	private final List<Queue<Timeout<T>>> buckets;
+	private final int mask;
+	private final long startTimeInNanos;
+	private final Queue<Timeout<T>> pendingTimeouts = new ConcurrentLinkedQueue<Timeout<T>> ();
+	private final AtomicInteger size = new AtomicInteger ();
+	private final AtomicLong scheduledCount = new AtomicLong ();
+	private final AtomicLong expiredCount = new AtomicLong ();
+	private long tick;
+
+	/**
+	 * Item in a bucket, with the rounds of the wheel it still has to wait.
+	 */
+	private static final class Timeout<T> {
+		private final T item;
+		private final long deadlineInNanos;
+		private long remainingRounds;
+
+		Timeout (T item, long deadlineInNanos) {
+			this.item = item;
+			this.deadlineInNanos = deadlineInNanos;
+		}
+	}
+
+	/**
+	 * @param tickDuration
+	 *        resolution of the wheel, the items are due at the end of the tick
+	 *        they are scheduled in.
+	 * @param unit
+	 * @param wheelSize
+	 *        count of buckets, rounded up to a power of two.
+	 */
+	public HashedTimingWheel (long tickDuration, TimeUnit unit, int wheelSize) {
+		this (tickDuration, unit, wheelSize, System.nanoTime ());
+	}
+
+	HashedTimingWheel (long tickDuration, TimeUnit unit, int wheelSize, long startTimeInNanos) {
+		if (tickDuration <= 0 || wheelSize <= 0)
+			throw new IllegalArgumentException ("Invalid tick duration / wheel size : "
+					+ tickDuration + " / " + wheelSize);
+		this.tickInNanos = unit.toNanos (tickDuration);
+		int bucketCount = Integer.highestOneBit (Math.min (wheelSize, 1 << 30));
+		if (bucketCount < wheelSize)
+			bucketCount <<= 1;
+		this.buckets = new ArrayList<Queue<Timeout<T>>> (bucketCount);
+		for (int index = 0; index < bucketCount; index++)
+			this.buckets.add (new ArrayDeque<Timeout<T>> ());
+		this.mask = bucketCount - 1;
+		this.startTimeInNanos = startTimeInNanos;
+	}
+
+	/**
+	 * Schedules the item to be returned by the {@link #advance()} once the
+	 * delay has passed.
+	 *
+	 * @param item
+	 * @param delay
+	 * @param unit
+	 */
+	public void schedule(T item, long delay, TimeUnit unit) {
+		long deadlineInNanos = System.nanoTime () - this.startTimeInNanos
+				+ unit.toNanos (Math.max (0, delay));
+		scheduleAt (item, deadlineInNanos);
+	}
+
+	/**
+	 * @param deadlineInNanos
+	 *        relative to the start of the wheel.
+	 */
+	void scheduleAt(T item, long deadlineInNanos) {
+		this.pendingTimeouts.add (new Timeout<T> (item, deadlineInNanos));
+		this.size.incrementAndGet ();
+		this.scheduledCount.incrementAndGet ();
+	}
+
+	/**
+	 * Moves the wheel to the current time.
+	 *
+	 * @return items due by now, in the order of their ticks.
+	 */
+	public List<T> advance() {
+		return advanceTo (System.nanoTime ());
+	}
+
+	List<T> advanceTo(long timeInNanos) {
+		List<T> dueItems = new ArrayList<T> ();
+		long elapsedInNanos = timeInNanos - this.startTimeInNanos;
+		while ((this.tick + 1) * this.tickInNanos <= elapsedInNanos) {
+			transferPendingTimeouts ();
+			expireBucket (this.buckets.get ((int) (this.tick & this.mask)), dueItems);
+			this.tick++;
+		}
+		return dueItems;
+	}
+
+	/**
+	 * An item already due is put in the bucket of the current tick.
+	 */
+	private void transferPendingTimeouts() {
+		Timeout<T> timeout;
+		while ((timeout = this.pendingTimeouts.poll ()) != null) {
+			long dueTick = Math.max (timeout.deadlineInNanos / this.tickInNanos, this.tick);
+			timeout.remainingRounds = (dueTick - this.tick) / this.buckets.size ();
+			this.buckets.get ((int) (dueTick & this.mask)).add (timeout);
+		}
+	}
+
+	private void expireBucket(Queue<Timeout<T>> bucket, List<T> dueItems) {
+		Iterator<Timeout<T>> timeouts = bucket.iterator ();
+		while (timeouts.hasNext ()) {
+			Timeout<T> timeout = timeouts.next ();
+			if (timeout.remainingRounds > 0) {
+				timeout.remainingRounds--;
+				continue;
+			}
+			timeouts.remove ();
+			this.size.decrementAndGet ();
+			this.expiredCount.incrementAndGet ();
+			dueItems.add (timeout.item);
+		}
+	}
+
+	/**
+	 * @return count of the items scheduled and not yet due.
+	 */
+	public int size() {
+		return this.size.get ();
+	}
+
+	/**
+	 * @return pending, scheduled and expired items in a readable format for
+	 *         logging.
+	 */
+	public String statistics() {
+		return "buckets=" + this.buckets.size () + ", tick="
+				+ TimeUnit.NANOSECONDS.toMillis (this.tickInNanos) + " ms, pending=" + size ()
+				+ ", scheduled=" + this.scheduledCount.get () + ", expired="
+				+ this.expiredCount.get ();
+	}
+}
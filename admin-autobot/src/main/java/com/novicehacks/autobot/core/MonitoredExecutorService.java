@@ -0,0 +1,24 @@
+package com.novicehacks.autobot.core;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Executor service of a {@link TaskPool}, reporting its live statistics.
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see BoundedThreadPool
+ * @see ThreadPerTaskExecutor
+ */
+public interface MonitoredExecutorService extends ExecutorService {
+
+	/**
+	 * @return statistics of the executor in a readable format for logging.
+	 */
+	String statistics();
+
+	/**
+	 * @return tasks waiting for a thread as a percentage of the tasks that can
+	 *         wait, zero for an executor not queueing its tasks.
+	 */
+	int queueUtilization();
+}
@@ -0,0 +1,59 @@
+package com.novicehacks.autobot.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.novicehacks.autobot.core.types.CommandPriority;
+
+/**
+ * Task queued in a {@link BoundedThreadPool} along with its priority. The
+ * tasks are taken by their priority first, and in the order of their
+ * submission within the same priority.
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see CommandPriority
+ */
+final class PrioritizedTask implements Runnable, Comparable<PrioritizedTask> {
+	private static final AtomicLong sequence = new AtomicLong ();
+	private final Runnable task;
+	private final CommandPriority priority;
+	private final long sequenceNumber;
+
+	PrioritizedTask (CommandPriority priority, Runnable task) {
+		this.task = task;
+		this.priority = priority == null ? CommandPriority.Normal : priority;
+		this.sequenceNumber = sequence.getAndIncrement ();
+	}
+
+	/**
+	 * @param task
+	 * @return the task, wrapped with the {@link CommandPriority#Normal} priority
+	 *         unless it already has a priority.
+	 */
+	static PrioritizedTask of(Runnable task) {
+		if (task instanceof PrioritizedTask)
+			return (PrioritizedTask) task;
+		return new PrioritizedTask (CommandPriority.Normal, task);
+	}
+
+	CommandPriority priority() {
+		return this.priority;
+	}
+
+	@Override
+	public void run() {
+		this.task.run ();
+	}
+
+	@Override
+	public int compareTo(PrioritizedTask other) {
+		int comparison = this.priority.compareTo (other.priority);
+		if (comparison != 0)
+			return comparison;
+		return Long.compare (this.sequenceNumber, other.sequenceNumber);
+	}
+
+	@Override
+	public String toString() {
+		return this.priority + " " + this.task;
+	}
+}
@@ -0,0 +1,94 @@
+package com.novicehacks.autobot.core;
+
+import com.novicehacks.autobot.config.ApplicationConfig;
+
+/**
+ * Bounded thread pools of the {@link ThreadManager}, one for each kind of task
+ * so that a slow kind of task cannot starve the others.
+ *
+ * <ul>
+ * <li><strong>Connection</strong> : connecting to the servers and driving the
+ * commands of a server, also used by the warm-up and keepalive.</li>
+ * <li><strong>Command</strong> : executing the commands on the servers.</li>
+ * <li><strong>Logging</strong> : logging the output of the commands.</li>
+ * </ul>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see BoundedThreadPool
+ */
+public enum TaskPool {
+	Connection, Command, Logging;
+
+	/**
+	 * @return maximum threads of the pool, as per the <em>*Threads</em>
+	 *         configuration.
+	 */
+	public int threads() {
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		String threads;
+		switch (this) {
+		case Connection:
+			threads = config.connectionThreads ();
+			break;
+		case Command:
+			threads = config.commandThreads ();
+			break;
+		default:
+			threads = config.loggingThreads ();
+			break;
+		}
+		return Math.max (1, BotUtils.convertStringToInt (threads));
+	}
+
+	/**
+	 * @return tasks that can be queued in the pool, as per the
+	 *         <em>*QueueLimit</em> configuration.
+	 */
+	public int queueLimit() {
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		String queueLimit;
+		switch (this) {
+		case Connection:
+			queueLimit = config.connectionQueueLimit ();
+			break;
+		case Command:
+			queueLimit = config.commandQueueLimit ();
+			break;
+		default:
+			queueLimit = config.loggingQueueLimit ();
+			break;
+		}
+		return Math.max (1, BotUtils.convertStringToInt (queueLimit));
+	}
+
+	/**
+	 * @return handling of the tasks beyond the queue limit, as per the
+	 *         <em>*RejectionPolicy</em> configuration.
+	 */
+	public String rejectionPolicy() {
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		switch (this) {
+		case Connection:
+			return config.connectionRejectionPolicy ();
+		case Command:
+			return config.commandRejectionPolicy ();
+		default:
+			return config.loggingRejectionPolicy ();
+		}
+	}
+
+	/**
+	 * @return true if the tasks of the pool spend most of their time blocked
+	 *         on the SSH sockets, and can run on virtual threads.
+	 */
+	public boolean isIOBound() {
+		return this != Logging;
+	}
+
+	/**
+	 * @return name of the pool used for its threads.
+	 */
+	public String poolName() {
+		return name ().toLowerCase ();
+	}
+}
@@ -1,29 +1,101 @@
 package com.novicehacks.autobot.core;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.novicehacks.autobot.config.ApplicationConfig;
+import com.novicehacks.autobot.core.types.CommandPriority;
+
 /**
  * The single place where all the threads are executed, and handled in the admin
  * autobot application.
  * 
+ * <p>
+ * Besides the general thread pool, tasks are run in a bounded
+ * {@link BoundedThreadPool} for each {@link TaskPool}, so that a large count
+ * of servers does not create a thread for every task, and slow output logging
+ * does not starve the command execution. The bounded pools are created on
+ * their first use, as per the configuration loaded by then.
+ * </p>
+ * 
+ * <p>
+ * When <em>VirtualThreadsEnabled</em>, the I/O bound tasks are run on a virtual
+ * thread each instead of the bounded thread pools, if the JVM supports them.
+ * </p>
+ * 
+ * <p>
+ * The thread pools are swapped atomically as a whole, so submitting a task does
+ * not take any lock, and creating or shutting down the thread pools never
+ * blocks the submitters. A task submitted while the thread pools are shutdown
+ * concurrently is rejected.
+ * </p>
+ * 
  * @author Sharath Chand Bhaskara for NoviceHacks!
  *
  */
 public class ThreadManager {
 
-	private ExecutorService executorService = Executors.newCachedThreadPool ();
-	private final ReentrantLock executorServiceLock = new ReentrantLock (true);
+	private final AtomicReference<ThreadPools> threadPools;
 	private Logger logger = LogManager.getLogger (ThreadManager.class);
 
+	/**
+	 * The general thread pool along with the {@link TaskPool} executors
+	 * created for it, replaced as a whole.
+	 */
+	private static final class ThreadPools {
+		private final ExecutorService executorService;
+		private final AtomicReferenceArray<MonitoredExecutorService> taskPools;
+		private volatile boolean shutdown;
+
+		ThreadPools () {
+			this.executorService = Executors.newCachedThreadPool ();
+			this.taskPools = new AtomicReferenceArray<MonitoredExecutorService> (
+					TaskPool.values ().length);
+		}
+
+		boolean isAvailable() {
+			return !this.shutdown && !this.executorService.isShutdown ();
+		}
+
+		Collection<ExecutorService> services() {
+			Collection<ExecutorService> services = new ArrayList<ExecutorService> ();
+			services.add (this.executorService);
+			for (int index = 0; index < this.taskPools.length (); index++)
+				if (this.taskPools.get (index) != null)
+					services.add (this.taskPools.get (index));
+			return services;
+		}
+
+		/**
+		 * Shuts down the task pool executors created so far. An executor
+		 * created concurrently shuts itself down, as it sees the flag.
+		 */
+		void shutdown() {
+			this.shutdown = true;
+			for (ExecutorService service : services ())
+				service.shutdown ();
+		}
+	}
+
 	private ThreadManager () {
+		this.threadPools = new AtomicReference<ThreadPools> (new ThreadPools ());
 		Thread.setDefaultUncaughtExceptionHandler (new GenericUncaughtExceptionHandler ());
 	}
 
@@ -39,6 +111,13 @@ public class ThreadManager {
 		return ThreadManagerSingleton.getInstance ();
 	}
 
+	private ThreadPools activeThreadPools() {
+		ThreadPools pools = this.threadPools.get ();
+		if (pools == null)
+			throw new NullPointerException ("Thread pool is not active");
+		return pools;
+	}
+
 	/**
 	 * Submits the asynchronous task to the managed ThreadPool.
 	 * 
@@ -48,11 +127,7 @@ public class ThreadManager {
 	 *         if the thread pool is not active.
 	 */
 	public Future<?> submitTaskToThreadPool(Runnable task) {
-		Future<?> future;
-		this.executorServiceLock.lock ();
-		future = this.executorService.submit (task);
-		this.executorServiceLock.unlock ();
-		return future;
+		return activeThreadPools ().executorService.submit (task);
 	}
 
 	/**
@@ -66,11 +141,221 @@ public class ThreadManager {
 	 *         if the thread pool is not active.
 	 */
 	public <T> Future<T> submitTaskToThreadPool(Callable<T> task) {
-		Future<T> future;
-		this.executorServiceLock.lock ();
-		future = this.executorService.submit (task);
-		this.executorServiceLock.unlock ();
-		return future;
+		return activeThreadPools ().executorService.submit (task);
+	}
+
+	/**
+	 * Submits the asynchronous task to the bounded thread pool of its kind. A
+	 * task rejected by the pool as per its rejection policy is not run, and
+	 * its future fails with a {@link RejectedExecutionException}.
+	 * 
+	 * @param pool
+	 * @param task
+	 * @return
+	 * @throws NullPointerException
+	 *         if the thread pool is not active.
+	 */
+	public Future<?> submitTaskToThreadPool(TaskPool pool, Runnable task) {
+		try {
+			return taskPoolOf (pool).submit (task);
+		} catch (RejectedExecutionException ex) {
+			return rejectedFuture (pool, ex);
+		}
+	}
+
+	/**
+	 * Submits the asynchronous task to the bounded thread pool of its kind. A
+	 * task rejected by the pool as per its rejection policy is not run, and
+	 * its future fails with a {@link RejectedExecutionException}.
+	 * 
+	 * @param <T>
+	 * 
+	 * @param pool
+	 * @param task
+	 * @return
+	 * @throws NullPointerException
+	 *         if the thread pool is not active.
+	 */
+	public <T> Future<T> submitTaskToThreadPool(TaskPool pool, Callable<T> task) {
+		try {
+			return taskPoolOf (pool).submit (task);
+		} catch (RejectedExecutionException ex) {
+			return rejectedFuture (pool, ex);
+		}
+	}
+
+	/**
+	 * Runs the asynchronous task in the thread pool of its kind, as a stage to
+	 * compose the later stages with. A task rejected by the pool as per its
+	 * rejection policy is not run, and the stage fails with a
+	 * {@link RejectedExecutionException}.
+	 * 
+	 * @param pool
+	 * @param task
+	 * @return stage completed once the task is completed.
+	 * @throws NullPointerException
+	 *         if the thread pool is not active.
+	 */
+	public CompletableFuture<Void> runTaskAsync(TaskPool pool, Runnable task) {
+		try {
+			return CompletableFuture.runAsync (task, taskPoolOf (pool));
+		} catch (RejectedExecutionException ex) {
+			return rejectedFuture (pool, ex);
+		}
+	}
+
+	/**
+	 * Runs the asynchronous task in the thread pool of its kind as
+	 * {@link #runTaskAsync(TaskPool, Runnable)}, taken from the queue of the
+	 * pool ahead of the tasks of a lower priority.
+	 * 
+	 * @param pool
+	 * @param task
+	 * @param priority
+	 * @return stage completed once the task is completed.
+	 * @throws NullPointerException
+	 *         if the thread pool is not active.
+	 */
+	public CompletableFuture<Void> runTaskAsync(TaskPool pool, Runnable task,
+			final CommandPriority priority) {
+		try {
+			final MonitoredExecutorService taskPool = taskPoolOf (pool);
+			return CompletableFuture.runAsync (task, new Executor () {
+				@Override
+				public void execute(Runnable stageTask) {
+					taskPool.execute (new PrioritizedTask (priority, stageTask));
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			return rejectedFuture (pool, ex);
+		}
+	}
+
+	/**
+	 * Starts the asynchronous stage from the thread pool of its kind, for a
+	 * stage that blocks while it is started. A task rejected by the pool as per
+	 * its rejection policy is not run, and the stage fails with a
+	 * {@link RejectedExecutionException}.
+	 * 
+	 * @param pool
+	 * @param stage
+	 *        starting the work of the stage.
+	 * @return stage completed as the stage started.
+	 * @throws NullPointerException
+	 *         if the thread pool is not active.
+	 */
+	public <T> CompletableFuture<T> composeTaskAsync(TaskPool pool,
+			Supplier<CompletableFuture<T>> stage) {
+		try {
+			return CompletableFuture.supplyAsync (stage, taskPoolOf (pool)).thenCompose (
+					new Function<CompletableFuture<T>, CompletionStage<T>> () {
+						@Override
+						public CompletionStage<T> apply(CompletableFuture<T> startedStage) {
+							return startedStage;
+						}
+					});
+		} catch (RejectedExecutionException ex) {
+			return rejectedFuture (pool, ex);
+		}
+	}
+
+	/**
+	 * @param pool
+	 * @return tasks queued in the thread pool as a percentage of its queue
+	 *         limit, zero if the pool is not yet created.
+	 */
+	public int queueUtilization(TaskPool pool) {
+		ThreadPools pools = this.threadPools.get ();
+		if (pools == null)
+			return 0;
+		MonitoredExecutorService taskPool = pools.taskPools.get (pool.ordinal ());
+		return taskPool == null ? 0 : taskPool.queueUtilization ();
+	}
+
+	/**
+	 * Creates the executor of the task pool on its first use. Of the pools created
+	 * concurrently, the one set first is used and the others are shutdown.
+	 */
+	private MonitoredExecutorService taskPoolOf(TaskPool pool) {
+		ThreadPools pools = activeThreadPools ();
+		MonitoredExecutorService taskPool = pools.taskPools.get (pool.ordinal ());
+		if (taskPool != null)
+			return taskPool;
+		taskPool = newTaskPool (pool);
+		if (pools.taskPools.compareAndSet (pool.ordinal (), null, taskPool)) {
+			this.logger.info ("Created {} thread pool : {}", pool.poolName (),
+					taskPool.statistics ());
+			if (pools.shutdown)
+				taskPool.shutdown ();
+			return taskPool;
+		}
+		taskPool.shutdown ();
+		return pools.taskPools.get (pool.ordinal ());
+	}
+
+	private MonitoredExecutorService newTaskPool(TaskPool pool) {
+		if (pool.isIOBound () && isVirtualThreadsEnabled ()) {
+			ThreadFactory virtualThreadFactory;
+			virtualThreadFactory = VirtualThreads.factory ("autobot-" + pool.poolName () + "-");
+			if (virtualThreadFactory != null)
+				return new ThreadPerTaskExecutor (virtualThreadFactory);
+			this.logger.info ("Virtual threads not supported, using bounded {} thread pool",
+					pool.poolName ());
+		}
+		return BoundedThreadPool.of (pool);
+	}
+
+	/**
+	 * @return true if the I/O bound tasks are to be run on virtual threads as
+	 *         per the <em>VirtualThreadsEnabled</em> configuration.
+	 */
+	public boolean isVirtualThreadsEnabled() {
+		String enabled = ApplicationConfig.getInstance ().virtualThreadsEnabled ();
+		return BotUtils.convertStringToBoolean (enabled);
+	}
+
+	/**
+	 * Creates a thread for a task reading from an SSH session, a virtual thread
+	 * if enabled and supported by the JVM.
+	 * 
+	 * @param task
+	 * @param name
+	 *        of the thread, followed by a running number for virtual threads.
+	 * @return thread, not yet started.
+	 */
+	public Thread newIOThread(Runnable task, String name) {
+		if (isVirtualThreadsEnabled ()) {
+			ThreadFactory virtualThreadFactory = VirtualThreads.factory (name + "-");
+			if (virtualThreadFactory != null)
+				return virtualThreadFactory.newThread (task);
+		}
+		return new Thread (task, name);
+	}
+
+	private <T> CompletableFuture<T> rejectedFuture(TaskPool pool, RejectedExecutionException ex) {
+		this.logger.warn ("Task rejected by the {} thread pool", pool.poolName (), ex);
+		CompletableFuture<T> rejectedFuture = new CompletableFuture<T> ();
+		rejectedFuture.completeExceptionally (ex);
+		return rejectedFuture;
+	}
+
+	/**
+	 * @return statistics of the task pool executors in use, in a readable
+	 *         format for logging, one pool per line.
+	 */
+	public String statistics() {
+		StringBuilder statistics = new StringBuilder ();
+		ThreadPools pools = this.threadPools.get ();
+		if (pools == null)
+			return statistics.toString ();
+		for (TaskPool pool : TaskPool.values ()) {
+			MonitoredExecutorService taskPool = pools.taskPools.get (pool.ordinal ());
+			if (taskPool == null)
+				continue;
+			statistics.append (System.lineSeparator ());
+			statistics.append (pool.poolName ()).append (" : ").append (taskPool.statistics ());
+		}
+		return statistics.toString ();
 	}
 
 	/**
@@ -88,32 +373,43 @@ public class ThreadManager {
 			throws InterruptedException {
 		boolean status;
 		this.logger.entry (timeout, timeUnit);
-		ExecutorService service;
-		service = this.executorService;
-		shutdownThreadPool ();
-		status = service.awaitTermination (timeout, timeUnit);
+		ThreadPools pools = this.threadPools.getAndSet (null);
+		if (pools == null)
+			throw new NullPointerException ("Thread pool is not active");
+		pools.shutdown ();
+		status = awaitTermination (pools.services (), timeUnit.toNanos (timeout));
 		this.logger.exit (status);
 		return status;
 	}
 
+	private boolean awaitTermination(Collection<ExecutorService> services, long timeoutInNanos)
+			throws InterruptedException {
+		long deadline = System.nanoTime () + timeoutInNanos;
+		boolean status = true;
+		for (ExecutorService service : services)
+			status &= service.awaitTermination (deadline - System.nanoTime (),
+					TimeUnit.NANOSECONDS);
+		return status;
+	}
+
 	/**
 	 * When forced to create a new thread pool, the current thread pool if
 	 * available will be given a shutdown command and a new thread pool will be
-	 * initiated
+	 * initiated. The new thread pool replaces the current one atomically, so
+	 * that the submitters never find the thread pool missing.
 	 * 
 	 * @param forced
-	 *        when true returns false if the previous thread pool cannot be
-	 *        terminated or a new thread pool cannot be created.
+	 *        when true the current thread pool is replaced by a new one.
 	 * @return true if new thread pool is created otherwise false
 	 * @throws InterruptedException
 	 */
 	public boolean createThreadPool(boolean forced) throws InterruptedException {
-		if (forced) {
-			this.executorServiceLock.lock ();
-			shutdownExecutorService ();
-			this.executorServiceLock.unlock ();
-		}
-		return createThreadPool ();
+		if (!forced)
+			return createThreadPool ();
+		ThreadPools pools = this.threadPools.getAndSet (new ThreadPools ());
+		if (pools != null)
+			pools.shutdown ();
+		return true;
 	}
 
 	/**
@@ -123,11 +419,14 @@ public class ThreadManager {
 	 * @throws InterruptedException
 	 */
 	public boolean createThreadPool() throws InterruptedException {
-		if (isThreadPoolAvailable ()) {
+		ThreadPools pools = this.threadPools.get ();
+		if (pools != null && pools.isAvailable ())
 			return false;
-		} else {
-			return assignNewCachedThreadPool ();
-		}
+		ThreadPools newPools = new ThreadPools ();
+		if (this.threadPools.compareAndSet (pools, newPools))
+			return true;
+		newPools.shutdown ();
+		return false;
 	}
 
 	/**
@@ -138,34 +437,8 @@ public class ThreadManager {
 	 * @see {@link ExecutorService#shutdown()}
 	 */
 	public boolean isThreadPoolAvailable() throws InterruptedException {
-		boolean status = false;
-		if (tryLock (this.executorServiceLock)) {
-			if (this.executorService != null && !this.executorService.isShutdown ()) {
-				status = true;
-			}
-			this.executorServiceLock.unlock ();
-		}
-		return status;
-	}
-
-	private boolean assignNewCachedThreadPool() throws InterruptedException {
-		boolean status = false;
-		if (tryLock (this.executorServiceLock)) {
-			this.executorService = Executors.newCachedThreadPool ();
-			this.executorServiceLock.unlock ();
-			status = true;
-		} else {
-			this.logger.warn ("Lock not acquired for Iniating Executor Service");
-			status = false;
-		}
-		return status;
-	}
-
-	private boolean tryLock(ReentrantLock reentrantLock) throws InterruptedException {
-		if (reentrantLock.tryLock () || reentrantLock.tryLock (60, TimeUnit.SECONDS))
-			return true;
-		else
-			return false;
+		ThreadPools pools = this.threadPools.get ();
+		return pools != null && pools.isAvailable ();
 	}
 
 	/**
@@ -177,28 +450,11 @@ public class ThreadManager {
 	 * @throws InterruptedException
 	 */
 	public boolean shutdownThreadPool() throws InterruptedException {
-		return shutdownExecutorService ();
-	}
-
-	private boolean shutdownExecutorService() throws InterruptedException {
-		boolean status = false;
-		if (isThreadPoolAvailable ())
-			status = shutdown ();
-		return status;
-	}
-
-	private boolean shutdown() throws InterruptedException {
-		boolean status = false;
-		if (tryLock (this.executorServiceLock)) {
-			this.executorService.shutdown ();
-			this.executorService = null;
-			status = true;
-			this.executorServiceLock.unlock ();
-		} else {
-			this.logger.warn ("Lock not acquired for Destroying Executor Service");
-			status = false;
-		}
-		return status;
+		ThreadPools pools = this.threadPools.getAndSet (null);
+		if (pools == null)
+			return false;
+		pools.shutdown ();
+		return true;
 	}
 
 }
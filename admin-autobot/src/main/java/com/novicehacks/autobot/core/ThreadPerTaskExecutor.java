@@ -0,0 +1,128 @@
+package com.novicehacks.autobot.core;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor starting a new thread from its {@link ThreadFactory} for every task,
+ * used with the virtual threads which are cheap enough to not be pooled.
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see VirtualThreads
+ */
+public class ThreadPerTaskExecutor extends AbstractExecutorService implements
+		MonitoredExecutorService {
+	private final ThreadFactory threadFactory;
+	private final Set<Thread> threads;
+	private final AtomicInteger activeCount = new AtomicInteger ();
+	private final AtomicLong startedCount = new AtomicLong ();
+	private final AtomicLong completedCount = new AtomicLong ();
+	private final Object terminationLock = new Object ();
+	private volatile boolean shutdown;
+
+	public ThreadPerTaskExecutor (ThreadFactory threadFactory) {
+		this.threadFactory = threadFactory;
+		this.threads = Collections.newSetFromMap (new ConcurrentHashMap<Thread, Boolean> ());
+	}
+
+	@Override
+	public void execute(final Runnable task) {
+		this.activeCount.incrementAndGet ();
+		if (this.shutdown) {
+			taskCompleted ();
+			throw new RejectedExecutionException ("Executor is shutdown");
+		}
+		Thread thread = this.threadFactory.newThread (new Runnable () {
+			@Override
+			public void run() {
+				try {
+					task.run ();
+				} finally {
+					ThreadPerTaskExecutor.this.threads.remove (Thread.currentThread ());
+					ThreadPerTaskExecutor.this.completedCount.incrementAndGet ();
+					taskCompleted ();
+				}
+			}
+		});
+		this.threads.add (thread);
+		this.startedCount.incrementAndGet ();
+		thread.start ();
+	}
+
+	private void taskCompleted() {
+		if (this.activeCount.decrementAndGet () == 0 && this.shutdown) {
+			synchronized (this.terminationLock) {
+				this.terminationLock.notifyAll ();
+			}
+		}
+	}
+
+	@Override
+	public void shutdown() {
+		this.shutdown = true;
+		synchronized (this.terminationLock) {
+			this.terminationLock.notifyAll ();
+		}
+	}
+
+	/**
+	 * Interrupts the running tasks, as the tasks are never queued.
+	 */
+	@Override
+	public List<Runnable> shutdownNow() {
+		shutdown ();
+		for (Thread thread : this.threads)
+			thread.interrupt ();
+		return Collections.emptyList ();
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return this.shutdown;
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return this.shutdown && this.activeCount.get () == 0;
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime () + unit.toNanos (timeout);
+		synchronized (this.terminationLock) {
+			while (!isTerminated ()) {
+				long remaining = deadline - System.nanoTime ();
+				if (remaining <= 0)
+					return false;
+				TimeUnit.NANOSECONDS.timedWait (this.terminationLock, remaining);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return zero, as every task is started on its own thread.
+	 */
+	@Override
+	public int queueUtilization() {
+		return 0;
+	}
+
+	/**
+	 * @return running, started and completed tasks in a readable format for
+	 *         logging.
+	 */
+	@Override
+	public String statistics() {
+		return "thread per task, active=" + this.activeCount.get () + ", started="
+				+ this.startedCount.get () + ", completed=" + this.completedCount.get ();
+	}
+}
@@ -0,0 +1,68 @@
+package com.novicehacks.autobot.core;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Virtual threads of the JVM, looked up at runtime so that the application
+ * still builds and runs on the JVMs without them.
+ *
+ * <p>
+ * Virtual threads are cheap to create and block on, so the tasks blocked on
+ * the SSH sockets no longer cost a platform thread stack each. On a JVM
+ * without virtual threads, {@link #factory(String)} returns null and the
+ * callers fall back to the platform threads.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see ThreadManager
+ */
+public final class VirtualThreads {
+	private static final Method OfVirtual;
+	private static final Method Name;
+	private static final Method Factory;
+
+	static {
+		Method ofVirtual = null;
+		Method name = null;
+		Method factory = null;
+		try {
+			Class<?> builder = Class.forName ("java.lang.Thread$Builder");
+			ofVirtual = Thread.class.getMethod ("ofVirtual");
+			name = builder.getMethod ("name", String.class, long.class);
+			factory = builder.getMethod ("factory");
+		} catch (ReflectiveOperationException ex) {
+			ofVirtual = null;
+		}
+		OfVirtual = ofVirtual;
+		Name = name;
+		Factory = factory;
+	}
+
+	private VirtualThreads () {}
+
+	/**
+	 * @return true if the JVM supports virtual threads.
+	 */
+	public static boolean isSupported() {
+		return OfVirtual != null;
+	}
+
+	/**
+	 * @param prefix
+	 *        of the thread names, followed by a running number.
+	 * @return factory of virtual threads, or null if the JVM does not support
+	 *         them.
+	 */
+	public static ThreadFactory factory(String prefix) {
+		if (!isSupported ())
+			return null;
+		try {
+			Object builder = OfVirtual.invoke (null);
+			builder = Name.invoke (builder, prefix, 1L);
+			return (ThreadFactory) Factory.invoke (builder);
+		} catch (ReflectiveOperationException ex) {
+			return null;
+		}
+	}
+}
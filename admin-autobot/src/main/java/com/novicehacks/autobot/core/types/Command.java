@@ -23,4 +23,10 @@ public interface Command extends Comparable<Command>, Mappable {
 
 	public String description();
 
+	/**
+	 * @return priority class of the command, used to order and shed the
+	 *         commands of a run.
+	 */
+	public CommandPriority priority();
+
 }
@@ -0,0 +1,51 @@
+package com.novicehacks.autobot.core.types;
+
+/**
+ * Priority class of a {@link Command}, given as the optional fourth token of
+ * its line in the commands resource.
+ *
+ * <ul>
+ * <li><strong>Critical</strong> : checks that are run ahead of the others.</li>
+ * <li><strong>Normal</strong> : the default for the commands without a
+ * priority.</li>
+ * <li><strong>Bulk</strong> : inventory and other bulk commands, run after the
+ * others and shed when a run falls behind.</li>
+ * </ul>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see Command#priority()
+ */
+public enum CommandPriority {
+	Critical, Normal, Bulk;
+
+	/**
+	 * @param priority
+	 *        name of the priority, in any case.
+	 * @return the priority.
+	 * @throws IllegalArgumentException
+	 *         if the name is not of a priority.
+	 */
+	public static CommandPriority parse(String priority) {
+		for (CommandPriority commandPriority : values ())
+			if (commandPriority.name ().equalsIgnoreCase (priority.trim ()))
+				return commandPriority;
+		throw new IllegalArgumentException ("Invalid command priority : " + priority);
+	}
+
+	/**
+	 * @param command
+	 * @return priority of the command, {@link #Normal} if it has none.
+	 */
+	public static CommandPriority of(Command command) {
+		if (command == null || command.priority () == null)
+			return Normal;
+		return command.priority ();
+	}
+
+	/**
+	 * @return true if the commands of the priority can be shed.
+	 */
+	public boolean isSheddable() {
+		return this == Bulk;
+	}
+}
@@ -15,6 +15,7 @@ public abstract class DefaultCommand implements Command {
 	private String id;
 	private String description;
 	private String parsedCommandLine;
+	private CommandPriority priority = CommandPriority.Normal;
 
 	public DefaultCommand (String commandString) {
 		this.parsedCommandLine = commandString;
@@ -51,6 +52,15 @@ public abstract class DefaultCommand implements Command {
 		this.description = description;
 	}
 
+	@Override
+	public CommandPriority priority() {
+		return this.priority;
+	}
+
+	public void setPriority(CommandPriority priority) {
+		this.priority = priority;
+	}
+
 	public String getParsedCommandLine() {
 		return this.parsedCommandLine;
 	}
@@ -1,5 +1,9 @@
 package com.novicehacks.autobot.core.types;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Default Server implements the generic behavior for the {@link Server} API,
  * while leaving the implementation of {@link Mappable} and {@link Comparable}
@@ -16,6 +20,7 @@ public abstract class DefaultServer implements Server {
 	private String name;
 	private ServerCredential[] credentials;
 	private String[] initializationCommands;
+	private Map<String, String> options = Collections.emptyMap ();
 
 	public DefaultServer (String line) {
 		this.parsedServerLine = line;
@@ -47,6 +52,11 @@ public abstract class DefaultServer implements Server {
 
 	}
 
+	@Override
+	public Map<String, String> options() {
+		return this.options;
+	}
+
 	public String parserdServerLine() {
 		return this.parsedServerLine;
 	}
@@ -71,6 +81,10 @@ public abstract class DefaultServer implements Server {
 		this.initializationCommands = initializationCommands;
 	}
 
+	public void setOptions(Map<String, String> options) {
+		this.options = Collections.unmodifiableMap (new HashMap<String, String> (options));
+	}
+
 	@Override
 	public String toString() {
 		return this.parsedServerLine;
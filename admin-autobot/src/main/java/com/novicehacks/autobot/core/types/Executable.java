@@ -4,6 +4,11 @@ package com.novicehacks.autobot.core.types;
  * Executable is a simple abstraction for server, command mapping that will be
  * scheduled for execution.
  * 
+ * <p>
+ * An executable without an {@link ExecutableSchedule} runs on the common
+ * <em>ExecutableDelay</em>, otherwise as per its own schedule.
+ * </p>
+ * 
  * @author Sharath Chand Bhaskara for NoviceHacks
  * @see ExecutableManager
  */
@@ -11,6 +16,7 @@ public class Executable implements Comparable<Executable> {
 	private String line;
 	private String serverId;
 	private String commandId;
+	private ExecutableSchedule schedule;
 
 	public Executable (String line) {
 		this.line = line;
@@ -32,6 +38,22 @@ public class Executable implements Comparable<Executable> {
 		this.commandId = commandId;
 	}
 
+	/**
+	 * @return schedule of the executable, or null if it runs on the common
+	 *         <em>ExecutableDelay</em>.
+	 */
+	public ExecutableSchedule getSchedule() {
+		return this.schedule;
+	}
+
+	public void setSchedule(ExecutableSchedule schedule) {
+		this.schedule = schedule;
+	}
+
+	public boolean isScheduled() {
+		return this.schedule != null;
+	}
+
 	public String getLine() {
 		return this.line;
 	}
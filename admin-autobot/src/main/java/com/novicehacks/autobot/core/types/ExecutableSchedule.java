@@ -0,0 +1,233 @@
+package com.novicehacks.autobot.core.types;
+
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedule of an {@link Executable}, given as the optional third token of its
+ * line in the executables resource.
+ *
+ * <p>
+ * The schedule is either an <strong>interval</strong> of a count followed by
+ * the unit <em>s, m, h or d</em> (e.g. <em>15m</em>), or a
+ * <strong>cron</strong> expression of the five fields <em>minute hour
+ * day-of-month month day-of-week</em>, each being <em>*</em>, a value, a
+ * range <em>a-b</em>, a list <em>a,b</em> or a step <em>*&#47;n</em> /
+ * <em>a-b/n</em> (e.g. <em>0 *&#47;6 * * 1-5</em>). Days of the week start with
+ * sunday as 0, and 7 is also accepted for sunday.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see Executable
+ */
+public final class ExecutableSchedule {
+	private static final int CronFieldCount = 5;
+	private static final int MaxYearsToSearch = 5;
+	private final String expression;
+	private final long intervalInMillis;
+	private final BitSet minutes;
+	private final BitSet hours;
+	private final BitSet daysOfMonth;
+	private final BitSet months;
+	private final BitSet daysOfWeek;
+	private final boolean anyDayOfMonth;
+	private final boolean anyDayOfWeek;
+
+	private ExecutableSchedule (String expression, long intervalInMillis, BitSet[] cronFields,
+			boolean anyDayOfMonth, boolean anyDayOfWeek) {
+		this.expression = expression;
+		this.intervalInMillis = intervalInMillis;
+		this.minutes = cronFields[0];
+		this.hours = cronFields[1];
+		this.daysOfMonth = cronFields[2];
+		this.months = cronFields[3];
+		this.daysOfWeek = cronFields[4];
+		this.anyDayOfMonth = anyDayOfMonth;
+		this.anyDayOfWeek = anyDayOfWeek;
+	}
+
+	/**
+	 * @param expression
+	 *        of an interval or a cron schedule.
+	 * @return the schedule.
+	 * @throws IllegalArgumentException
+	 *         if the expression is neither a valid interval nor a valid cron
+	 *         expression.
+	 */
+	public static ExecutableSchedule parse(String expression) {
+		if (expression == null || expression.trim ().isEmpty ())
+			throw new IllegalArgumentException ("Empty schedule");
+		String trimmedExpression = expression.trim ();
+		String[] fields = trimmedExpression.split ("\\s+");
+		if (fields.length == 1)
+			return new ExecutableSchedule (trimmedExpression, parseInterval (trimmedExpression),
+					new BitSet[CronFieldCount], false, false);
+		if (fields.length != CronFieldCount)
+			throw new IllegalArgumentException ("Invalid cron schedule : " + trimmedExpression);
+		BitSet[] cronFields = new BitSet[CronFieldCount];
+		cronFields[0] = parseCronField (fields[0], 0, 59);
+		cronFields[1] = parseCronField (fields[1], 0, 23);
+		cronFields[2] = parseCronField (fields[2], 1, 31);
+		cronFields[3] = parseCronField (fields[3], 1, 12);
+		cronFields[4] = parseCronField (fields[4], 0, 7);
+		if (cronFields[4].get (7))
+			cronFields[4].set (0);
+		return new ExecutableSchedule (trimmedExpression, 0, cronFields, "*".equals (fields[2]),
+				"*".equals (fields[4]));
+	}
+
+	/**
+	 * @param interval
+	 * @param unit
+	 * @return interval schedule, as used for the common <em>ExecutableDelay</em>.
+	 * @throws IllegalArgumentException
+	 *         if the interval is not more than zero milliseconds.
+	 */
+	public static ExecutableSchedule every(long interval, TimeUnit unit) {
+		long intervalInMillis = unit.toMillis (interval);
+		if (intervalInMillis <= 0)
+			throw new IllegalArgumentException ("Invalid interval schedule : " + interval + " "
+					+ unit);
+		return new ExecutableSchedule (intervalInMillis + "ms", intervalInMillis,
+				new BitSet[CronFieldCount], false, false);
+	}
+
+	private static long parseInterval(String expression) {
+		char unit = Character.toLowerCase (expression.charAt (expression.length () - 1));
+		long count;
+		try {
+			count = Long.parseLong (expression.substring (0, expression.length () - 1));
+		} catch (NumberFormatException ex) {
+			throw new IllegalArgumentException ("Invalid interval schedule : " + expression, ex);
+		}
+		if (count <= 0)
+			throw new IllegalArgumentException ("Invalid interval schedule : " + expression);
+		switch (unit) {
+		case 's':
+			return TimeUnit.SECONDS.toMillis (count);
+		case 'm':
+			return TimeUnit.MINUTES.toMillis (count);
+		case 'h':
+			return TimeUnit.HOURS.toMillis (count);
+		case 'd':
+			return TimeUnit.DAYS.toMillis (count);
+		default:
+			throw new IllegalArgumentException ("Invalid interval schedule : " + expression);
+		}
+	}
+
+	private static BitSet parseCronField(String field, int min, int max) {
+		BitSet values = new BitSet (max + 1);
+		for (String part : field.split (",")) {
+			int step = 1;
+			String range = part;
+			int stepIndex = part.indexOf ('/');
+			if (stepIndex >= 0) {
+				step = parseCronValue (part.substring (stepIndex + 1), 1, max);
+				range = part.substring (0, stepIndex);
+			}
+			int from;
+			int to;
+			if ("*".equals (range)) {
+				from = min;
+				to = max;
+			} else if (range.indexOf ('-') > 0) {
+				from = parseCronValue (range.substring (0, range.indexOf ('-')), min, max);
+				to = parseCronValue (range.substring (range.indexOf ('-') + 1), min, max);
+			} else {
+				from = parseCronValue (range, min, max);
+				to = stepIndex >= 0 ? max : from;
+			}
+			if (from > to)
+				throw new IllegalArgumentException ("Invalid cron range : " + part);
+			for (int value = from; value <= to; value += step)
+				values.set (value);
+		}
+		return values;
+	}
+
+	private static int parseCronValue(String value, int min, int max) {
+		int parsedValue;
+		try {
+			parsedValue = Integer.parseInt (value);
+		} catch (NumberFormatException ex) {
+			throw new IllegalArgumentException ("Invalid cron value : " + value, ex);
+		}
+		if (parsedValue < min || parsedValue > max)
+			throw new IllegalArgumentException ("Cron value " + value + " not within " + min
+					+ "-" + max);
+		return parsedValue;
+	}
+
+	/**
+	 * @return true for an interval schedule, false for a cron schedule.
+	 */
+	public boolean isInterval() {
+		return this.intervalInMillis > 0;
+	}
+
+	/**
+	 * @return interval of the schedule in milliseconds, 0 for a cron schedule.
+	 */
+	public long intervalInMillis() {
+		return this.intervalInMillis;
+	}
+
+	/**
+	 * @param timeInMillis
+	 *        since the epoch.
+	 * @return next time since the epoch, after the given time, at which the
+	 *         executable is due.
+	 * @throws IllegalStateException
+	 *         if a cron schedule never matches within the next few years, like
+	 *         on the 31st of February.
+	 */
+	public long nextRunAfter(long timeInMillis) {
+		if (isInterval ())
+			return timeInMillis + this.intervalInMillis;
+		Calendar time = Calendar.getInstance ();
+		time.setTimeInMillis (timeInMillis);
+		time.set (Calendar.SECOND, 0);
+		time.set (Calendar.MILLISECOND, 0);
+		time.add (Calendar.MINUTE, 1);
+		int lastYear = time.get (Calendar.YEAR) + MaxYearsToSearch;
+		while (time.get (Calendar.YEAR) <= lastYear) {
+			if (!this.months.get (time.get (Calendar.MONTH) + 1)) {
+				time.add (Calendar.MONTH, 1);
+				time.set (Calendar.DAY_OF_MONTH, 1);
+				time.set (Calendar.HOUR_OF_DAY, 0);
+				time.set (Calendar.MINUTE, 0);
+			} else if (!matchesDay (time)) {
+				time.add (Calendar.DAY_OF_MONTH, 1);
+				time.set (Calendar.HOUR_OF_DAY, 0);
+				time.set (Calendar.MINUTE, 0);
+			} else if (!this.hours.get (time.get (Calendar.HOUR_OF_DAY))) {
+				time.add (Calendar.HOUR_OF_DAY, 1);
+				time.set (Calendar.MINUTE, 0);
+			} else if (!this.minutes.get (time.get (Calendar.MINUTE))) {
+				time.add (Calendar.MINUTE, 1);
+			} else {
+				return time.getTimeInMillis ();
+			}
+		}
+		throw new IllegalStateException ("Cron schedule never due : " + this.expression);
+	}
+
+	/**
+	 * As in cron, a day restricted by both the day of month and the day of week
+	 * matches either of them.
+	 */
+	private boolean matchesDay(Calendar time) {
+		boolean dayOfMonth = this.daysOfMonth.get (time.get (Calendar.DAY_OF_MONTH));
+		boolean dayOfWeek = this.daysOfWeek.get (time.get (Calendar.DAY_OF_WEEK) - 1);
+		if (this.anyDayOfMonth || this.anyDayOfWeek)
+			return dayOfMonth && dayOfWeek;
+		return dayOfMonth || dayOfWeek;
+	}
+
+	@Override
+	public String toString() {
+		return this.expression;
+	}
+}
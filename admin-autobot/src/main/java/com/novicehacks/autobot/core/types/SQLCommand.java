@@ -28,6 +28,11 @@ public class SQLCommand implements Command {
 		return null;
 	}
 
+	@Override
+	public CommandPriority priority() {
+		return CommandPriority.Normal;
+	}
+
 	@Override
 	public int compareTo(Command o) {
 		return 0;
@@ -1,5 +1,7 @@
 package com.novicehacks.autobot.core.types;
 
+import java.util.Map;
+
 import com.novicehacks.autobot.executor.CommandExecutorService;
 
 /**
@@ -23,6 +25,14 @@ public interface Server extends Comparable<Server>, Mappable {
 
 	public String id();
 
+	/**
+	 * Options overriding the application configuration for this server, keyed
+	 * by {@link ServerOption#key()}.
+	 * 
+	 * @return options of the server, empty map if none are specified.
+	 */
+	public Map<String, String> options();
+
 	public CommandExecutorService commandExecutorService();
 
 }
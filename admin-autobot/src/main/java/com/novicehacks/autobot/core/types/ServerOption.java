@@ -0,0 +1,60 @@
+package com.novicehacks.autobot.core.types;
+
+/**
+ * Options that can be specified for a server in its configuration, with the
+ * prefix "option#" followed by <em>key=value</em>. A server option overrides
+ * the application configuration of the same name for that server only.
+ * 
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see Server#options()
+ */
+public enum ServerOption {
+	ConnectionMaxChannels ("ConnectionMaxChannels"),
+	ConnectionMaxCount ("ConnectionMaxCount"),
+	SSHCiphers ("SSHCiphers"),
+	SSHMACs ("SSHMACs"),
+	SSHHostKeyAlgorithms ("SSHHostKeyAlgorithms"),
+	SSHKexGroupLength ("SSHKexGroupLength"),
+	OutputCompression ("OutputCompression"),
+	MaxConcurrentCommands ("MaxConcurrentCommands"),
+	OverlapPolicy ("OverlapPolicy"),
+	JumpHost ("JumpHost"),
+	ShellPipelining ("ShellPipelining"),
+	WarmShellSessions ("WarmShellSessions"),
+	ShellInitQuietTime ("ShellInitQuietTime");
+
+	private String key;
+
+	private ServerOption (String key) {
+		this.key = key;
+	}
+
+	public String key() {
+		return this.key;
+	}
+
+	/**
+	 * @param server
+	 * @param defaultValue
+	 *        value from the application configuration.
+	 * @return value of the option specified for the server, or the default
+	 *         value if the server has not specified it.
+	 */
+	public String valueFor(Server server, String defaultValue) {
+		String value = null;
+		if (server.options () != null)
+			value = server.options ().get (this.key);
+		if (value == null)
+			return defaultValue;
+		else
+			return value;
+	}
+
+	public static ServerOption fromKey(String optionKey) {
+		for (ServerOption option : ServerOption.values ()) {
+			if (option.key.equalsIgnoreCase (optionKey))
+				return option;
+		}
+		return null;
+	}
+}
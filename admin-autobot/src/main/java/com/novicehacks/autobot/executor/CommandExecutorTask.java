@@ -1,22 +1,37 @@
 package com.novicehacks.autobot.executor;
 
+import java.time.Instant;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.novicehacks.autobot.config.ApplicationConfig;
 import com.novicehacks.autobot.core.BotUtils;
+import com.novicehacks.autobot.core.Deadline;
 import com.novicehacks.autobot.core.ThreadManager;
 import com.novicehacks.autobot.core.types.Command;
 import com.novicehacks.autobot.core.types.RunnableTask;
 import com.novicehacks.autobot.core.types.Server;
-import com.novicehacks.autobot.executor.ssh.SSHCommandExecutorServiceTask;
+import com.novicehacks.autobot.executor.ssh.AdmissionControl;
+import com.novicehacks.autobot.executor.ssh.HandshakeStatistics;
+import com.novicehacks.autobot.executor.ssh.JumpHostTunnels;
+import com.novicehacks.autobot.executor.ssh.SSHCommandExecutorService;
+import com.novicehacks.autobot.executor.ssh.SSHConnectionPool;
+import com.novicehacks.autobot.executor.ssh.ServerCircuitBreaker;
+import com.novicehacks.autobot.executor.ssh.SessionIOReactor;
+import com.novicehacks.autobot.executor.ssh.TransferStatistics;
+import com.novicehacks.autobot.executor.ssh.sequential.WarmShellCache;
 
 /**
  * It will execute the commmands on servers from the {@link ServerExecutableMap}
@@ -24,38 +39,153 @@ import com.novicehacks.autobot.executor.ssh.SSHCommandExecutorServiceTask;
  * 
  * <p>
  * Uses executable map generator to create the {@link ServerExecutableMap} from
- * {@link ResourceConfig}. And executes commands on each server in a separate
- * thread.
+ * {@link ResourceConfig}. And executes commands on each server as a pipeline
+ * of connect, execute and log stages, overlapping across the servers. The
+ * result of each server is handled as soon as it completes, and the run waits
+ * for all the servers until its deadline.
+ * </p>
+ * 
+ * <p>
+ * The run has a single {@link Deadline} of <em>ExecutableTimeout</em> minutes
+ * from its start, passed down to every server. The servers unfinished by then
+ * are failed, so the worst case of a run does not grow with the servers.
+ * </p>
+ * 
+ * <p>
+ * A task created with the due executables runs only them, as done by the
+ * {@link ExecutableScheduler} for the executables having their own schedule.
+ * </p>
+ * 
+ * <p>
+ * Servers with an open circuit in the {@link ServerCircuitBreaker} are skipped
+ * without using a thread, and are counted in the run summary.
+ * </p>
+ * 
+ * <p>
+ * Once the run falls behind, its {@link LoadShedder} sheds the bulk commands,
+ * which are deferred to the next run and reported in the run summary.
+ * </p>
+ * 
+ * <p>
+ * The servers running at once, across the runs, are limited by the
+ * {@link AdmissionControl}. Servers beyond the limit are queued without
+ * blocking, and started as the earlier servers complete or failed once the
+ * deadline is reached. The queue wait times of every limit are logged after
+ * the run.
+ * </p>
+ * 
+ * <p>
+ * Every run has an id, and its scheduled, start and end times are logged
+ * along with its lag behind the schedule. A server still running an earlier
+ * run is handled by the {@link ServerRunGate} as per its
+ * {@link OverlapPolicy}, the servers skipped are counted in the run summary.
  * </p>
  * 
  * @author Sharath Chand Bhaskara for NoviceHacks!
  * @see ServerExecutableMapGenerator
- * @see SSHCommandExecutorServiceTask
+ * @see SSHCommandExecutorService#executeCommandsAsynchronously()
  */
 public class CommandExecutorTask implements RunnableTask {
-	private static final long ServerExecutionTimeoutInMinutes = 10;
-	private Collection<Future<?>> executableFutures;
+	private static final AtomicLong runSequence = new AtomicLong ();
+	private Map<String, CompletableFuture<Void>> executableFutures;
+	private Collection<String> skippedServers;
+	private Collection<String> overlappedServers;
 	private ServerExecutableMap executableMap;
+	private final ServerExecutableMap dueExecutables;
 	private RuntimeException errorCollector;
+	private Deadline deadline;
+	private LoadShedder loadShedder;
+	private final long scheduledTimeInMillis;
+	private long runId;
+	private long startTimeInMillis;
+	private long endTimeInMillis;
 	private boolean threadStarted = false;
 	private Logger logger = LogManager.getLogger (CommandExecutorTask.class);
 
 	public CommandExecutorTask () {
-		this.executableFutures = new LinkedList<Future<?>> ();
+		this (null);
+	}
+
+	/**
+	 * @param dueExecutables
+	 *        to be run instead of the executables from the
+	 *        {@link ServerExecutableMapGenerator}, as done by the
+	 *        {@link ExecutableScheduler}.
+	 */
+	public CommandExecutorTask (ServerExecutableMap dueExecutables) {
+		this (dueExecutables, 0);
+	}
+
+	/**
+	 * @param dueExecutables
+	 *        to be run instead of the executables from the
+	 *        {@link ServerExecutableMapGenerator}, null to run all of them.
+	 * @param scheduledTimeInMillis
+	 *        since the epoch at which the run was due, the lag of the run is
+	 *        measured from it. 0 if the run was not scheduled.
+	 */
+	public CommandExecutorTask (ServerExecutableMap dueExecutables, long scheduledTimeInMillis) {
+		this.dueExecutables = dueExecutables;
+		this.scheduledTimeInMillis = scheduledTimeInMillis;
+		this.executableFutures = new LinkedHashMap<String, CompletableFuture<Void>> ();
+		this.skippedServers = new LinkedList<String> ();
+		this.overlappedServers = new LinkedList<String> ();
 		this.errorCollector = new RuntimeException ("Exception while executing commands on server");
 	}
 
 	@Override
 	public void run() {
 		this.threadStarted = true;
+		startRun ();
+		this.deadline = runDeadline ();
+		this.loadShedder = runLoadShedder (this.deadline);
 		loadExecutables ();
 		startExecution ();
 		waitForCompletion ();
+		this.endTimeInMillis = System.currentTimeMillis ();
+		logRunSummary ();
+		logConnectionPoolStatistics ();
+		logHandshakeStatistics ();
+		logAdmissionStatistics ();
+		logJumpHostStatistics ();
+		logTransferStatistics ();
+		logSessionIOStatistics ();
+		logWarmShellStatistics ();
+		logThreadPoolStatistics ();
 		alarmIfExceptionsCaught ();
 	}
 
+	private void startRun() {
+		this.runId = runSequence.incrementAndGet ();
+		this.startTimeInMillis = System.currentTimeMillis ();
+		this.logger.info ("Run #{} started at {}, {} ms behind its schedule", this.runId,
+				Instant.ofEpochMilli (this.startTimeInMillis), lagInMillis ());
+	}
+
+	/**
+	 * @return time the run started after it was due, 0 if it was not
+	 *         scheduled.
+	 */
+	long lagInMillis() {
+		if (this.scheduledTimeInMillis <= 0)
+			return 0;
+		return Math.max (0, this.startTimeInMillis - this.scheduledTimeInMillis);
+	}
+
+	/**
+	 * @return id of the run, assigned once it is started.
+	 */
+	public long runId() {
+		return this.runId;
+	}
+
 	private void loadExecutables() {
 		logger.entry ("Started loading server executable map");
+		if (this.dueExecutables != null) {
+			this.executableMap = this.dueExecutables;
+			logger.exit ();
+			return;
+		}
 		try {
 			ServerExecutableMapGenerator executableCommandGenerator = getExecutableGeneratorInstance ();
 			this.executableMap = executableCommandGenerator.generateServerCommandMap ();
@@ -66,6 +196,19 @@ public class CommandExecutorTask implements RunnableTask {
 		logger.exit ();
 	}
 
+	/**
+	 * @return deadline of the run, <em>ExecutableTimeout</em> minutes from now.
+	 */
+	Deadline runDeadline() {
+		String timeoutInMins = ApplicationConfig.getInstance ().executableTimeoutInMins ();
+		int timeout = Math.max (1, BotUtils.convertStringToInt (timeoutInMins));
+		return Deadline.after (timeout, TimeUnit.MINUTES);
+	}
+
+	LoadShedder runLoadShedder(Deadline runDeadline) {
+		return LoadShedder.of (runDeadline);
+	}
+
 	private ServerExecutableMapGenerator getExecutableGeneratorInstance() {
 		return ServerExecutableMapGenerator.getSharedInstance ();
 	}
@@ -79,45 +222,126 @@ public class CommandExecutorTask implements RunnableTask {
 
 	private void executeCommandsOnServerAndSaveFutures(Server server) {
 		logger.entry (server);
+		if (!getCircuitBreakerInstance ().allowExecution (server)) {
+			this.logger.warn ("Skipping server {} with an open circuit", server.id ());
+			this.skippedServers.add (server.id ());
+			return;
+		}
 		Collection<Command> commands = this.executableMap.get (server);
-		Future<?> executableFuture = createAndSubmitCommandProcessor (server, commands);
-		this.executableFutures.add (executableFuture);
+		CompletableFuture<Void> executableFuture = startServerRun (server, commands);
+		if (executableFuture == null) {
+			this.overlappedServers.add (server.id ());
+			return;
+		}
+		this.executableFutures.put (server.id (), executableFuture);
 		logger.exit ();
 	}
 
-	private Future<?> createAndSubmitCommandProcessor(Server server, Collection<Command> commands) {
-		RunnableTask commandProcessorTask = getCommandExecutorTaskInstance (server, commands);
-		Future<?> executableFuture = getThreadManagerInstance ().submitTaskToThreadPool (
-				commandProcessorTask);
-		return executableFuture;
+	/**
+	 * @return stage completed once the result of the server is handled, null if
+	 *         the run is skipped as the server is still running an earlier run.
+	 */
+	private CompletableFuture<Void> startServerRun(final Server server,
+			Collection<Command> commands) {
+		CompletableFuture<Void> serverRun;
+		serverRun = getServerRunGateInstance ().run (server, this.runId, commands,
+				OverlapPolicy.of (server), new ServerRunGate.ServerExecution () {
+					@Override
+					public CompletableFuture<Void> execute(Collection<Command> runCommands) {
+						return startCommandProcessor (server, runCommands);
+					}
+				});
+		return serverRun;
 	}
 
-	RunnableTask getCommandExecutorTaskInstance(Server server, Collection<Command> commands) {
-		return new SSHCommandExecutorServiceTask (server, commands);
+	/**
+	 * @return stage completed once the result of the server is handled.
+	 */
+	private CompletableFuture<Void> startCommandProcessor(final Server server,
+			Collection<Command> commands) {
+		final long startTime = System.nanoTime ();
+		final SSHCommandExecutorService commandProcessor;
+		commandProcessor = getCommandExecutorServiceInstance (server, commands, this.deadline,
+				this.loadShedder);
+		CompletableFuture<Void> serverExecution;
+		serverExecution = getAdmissionControlInstance ().servers ().admit (this.deadline,
+				new Supplier<CompletableFuture<Void>> () {
+					@Override
+					public CompletableFuture<Void> get() {
+						return commandProcessor.executeCommandsAsynchronously ();
+					}
+				});
+		return serverExecution.handle (
+				new BiFunction<Void, Throwable, Void> () {
+					@Override
+					public Void apply(Void result, Throwable failure) {
+						handleServerCompletion (server, startTime, failure);
+						return null;
+					}
+				});
+	}
+
+	private void handleServerCompletion(Server server, long startTime, Throwable failure) {
+		long elapsedInMillis = TimeUnit.NANOSECONDS.toMillis (System.nanoTime () - startTime);
+		if (failure == null) {
+			this.logger.info ("Commands completed on server {} in {} ms", server.id (),
+					elapsedInMillis);
+		} else {
+			this.logger.error ("Commands failed on server {} after {} ms", server.id (),
+					elapsedInMillis, failure);
+			this.errorCollector.addSuppressed (failure);
+		}
+	}
+
+	SSHCommandExecutorService getCommandExecutorServiceInstance(Server server,
+			Collection<Command> commands, Deadline runDeadline, LoadShedder runLoadShedder) {
+		return new SSHCommandExecutorService (server, commands, runDeadline, runLoadShedder);
 	}
 
 	ThreadManager getThreadManagerInstance() {
 		return ThreadManager.getInstance ();
 	}
 
+	ServerRunGate getServerRunGateInstance() {
+		return ServerRunGate.getSharedInstance ();
+	}
+
+	AdmissionControl getAdmissionControlInstance() {
+		return AdmissionControl.getSharedInstance ();
+	}
+
+	ServerCircuitBreaker getCircuitBreakerInstance() {
+		return ServerCircuitBreaker.getSharedInstance ();
+	}
+
+	/**
+	 * Waits for all the servers until the deadline, the results are handled by
+	 * then as the servers complete.
+	 */
 	private void waitForCompletion() {
 		logger.entry ();
-		Iterator<Future<?>> executableFutureIterator;
-		executableFutureIterator = this.executableFutures.iterator ();
-		while (executableFutureIterator.hasNext ()) {
-			waitForFutureCompletion (executableFutureIterator.next ());
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[this.executableFutures.size ()];
+		futures = this.executableFutures.values ().toArray (futures);
+		try {
+			CompletableFuture.allOf (futures).get (this.deadline.remaining (TimeUnit.NANOSECONDS),
+					TimeUnit.NANOSECONDS);
+		} catch (InterruptedException | ExecutionException e) {
+			handleEaskExecutiaonExceptions (e);
+		} catch (TimeoutException e) {
+			this.logger.error ("Servers unfinished by the run deadline ({}) : {}", this.deadline,
+					unfinishedServers ());
+			handleEaskExecutiaonExceptions (e);
 		}
 		logger.exit ();
 	}
 
-	private void waitForFutureCompletion(Future<?> taskFuture) {
-		this.logger.entry (taskFuture);
-		try {
-			taskFuture.get (ServerExecutionTimeoutInMinutes, TimeUnit.MINUTES);
-		} catch (InterruptedException | ExecutionException | TimeoutException e) {
-			handleEaskExecutiaonExceptions (e);
-		}
-		this.logger.exit ();
+	private Collection<String> unfinishedServers() {
+		Collection<String> unfinishedServers = new LinkedList<String> ();
+		for (Map.Entry<String, CompletableFuture<Void>> executable : this.executableFutures
+				.entrySet ())
+			if (!executable.getValue ().isDone ())
+				unfinishedServers.add (executable.getKey ());
+		return unfinishedServers;
 	}
 
 	private void handleEaskExecutiaonExceptions(Exception e) {
@@ -127,6 +351,71 @@ public class CommandExecutorTask implements RunnableTask {
 		logger.exit ();
 	}
 
+	private void logRunSummary() {
+		Object scheduledTime = "none";
+		if (this.scheduledTimeInMillis > 0)
+			scheduledTime = Instant.ofEpochMilli (this.scheduledTimeInMillis);
+		this.logger.info ("Run #{} : scheduled={}, started={}, ended={}, lag={} ms, "
+				+ "duration={} ms", this.runId, scheduledTime,
+				Instant.ofEpochMilli (this.startTimeInMillis),
+				Instant.ofEpochMilli (this.endTimeInMillis), lagInMillis (),
+				this.endTimeInMillis - this.startTimeInMillis);
+		this.logger.info ("Run summary : servers={}, executed={}, skipped={} {}, "
+				+ "overlapped={} {}", this.executableMap.size (),
+				this.executableFutures.size (), this.skippedServers.size (),
+				this.skippedServers, this.overlappedServers.size (), this.overlappedServers);
+		this.logger.info ("Overlapping runs of servers : {}", getServerRunGateInstance ()
+				.statistics ());
+		if (this.loadShedder.shedCount () > 0)
+			this.logger.warn ("Run summary : shed={} {}, deferred to the next run",
+					this.loadShedder.shedCount (), this.loadShedder.shedExecutables ());
+		if (getCircuitBreakerInstance ().isEnabled ())
+			this.logger.info ("Circuits of unreachable servers : {}",
+					getCircuitBreakerInstance ().statistics ());
+	}
+
+	private void logConnectionPoolStatistics() {
+		SSHConnectionPool pool = SSHConnectionPool.getSharedInstance ();
+		if (pool.isEnabled ())
+			this.logger.info ("Connection pool statistics : {}", pool.statistics ());
+	}
+
+	private void logHandshakeStatistics() {
+		this.logger.info ("Handshake statistics of servers : {}", HandshakeStatistics
+				.getSharedInstance ().statistics ());
+	}
+
+	private void logAdmissionStatistics() {
+		this.logger.info ("Admission control statistics : {}", getAdmissionControlInstance ()
+				.statistics ());
+	}
+
+	private void logJumpHostStatistics() {
+		this.logger.info ("Jump host statistics : {}", JumpHostTunnels.getSharedInstance ()
+				.statistics ());
+	}
+
+	private void logTransferStatistics() {
+		this.logger.info ("Output transfer statistics of servers : {}", TransferStatistics
+				.getSharedInstance ().statistics ());
+	}
+
+	private void logSessionIOStatistics() {
+		if (SessionIOReactor.isEnabled ())
+			this.logger.info ("Session I/O reactor statistics : {}", SessionIOReactor
+					.getSharedInstance ().statistics ());
+	}
+
+	private void logWarmShellStatistics() {
+		WarmShellCache warmShells = WarmShellCache.getSharedInstance ();
+		if (warmShells.size () > 0)
+			this.logger.info ("Warm shell statistics : {}", warmShells.statistics ());
+	}
+
+	private void logThreadPoolStatistics() {
+		this.logger.info ("Thread pool statistics : {}", getThreadManagerInstance ().statistics ());
+	}
+
 	private void alarmIfExceptionsCaught() {
 		logger.entry ("Count of suppressed exception: {}",
 				this.errorCollector.getSuppressed ().length);
@@ -0,0 +1,63 @@
+package com.novicehacks.autobot.executor;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.novicehacks.autobot.config.ApplicationConfig;
+import com.novicehacks.autobot.core.BotUtils;
+import com.novicehacks.autobot.core.types.RunnableTask;
+import com.novicehacks.autobot.executor.ssh.SSHConnectionPool;
+
+/**
+ * Keeps the idle connections in the {@link SSHConnectionPool} alive between
+ * the scheduled runs, to be scheduled every
+ * <em>ConnectionKeepaliveInterval</em>.
+ *
+ * <p>
+ * The keepalive is only done when the pool is enabled and the interval is more
+ * than zero. Failures are only logged, so that the schedule is not cancelled.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see SSHConnectionPool#keepAliveIdleConnections()
+ */
+public class ConnectionKeepaliveTask implements RunnableTask {
+	private boolean threadStarted = false;
+	private Logger logger = LogManager.getLogger (ConnectionKeepaliveTask.class);
+
+	/**
+	 * @return true if idle connections are to be kept alive as per the
+	 *         <em>ConnectionPoolEnabled</em> and
+	 *         <em>ConnectionKeepaliveInterval</em> configurations.
+	 */
+	public static boolean isKeepaliveEnabled() {
+		return SSHConnectionPool.getSharedInstance ().isEnabled () && intervalInSecs () > 0;
+	}
+
+	/**
+	 * @return interval of the keepalive, in seconds.
+	 */
+	public static long intervalInSecs() {
+		String interval = ApplicationConfig.getInstance ().connectionKeepaliveIntervalInSecs ();
+		return BotUtils.convertStringToInt (interval);
+	}
+
+	@Override
+	public void run() {
+		this.threadStarted = true;
+		this.logger.entry ();
+		try {
+			SSHConnectionPool pool = SSHConnectionPool.getSharedInstance ();
+			pool.keepAliveIdleConnections ();
+			this.logger.debug ("Connection pool after keepalive : {}", pool.statistics ());
+		} catch (RuntimeException ex) {
+			this.logger.warn ("Exception raised while keeping the connections alive", ex);
+		}
+		this.logger.exit ();
+	}
+
+	@Override
+	public final boolean isThreadStarted() {
+		return this.threadStarted;
+	}
+}
@@ -0,0 +1,52 @@
+package com.novicehacks.autobot.executor;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.novicehacks.autobot.core.types.RunnableTask;
+import com.novicehacks.autobot.executor.ssh.JumpHostTunnels;
+import com.novicehacks.autobot.executor.ssh.SSHConnectionPool;
+import com.novicehacks.autobot.executor.ssh.sequential.WarmShellCache;
+
+/**
+ * Closes the shells and the connections kept open between the scheduled runs,
+ * and the jump host tunnels, to be run as a shutdown hook of the application,
+ * so that the servers do not hold the sessions of the bot until they time out.
+ * The shells are closed first, as they live on the pooled connections.
+ *
+ * <p>
+ * Failures are only logged, so that the shutdown is not held up.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see WarmShellCache#closeAllShells()
+ * @see SSHConnectionPool#closeAllConnections()
+ * @see JumpHostTunnels#closeAllTunnels()
+ */
+public class ConnectionShutdownTask implements RunnableTask {
+	private boolean threadStarted = false;
+	private Logger logger = LogManager.getLogger (ConnectionShutdownTask.class);
+
+	@Override
+	public void run() {
+		this.threadStarted = true;
+		this.logger.entry ();
+		try {
+			WarmShellCache shellCache = WarmShellCache.getSharedInstance ();
+			this.logger.info ("Closing {} warm shells", shellCache.size ());
+			shellCache.closeAllShells ();
+			SSHConnectionPool pool = SSHConnectionPool.getSharedInstance ();
+			this.logger.info ("Closing {} pooled connections", pool.idleConnectionCount ());
+			pool.closeAllConnections ();
+			JumpHostTunnels.getSharedInstance ().closeAllTunnels ();
+		} catch (RuntimeException ex) {
+			this.logger.warn ("Exception raised while closing the connections", ex);
+		}
+		this.logger.exit ();
+	}
+
+	@Override
+	public final boolean isThreadStarted() {
+		return this.threadStarted;
+	}
+}
@@ -0,0 +1,126 @@
+package com.novicehacks.autobot.executor;
+
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.novicehacks.autobot.config.ApplicationConfig;
+import com.novicehacks.autobot.core.BotUtils;
+import com.novicehacks.autobot.core.TaskPool;
+import com.novicehacks.autobot.core.ThreadManager;
+import com.novicehacks.autobot.core.types.RunnableTask;
+import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.executor.ssh.SSHConnectionPool;
+import com.novicehacks.autobot.executor.ssh.SSHConnectionWarmupTask;
+import com.novicehacks.autobot.executor.ssh.ServerCircuitBreaker;
+import com.novicehacks.autobot.executor.ssh.ServerCircuitBreaker.Circuit;
+
+/**
+ * Opens and authenticates the connections of all the servers in the
+ * {@link ServerExecutableMap} in parallel, ahead of the scheduled
+ * {@link CommandExecutorTask}.
+ *
+ * <p>
+ * The connections are parked in the {@link SSHConnectionPool}, so the warm-up
+ * is only done when the pool is enabled and <em>ConnectionWarmupLeadTime</em>
+ * is more than zero. Warm-up never waits beyond the lead time, so that it does
+ * not delay the run it is preparing for. Servers with an open circuit are not
+ * warmed up, they are retried by the run once their back-off is over.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see SSHConnectionWarmupTask
+ */
+public class ConnectionWarmupTask implements RunnableTask {
+	private boolean threadStarted = false;
+	private Logger logger = LogManager.getLogger (ConnectionWarmupTask.class);
+
+	/**
+	 * @return true if connections are to be warmed up before the runs as per
+	 *         <em>ConnectionPoolEnabled</em> and
+	 *         <em>ConnectionWarmupLeadTime</em> configurations.
+	 */
+	public static boolean isWarmupEnabled() {
+		return SSHConnectionPool.getSharedInstance ().isEnabled () && leadTimeInSecs () > 0;
+	}
+
+	/**
+	 * @return lead time of the warm-up before the run, in seconds.
+	 */
+	public static long leadTimeInSecs() {
+		String leadTime = ApplicationConfig.getInstance ().connectionWarmupLeadTimeInSecs ();
+		return BotUtils.convertStringToInt (leadTime);
+	}
+
+	@Override
+	public void run() {
+		this.threadStarted = true;
+		this.logger.entry ();
+		ServerExecutableMap executableMap = loadExecutables ();
+		if (executableMap != null)
+			waitForWarmup (startWarmup (executableMap.keySet ()));
+		this.logger.exit ();
+	}
+
+	private ServerExecutableMap loadExecutables() {
+		ServerExecutableMap executableMap = null;
+		try {
+			executableMap = ServerExecutableMapGenerator.getSharedInstance ()
+					.generateServerCommandMap ();
+		} catch (InterruptedException ex) {
+			this.logger.error ("Thread Interrupted while creating server executable map", ex);
+			BotUtils.PropogateInterruptIfExist (ex);
+		}
+		return executableMap;
+	}
+
+	private Collection<Future<?>> startWarmup(Collection<Server> servers) {
+		Collection<Future<?>> warmupFutures = new LinkedList<Future<?>> ();
+		this.logger.info ("Warming up connections of {} servers", servers.size ());
+		for (Server server : servers) {
+			if (isCircuitOpen (server))
+				continue;
+			RunnableTask warmupTask = getWarmupTaskInstance (server);
+			warmupFutures.add (getThreadManagerInstance ().submitTaskToThreadPool (
+					TaskPool.Connection, warmupTask));
+		}
+		return warmupFutures;
+	}
+
+	private boolean isCircuitOpen(Server server) {
+		return ServerCircuitBreaker.getSharedInstance ().circuitOf (server) == Circuit.Open;
+	}
+
+	RunnableTask getWarmupTaskInstance(Server server) {
+		return new SSHConnectionWarmupTask (server);
+	}
+
+	ThreadManager getThreadManagerInstance() {
+		return ThreadManager.getInstance ();
+	}
+
+	private void waitForWarmup(Collection<Future<?>> warmupFutures) {
+		long deadline = System.nanoTime () + TimeUnit.SECONDS.toNanos (leadTimeInSecs ());
+		try {
+			for (Future<?> warmupFuture : warmupFutures)
+				warmupFuture.get (deadline - System.nanoTime (), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException ex) {
+			this.logger.warn ("Connection warm-up not completed within the lead time");
+		} catch (ExecutionException ex) {
+			this.logger.warn ("Exception raised while warming up connections", ex);
+		} catch (InterruptedException ex) {
+			BotUtils.PropogateInterruptIfExist (ex);
+		}
+	}
+
+	@Override
+	public final boolean isThreadStarted() {
+		return this.threadStarted;
+	}
+}
@@ -0,0 +1,278 @@
+package com.novicehacks.autobot.executor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.novicehacks.autobot.config.ApplicationConfig;
+import com.novicehacks.autobot.config.ResourceConfig;
+import com.novicehacks.autobot.core.BotUtils;
+import com.novicehacks.autobot.core.HashedTimingWheel;
+import com.novicehacks.autobot.core.ThreadManager;
+import com.novicehacks.autobot.core.types.Command;
+import com.novicehacks.autobot.core.types.Executable;
+import com.novicehacks.autobot.core.types.ExecutableSchedule;
+import com.novicehacks.autobot.core.types.RunnableTask;
+import com.novicehacks.autobot.core.types.Server;
+
+/**
+ * Runs the executables having their own {@link ExecutableSchedule}, to be
+ * scheduled every <em>SchedulerTickDuration</em>.
+ *
+ * <p>
+ * The (server, command) pairs are held in a {@link HashedTimingWheel} until
+ * they are due. On every tick, the pairs due are batched by their server into
+ * a {@link ServerExecutableMap}, and run as one {@link CommandExecutorTask} in
+ * the thread pool, so the commands of a server due together share its
+ * connection. Each pair is then scheduled again for its next run. The run is
+ * given the earliest time its pairs were due, to measure its lag from.
+ * </p>
+ *
+ * <p>
+ * Interval schedules are due first on the tick after the start, cron schedules
+ * at their next matching minute. Failures are only logged, so that the
+ * schedule is not cancelled.
+ * </p>
+ *
+ * <p>
+ * When <em>ExecutionSpreadEnabled</em>, the executables on the common
+ * <em>ExecutableDelay</em> are run by this scheduler as well, and the first run
+ * of every interval schedule is put off by an offset of its server within the
+ * interval. The offset is derived from the hash of the server id, so it stays
+ * the same across restarts, and the servers are spread evenly across the
+ * interval instead of connecting at once. Every run is further put off by a
+ * random <em>ExecutionJitter</em>, without shifting the schedule itself.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see ServerExecutableMapGenerator#scheduledExecutables()
+ */
+public class ExecutableScheduler implements RunnableTask {
+	private final HashedTimingWheel<ScheduledExecutable> timingWheel;
+	private final boolean spreadEnabled;
+	private final long jitterInMillis;
+	private boolean threadStarted = false;
+	private Logger logger = LogManager.getLogger (ExecutableScheduler.class);
+
+	/**
+	 * (server, command) pair with its schedule, and the time it is due next.
+	 */
+	static final class ScheduledExecutable {
+		private final Server server;
+		private final Command command;
+		private final ExecutableSchedule schedule;
+		private long scheduledTimeInMillis;
+
+		ScheduledExecutable (Server server, Command command, ExecutableSchedule schedule) {
+			this.server = server;
+			this.command = command;
+			this.schedule = schedule;
+		}
+	}
+
+	public ExecutableScheduler () {
+		this (new HashedTimingWheel<ScheduledExecutable> (tickDurationInSecs (),
+				TimeUnit.SECONDS, wheelSize ()), isSpreadEnabled (), jitterInMillis ());
+	}
+
+	ExecutableScheduler (HashedTimingWheel<ScheduledExecutable> timingWheel,
+			boolean spreadEnabled, long jitterInMillis) {
+		this.timingWheel = timingWheel;
+		this.spreadEnabled = spreadEnabled;
+		this.jitterInMillis = jitterInMillis;
+	}
+
+	/**
+	 * @return true if the runs are to be spread across their interval as per
+	 *         the <em>ExecutionSpreadEnabled</em> configuration.
+	 */
+	public static boolean isSpreadEnabled() {
+		String enabled = ApplicationConfig.getInstance ().executionSpreadEnabled ();
+		return BotUtils.convertStringToBoolean (enabled);
+	}
+
+	private static long jitterInMillis() {
+		String jitter = ApplicationConfig.getInstance ().executionJitterInSecs ();
+		return TimeUnit.SECONDS.toMillis (Math.max (0, BotUtils.convertStringToInt (jitter)));
+	}
+
+	/**
+	 * @param serverId
+	 * @param intervalInMillis
+	 * @return stable offset of the server within the interval, from the mixed
+	 *         hash of its id so that the similar ids are not bunched together.
+	 */
+	static long spreadOffsetInMillis(String serverId, long intervalInMillis) {
+		long hash = serverId.hashCode ();
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return Math.floorMod (hash, intervalInMillis);
+	}
+
+	/**
+	 * @return resolution of the scheduler as per the
+	 *         <em>SchedulerTickDuration</em> configuration, in seconds.
+	 */
+	public static long tickDurationInSecs() {
+		String tickDuration = ApplicationConfig.getInstance ().schedulerTickDurationInSecs ();
+		return Math.max (1, BotUtils.convertStringToInt (tickDuration));
+	}
+
+	private static int wheelSize() {
+		String wheelSize = ApplicationConfig.getInstance ().schedulerWheelSize ();
+		return Math.max (1, BotUtils.convertStringToInt (wheelSize));
+	}
+
+	/**
+	 * Schedules the executables having a schedule, of the servers and commands
+	 * in the resource config.
+	 *
+	 * @param executables
+	 * @return count of the executables scheduled.
+	 */
+	public int scheduleExecutables(Collection<Executable> executables) {
+		return scheduleExecutables (executables, null);
+	}
+
+	/**
+	 * Schedules the executables of the servers and commands in the resource
+	 * config, the ones without a schedule on the common schedule.
+	 *
+	 * @param executables
+	 * @param commonSchedule
+	 *        of the executables without a schedule, which are not scheduled if
+	 *        it is null.
+	 * @return count of the executables scheduled.
+	 */
+	public int scheduleExecutables(Collection<Executable> executables,
+			ExecutableSchedule commonSchedule) {
+		Map<String, Server> servers = ResourceConfig.getInstance ().serverMap ();
+		Map<String, Command> commands = ResourceConfig.getInstance ().commandMap ();
+		long now = currentTimeInMillis ();
+		int scheduledCount = 0;
+		for (Executable executable : executables) {
+			ExecutableSchedule schedule = executable.getSchedule ();
+			if (schedule == null)
+				schedule = commonSchedule;
+			if (schedule == null)
+				continue;
+			Server server = servers.get (executable.getServerId ());
+			Command command = commands.get (executable.getCommandId ());
+			if (server == null || command == null) {
+				this.logger.warn ("Unknown server / command of executable {}, not scheduled",
+						executable);
+				continue;
+			}
+			ScheduledExecutable scheduledExecutable;
+			scheduledExecutable = new ScheduledExecutable (server, command, schedule);
+			scheduleFirstRun (scheduledExecutable, now);
+			scheduledCount++;
+		}
+		this.logger.info ("Scheduled {} executables : {}", scheduledCount,
+				this.timingWheel.statistics ());
+		return scheduledCount;
+	}
+
+	void scheduleFirstRun(ScheduledExecutable executable, long now) {
+		ExecutableSchedule schedule = executable.schedule;
+		if (!schedule.isInterval ())
+			scheduleAt (executable, schedule.nextRunAfter (now));
+		else if (this.spreadEnabled)
+			scheduleAt (executable, now
+					+ spreadOffsetInMillis (executable.server.id (), schedule.intervalInMillis ()));
+		else
+			scheduleAt (executable, now);
+	}
+
+	/**
+	 * The jitter delays the run, while the next run is scheduled from the time
+	 * without the jitter.
+	 */
+	private void scheduleAt(ScheduledExecutable executable, long scheduledTimeInMillis) {
+		executable.scheduledTimeInMillis = scheduledTimeInMillis;
+		long delayInMillis = scheduledTimeInMillis + jitter () - currentTimeInMillis ();
+		this.timingWheel.schedule (executable, delayInMillis, TimeUnit.MILLISECONDS);
+	}
+
+	long jitter() {
+		if (this.jitterInMillis <= 0)
+			return 0;
+		return ThreadLocalRandom.current ().nextLong (this.jitterInMillis + 1);
+	}
+
+	/**
+	 * Interval schedules keep their cadence, and their spread offset, from the
+	 * previous scheduled time, unless the run is behind by more than an
+	 * interval.
+	 */
+	private void scheduleNextRun(ScheduledExecutable executable, long now) {
+		long nextTime = executable.schedule.nextRunAfter (executable.scheduledTimeInMillis);
+		if (nextTime <= now)
+			nextTime = executable.schedule.nextRunAfter (now);
+		scheduleAt (executable, nextTime);
+	}
+
+	@Override
+	public void run() {
+		this.threadStarted = true;
+		try {
+			List<ScheduledExecutable> dueExecutables = this.timingWheel.advance ();
+			if (dueExecutables.isEmpty ())
+				return;
+			long now = currentTimeInMillis ();
+			long scheduledTimeInMillis = earliestScheduledTime (dueExecutables);
+			for (ScheduledExecutable executable : dueExecutables)
+				scheduleNextRun (executable, now);
+			runDueExecutables (dueExecutables, scheduledTimeInMillis);
+		} catch (RuntimeException ex) {
+			this.logger.warn ("Exception raised while running the scheduled executables", ex);
+		}
+	}
+
+	private long earliestScheduledTime(List<ScheduledExecutable> dueExecutables) {
+		long earliestTime = Long.MAX_VALUE;
+		for (ScheduledExecutable executable : dueExecutables)
+			earliestTime = Math.min (earliestTime, executable.scheduledTimeInMillis);
+		return earliestTime;
+	}
+
+	private void runDueExecutables(List<ScheduledExecutable> dueExecutables,
+			long scheduledTimeInMillis) {
+		ServerExecutableMap executableMap = new ServerExecutableMap ();
+		for (ScheduledExecutable executable : dueExecutables)
+			executableMap.put (executable.server, executable.command);
+		this.logger.info ("Running {} scheduled executables on {} servers",
+				dueExecutables.size (), executableMap.size ());
+		submitRun (executableMap, scheduledTimeInMillis);
+	}
+
+	void submitRun(ServerExecutableMap executableMap, long scheduledTimeInMillis) {
+		ThreadManager.getInstance ().submitTaskToThreadPool (new CommandExecutorTask (
+				executableMap, scheduledTimeInMillis));
+	}
+
+	long currentTimeInMillis() {
+		return System.currentTimeMillis ();
+	}
+
+	/**
+	 * @return executables waiting in the timing wheel, in a readable format for
+	 *         logging.
+	 */
+	public String statistics() {
+		return this.timingWheel.statistics ();
+	}
+
+	@Override
+	public final boolean isThreadStarted() {
+		return this.threadStarted;
+	}
+}
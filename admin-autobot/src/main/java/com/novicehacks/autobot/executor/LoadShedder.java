@@ -0,0 +1,133 @@
+package com.novicehacks.autobot.executor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.novicehacks.autobot.config.ApplicationConfig;
+import com.novicehacks.autobot.core.BotUtils;
+import com.novicehacks.autobot.core.Deadline;
+import com.novicehacks.autobot.core.TaskPool;
+import com.novicehacks.autobot.core.ThreadManager;
+import com.novicehacks.autobot.core.types.Command;
+import com.novicehacks.autobot.core.types.CommandPriority;
+import com.novicehacks.autobot.core.types.Server;
+
+/**
+ * Shedding policy of a run, deciding whether a command is to be shed instead
+ * of being run, as the run has fallen behind.
+ *
+ * <p>
+ * Only the commands of {@link CommandPriority#Bulk} priority are shed, while
+ * the queue of the command thread pool is at or above
+ * <em>LoadSheddingQueueThreshold</em> percent, or the budget remaining for the
+ * run {@link Deadline} is below <em>LoadSheddingDeadlineMargin</em> percent. A
+ * shed command is deferred to the next run, and is reported in the run
+ * summary.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see CommandExecutorTask
+ */
+public class LoadShedder {
+	private final Deadline deadline;
+	private final boolean enabled;
+	private final int queueThreshold;
+	private final int deadlineMargin;
+	private final Queue<String> shedExecutables = new ConcurrentLinkedQueue<String> ();
+	private Logger logger = LogManager.getLogger (LoadShedder.class);
+
+	/**
+	 * @param runDeadline
+	 * @param enabled
+	 * @param queueThreshold
+	 *        percentage of the command queue limit.
+	 * @param deadlineMargin
+	 *        percentage of the run budget.
+	 */
+	public LoadShedder (Deadline runDeadline, boolean enabled, int queueThreshold,
+			int deadlineMargin) {
+		this.deadline = runDeadline;
+		this.enabled = enabled;
+		this.queueThreshold = queueThreshold;
+		this.deadlineMargin = deadlineMargin;
+	}
+
+	/**
+	 * @param runDeadline
+	 * @return shedder of the run as per the <em>LoadShedding*</em>
+	 *         configuration.
+	 */
+	public static LoadShedder of(Deadline runDeadline) {
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		boolean enabled = BotUtils.convertStringToBoolean (config.loadSheddingEnabled ());
+		int queueThreshold = BotUtils.convertStringToInt (config.loadSheddingQueueThreshold ());
+		int deadlineMargin = BotUtils.convertStringToInt (config.loadSheddingDeadlineMargin ());
+		return new LoadShedder (runDeadline, enabled, queueThreshold, deadlineMargin);
+	}
+
+	/**
+	 * @return shedder never shedding any command.
+	 */
+	public static LoadShedder disabled() {
+		return new LoadShedder (null, false, 0, 0);
+	}
+
+	/**
+	 * Records the command as shed if it is to be shed.
+	 *
+	 * @param server
+	 * @param command
+	 * @return true if the command is not to be run on the server in this run.
+	 */
+	public boolean shed(Server server, Command command) {
+		if (!this.enabled || !CommandPriority.of (command).isSheddable ())
+			return false;
+		String reason = overloadReason ();
+		if (reason == null)
+			return false;
+		this.logger.warn ("Shedding {} command {} of server {}, {}", CommandPriority.Bulk,
+				command.id (), server.id (), reason);
+		this.shedExecutables.add (server.id () + ":" + command.id ());
+		return true;
+	}
+
+	/**
+	 * @return reason of the overload, null if the run is not behind.
+	 */
+	private String overloadReason() {
+		int queueUtilization = queueUtilization ();
+		if (queueUtilization >= this.queueThreshold)
+			return "command queue at " + queueUtilization + "%";
+		long budgetInMillis = this.deadline.budget (TimeUnit.MILLISECONDS);
+		long remainingInMillis = this.deadline.remaining (TimeUnit.MILLISECONDS);
+		if (this.deadline.isExpired ()
+				|| remainingInMillis * 100 < budgetInMillis * this.deadlineMargin)
+			return "run deadline near (" + this.deadline + ")";
+		return null;
+	}
+
+	int queueUtilization() {
+		return ThreadManager.getInstance ().queueUtilization (TaskPool.Command);
+	}
+
+	/**
+	 * @return count of the commands shed.
+	 */
+	public int shedCount() {
+		return this.shedExecutables.size ();
+	}
+
+	/**
+	 * @return commands shed as <em>server:command</em>, in the order they were
+	 *         shed.
+	 */
+	public Collection<String> shedExecutables() {
+		return new ArrayList<String> (this.shedExecutables);
+	}
+}
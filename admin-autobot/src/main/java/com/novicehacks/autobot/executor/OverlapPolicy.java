@@ -0,0 +1,53 @@
+package com.novicehacks.autobot.executor;
+
+import com.novicehacks.autobot.config.ApplicationConfig;
+import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.core.types.ServerOption;
+
+/**
+ * Handling of a run of a server started while an earlier run of the server is
+ * still running, as per the <em>OverlapPolicy</em> configuration or the server
+ * option of the same name.
+ *
+ * <ul>
+ * <li><strong>Skip</strong> : the overlapping run is skipped for the server.</li>
+ * <li><strong>Coalesce</strong> : the overlapping runs are merged into a single
+ * run of all their commands, started once the earlier run completes.</li>
+ * <li><strong>Queue</strong> : the overlapping runs are started one after the
+ * other, in the order they overlapped.</li>
+ * </ul>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see ServerRunGate
+ */
+public enum OverlapPolicy {
+	Skip, Coalesce, Queue;
+
+	/**
+	 * @param policy
+	 *        name of the policy, in any case.
+	 * @return the policy.
+	 * @throws IllegalArgumentException
+	 *         if the name is not of a policy.
+	 */
+	public static OverlapPolicy parse(String policy) {
+		for (OverlapPolicy overlapPolicy : values ())
+			if (overlapPolicy.name ().equalsIgnoreCase (policy.trim ()))
+				return overlapPolicy;
+		throw new IllegalArgumentException ("Invalid overlap policy : " + policy);
+	}
+
+	/**
+	 * @param server
+	 * @return policy of the server, {@link #Coalesce} if it is not valid.
+	 */
+	public static OverlapPolicy of(Server server) {
+		String policy = ApplicationConfig.getInstance ().overlapPolicy ();
+		policy = ServerOption.OverlapPolicy.valueFor (server, policy);
+		try {
+			return parse (policy);
+		} catch (IllegalArgumentException | NullPointerException ex) {
+			return Coalesce;
+		}
+	}
+}
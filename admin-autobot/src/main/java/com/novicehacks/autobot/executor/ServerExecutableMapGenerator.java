@@ -1,5 +1,7 @@
 package com.novicehacks.autobot.executor;
 
+import java.util.Collection;
+import java.util.LinkedList;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -86,16 +88,34 @@ public final class ServerExecutableMapGenerator {
 			populateServerCommandMap ();
 	}
 
+	/**
+	 * The executables having their own schedule are left to the
+	 * {@link ExecutableScheduler}.
+	 */
 	private void populateServerCommandMap() {
 		String serverId;
 		String commandId;
 		for (Executable executable : this.executables) {
+			if (executable.isScheduled ())
+				continue;
 			serverId = executable.getServerId ();
 			commandId = executable.getCommandId ();
 			addCommandToMap (serverId, commandId);
 		}
 	}
 
+	/**
+	 * @return executables having their own schedule, not included in the
+	 *         generated map.
+	 */
+	public Collection<Executable> scheduledExecutables() {
+		Collection<Executable> scheduledExecutables = new LinkedList<Executable> ();
+		for (Executable executable : this.executables)
+			if (executable.isScheduled ())
+				scheduledExecutables.add (executable);
+		return scheduledExecutables;
+	}
+
 	private void addCommandToMap(String serverId, String commandId) {
 		Server server;
 		Command command;
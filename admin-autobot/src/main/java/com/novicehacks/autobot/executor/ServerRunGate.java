@@ -0,0 +1,236 @@
+package com.novicehacks.autobot.executor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.novicehacks.autobot.core.types.Command;
+import com.novicehacks.autobot.core.types.Server;
+
+/**
+ * Overlap protection of the runs of a server, shared across the runs. A
+ * server runs the commands of a single run at a time, and a run of the server
+ * started while its earlier run is still running is handled as per the
+ * {@link OverlapPolicy} of the server.
+ *
+ * <p>
+ * Runs queued or coalesced are started by the thread completing the earlier
+ * run, so that no thread waits for the server. The overlaps are counted by
+ * the policy applied, and the run ids involved are logged.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see CommandExecutorTask
+ */
+public class ServerRunGate {
+	private final ConcurrentMap<String, ServerRuns> serverRuns;
+	private final AtomicLong skippedCount = new AtomicLong ();
+	private final AtomicLong coalescedCount = new AtomicLong ();
+	private final AtomicLong queuedCount = new AtomicLong ();
+	private Logger logger = LogManager.getLogger (ServerRunGate.class);
+
+	/**
+	 * Execution of the commands of a server in a run.
+	 */
+	public interface ServerExecution {
+
+		/**
+		 * @param commands
+		 * @return stage completed once the commands of the server are
+		 *         completed.
+		 */
+		CompletableFuture<Void> execute(Collection<Command> commands);
+	}
+
+	/**
+	 * Run of a server waiting for the earlier run, with the commands of the
+	 * runs coalesced into it.
+	 */
+	private static final class PendingRun {
+		private final List<Long> runIds = new ArrayList<Long> ();
+		private final Set<Command> commands = new LinkedHashSet<Command> ();
+		private final CompletableFuture<Void> completion = new CompletableFuture<Void> ();
+		private ServerExecution execution;
+
+		PendingRun (long runId, Collection<Command> commands, ServerExecution execution) {
+			add (runId, commands, execution);
+		}
+
+		/**
+		 * The latest run executes the coalesced commands, within its own
+		 * deadline.
+		 */
+		void add(long runId, Collection<Command> commands, ServerExecution execution) {
+			this.runIds.add (runId);
+			this.commands.addAll (commands);
+			this.execution = execution;
+		}
+	}
+
+	/**
+	 * Run of a server running, and the runs waiting for it.
+	 */
+	private static final class ServerRuns {
+		private long activeRunId;
+		private boolean active;
+		private final Deque<PendingRun> pendingRuns = new LinkedList<PendingRun> ();
+	}
+
+	ServerRunGate () {
+		this.serverRuns = new ConcurrentHashMap<String, ServerRuns> ();
+	}
+
+	private static class ServerRunGateSingleton {
+		private static final ServerRunGate instance = new ServerRunGate ();
+
+		private static ServerRunGate getInstance() {
+			return instance;
+		}
+	}
+
+	public static ServerRunGate getSharedInstance() {
+		return ServerRunGateSingleton.getInstance ();
+	}
+
+	/**
+	 * Executes the commands of the server in the run, unless an earlier run of
+	 * the server is still running, in which case the run is handled as per the
+	 * policy.
+	 *
+	 * @param server
+	 * @param runId
+	 * @param commands
+	 * @param policy
+	 * @param execution
+	 * @return stage completed once the commands of the run are completed on
+	 *         the server, null if the run is skipped.
+	 */
+	public CompletableFuture<Void> run(Server server, long runId, Collection<Command> commands,
+			OverlapPolicy policy, ServerExecution execution) {
+		ServerRuns runs = serverRunsOf (server);
+		synchronized (runs) {
+			if (runs.active)
+				return overlap (server, runs, runId, commands, policy, execution);
+			runs.active = true;
+			runs.activeRunId = runId;
+		}
+		return start (server, runs, commands, execution);
+	}
+
+	private ServerRuns serverRunsOf(Server server) {
+		ServerRuns runs = this.serverRuns.get (server.id ());
+		if (runs != null)
+			return runs;
+		runs = new ServerRuns ();
+		ServerRuns existingRuns = this.serverRuns.putIfAbsent (server.id (), runs);
+		return existingRuns == null ? runs : existingRuns;
+	}
+
+	/**
+	 * To be called holding the lock of the runs of the server.
+	 */
+	private CompletableFuture<Void> overlap(Server server, ServerRuns runs, long runId,
+			Collection<Command> commands, OverlapPolicy policy, ServerExecution execution) {
+		this.logger.warn ("Run #{} of server {} overlaps run #{}, {} it", runId, server.id (),
+				runs.activeRunId, policy.name ().toLowerCase ());
+		switch (policy) {
+		case Skip:
+			this.skippedCount.incrementAndGet ();
+			return null;
+		case Coalesce:
+			this.coalescedCount.incrementAndGet ();
+			PendingRun pendingRun = runs.pendingRuns.peekLast ();
+			if (pendingRun != null) {
+				pendingRun.add (runId, commands, execution);
+				return pendingRun.completion;
+			}
+			break;
+		default:
+			this.queuedCount.incrementAndGet ();
+			break;
+		}
+		PendingRun pendingRun = new PendingRun (runId, commands, execution);
+		runs.pendingRuns.addLast (pendingRun);
+		return pendingRun.completion;
+	}
+
+	/**
+	 * The next pending run of the server is started once the run completes,
+	 * whether it succeeded or not.
+	 */
+	private CompletableFuture<Void> start(final Server server, final ServerRuns runs,
+			Collection<Command> commands, ServerExecution execution) {
+		CompletableFuture<Void> executionStage;
+		try {
+			executionStage = execution.execute (commands);
+		} catch (RuntimeException ex) {
+			executionStage = new CompletableFuture<Void> ();
+			executionStage.completeExceptionally (ex);
+		}
+		executionStage.whenComplete (new BiConsumer<Void, Throwable> () {
+			@Override
+			public void accept(Void result, Throwable failure) {
+				startNextRun (server, runs);
+			}
+		});
+		return executionStage;
+	}
+
+	private void startNextRun(Server server, ServerRuns runs) {
+		final PendingRun nextRun;
+		synchronized (runs) {
+			nextRun = runs.pendingRuns.pollFirst ();
+			if (nextRun == null) {
+				runs.active = false;
+				return;
+			}
+			runs.activeRunId = nextRun.runIds.get (nextRun.runIds.size () - 1);
+		}
+		this.logger.info ("Starting runs {} of server {} after the overlapped run",
+				nextRun.runIds, server.id ());
+		start (server, runs, nextRun.commands, nextRun.execution).whenComplete (
+				new BiConsumer<Void, Throwable> () {
+					@Override
+					public void accept(Void result, Throwable failure) {
+						if (failure == null)
+							nextRun.completion.complete (null);
+						else
+							nextRun.completion.completeExceptionally (failure);
+					}
+				});
+	}
+
+	/**
+	 * @param server
+	 * @return true if a run of the server is running.
+	 */
+	public boolean isRunning(Server server) {
+		ServerRuns runs = this.serverRuns.get (server.id ());
+		if (runs == null)
+			return false;
+		synchronized (runs) {
+			return runs.active;
+		}
+	}
+
+	/**
+	 * @return overlapping runs skipped, coalesced and queued in a readable
+	 *         format for logging.
+	 */
+	public String statistics() {
+		return "skipped=" + this.skippedCount.get () + ", coalesced="
+				+ this.coalescedCount.get () + ", queued=" + this.queuedCount.get ();
+	}
+}
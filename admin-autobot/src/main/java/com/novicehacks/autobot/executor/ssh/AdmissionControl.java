@@ -0,0 +1,118 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.novicehacks.autobot.config.ApplicationConfig;
+import com.novicehacks.autobot.core.BotUtils;
+import com.novicehacks.autobot.core.ConcurrencyLimit;
+import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.core.types.ServerOption;
+
+/**
+ * Admission control of the servers, commands and handshakes, shared across
+ * the runs, each stage being limited by a {@link ConcurrencyLimit}.
+ *
+ * <ul>
+ * <li><strong>Servers</strong> : servers running their commands at once, as
+ * per the <em>MaxConcurrentServers</em> configuration.</li>
+ * <li><strong>Commands</strong> : commands running at once on a server, as per
+ * the <em>MaxConcurrentCommands</em> configuration or the server option of the
+ * same name.</li>
+ * <li><strong>Handshakes</strong> : SSH handshakes in progress at once, as per
+ * the <em>MaxConcurrentHandshakes</em> configuration.</li>
+ * </ul>
+ *
+ * <p>
+ * The limits are created on their first use, as per the configuration loaded
+ * by then.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see ConcurrencyLimit
+ */
+public class AdmissionControl {
+	private final ConcurrencyLimit servers;
+	private final ConcurrencyLimit handshakes;
+	private final int commandsPerServer;
+	private final ConcurrentMap<String, ConcurrencyLimit> serverCommands;
+
+	AdmissionControl (int maxServers, int maxCommandsPerServer, int maxHandshakes) {
+		this.servers = new ConcurrencyLimit (maxServers);
+		this.handshakes = new ConcurrencyLimit (maxHandshakes);
+		this.commandsPerServer = maxCommandsPerServer;
+		this.serverCommands = new ConcurrentHashMap<String, ConcurrencyLimit> ();
+	}
+
+	private static class AdmissionControlSingleton {
+		private static final AdmissionControl instance;
+
+		static {
+			ApplicationConfig config = ApplicationConfig.getInstance ();
+			instance = new AdmissionControl (BotUtils.convertStringToInt (config
+					.maxConcurrentServers ()), BotUtils.convertStringToInt (config
+					.maxConcurrentCommands ()), BotUtils.convertStringToInt (config
+					.maxConcurrentHandshakes ()));
+		}
+
+		private static AdmissionControl getInstance() {
+			return instance;
+		}
+	}
+
+	public static AdmissionControl getSharedInstance() {
+		return AdmissionControlSingleton.getInstance ();
+	}
+
+	/**
+	 * @return limit of the servers running at once.
+	 */
+	public ConcurrencyLimit servers() {
+		return this.servers;
+	}
+
+	/**
+	 * @return limit of the handshakes in progress at once.
+	 */
+	public ConcurrencyLimit handshakes() {
+		return this.handshakes;
+	}
+
+	/**
+	 * @param server
+	 * @return limit of the commands running at once on the server.
+	 */
+	public ConcurrencyLimit commandsOf(Server server) {
+		ConcurrencyLimit commands = this.serverCommands.get (server.id ());
+		if (commands != null)
+			return commands;
+		String maxCommands = String.valueOf (this.commandsPerServer);
+		maxCommands = ServerOption.MaxConcurrentCommands.valueFor (server, maxCommands);
+		commands = new ConcurrencyLimit (BotUtils.convertStringToInt (maxCommands));
+		ConcurrencyLimit existingCommands = this.serverCommands.putIfAbsent (server.id (),
+				commands);
+		return existingCommands == null ? commands : existingCommands;
+	}
+
+	/**
+	 * @return usage and queue wait times of the limits in a readable format for
+	 *         logging, one limit per line.
+	 */
+	public String statistics() {
+		StringBuilder statistics = new StringBuilder ();
+		statistics.append (System.lineSeparator ());
+		statistics.append ("servers : ").append (this.servers.statistics ());
+		statistics.append (System.lineSeparator ());
+		statistics.append ("handshakes : ").append (this.handshakes.statistics ());
+		Map<String, ConcurrencyLimit> sortedCommands;
+		sortedCommands = new TreeMap<String, ConcurrencyLimit> (this.serverCommands);
+		for (Map.Entry<String, ConcurrencyLimit> commands : sortedCommands.entrySet ()) {
+			statistics.append (System.lineSeparator ());
+			statistics.append ("commands of ").append (commands.getKey ()).append (" : ")
+					.append (commands.getValue ().statistics ());
+		}
+		return statistics.toString ();
+	}
+}
@@ -0,0 +1,151 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wraps a {@link SSHConnection} so that sessions are opened only within its
+ * {@link ChannelBudget}. A channel is taken from the budget when the session
+ * is opened, and returned when the session is closed.
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see ChannelBudget
+ */
+public class BudgetedSSHConnection implements SSHConnection {
+	private final SSHConnection connection;
+	private final ChannelBudget channelBudget;
+
+	/**
+	 * Session returning its channel to the budget on close.
+	 */
+	private class BudgetedSSHSession implements SSHSession {
+		private final SSHSession session;
+		private final AtomicBoolean closed = new AtomicBoolean ();
+
+		BudgetedSSHSession (SSHSession session) {
+			this.session = session;
+		}
+
+		@Override
+		public OutputStream stdInputStream() {
+			return this.session.stdInputStream ();
+		}
+
+		@Override
+		public InputStream stdOutputStream() {
+			return this.session.stdOutputStream ();
+		}
+
+		@Override
+		public InputStream stdErrorStream() {
+			return this.session.stdErrorStream ();
+		}
+
+		@Override
+		public void startShell() throws IOException {
+			this.session.startShell ();
+		}
+
+		@Override
+		public void getTerminal() throws IOException {
+			this.session.getTerminal ();
+		}
+
+		@Override
+		public void execCommand(String command) throws IOException {
+			this.session.execCommand (command);
+		}
+
+		@Override
+		public boolean isRemoteCompleted() {
+			return this.session.isRemoteCompleted ();
+		}
+
+		@Override
+		public boolean isRemoteClosed() {
+			return this.session.isRemoteClosed ();
+		}
+
+		@Override
+		public void closeSession() {
+			try {
+				this.session.closeSession ();
+			} finally {
+				if (this.closed.compareAndSet (false, true))
+					BudgetedSSHConnection.this.channelBudget.release ();
+			}
+		}
+	}
+
+	public BudgetedSSHConnection (SSHConnection connection, ChannelBudget channelBudget) {
+		if (connection == null || channelBudget == null)
+			throw new IllegalArgumentException ("Connection and channel budget cannot be null");
+		this.connection = connection;
+		this.channelBudget = channelBudget;
+	}
+
+	public ChannelBudget channelBudget() {
+		return this.channelBudget;
+	}
+
+	@Override
+	public void connect() throws IOException {
+		this.connection.connect ();
+	}
+
+	@Override
+	public void connect(int keyExchangeTimeoutInMillis, int connectionTimeoutInMillis)
+			throws IOException {
+		this.connection.connect (keyExchangeTimeoutInMillis, connectionTimeoutInMillis);
+	}
+
+	@Override
+	public void disconnect() {
+		this.connection.disconnect ();
+	}
+
+	@Override
+	public boolean authenticateConnectionWithUsernameAndPassword(String username, String password)
+			throws IOException {
+		return this.connection.authenticateConnectionWithUsernameAndPassword (username, password);
+	}
+
+	/**
+	 * Waits for a channel in the budget before opening the session.
+	 *
+	 * @throws InterruptedIOException
+	 *         if interrupted while waiting for a channel.
+	 */
+	@Override
+	public SSHSession openSession() throws IOException {
+		acquireChannel ();
+		try {
+			return new BudgetedSSHSession (this.connection.openSession ());
+		} catch (IOException | RuntimeException ex) {
+			this.channelBudget.release ();
+			throw ex;
+		}
+	}
+
+	private void acquireChannel() throws InterruptedIOException {
+		try {
+			this.channelBudget.acquire ();
+		} catch (InterruptedException ex) {
+			Thread.currentThread ().interrupt ();
+			throw new InterruptedIOException ("Interrupted while waiting for a channel");
+		}
+	}
+
+	@Override
+	public boolean isConnectionAvailable() {
+		return this.connection.isConnectionAvailable ();
+	}
+
+	@Override
+	public boolean isAuthenticated() {
+		return this.connection.isAuthenticated ();
+	}
+}
@@ -0,0 +1,54 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts the bytes read through the wrapped stream.
+ * 
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see TransferStatistics
+ */
+public class ByteCountingInputStream extends FilterInputStream {
+	private long byteCount;
+
+	public ByteCountingInputStream (InputStream stream) {
+		super (stream);
+	}
+
+	@Override
+	public int read() throws IOException {
+		int value = super.read ();
+		if (value != -1)
+			this.byteCount++;
+		return value;
+	}
+
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+		int count = super.read (buffer, offset, length);
+		if (count > 0)
+			this.byteCount += count;
+		return count;
+	}
+
+	@Override
+	public long skip(long length) throws IOException {
+		long count = super.skip (length);
+		this.byteCount += count;
+		return count;
+	}
+
+	/**
+	 * Marking is not supported, so that re-read bytes are not counted twice.
+	 */
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	public long byteCount() {
+		return this.byteCount;
+	}
+}
@@ -0,0 +1,115 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the sessions (channels) opened in parallel on a single connection, so
+ * that the server's sshd <em>MaxSessions</em> is not exceeded. Sessions beyond
+ * the budget wait in a fair queue until a session is closed.
+ *
+ * <p>
+ * Keeps track of the sessions opened, the sessions that had to wait for a
+ * channel, the total wait time and the peak channels in use, for tuning the
+ * budget of a server.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see BudgetedSSHConnection
+ */
+public class ChannelBudget {
+	private final int budget;
+	private final Semaphore channels;
+	private final AtomicInteger channelsInUse = new AtomicInteger ();
+	private final AtomicInteger peakChannelsInUse = new AtomicInteger ();
+	private final AtomicLong openedCount = new AtomicLong ();
+	private final AtomicLong queuedCount = new AtomicLong ();
+	private final AtomicLong waitTimeInNanos = new AtomicLong ();
+
+	/**
+	 * @param budget
+	 *        maximum channels opened in parallel.
+	 * @throws IllegalArgumentException
+	 *         if budget is less than 1.
+	 */
+	public ChannelBudget (int budget) {
+		if (budget < 1)
+			throw new IllegalArgumentException ("Channel budget should be at least 1 : " + budget);
+		this.budget = budget;
+		this.channels = new Semaphore (budget, true);
+	}
+
+	/**
+	 * Takes a channel from the budget, waiting for one to be released if the
+	 * budget is exhausted.
+	 *
+	 * @throws InterruptedException
+	 */
+	public void acquire() throws InterruptedException {
+		if (!this.channels.tryAcquire ())
+			waitForChannel ();
+		this.openedCount.incrementAndGet ();
+		updatePeakChannelsInUse (this.channelsInUse.incrementAndGet ());
+	}
+
+	private void waitForChannel() throws InterruptedException {
+		long waitStart = System.nanoTime ();
+		this.queuedCount.incrementAndGet ();
+		try {
+			this.channels.acquire ();
+		} finally {
+			this.waitTimeInNanos.addAndGet (System.nanoTime () - waitStart);
+		}
+	}
+
+	private void updatePeakChannelsInUse(int inUse) {
+		int peak;
+		do {
+			peak = this.peakChannelsInUse.get ();
+		} while (inUse > peak && !this.peakChannelsInUse.compareAndSet (peak, inUse));
+	}
+
+	/**
+	 * Returns the channel to the budget, to be called once for every
+	 * {@link #acquire()}.
+	 */
+	public void release() {
+		this.channelsInUse.decrementAndGet ();
+		this.channels.release ();
+	}
+
+	public int budget() {
+		return this.budget;
+	}
+
+	public int channelsInUse() {
+		return this.channelsInUse.get ();
+	}
+
+	public int peakChannelsInUse() {
+		return this.peakChannelsInUse.get ();
+	}
+
+	public long openedCount() {
+		return this.openedCount.get ();
+	}
+
+	public long queuedCount() {
+		return this.queuedCount.get ();
+	}
+
+	public long waitTimeInMillis() {
+		return TimeUnit.NANOSECONDS.toMillis (this.waitTimeInNanos.get ());
+	}
+
+	/**
+	 * @return budget usage in a readable format for logging.
+	 */
+	public String statistics() {
+		return "budget=" + budget () + ", opened=" + openedCount () + ", queued="
+				+ queuedCount () + ", peak=" + peakChannelsInUse () + ", waitMillis="
+				+ waitTimeInMillis ();
+	}
+}
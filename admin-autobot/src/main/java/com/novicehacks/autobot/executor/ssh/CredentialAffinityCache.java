@@ -0,0 +1,322 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.novicehacks.autobot.config.ApplicationConfig;
+import com.novicehacks.autobot.core.BotUtils;
+import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.core.types.ServerCredential;
+
+/**
+ * Remembers the credential that last authenticated on a server, and the
+ * credentials that failed on it, so that {@link DefaultSSHConnectionUtil} does
+ * not try every credential in configured order on every run.
+ *
+ * <p>
+ * The last successful credential is tried first. Failed credentials are tried
+ * last until <em>CredentialFailureExpiry</em> elapses, so that a transient
+ * lockout does not leave the server without any credential to try. A failure
+ * is recorded against an HMAC of the login id and the password, so a password
+ * changed in the servers file is not held back by the failures of the old
+ * one. The HMAC is keyed by a random secret of the install, kept in the
+ * <em>.key</em> file next to the cache, so that the recorded failures cannot
+ * be matched against guessed passwords without it.
+ * </p>
+ *
+ * <p>
+ * The cache is persisted to <em>CredentialCacheFile</em>, passwords are never
+ * written to the file. The cache and the secret files are created readable by
+ * their owner only, where the file system supports POSIX permissions.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see DefaultSSHConnectionUtil
+ */
+public class CredentialAffinityCache {
+	private static final String PreferredKeySuffix = ".preferred";
+	private static final String FailedKeyInfix = ".failed.";
+	private static final String SecretFileSuffix = ".key";
+	private static final String HmacAlgorithm = "HmacSHA256";
+	private static final int SecretLengthInBytes = 32;
+	private static final Set<PosixFilePermission> OwnerOnlyPermissions = PosixFilePermissions
+			.fromString ("rw-------");
+	private Properties cache;
+	private Mac credentialMac;
+	private Logger logger = LogManager.getLogger (CredentialAffinityCache.class);
+
+	CredentialAffinityCache () {}
+
+	private static class CredentialAffinityCacheSingleton {
+		private static final CredentialAffinityCache instance = new CredentialAffinityCache ();
+
+		private static CredentialAffinityCache getInstance() {
+			return instance;
+		}
+	}
+
+	public static CredentialAffinityCache getSharedInstance() {
+		return CredentialAffinityCacheSingleton.getInstance ();
+	}
+
+	/**
+	 * Orders the credentials of the server for authentication, last successful
+	 * credential first followed by the others in configured order. Credentials
+	 * that failed recently are moved to the end.
+	 *
+	 * @param server
+	 * @return credentials to be tried on the server, in order.
+	 */
+	public synchronized List<ServerCredential> credentialsInOrder(Server server) {
+		List<ServerCredential> credentials = new ArrayList<ServerCredential> ();
+		List<ServerCredential> failedCredentials = new ArrayList<ServerCredential> ();
+		String preferredLoginid = cache ().getProperty (preferredKey (server));
+		for (ServerCredential credential : server.credentials ()) {
+			if (hasFailedRecently (server, credential)) {
+				this.logger.debug ("Trying failed credential {} last on server {}",
+						credential.getLoginid (), server.id ());
+				failedCredentials.add (credential);
+			} else if (credential.getLoginid ().equals (preferredLoginid)) {
+				credentials.add (0, credential);
+			} else {
+				credentials.add (credential);
+			}
+		}
+		credentials.addAll (failedCredentials);
+		return credentials;
+	}
+
+	private boolean hasFailedRecently(Server server, ServerCredential credential) {
+		String failedKey = failedKey (server, credential);
+		String failedUntil = cache ().getProperty (failedKey);
+		if (failedUntil == null)
+			return false;
+		if (now () < Long.parseLong (failedUntil))
+			return true;
+		cache ().remove (failedKey);
+		return false;
+	}
+
+	/**
+	 * Marks the credential to be tried first on the server in the later runs.
+	 *
+	 * @param server
+	 * @param credential
+	 */
+	public synchronized void recordSuccess(Server server, ServerCredential credential) {
+		String preferredKey = preferredKey (server);
+		String loginid = credential.getLoginid ();
+		Object failed = cache ().remove (failedKey (server, credential));
+		if (failed != null || !loginid.equals (cache ().getProperty (preferredKey))) {
+			cache ().setProperty (preferredKey, loginid);
+			persist ();
+		}
+	}
+
+	/**
+	 * Marks the credential to be skipped on the server until the failure
+	 * expires.
+	 *
+	 * @param server
+	 * @param credential
+	 */
+	public synchronized void recordFailure(Server server, ServerCredential credential) {
+		String preferredKey = preferredKey (server);
+		if (credential.getLoginid ().equals (cache ().getProperty (preferredKey)))
+			cache ().remove (preferredKey);
+		long failedUntil = now () + failureExpiryInMillis ();
+		cache ().setProperty (failedKey (server, credential), String.valueOf (failedUntil));
+		persist ();
+	}
+
+	private String preferredKey(Server server) {
+		return server.id () + PreferredKeySuffix;
+	}
+
+	private String failedKey(Server server, ServerCredential credential) {
+		return server.id () + FailedKeyInfix + credentialHash (credential);
+	}
+
+	/**
+	 * @return hex of the HMAC of the login id and the password under the secret
+	 *         of the install, so that the password is not written to the cache
+	 *         file.
+	 */
+	private String credentialHash(ServerCredential credential) {
+		String loginidAndPassword = credential.getLoginid () + '\u0000'
+				+ credential.getPassword ();
+		StringBuilder hash = new StringBuilder ();
+		for (byte hashByte : credentialMac ().doFinal (loginidAndPassword
+				.getBytes (StandardCharsets.UTF_8)))
+			hash.append (String.format ("%02x", hashByte));
+		return hash.toString ();
+	}
+
+	private Mac credentialMac() {
+		if (this.credentialMac == null) {
+			try {
+				Mac mac = Mac.getInstance (HmacAlgorithm);
+				mac.init (new SecretKeySpec (secret (), HmacAlgorithm));
+				this.credentialMac = mac;
+			} catch (NoSuchAlgorithmException | InvalidKeyException ex) {
+				throw new IllegalStateException (HmacAlgorithm + " not supported by the JVM", ex);
+			}
+		}
+		return this.credentialMac;
+	}
+
+	/**
+	 * @return secret of the install read from the secret file, or a new random
+	 *         secret written to it if missing. A secret that cannot be written
+	 *         is kept in memory, and the failures recorded under it are not
+	 *         matched after a restart.
+	 */
+	private byte[] secret() {
+		Path secretFile = secretFilePath ();
+		if (Files.exists (secretFile)) {
+			try {
+				byte[] secret = Files.readAllBytes (secretFile);
+				if (secret.length == SecretLengthInBytes)
+					return secret;
+				this.logger.warn ("Invalid credential cache secret {}, replacing it", secretFile);
+			} catch (IOException ex) {
+				this.logger.warn ("Unable to read credential cache secret {}, replacing it",
+						secretFile, ex);
+			}
+		}
+		byte[] secret = new byte[SecretLengthInBytes];
+		new SecureRandom ().nextBytes (secret);
+		try {
+			createParentFolderIfRequired (secretFile);
+			createOwnerOnlyFile (secretFile);
+			Files.write (secretFile, secret);
+		} catch (IOException ex) {
+			this.logger.warn ("Unable to write credential cache secret {}", secretFile, ex);
+		}
+		return secret;
+	}
+
+	private Properties cache() {
+		if (this.cache == null)
+			this.cache = load ();
+		return this.cache;
+	}
+
+	private Properties load() {
+		Properties properties = new Properties ();
+		Path cacheFile = cacheFilePath ();
+		if (Files.exists (cacheFile)) {
+			try (Reader reader = Files.newBufferedReader (cacheFile, StandardCharsets.UTF_8)) {
+				properties.load (reader);
+			} catch (IOException | IllegalArgumentException ex) {
+				this.logger.warn ("Unable to read credential cache {}, starting afresh",
+						cacheFile, ex);
+				properties.clear ();
+			}
+		}
+		removeExpiredFailures (properties);
+		return properties;
+	}
+
+	/**
+	 * Drops the failures expired, including the ones recorded under a secret
+	 * no longer in use, which are never matched again.
+	 */
+	private void removeExpiredFailures(Properties properties) {
+		for (String key : properties.stringPropertyNames ()) {
+			if (!key.contains (FailedKeyInfix))
+				continue;
+			try {
+				if (now () < Long.parseLong (properties.getProperty (key)))
+					continue;
+			} catch (NumberFormatException ex) {
+				this.logger.debug ("Invalid failure {} in credential cache", key, ex);
+			}
+			properties.remove (key);
+		}
+	}
+
+	private void persist() {
+		Path cacheFile = cacheFilePath ();
+		try {
+			createParentFolderIfRequired (cacheFile);
+			createOwnerOnlyFile (cacheFile);
+			try (Writer writer = Files.newBufferedWriter (cacheFile, StandardCharsets.UTF_8)) {
+				this.cache.store (writer, "Autobot credential affinity cache");
+			}
+		} catch (IOException ex) {
+			this.logger.warn ("Unable to write credential cache {}", cacheFile, ex);
+		}
+	}
+
+	private void createParentFolderIfRequired(Path cacheFile) throws IOException {
+		Path parentFolder = cacheFile.toAbsolutePath ().getParent ();
+		if (parentFolder != null && Files.notExists (parentFolder))
+			Files.createDirectories (parentFolder);
+	}
+
+	/**
+	 * Creates the file readable and writable by its owner only, or restricts
+	 * the permissions of the existing file. The permissions are left as they
+	 * are on file systems not supporting POSIX permissions.
+	 */
+	private void createOwnerOnlyFile(Path file) throws IOException {
+		try {
+			if (Files.notExists (file))
+				Files.createFile (file, PosixFilePermissions.asFileAttribute (OwnerOnlyPermissions));
+			else
+				Files.setPosixFilePermissions (file, OwnerOnlyPermissions);
+		} catch (UnsupportedOperationException ex) {
+			this.logger.debug ("POSIX permissions not supported for {}", file, ex);
+			if (Files.notExists (file))
+				Files.createFile (file);
+		}
+	}
+
+	/**
+	 * Drops the in-memory cache, so that it is read again from the cache file
+	 * when used next.
+	 */
+	public synchronized void reload() {
+		this.cache = null;
+	}
+
+	Path cacheFilePath() {
+		return Paths.get (ApplicationConfig.getInstance ().credentialCacheFile ());
+	}
+
+	Path secretFilePath() {
+		Path cacheFile = cacheFilePath ();
+		return cacheFile.resolveSibling (cacheFile.getFileName () + SecretFileSuffix);
+	}
+
+	long failureExpiryInMillis() {
+		String expiry = ApplicationConfig.getInstance ().credentialFailureExpiryInMins ();
+		return TimeUnit.MINUTES.toMillis (BotUtils.convertStringToInt (expiry));
+	}
+
+	long now() {
+		return System.currentTimeMillis ();
+	}
+}
@@ -1,11 +1,17 @@
 package com.novicehacks.autobot.executor.ssh;
 
 import java.io.IOException;
+import java.net.InetAddress;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import ch.ethz.ssh2.Connection;
+import ch.ethz.ssh2.ConnectionInfo;
+import ch.ethz.ssh2.ConnectionMonitor;
+import ch.ethz.ssh2.LocalStreamForwarder;
+import ch.ethz.ssh2.ServerHostKeyVerifier;
 import ch.ethz.ssh2.Session;
 
 import com.novicehacks.autobot.core.BotUtils;
@@ -13,6 +19,12 @@ import com.novicehacks.autobot.core.BotUtils;
 /**
  * Single point of entry to the 3rd SSH library for creating SSH connections.
  * 
+ * <p>
+ * A connection can be tunnelled through a port forwarded by a jump host with
+ * {@link #connectThrough(int)}, the host key is still verified against the
+ * server's own address.
+ * </p>
+ * 
  * @author Sharath Chand Bhaskara for NoviceHacks!
  *
  */
@@ -21,6 +33,14 @@ public final class DefaultSSHConnection implements SSHConnection {
 	private String IPAddress;
 	private ConnectionFactory factory;
 	private boolean isAuthenticated = false;
+	private volatile boolean connectionLost = false;
+	private SSHAlgorithmPreferences algorithmPreferences;
+	private ServerHostKeyVerifier hostKeyVerifier;
+	private long handshakeDurationInMillis;
+	private ConnectionInfo connectionInfo;
+	private int tunnelPort;
+	private static final String LoopbackAddress = InetAddress.getLoopbackAddress ()
+			.getHostAddress ();
 	public static final String IPAddressRegex = "\\w{1,}(\\.\\w{1,}){1,2}|((\\d{1,3})\\.){3}\\d{1,3}";
 	public static final String ConnectionUnavailableMsg = "Connect method should be called before authentication";
 	public static final String IPAddressNullMsg = "IP Address cannot be null";
@@ -33,6 +53,44 @@ public final class DefaultSSHConnection implements SSHConnection {
 		Connection createConnection(String ipAddress) {
 			return new Connection (ipAddress);
 		}
+
+		Connection createConnection(String ipAddress, int port) {
+			return new Connection (ipAddress, port);
+		}
+	}
+
+	/**
+	 * Verifies the host key of a tunnelled connection against the server's
+	 * address instead of the loopback address of the tunnel.
+	 */
+	private class TunnelledHostKeyVerifier implements ServerHostKeyVerifier {
+		private final ServerHostKeyVerifier verifier;
+
+		TunnelledHostKeyVerifier (ServerHostKeyVerifier verifier) {
+			this.verifier = verifier;
+		}
+
+		@Override
+		public boolean verifyServerHostKey(	String hostname,
+											int port,
+											String serverHostKeyAlgorithm,
+											byte[] serverHostKey) throws Exception {
+			return this.verifier.verifyServerHostKey (DefaultSSHConnection.this.IPAddress, port,
+					serverHostKeyAlgorithm, serverHostKey);
+		}
+	}
+
+	/**
+	 * Marks the connection as lost, when the underlying transport is closed by
+	 * the remote or the network.
+	 */
+	private class ConnectionLostMonitor implements ConnectionMonitor {
+		@Override
+		public void connectionLost(Throwable reason) {
+			DefaultSSHConnection.this.logger.debug ("Connection lost to {}",
+					DefaultSSHConnection.this.IPAddress, reason);
+			DefaultSSHConnection.this.connectionLost = true;
+		}
 	}
 
 	/**
@@ -77,11 +135,119 @@ public final class DefaultSSHConnection implements SSHConnection {
 	public void connect(int keyExchangeTimeoutInMillis, int connectionTimeoutInMillis)
 			throws IOException {
 		this.logger.entry ();
-		this.connection = this.factory.createConnection (this.IPAddress);
-		this.connection.connect (null, connectionTimeoutInMillis, keyExchangeTimeoutInMillis);
+		this.connection = createConnection ();
+		this.connectionLost = false;
+		this.connection.addConnectionMonitor (new ConnectionLostMonitor ());
+		applyAlgorithmPreferences ();
+		long handshakeStart = System.nanoTime ();
+		this.connectionInfo = this.connection.connect (hostKeyVerifier (),
+				connectionTimeoutInMillis, keyExchangeTimeoutInMillis);
+		this.handshakeDurationInMillis = TimeUnit.NANOSECONDS.toMillis (System.nanoTime ()
+				- handshakeStart);
 		this.logger.exit ();
 	}
 
+	private Connection createConnection() {
+		if (isTunnelled ())
+			return this.factory.createConnection (LoopbackAddress, this.tunnelPort);
+		else
+			return this.factory.createConnection (this.IPAddress);
+	}
+
+	private ServerHostKeyVerifier hostKeyVerifier() {
+		if (isTunnelled () && this.hostKeyVerifier != null)
+			return new TunnelledHostKeyVerifier (this.hostKeyVerifier);
+		else
+			return this.hostKeyVerifier;
+	}
+
+	/**
+	 * Connects through the local port forwarded to this server by a jump host,
+	 * to be set before connecting.
+	 * 
+	 * @param localPort
+	 *        local port of the tunnel.
+	 * @see JumpHostTunnels
+	 */
+	public void connectThrough(int localPort) {
+		this.tunnelPort = localPort;
+	}
+
+	/**
+	 * @return true if the connection goes through a jump host tunnel.
+	 */
+	public boolean isTunnelled() {
+		return this.tunnelPort > 0;
+	}
+
+	/**
+	 * Opens a channel to a host reachable from this server, so that this
+	 * connection can be used as a jump host.
+	 * 
+	 * @param host
+	 *        host to connect from this server.
+	 * @param port
+	 *        port to connect on the host.
+	 * @return streams of the channel, to be closed when no more needed.
+	 * @throws IOException
+	 *         if the channel cannot be opened.
+	 */
+	public LocalStreamForwarder forwardStream(String host, int port) throws IOException {
+		checkForValidConnection ();
+		if (!this.isAuthenticated)
+			throw new IllegalStateException (NotAuthenticatedMsg);
+		return this.connection.createLocalStreamForwarder (host, port);
+	}
+
+	private void applyAlgorithmPreferences() {
+		String[] knownHostKeyAlgorithms = null;
+		if (this.hostKeyVerifier instanceof KnownHostsCache)
+			knownHostKeyAlgorithms = ((KnownHostsCache) this.hostKeyVerifier)
+					.preferredHostKeyAlgorithms (this.IPAddress);
+		if (this.algorithmPreferences != null)
+			this.algorithmPreferences.applyTo (this.connection, knownHostKeyAlgorithms);
+	}
+
+	/**
+	 * Algorithms to be preferred in the key exchange, to be set before
+	 * connecting. Library defaults are used when not set.
+	 * 
+	 * @param algorithmPreferences
+	 */
+	public void setAlgorithmPreferences(SSHAlgorithmPreferences algorithmPreferences) {
+		this.algorithmPreferences = algorithmPreferences;
+	}
+
+	/**
+	 * Verifier of the server host key, to be set before connecting. Any host
+	 * key is accepted when not set.
+	 * 
+	 * @param hostKeyVerifier
+	 */
+	public void setHostKeyVerifier(ServerHostKeyVerifier hostKeyVerifier) {
+		this.hostKeyVerifier = hostKeyVerifier;
+	}
+
+	/**
+	 * @return time taken by the last connect, including the key exchange.
+	 */
+	public long handshakeDurationInMillis() {
+		return this.handshakeDurationInMillis;
+	}
+
+	/**
+	 * @return algorithms negotiated in the last key exchange in a readable
+	 *         format, empty if not connected.
+	 */
+	public String negotiatedAlgorithms() {
+		ConnectionInfo info = this.connectionInfo;
+		if (info == null)
+			return "";
+		return "kex=" + info.keyExchangeAlgorithm + ", hostkey=" + info.serverHostKeyAlgorithm
+				+ ", cipher=" + info.clientToServerCryptoAlgorithm + ", mac="
+				+ info.clientToServerMACAlgorithm;
+	}
+
 	@Override
 	public void disconnect() {
 		this.logger.entry ();
@@ -111,7 +277,7 @@ public final class DefaultSSHConnection implements SSHConnection {
 		this.logger.entry ();
 		checkForValidConnection ();
 		session = openSessionIfAuthenticated ();
-		sessionWrapper = new DefaultSSHSession (session);
+		sessionWrapper = new DefaultSSHSession (session, this);
 		this.logger.exit ();
 		return sessionWrapper;
 	}
@@ -154,4 +320,45 @@ public final class DefaultSSHConnection implements SSHConnection {
 		return this.isAuthenticated;
 	}
 
+	/**
+	 * A connection is alive when it is connected, authenticated and the
+	 * transport is not reported as lost.
+	 * 
+	 * @return true if sessions can be opened on this connection, false
+	 *         otherwise.
+	 */
+	public boolean isConnectionAlive() {
+		return isConnectionAvailable () && isAuthenticated () && !this.connectionLost;
+	}
+
+	/**
+	 * Round trip with the server by opening and closing a session, without
+	 * executing anything on it. The connection is marked as lost if the round
+	 * trip fails.
+	 * 
+	 * @return true if the server responded.
+	 */
+	public boolean ping() {
+		if (!isConnectionAlive ())
+			return false;
+		try {
+			Session session = this.connection.openSession ();
+			session.close ();
+			return true;
+		} catch (IOException | IllegalStateException ex) {
+			this.logger.debug ("Ping to {} failed", this.IPAddress, ex);
+			this.connectionLost = true;
+			return false;
+		}
+	}
+
+	/**
+	 * Host address used by this connection.
+	 * 
+	 * @return
+	 */
+	public String ipAddress() {
+		return this.IPAddress;
+	}
+
 }
@@ -7,6 +7,7 @@ import org.apache.logging.log4j.Logger;
 
 import com.novicehacks.autobot.config.ApplicationConfig;
 import com.novicehacks.autobot.core.BotUtils;
+import com.novicehacks.autobot.core.Deadline;
 import com.novicehacks.autobot.core.types.Server;
 import com.novicehacks.autobot.core.types.ServerCredential;
 import com.novicehacks.autobot.executor.ssh.exception.ServerConnectionException;
@@ -25,12 +26,24 @@ public final class DefaultSSHConnectionUtil {
 
 	Server server;
 	DefaultSSHConnection connection;
+	Deadline deadline;
 	Logger logger = LogManager.getLogger (DefaultSSHConnectionUtil.class);
 
 	DefaultSSHConnectionUtil (Server unixServer) {
 		this.server = unixServer;
 	}
 
+	/**
+	 * @param unixServer
+	 * @param runDeadline
+	 *        limiting the connect and key exchange timeouts to the remaining
+	 *        budget of the run.
+	 */
+	DefaultSSHConnectionUtil (Server unixServer, Deadline runDeadline) {
+		this (unixServer);
+		this.deadline = runDeadline;
+	}
+
 	/**
 	 * 
 	 * @return {@link ch.ethz.ssh2.Connection Connection} Authenticated
@@ -40,30 +53,138 @@ public final class DefaultSSHConnectionUtil {
 	 *         if connection / authentication is failed on the server
 	 */
 	public DefaultSSHConnection getAuthenticatedConnection() {
+		this.connection = borrowPooledConnectionIfEnabled ();
+		if (this.connection == null)
+			connectToServerAndAuthenticate ();
+		return this.connection;
+	}
+
+	/**
+	 * @return new authenticated connection, without borrowing from the pool.
+	 * @throws ServerConnectionException
+	 *         if connection / authentication is failed on the server
+	 */
+	DefaultSSHConnection getNewAuthenticatedConnection() {
 		connectToServerAndAuthenticate ();
 		return this.connection;
 	}
 
+	private DefaultSSHConnection borrowPooledConnectionIfEnabled() {
+		SSHConnectionPool pool = getConnectionPool ();
+		if (!pool.isEnabled ())
+			return null;
+		else if (this.deadline == null)
+			return pool.borrowConnection (this.server);
+		else
+			return pool.borrowConnection (this.server, this.deadline);
+	}
+
+	SSHConnectionPool getConnectionPool() {
+		return SSHConnectionPool.getSharedInstance ();
+	}
+
+	AdmissionControl getAdmissionControl() {
+		return AdmissionControl.getSharedInstance ();
+	}
+
+	ServerCircuitBreaker getCircuitBreaker() {
+		return ServerCircuitBreaker.getSharedInstance ();
+	}
+
 	private void connectToServerAndAuthenticate() {
 		this.logger.entry ();
+		checkDeadline ();
+		probeServer ();
+		admitHandshake ();
 		try {
 			initiateConnectionToServer ();
 			authenticateServerConnection ();
 		} catch (IOException ex) {
+			closeUnusableConnection ();
 			throw new ServerConnectionException ("Unable to connect / authenticate server: "
 					+ this.server.id (), ex);
+		} catch (ServerConnectionException ex) {
+			closeUnusableConnection ();
+			throw ex;
+		} finally {
+			getAdmissionControl ().handshakes ().release ();
 		}
 		this.logger.exit ();
 	}
 
+	/**
+	 * Waits for a handshake permit of the {@link AdmissionControl}, until the
+	 * run deadline.
+	 */
+	private void admitHandshake() {
+		try {
+			if (getAdmissionControl ().handshakes ().acquire (this.deadline))
+				return;
+		} catch (InterruptedException ex) {
+			BotUtils.PropogateInterruptIfExist (ex);
+			throw new ServerConnectionException ("Interrupted before connecting server: "
+					+ this.server.id (), ex);
+		}
+		throw new ServerConnectionException (
+				"Run deadline exceeded while waiting to connect server: " + this.server.id ());
+	}
+
+	private void checkDeadline() {
+		if (this.deadline != null && this.deadline.isExpired ())
+			throw new ServerConnectionException ("Run deadline exceeded before connecting server: "
+					+ this.server.id ());
+	}
+
+	JumpHostTunnels getJumpHostTunnels() {
+		return JumpHostTunnels.getSharedInstance ();
+	}
+
+	/**
+	 * Servers behind a jump host are not reachable directly, they are not
+	 * probed.
+	 */
+	private void probeServer() {
+		if (JumpHostTunnels.isTunnelled (this.server))
+			return;
+		if (!getCircuitBreaker ().probe (this.server))
+			throw new ServerConnectionException ("Server not reachable: " + this.server.id ());
+	}
+
 	private void initiateConnectionToServer() throws IOException {
 		int keyExchangeTimeout = 10 * 30 * 1000;
 		String connectionTimeoutStr = ApplicationConfig.getInstance ().serverConnectionTimeoutInMins  ();
 		int connectionTimeout = BotUtils.convertStringToInt (connectionTimeoutStr);
-		// HostKeyVerifier set to null to accept any server host key
+		if (this.deadline != null) {
+			keyExchangeTimeout = this.deadline.clampTimeoutInMillis (keyExchangeTimeout);
+			connectionTimeout = this.deadline.clampTimeoutInMillis (connectionTimeout);
+		}
 		this.logger.debug ("Connecting to : {}", this.server.ipaddress ());
 		this.connection = DefaultSSHConnection.getNewInstance (this.server.ipaddress ());
-		this.connection.connect (keyExchangeTimeout, connectionTimeout);
+		this.connection.setAlgorithmPreferences (SSHAlgorithmPreferences.forServer (this.server));
+		// Host key trusted on first use, verified against KnownHostsFile later on
+		this.connection.setHostKeyVerifier (KnownHostsCache.getSharedInstance ());
+		try {
+			connectThroughJumpHostIfRequired ();
+			this.connection.connect (keyExchangeTimeout, connectionTimeout);
+		} catch (IOException ex) {
+			getCircuitBreaker ().recordFailure (this.server);
+			throw ex;
+		}
+		getCircuitBreaker ().recordSuccess (this.server);
+		recordHandshake ();
+	}
+
+	private void connectThroughJumpHostIfRequired() throws IOException {
+		if (JumpHostTunnels.isTunnelled (this.server))
+			this.connection.connectThrough (getJumpHostTunnels ().forwardedPort (this.server));
+	}
+
+	private void recordHandshake() {
+		long duration = this.connection.handshakeDurationInMillis ();
+		String algorithms = this.connection.negotiatedAlgorithms ();
+		this.logger.debug ("Handshake with server {} took {} ms using {}", this.server.id (),
+				duration, algorithms);
+		HandshakeStatistics.getSharedInstance ().record (this.server.id (), duration, algorithms);
 	}
 
 	private void authenticateServerConnection() {
@@ -75,22 +196,35 @@ public final class DefaultSSHConnectionUtil {
 		}
 	}
 
+	/**
+	 * Tries the credentials in the order suggested by
+	 * {@link CredentialAffinityCache}, and records the outcome in it.
+	 */
 	private Boolean authenticateWithServerCredentials() {
 		boolean authenticated = false;
-		for (ServerCredential credential : this.server.credentials ()) {
+		CredentialAffinityCache credentialCache = getCredentialCache ();
+		for (ServerCredential credential : credentialCache.credentialsInOrder (this.server)) {
 			authenticated = authenticateConnection (credential);
-			if (authenticated)
+			if (authenticated) {
+				credentialCache.recordSuccess (this.server, credential);
 				break;
+			}
 		}
 		return authenticated;
 	}
 
+	CredentialAffinityCache getCredentialCache() {
+		return CredentialAffinityCache.getSharedInstance ();
+	}
+
 	private Boolean authenticateConnection(ServerCredential credential) {
 		boolean authenticated = false;
 		String username = credential.getLoginid ();
 		String password = credential.getPassword ();
 		try {
 			authenticated = authenticateWithUsernamePassword (username, password);
+			if (!authenticated)
+				getCredentialCache ().recordFailure (this.server, credential);
 		} catch (IOException ex) {
 			this.logger.error ("Authentication with {} on server {} Failed",
 					credential.getLoginid (), this.server.id (), ex);
@@ -108,9 +242,18 @@ public final class DefaultSSHConnectionUtil {
 		return authenticated;
 	}
 
+	private void closeUnusableConnection() {
+		if (this.connection != null && this.connection.isConnectionAvailable ())
+			this.connection.disconnect ();
+	}
+
 	/**
 	 * Closes SSH connection passed to it. If different with its own connection,
 	 * then closes both for preventing any memory leaks.
+	 * <p>
+	 * When the connection pool is enabled, the connection passed is returned to
+	 * the {@link SSHConnectionPool} instead of closing it.
+	 * </p>
 	 * 
 	 * @param connection
 	 * @throws ServerConnectionException
@@ -121,19 +264,28 @@ public final class DefaultSSHConnectionUtil {
 		if (connection == null)
 			throw new ServerConnectionException ("Invalid connection passed to disconnect",
 					new NullPointerException ());
+		else if (getConnectionPool ().isEnabled ())
+			getConnectionPool ().releaseConnection (this.server, connection);
 		else
-			closeConnection ();
+			closeConnection (connection);
 	}
 
-	private void closeConnection() {
-		if (this.connection != null)
-			if (this.connection.equals (this.connection)) {
-				this.connection.disconnect ();
-			} else {
-				this.connection.disconnect ();
-				this.connection.disconnect ();
-			}
-		else
+	/**
+	 * Closes the connection without returning it to the {@link SSHConnectionPool},
+	 * as its sessions may still be running after the run deadline.
+	 * 
+	 * @param connection
+	 */
+	public void discard(DefaultSSHConnection connection) {
+		this.logger.debug ("Discarding the connection of server {}", this.server.id ());
+		if (connection != null && connection.isConnectionAvailable ())
+			connection.disconnect ();
+	}
+
+	private void closeConnection(DefaultSSHConnection connection) {
+		connection.disconnect ();
+		if (this.connection != null && !this.connection.equals (connection)
+				&& this.connection.isConnectionAvailable ())
 			this.connection.disconnect ();
 	}
 }
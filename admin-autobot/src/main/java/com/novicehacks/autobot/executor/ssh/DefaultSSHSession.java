@@ -10,6 +10,7 @@ import java.util.concurrent.locks.ReentrantLock;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import ch.ethz.ssh2.ChannelCondition;
 import ch.ethz.ssh2.Session;
 
 /**
@@ -21,6 +22,7 @@ import ch.ethz.ssh2.Session;
 public final class DefaultSSHSession implements SSHSession {
 
 	private Session session;
+	private DefaultSSHConnection connection;
 	private AtomicBoolean sessionClosed = new AtomicBoolean (false);
 	private AtomicBoolean commandExecuted = new AtomicBoolean (false);
 	private AtomicBoolean terminalRequested = new AtomicBoolean (false);
@@ -37,7 +39,17 @@ public final class DefaultSSHSession implements SSHSession {
 	private Logger logger = LogManager.getLogger (DefaultSSHSession.class);
 
 	DefaultSSHSession (Session session) {
+		this (session, null);
+	}
+
+	/**
+	 * @param session
+	 * @param connection
+	 *        the session is opened on, whose loss closes the session.
+	 */
+	DefaultSSHSession (Session session, DefaultSSHConnection connection) {
 		this.session = session;
+		this.connection = connection;
 		this.remoteOutputStream = session.getStdout ();
 		this.remoteInputStream = session.getStdin ();
 		this.remoteErrorStream = session.getStderr ();
@@ -132,6 +144,32 @@ public final class DefaultSSHSession implements SSHSession {
 		this.logger.exit ();
 	}
 
+	/**
+	 * Remote is completed when it has exited and the end of its output is
+	 * received. The end of output is checked only after the exit, so that the
+	 * check hardly waits.
+	 */
+	@Override
+	public boolean isRemoteCompleted() {
+		if (this.session.getExitStatus () == null && this.session.getExitSignal () == null)
+			return false;
+		int outputEnd = ChannelCondition.EOF | ChannelCondition.CLOSED;
+		return (this.session.waitForCondition (outputEnd, 1) & outputEnd) != 0;
+	}
+
+	/**
+	 * The library tells a closed channel only through a timed wait on its
+	 * conditions, so the session is taken as closed once its connection is
+	 * disconnected or reported lost, which closes all its channels, without
+	 * waiting at all.
+	 */
+	@Override
+	public boolean isRemoteClosed() {
+		if (this.sessionClosed.get ())
+			return true;
+		return this.connection != null && !this.connection.isConnectionAlive ();
+	}
+
 	private void throwExceptionIfSessionClosed() {
 		if (this.sessionClosed.get ())
 			throw new IllegalStateException (SessionClosedMsg);
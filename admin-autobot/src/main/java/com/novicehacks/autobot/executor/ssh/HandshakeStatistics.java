@@ -0,0 +1,120 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per server record of the SSH handshake (connect and key exchange) durations,
+ * along with the algorithms negotiated in the last handshake. Used for
+ * comparing the cost of the algorithm preferences across the servers.
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see SSHAlgorithmPreferences
+ */
+public class HandshakeStatistics {
+	private final Map<String, HandshakeRecord> records;
+
+	/**
+	 * Handshake durations of a single server.
+	 */
+	public static final class HandshakeRecord {
+		private long count;
+		private long totalMillis;
+		private long minMillis = Long.MAX_VALUE;
+		private long maxMillis;
+		private long lastMillis;
+		private String lastAlgorithms;
+
+		private void add(long durationInMillis, String algorithms) {
+			this.count++;
+			this.totalMillis += durationInMillis;
+			this.minMillis = Math.min (this.minMillis, durationInMillis);
+			this.maxMillis = Math.max (this.maxMillis, durationInMillis);
+			this.lastMillis = durationInMillis;
+			this.lastAlgorithms = algorithms;
+		}
+
+		public long count() {
+			return this.count;
+		}
+
+		public long averageMillis() {
+			return this.totalMillis / this.count;
+		}
+
+		public long minMillis() {
+			return this.minMillis;
+		}
+
+		public long maxMillis() {
+			return this.maxMillis;
+		}
+
+		public long lastMillis() {
+			return this.lastMillis;
+		}
+
+		public String lastAlgorithms() {
+			return this.lastAlgorithms;
+		}
+
+		@Override
+		public String toString() {
+			return "handshakes=" + this.count + ", avgMillis=" + averageMillis () + ", minMillis="
+					+ this.minMillis + ", maxMillis=" + this.maxMillis + ", lastMillis="
+					+ this.lastMillis + ", algorithms=[" + this.lastAlgorithms + "]";
+		}
+	}
+
+	HandshakeStatistics () {
+		this.records = new TreeMap<String, HandshakeRecord> ();
+	}
+
+	private static class HandshakeStatisticsSingleton {
+		private static final HandshakeStatistics instance = new HandshakeStatistics ();
+
+		private static HandshakeStatistics getInstance() {
+			return instance;
+		}
+	}
+
+	public static HandshakeStatistics getSharedInstance() {
+		return HandshakeStatisticsSingleton.getInstance ();
+	}
+
+	/**
+	 * @param serverId
+	 * @param durationInMillis
+	 * @param algorithms
+	 *        negotiated algorithms in a readable format.
+	 */
+	public synchronized void record(String serverId, long durationInMillis, String algorithms) {
+		HandshakeRecord record = this.records.get (serverId);
+		if (record == null) {
+			record = new HandshakeRecord ();
+			this.records.put (serverId, record);
+		}
+		record.add (durationInMillis, algorithms);
+	}
+
+	/**
+	 * @param serverId
+	 * @return handshake record of the server, null if not connected yet.
+	 */
+	public synchronized HandshakeRecord recordOf(String serverId) {
+		return this.records.get (serverId);
+	}
+
+	/**
+	 * @return handshake records of all the servers in a readable format for
+	 *         logging, one server per line.
+	 */
+	public synchronized String statistics() {
+		StringBuilder statistics = new StringBuilder ();
+		for (Map.Entry<String, HandshakeRecord> record : this.records.entrySet ()) {
+			statistics.append (System.lineSeparator ());
+			statistics.append (record.getKey ()).append (" : ").append (record.getValue ());
+		}
+		return statistics.toString ();
+	}
+}
@@ -0,0 +1,208 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.novicehacks.autobot.config.ResourceConfig;
+import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.core.types.ServerOption;
+import com.novicehacks.autobot.executor.ssh.exception.ServerConnectionException;
+
+/**
+ * Tunnels to the servers reachable only through a jump host (bastion), named
+ * with <em>option#JumpHost=serverId</em> in the server configuration. The jump
+ * host is itself a server of the configuration, and provides its address and
+ * credentials.
+ *
+ * <p>
+ * A single authenticated connection is kept open to each jump host, apart from
+ * the connection pool, and a {@link LoopbackTunnel} is opened over it to every
+ * server behind it. The servers then connect through their forwarded port, so
+ * N servers behind a jump host cost one handshake with the jump host. Tunnels
+ * are reused across the runs, are opened again when the jump host connection
+ * is lost, and are closed on shutdown.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see DefaultSSHConnection#connectThrough(int)
+ */
+public class JumpHostTunnels {
+	private static final int SSHPort = 22;
+	private final Map<String, JumpHost> jumpHosts;
+	private Logger logger = LogManager.getLogger (JumpHostTunnels.class);
+
+	/**
+	 * Shared connection to a jump host, along with the tunnels opened over it
+	 * keyed by the server id.
+	 */
+	private static final class JumpHost {
+		private final Server server;
+		private final Map<String, LoopbackTunnel> tunnels;
+		private DefaultSSHConnection connection;
+		private long connectCount;
+
+		JumpHost (Server server) {
+			this.server = server;
+			this.tunnels = new HashMap<String, LoopbackTunnel> ();
+		}
+
+		@Override
+		public String toString() {
+			return "connects=" + this.connectCount + ", tunnels=" + this.tunnels.keySet ();
+		}
+	}
+
+	JumpHostTunnels () {
+		this.jumpHosts = new TreeMap<String, JumpHost> ();
+	}
+
+	private static class JumpHostTunnelsSingleton {
+		private static final JumpHostTunnels instance = new JumpHostTunnels ();
+
+		private static JumpHostTunnels getInstance() {
+			return instance;
+		}
+	}
+
+	public static JumpHostTunnels getSharedInstance() {
+		return JumpHostTunnelsSingleton.getInstance ();
+	}
+
+	/**
+	 * @param server
+	 * @return true if the server is to be connected through a jump host.
+	 */
+	public static boolean isTunnelled(Server server) {
+		return jumpHostIdOf (server) != null;
+	}
+
+	private static String jumpHostIdOf(Server server) {
+		String jumpHostId = ServerOption.JumpHost.valueFor (server, "").trim ();
+		return jumpHostId.isEmpty () ? null : jumpHostId;
+	}
+
+	/**
+	 * Local port forwarded to the server through its jump host, connecting to
+	 * the jump host and opening the tunnel if required.
+	 *
+	 * @param server
+	 * @return local port to connect for reaching the server.
+	 * @throws ServerConnectionException
+	 *         if the jump host is not configured or cannot be connected.
+	 * @throws IOException
+	 *         if the tunnel cannot be opened.
+	 */
+	public int forwardedPort(Server server) throws IOException {
+		JumpHost jumpHost = jumpHostOf (server);
+		synchronized (jumpHost) {
+			connectIfRequired (jumpHost);
+			LoopbackTunnel tunnel = jumpHost.tunnels.get (server.id ());
+			if (tunnel == null) {
+				tunnel = openTunnel (jumpHost, server);
+				jumpHost.tunnels.put (server.id (), tunnel);
+			}
+			return tunnel.localPort ();
+		}
+	}
+
+	private synchronized JumpHost jumpHostOf(Server server) {
+		String jumpHostId = jumpHostIdOf (server);
+		JumpHost jumpHost = this.jumpHosts.get (jumpHostId);
+		if (jumpHost == null) {
+			Server jumpHostServer = serverOf (jumpHostId);
+			if (jumpHostServer == null || jumpHostServer.equals (server))
+				throw new ServerConnectionException ("Invalid jump host " + jumpHostId
+						+ " for server : " + server.id ());
+			jumpHost = new JumpHost (jumpHostServer);
+			this.jumpHosts.put (jumpHostId, jumpHost);
+		}
+		return jumpHost;
+	}
+
+	Server serverOf(String serverId) {
+		return ResourceConfig.getInstance ().serverMap ().get (serverId);
+	}
+
+	private void connectIfRequired(JumpHost jumpHost) {
+		if (jumpHost.connection != null && jumpHost.connection.isConnectionAlive ())
+			return;
+		if (jumpHost.connection != null) {
+			this.logger.info ("Connection to jump host {} lost, reconnecting",
+					jumpHost.server.id ());
+			closeTunnels (jumpHost);
+			closeQuietly (jumpHost.connection);
+		}
+		jumpHost.connection = null;
+		jumpHost.connection = connectToJumpHost (jumpHost.server);
+		jumpHost.connectCount++;
+	}
+
+	/**
+	 * @param jumpHostServer
+	 * @return new authenticated connection to the jump host, not borrowed from
+	 *         the connection pool.
+	 */
+	DefaultSSHConnection connectToJumpHost(Server jumpHostServer) {
+		DefaultSSHConnectionUtil jumpHostHandle = new DefaultSSHConnectionUtil (jumpHostServer);
+		return jumpHostHandle.getNewAuthenticatedConnection ();
+	}
+
+	private LoopbackTunnel openTunnel(JumpHost jumpHost, Server server) throws IOException {
+		LoopbackTunnel tunnel;
+		tunnel = new LoopbackTunnel (jumpHost.connection, server.ipaddress (), SSHPort);
+		tunnel.start ();
+		this.logger.info ("Tunnel opened to server {} through jump host {} on port {}",
+				server.id (), jumpHost.server.id (), tunnel.localPort ());
+		return tunnel;
+	}
+
+	private void closeTunnels(JumpHost jumpHost) {
+		Iterator<LoopbackTunnel> tunnels = jumpHost.tunnels.values ().iterator ();
+		while (tunnels.hasNext ()) {
+			tunnels.next ().close ();
+			tunnels.remove ();
+		}
+	}
+
+	private void closeQuietly(DefaultSSHConnection connection) {
+		try {
+			if (connection.isConnectionAvailable ())
+				connection.disconnect ();
+		} catch (RuntimeException ex) {
+			this.logger.debug ("Unable to close jump host connection", ex);
+		}
+	}
+
+	/**
+	 * Closes the tunnels and the connections of all the jump hosts.
+	 */
+	public synchronized void closeAllTunnels() {
+		for (JumpHost jumpHost : this.jumpHosts.values ()) {
+			synchronized (jumpHost) {
+				closeTunnels (jumpHost);
+				if (jumpHost.connection != null)
+					closeQuietly (jumpHost.connection);
+				jumpHost.connection = null;
+			}
+		}
+	}
+
+	/**
+	 * @return connects and tunnels of the jump hosts in a readable format for
+	 *         logging, one jump host per line.
+	 */
+	public synchronized String statistics() {
+		StringBuilder statistics = new StringBuilder ();
+		for (Map.Entry<String, JumpHost> jumpHost : this.jumpHosts.entrySet ()) {
+			statistics.append (System.lineSeparator ());
+			statistics.append (jumpHost.getKey ()).append (" : ").append (jumpHost.getValue ());
+		}
+		return statistics.toString ();
+	}
+}
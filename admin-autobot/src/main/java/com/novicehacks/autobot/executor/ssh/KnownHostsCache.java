@@ -0,0 +1,142 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import ch.ethz.ssh2.KnownHosts;
+import ch.ethz.ssh2.ServerHostKeyVerifier;
+
+import com.novicehacks.autobot.config.ApplicationConfig;
+import com.novicehacks.autobot.core.BotUtils;
+
+/**
+ * Local cache of the host keys seen on the servers, kept in the OpenSSH
+ * known_hosts format in <em>KnownHostsFile</em>.
+ *
+ * <p>
+ * Host keys of new servers are trusted on first use and added to the cache. A
+ * changed host key is refused when <em>StrictHostKeyChecking</em> is enabled,
+ * otherwise it is accepted with a warning. The known host key algorithm is also
+ * preferred in the key exchange, to avoid negotiating a host key that has to be
+ * verified afresh.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see DefaultSSHConnection
+ */
+public class KnownHostsCache implements ServerHostKeyVerifier {
+	private KnownHosts knownHosts;
+	private Logger logger = LogManager.getLogger (KnownHostsCache.class);
+
+	KnownHostsCache () {}
+
+	private static class KnownHostsCacheSingleton {
+		private static final KnownHostsCache instance = new KnownHostsCache ();
+
+		private static KnownHostsCache getInstance() {
+			return instance;
+		}
+	}
+
+	public static KnownHostsCache getSharedInstance() {
+		return KnownHostsCacheSingleton.getInstance ();
+	}
+
+	@Override
+	public synchronized boolean verifyServerHostKey(String hostname,
+													int port,
+													String serverHostKeyAlgorithm,
+													byte[] serverHostKey) throws IOException {
+		int verification;
+		verification = knownHosts ().verifyHostkey (hostname, serverHostKeyAlgorithm,
+				serverHostKey);
+		if (verification == KnownHosts.HOSTKEY_IS_OK)
+			return true;
+		else if (verification == KnownHosts.HOSTKEY_IS_NEW)
+			return addHostKey (hostname, serverHostKeyAlgorithm, serverHostKey);
+		else
+			return acceptChangedHostKey (hostname, serverHostKeyAlgorithm, serverHostKey);
+	}
+
+	private boolean addHostKey(String hostname, String algorithm, byte[] hostKey)
+			throws IOException {
+		String[] hostnames = new String[] { hostname };
+		this.logger.info ("Adding host key of {} to known hosts : {}", hostname,
+				KnownHosts.createHexFingerprint (algorithm, hostKey));
+		knownHosts ().addHostkey (hostnames, algorithm, hostKey);
+		try {
+			KnownHosts.addHostkeyToFile (knownHostsFile (), hostnames, algorithm, hostKey);
+		} catch (IOException ex) {
+			this.logger.warn ("Unable to write known hosts file {}", knownHostsFile (), ex);
+		}
+		return true;
+	}
+
+	private boolean acceptChangedHostKey(String hostname, String algorithm, byte[] hostKey) {
+		String fingerprint = KnownHosts.createHexFingerprint (algorithm, hostKey);
+		if (isStrictHostKeyChecking ()) {
+			this.logger.error ("Host key of {} has changed to {}, refusing to connect", hostname,
+					fingerprint);
+			return false;
+		}
+		this.logger.warn ("Host key of {} has changed to {}, accepting it", hostname,
+				fingerprint);
+		return true;
+	}
+
+	/**
+	 * @param hostname
+	 * @return host key algorithms in the preferred order for a known host, null
+	 *         if the host is not known or the library order suits it.
+	 */
+	public synchronized String[] preferredHostKeyAlgorithms(String hostname) {
+		return knownHosts ().getPreferredServerHostkeyAlgorithmOrder (hostname);
+	}
+
+	private KnownHosts knownHosts() {
+		if (this.knownHosts == null)
+			this.knownHosts = load ();
+		return this.knownHosts;
+	}
+
+	private KnownHosts load() {
+		KnownHosts loadedHosts = new KnownHosts ();
+		File knownHostsFile = knownHostsFile ();
+		if (knownHostsFile.exists ()) {
+			try {
+				loadedHosts.addHostkeys (knownHostsFile);
+			} catch (IOException ex) {
+				this.logger.warn ("Unable to read known hosts file {}", knownHostsFile, ex);
+			}
+		} else {
+			createParentFolderIfRequired (knownHostsFile);
+		}
+		return loadedHosts;
+	}
+
+	private void createParentFolderIfRequired(File knownHostsFile) {
+		File parentFolder = knownHostsFile.getAbsoluteFile ().getParentFile ();
+		if (parentFolder != null && !parentFolder.exists () && !parentFolder.mkdirs ())
+			this.logger.warn ("Unable to create folder for known hosts file {}", knownHostsFile);
+	}
+
+	/**
+	 * Drops the in-memory cache, so that it is read again from the known hosts
+	 * file when used next.
+	 */
+	public synchronized void reload() {
+		this.knownHosts = null;
+	}
+
+	File knownHostsFile() {
+		return new File (ApplicationConfig.getInstance ().knownHostsFile ());
+	}
+
+	boolean isStrictHostKeyChecking() {
+		String strict = ApplicationConfig.getInstance ().strictHostKeyChecking ();
+		return BotUtils.convertStringToBoolean (strict);
+	}
+}
@@ -0,0 +1,197 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import ch.ethz.ssh2.LocalStreamForwarder;
+
+import com.novicehacks.autobot.core.ThreadManager;
+
+/**
+ * Local port forwarded to a host over the connection of a jump host.
+ *
+ * <p>
+ * The port is bound to the loopback address only, and is bound once by the
+ * tunnel for its whole life, so that no other host on the network can relay
+ * through it and no other process can take the port in between. Each
+ * connection accepted on the port is piped to a channel opened on the jump
+ * host by {@link DefaultSSHConnection#forwardStream(String, int)}.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see JumpHostTunnels
+ */
+final class LoopbackTunnel implements Runnable {
+	private static final int Backlog = 16;
+	private static final int BufferSize = 32 * 1024;
+	private final DefaultSSHConnection jumpHostConnection;
+	private final String host;
+	private final int port;
+	private final ServerSocket serverSocket;
+	private final Set<ForwardedConnection> forwardedConnections;
+	private Logger logger = LogManager.getLogger (LoopbackTunnel.class);
+
+	/**
+	 * Connection accepted on the local port, along with the channel it is
+	 * piped to. Closing either end closes both.
+	 */
+	private final class ForwardedConnection implements Closeable {
+		private final Socket socket;
+		private final LocalStreamForwarder channel;
+		private final AtomicBoolean closed = new AtomicBoolean ();
+
+		ForwardedConnection (Socket socket, LocalStreamForwarder channel) {
+			this.socket = socket;
+			this.channel = channel;
+		}
+
+		private void start() throws IOException {
+			pipe (this.socket.getInputStream (), this.channel.getOutputStream (), this);
+			pipe (this.channel.getInputStream (), this.socket.getOutputStream (), this);
+		}
+
+		@Override
+		public void close() {
+			if (!this.closed.compareAndSet (false, true))
+				return;
+			LoopbackTunnel.this.forwardedConnections.remove (this);
+			closeQuietly (this.socket);
+			try {
+				this.channel.close ();
+			} catch (IOException ex) {
+				LoopbackTunnel.this.logger.debug ("Unable to close channel to {}",
+						LoopbackTunnel.this.host, ex);
+			}
+		}
+	}
+
+	/**
+	 * @param jumpHostConnection
+	 *        authenticated connection to the jump host.
+	 * @param host
+	 *        host to connect from the jump host.
+	 * @param port
+	 *        port to connect on the host.
+	 * @throws IOException
+	 *         if the loopback port cannot be bound.
+	 */
+	LoopbackTunnel (DefaultSSHConnection jumpHostConnection, String host, int port)
+			throws IOException {
+		this.jumpHostConnection = jumpHostConnection;
+		this.host = host;
+		this.port = port;
+		this.forwardedConnections = Collections
+				.newSetFromMap (new ConcurrentHashMap<ForwardedConnection, Boolean> ());
+		this.serverSocket = new ServerSocket (0, Backlog, InetAddress.getLoopbackAddress ());
+	}
+
+	/**
+	 * Starts accepting the connections on the local port, on a thread of its
+	 * own.
+	 */
+	void start() {
+		ThreadManager.getInstance ().newIOThread (this, "TunnelThread-" + this.host + "-"
+				+ localPort ()).start ();
+	}
+
+	/**
+	 * @return local port forwarded to the host.
+	 */
+	int localPort() {
+		return this.serverSocket.getLocalPort ();
+	}
+
+	/**
+	 * @return local address the port is bound to, always a loopback address.
+	 */
+	InetAddress localAddress() {
+		return this.serverSocket.getInetAddress ();
+	}
+
+	@Override
+	public void run() {
+		while (!this.serverSocket.isClosed ()) {
+			Socket socket;
+			try {
+				socket = this.serverSocket.accept ();
+			} catch (IOException ex) {
+				if (!this.serverSocket.isClosed ())
+					this.logger.warn ("Tunnel to {} stopped accepting connections", this.host, ex);
+				return;
+			}
+			forward (socket);
+		}
+	}
+
+	private void forward(Socket socket) {
+		LocalStreamForwarder channel;
+		try {
+			channel = this.jumpHostConnection.forwardStream (this.host, this.port);
+		} catch (IOException | RuntimeException ex) {
+			this.logger.warn ("Unable to open channel to {} through the jump host", this.host, ex);
+			closeQuietly (socket);
+			return;
+		}
+		ForwardedConnection forwardedConnection = new ForwardedConnection (socket, channel);
+		this.forwardedConnections.add (forwardedConnection);
+		try {
+			forwardedConnection.start ();
+		} catch (IOException ex) {
+			this.logger.warn ("Unable to forward connection to {}", this.host, ex);
+			forwardedConnection.close ();
+		}
+	}
+
+	private void pipe(final InputStream input, final OutputStream output,
+			final ForwardedConnection forwardedConnection) {
+		Runnable pipeTask = new Runnable () {
+			@Override
+			public void run() {
+				byte[] buffer = new byte[BufferSize];
+				try {
+					int length;
+					while ((length = input.read (buffer)) >= 0) {
+						output.write (buffer, 0, length);
+						output.flush ();
+					}
+				} catch (IOException ex) {
+					LoopbackTunnel.this.logger.trace ("Forwarded connection to {} ended",
+							LoopbackTunnel.this.host, ex);
+				} finally {
+					forwardedConnection.close ();
+				}
+			}
+		};
+		ThreadManager.getInstance ().newIOThread (pipeTask, "TunnelPipeThread-" + this.host)
+				.start ();
+	}
+
+	/**
+	 * Stops accepting connections, and closes the connections forwarded so far.
+	 */
+	void close() {
+		closeQuietly (this.serverSocket);
+		for (ForwardedConnection forwardedConnection : this.forwardedConnections)
+			forwardedConnection.close ();
+	}
+
+	private void closeQuietly(Closeable closeable) {
+		try {
+			closeable.close ();
+		} catch (IOException ex) {
+			this.logger.debug ("Unable to close tunnel socket", ex);
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import com.novicehacks.autobot.config.ApplicationConfig;
+import com.novicehacks.autobot.core.BotUtils;
+import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.core.types.ServerOption;
+
+/**
+ * Compression of the command output between the server and autobot, enabled
+ * by <em>OutputCompression</em> or the server option of the same name.
+ * 
+ * <p>
+ * The SSH library does not support transport compression, so the output of the
+ * command is compressed with gzip on the server and decompressed while reading
+ * it. gzip is hence required on the servers for which it is enabled.
+ * </p>
+ * 
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see TransferStatistics
+ */
+public final class OutputCompression {
+	private static final String CompressedCommandFormat = "( %s ) | gzip -c";
+
+	private OutputCompression () {}
+
+	/**
+	 * @param server
+	 * @return true if the output of the commands on the server is to be
+	 *         compressed.
+	 */
+	public static boolean isEnabled(Server server) {
+		String compression = ApplicationConfig.getInstance ().outputCompression ();
+		compression = ServerOption.OutputCompression.valueFor (server, compression);
+		return BotUtils.convertStringToBoolean (compression);
+	}
+
+	/**
+	 * @param command
+	 * @return command compressing its standard output with gzip.
+	 */
+	public static String compressedCommand(String command) {
+		return String.format (CompressedCommandFormat, command);
+	}
+
+	/**
+	 * @param compressedOutput
+	 *        standard output of a {@link #compressedCommand(String)}.
+	 * @return decompressed output of the command.
+	 * @throws IOException
+	 *         if the output is not in gzip format.
+	 */
+	public static InputStream decompressed(InputStream compressedOutput) throws IOException {
+		return new GZIPInputStream (compressedOutput);
+	}
+}
@@ -0,0 +1,145 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import ch.ethz.ssh2.Connection;
+import ch.ethz.ssh2.DHGexParameters;
+
+import com.novicehacks.autobot.config.ApplicationConfig;
+import com.novicehacks.autobot.core.BotUtils;
+import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.core.types.ServerOption;
+
+/**
+ * Preferred order of the ciphers, MACs and host key algorithms, and the
+ * preferred Diffie-Hellman group length negotiated in the key exchange with a
+ * server.
+ *
+ * <p>
+ * Preferences are taken from the application configuration, and can be
+ * overridden for a server with its {@link ServerOption}s. Algorithms not
+ * supported by the SSH library are dropped with a warning, and an empty
+ * preference leaves the library default in place.
+ * </p>
+ *
+ * <p>
+ * The SSH library does not allow ordering the key exchange algorithms, the
+ * group length of the group exchange is the only key exchange preference.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see DefaultSSHConnection
+ */
+public final class SSHAlgorithmPreferences {
+	private static final String AlgorithmSeperator = ",";
+	private static final int MinKexGroupLength = 1024;
+	private static final int MaxKexGroupLength = 8192;
+	private final String[] ciphers;
+	private final String[] macs;
+	private final String[] hostKeyAlgorithms;
+	private final int kexGroupLength;
+	private static Logger logger = LogManager.getLogger (SSHAlgorithmPreferences.class);
+
+	SSHAlgorithmPreferences (	String ciphers,
+								String macs,
+								String hostKeyAlgorithms,
+								String kexGroupLength) {
+		this.ciphers = supported (parse (ciphers), Connection.getAvailableCiphers ());
+		this.macs = supported (parse (macs), Connection.getAvailableMACs ());
+		this.hostKeyAlgorithms = supported (parse (hostKeyAlgorithms),
+				Connection.getAvailableServerHostKeyAlgorithms ());
+		this.kexGroupLength = supported (BotUtils.convertStringToInt (kexGroupLength.trim ()));
+	}
+
+	/**
+	 * @param server
+	 * @return preferences of the server, falling back to the application
+	 *         configuration.
+	 */
+	public static SSHAlgorithmPreferences forServer(Server server) {
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		String ciphers = ServerOption.SSHCiphers.valueFor (server, config.sshCiphers ());
+		String macs = ServerOption.SSHMACs.valueFor (server, config.sshMACs ());
+		String hostKeyAlgorithms = ServerOption.SSHHostKeyAlgorithms.valueFor (server,
+				config.sshHostKeyAlgorithms ());
+		String kexGroupLength = ServerOption.SSHKexGroupLength.valueFor (server,
+				config.sshKexGroupLength ());
+		return new SSHAlgorithmPreferences (ciphers, macs, hostKeyAlgorithms, kexGroupLength);
+	}
+
+	private static String[] parse(String algorithms) {
+		List<String> algorithmList = new ArrayList<String> ();
+		if (algorithms != null)
+			for (String algorithm : algorithms.split (AlgorithmSeperator))
+				if (!algorithm.trim ().isEmpty ())
+					algorithmList.add (algorithm.trim ());
+		return algorithmList.toArray (new String[] { });
+	}
+
+	private static String[] supported(String[] algorithms, String[] availableAlgorithms) {
+		List<String> available = Arrays.asList (availableAlgorithms);
+		List<String> supported = new ArrayList<String> ();
+		for (String algorithm : algorithms) {
+			if (available.contains (algorithm))
+				supported.add (algorithm);
+			else
+				logger.warn ("Algorithm {} not supported, supported are {}", algorithm, available);
+		}
+		return supported.toArray (new String[] { });
+	}
+
+	private static int supported(int kexGroupLength) {
+		if (kexGroupLength == 0
+				|| (kexGroupLength >= MinKexGroupLength && kexGroupLength <= MaxKexGroupLength))
+			return kexGroupLength;
+		logger.warn ("Kex group length {} not supported, should be within {} and {}",
+				kexGroupLength, MinKexGroupLength, MaxKexGroupLength);
+		return 0;
+	}
+
+	/**
+	 * Sets the preferences on the connection, to be called before connecting.
+	 *
+	 * @param connection
+	 * @param knownHostKeyAlgorithms
+	 *        host key algorithms of the known host key, used when no host key
+	 *        algorithms are preferred. Can be null.
+	 */
+	void applyTo(Connection connection, String[] knownHostKeyAlgorithms) {
+		if (this.ciphers.length > 0) {
+			connection.setClient2ServerCiphers (this.ciphers);
+			connection.setServer2ClientCiphers (this.ciphers);
+		}
+		if (this.macs.length > 0) {
+			connection.setClient2ServerMACs (this.macs);
+			connection.setServer2ClientMACs (this.macs);
+		}
+		if (this.hostKeyAlgorithms.length > 0)
+			connection.setServerHostKeyAlgorithms (this.hostKeyAlgorithms);
+		else if (knownHostKeyAlgorithms != null)
+			connection.setServerHostKeyAlgorithms (knownHostKeyAlgorithms);
+		if (this.kexGroupLength > 0)
+			connection.setDHGexParameters (new DHGexParameters (this.kexGroupLength));
+	}
+
+	public String[] ciphers() {
+		return this.ciphers.clone ();
+	}
+
+	public String[] macs() {
+		return this.macs.clone ();
+	}
+
+	public String[] hostKeyAlgorithms() {
+		return this.hostKeyAlgorithms.clone ();
+	}
+
+	public int kexGroupLength() {
+		return this.kexGroupLength;
+	}
+}
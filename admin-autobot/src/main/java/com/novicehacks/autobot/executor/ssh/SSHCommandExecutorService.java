@@ -1,24 +1,40 @@
 package com.novicehacks.autobot.executor.ssh;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.novicehacks.autobot.config.ApplicationConfig;
 import com.novicehacks.autobot.config.TimeDelay;
 import com.novicehacks.autobot.core.BotUtils;
+import com.novicehacks.autobot.core.ConcurrencyLimit;
+import com.novicehacks.autobot.core.Deadline;
+import com.novicehacks.autobot.core.TaskPool;
 import com.novicehacks.autobot.core.ThreadManager;
 import com.novicehacks.autobot.core.types.Command;
+import com.novicehacks.autobot.core.types.CommandPriority;
 import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.core.types.ServerOption;
 import com.novicehacks.autobot.core.types.ShellCommand;
 import com.novicehacks.autobot.executor.CommandExecutorService;
+import com.novicehacks.autobot.executor.LoadShedder;
 import com.novicehacks.autobot.executor.ssh.exception.CommandExecutionException;
+import com.novicehacks.autobot.executor.ssh.exception.ServerConnectionException;
 import com.novicehacks.autobot.executor.ssh.parallel.ParallelExecutorTask;
 import com.novicehacks.autobot.executor.ssh.sequential.ShellExecutorTask;
 
@@ -29,6 +45,44 @@ import com.novicehacks.autobot.executor.ssh.sequential.ShellExecutorTask;
  * Based on the {@link Server#initCommands()} this executor will either select
  * sequential or parallel execution of the {@link ShellCommand}s.
  * 
+ * <p>
+ * Parallel execution opens sessions on a connection within its
+ * {@link ChannelBudget} of <em>ConnectionMaxChannels</em>. When commands exceed
+ * the budget, upto <em>ConnectionMaxCount</em> connections are opened to the
+ * server and the commands are spread across them.
+ * </p>
+ * 
+ * <p>
+ * With the nonblocking <em>SSHIOBackend</em>, parallel commands are started
+ * from this thread and their output is read by the {@link SessionIOReactor}.
+ * </p>
+ * 
+ * <p>
+ * {@link #executeCommandsAsynchronously()} runs the connect, execute and
+ * disconnect of the server as composed stages, so that no thread waits for
+ * the commands of the server. The results of the commands are handled in the
+ * order they complete.
+ * </p>
+ * 
+ * <p>
+ * The server gets the remaining budget of the run {@link Deadline}. Connecting
+ * is limited to it, commands are not started once it is reached, and the
+ * commands still running then are failed and their connections closed instead
+ * of pooled, so that the blocked reads end promptly.
+ * </p>
+ * 
+ * <p>
+ * Commands are queued in the command thread pool by their
+ * {@link CommandPriority}, and the ones the {@link LoadShedder} of the run
+ * decides to shed are left out, when submitted or when taken from the queue.
+ * </p>
+ * 
+ * <p>
+ * The commands running at once on the server are limited by the
+ * {@link AdmissionControl}. Commands beyond the limit are queued without
+ * blocking a thread, and started as the earlier commands complete.
+ * </p>
+ * 
  * @author Sharath Chand Bhaskara for NoviceHacks!
  * @see ParallelExecutorTask
  * @see ShellExecutorTask
@@ -40,9 +94,11 @@ public class SSHCommandExecutorService implements CommandExecutorService {
 	private Command[] commands;
 	private DefaultSSHConnection connection;
 	private DefaultSSHConnectionUtil serverHandle;
-	private Future<?> sequentialCommandFuture;
-	private List<Future<?>> parallelCommandFutures;
-	private boolean isRunningInParallel;
+	private List<DefaultSSHConnectionUtil> spillOverHandles;
+	private List<DefaultSSHConnection> spillOverConnections;
+	private List<ChannelBudget> channelBudgets;
+	private final Deadline deadline;
+	private final LoadShedder loadShedder;
 	private Logger logger = LogManager.getLogger (SSHCommandExecutorServiceTask.class);
 
 	/**
@@ -58,6 +114,41 @@ public class SSHCommandExecutorService implements CommandExecutorService {
 		this (unixServer, unixCommands.toArray (new Command[] { }));
 	}
 
+	/**
+	 * @param unixServer
+	 * @param unixCommands
+	 * @param runDeadline
+	 *        of the run, limiting the connect and execution of the commands.
+	 * @throws NullPointerException
+	 *         if unixCommands parameter is null
+	 * @throws IllegalArgumentException
+	 *         if unixServer parameter is null
+	 */
+	public SSHCommandExecutorService (	final Server unixServer,
+										final Collection<Command> unixCommands,
+										final Deadline runDeadline) {
+		this (unixServer, unixCommands, runDeadline, LoadShedder.disabled ());
+	}
+
+	/**
+	 * @param unixServer
+	 * @param unixCommands
+	 * @param runDeadline
+	 *        of the run, limiting the connect and execution of the commands.
+	 * @param runLoadShedder
+	 *        of the run, shedding the commands once the run falls behind.
+	 * @throws NullPointerException
+	 *         if unixCommands parameter is null
+	 * @throws IllegalArgumentException
+	 *         if unixServer parameter is null
+	 */
+	public SSHCommandExecutorService (	final Server unixServer,
+										final Collection<Command> unixCommands,
+										final Deadline runDeadline,
+										final LoadShedder runLoadShedder) {
+		this (unixServer, unixCommands.toArray (new Command[] { }), runDeadline, runLoadShedder);
+	}
+
 	/**
 	 * @param unixServer
 	 * @param unixCommands
@@ -65,14 +156,27 @@ public class SSHCommandExecutorService implements CommandExecutorService {
 	 *         if either of the parameters are having null values
 	 */
 	public SSHCommandExecutorService (final Server unixServer, final Command... unixCommands) {
+		this (unixServer, unixCommands, Deadline.after (TimeDelay.largeDelayInMins.delay (),
+				TimeUnit.MINUTES), LoadShedder.disabled ());
+	}
+
+	private SSHCommandExecutorService (	final Server unixServer,
+										final Command[] unixCommands,
+										final Deadline runDeadline,
+										final LoadShedder runLoadShedder) {
 		validateParams (unixServer, unixCommands);
 		this.server = unixServer;
 		this.commands = unixCommands;
+		this.deadline = runDeadline;
+		this.loadShedder = runLoadShedder;
 		this.serverHandle = getServerHandle (unixServer);
+		this.spillOverHandles = new LinkedList<DefaultSSHConnectionUtil> ();
+		this.spillOverConnections = new LinkedList<DefaultSSHConnection> ();
+		this.channelBudgets = new LinkedList<ChannelBudget> ();
 	}
 
 	DefaultSSHConnectionUtil getServerHandle(Server unixServer) {
-		return new DefaultSSHConnectionUtil (unixServer);
+		return new DefaultSSHConnectionUtil (unixServer, this.deadline);
 	}
 
 	private void validateParams(final Server unixServer, final Command[] unixCommands) {
@@ -100,35 +204,139 @@ public class SSHCommandExecutorService implements CommandExecutorService {
 		this.logger.exit ();
 	}
 
+	/**
+	 * Connects to the server in the connection thread pool, then executes the
+	 * commands and disconnects once they are completed or the deadline is
+	 * reached, without waiting for them.
+	 * 
+	 * @return stage completed once the commands are completed and the server
+	 *         is disconnected, failed with a {@link ServerConnectionException}
+	 *         or a {@link CommandExecutionException} otherwise, or with a
+	 *         {@link TimeoutException} once the deadline is reached.
+	 */
+	public CompletableFuture<Void> executeCommandsAsynchronously() {
+		Runnable connectTask = new Runnable () {
+			@Override
+			public void run() {
+				connectToServer ();
+			}
+		};
+		CompletableFuture<Void> connected;
+		connected = ThreadManager.getInstance ().runTaskAsync (TaskPool.Connection, connectTask);
+		return connected.thenCompose (new Function<Void, CompletionStage<Void>> () {
+			@Override
+			public CompletionStage<Void> apply(Void ignored) {
+				CompletableFuture<Void> commands;
+				commands = SSHCommandExecutorService.this.deadline.bound (startCommandsOnServer ());
+				return commands.whenComplete (new BiConsumer<Void, Throwable> () {
+					@Override
+					public void accept(Void result, Throwable failure) {
+						logChannelBudgetStatistics ();
+						disconnetServer ();
+					}
+				});
+			}
+		});
+	}
+
 	private void connectToServer() {
-		this.connection = this.serverHandle.getAuthenticatedConnection ();
+		this.connection = authenticatedConnection ();
+	}
+
+	DefaultSSHConnection authenticatedConnection() {
+		return this.serverHandle.getAuthenticatedConnection ();
+	}
+
+	/**
+	 * Once the deadline is reached, the connections are closed instead of being
+	 * pooled, ending the commands still running on them.
+	 */
+	void disconnetServer() {
+		boolean expired = this.deadline.isExpired ();
+		if (expired)
+			this.logger.warn ("Run deadline reached, closing connections of server {}",
+					this.server.id ());
+		disconnectSpillOverConnections (expired);
+		if (expired)
+			this.serverHandle.discard (this.connection);
+		else
+			this.serverHandle.disconnect (this.connection);
 	}
 
-	private void disconnetServer() {
-		this.serverHandle.disconnect (this.connection);
+	private void disconnectSpillOverConnections(boolean expired) {
+		for (int index = 0; index < this.spillOverHandles.size (); index++) {
+			DefaultSSHConnectionUtil spillOverHandle = this.spillOverHandles.get (index);
+			if (expired)
+				spillOverHandle.discard (this.spillOverConnections.get (index));
+			else
+				spillOverHandle.disconnect (this.spillOverConnections.get (index));
+		}
+		this.spillOverHandles.clear ();
+		this.spillOverConnections.clear ();
 	}
 
+	/**
+	 * Waits for all the commands of the server until the deadline.
+	 */
 	private void executeCommandsAndDisconnectServer() {
 		try {
-			executeCommandsOnServer ();
-			waitForCommandsCompletion ();
-		} catch (Exception ex) {
+			startCommandsOnServer ().get (this.deadline.remaining (TimeUnit.NANOSECONDS),
+					TimeUnit.NANOSECONDS);
+		} catch (ExecutionException ex) {
+			throw commandExecutionFailure (ex.getCause ());
+		} catch (TimeoutException ex) {
+			this.logger.error ("Command execution on server {} unfinished", this.server.id (), ex);
+			throw new CommandExecutionException ("Command Execution Unfinished on Server : "
+					+ this.server.id (), ex);
+		} catch (InterruptedException ex) {
 			this.logger.error ("Thread Interrupted", ex);
 			BotUtils.PropogateInterruptIfExist (ex);
 			throw new CommandExecutionException ("Commands Execution Failed On Server: "
 					+ this.server, ex);
 		} finally {
+			logChannelBudgetStatistics ();
 			disconnetServer ();
 		}
 	}
 
-	private void executeCommandsOnServer() {
+	private CommandExecutionException commandExecutionFailure(Throwable failure) {
+		if (failure instanceof CompletionException && failure.getCause () != null)
+			failure = failure.getCause ();
+		if (failure instanceof CommandExecutionException)
+			return (CommandExecutionException) failure;
+		return new CommandExecutionException ("Commands Execution Failed On Server: "
+				+ this.server, failure);
+	}
+
+	private void logChannelBudgetStatistics() {
+		for (ChannelBudget channelBudget : this.channelBudgets)
+			this.logger.info ("Channel budget statistics of server {} : {}", this.server.id (),
+					channelBudget.statistics ());
+		this.channelBudgets.clear ();
+	}
+
+	/**
+	 * @return stage completed once all the commands are completed, failed with
+	 *         a {@link CommandExecutionException} if any of them failed or
+	 *         cannot be started.
+	 */
+	private CompletableFuture<Void> startCommandsOnServer() {
+		try {
+			return executeCommandsOnServer ();
+		} catch (RuntimeException ex) {
+			CompletableFuture<Void> failedFuture = new CompletableFuture<Void> ();
+			failedFuture.completeExceptionally (commandExecutionFailure (ex));
+			return failedFuture;
+		}
+	}
+
+	private CompletableFuture<Void> executeCommandsOnServer() {
 		boolean serverHasInitCommands;
 		serverHasInitCommands = checkForServerInitCommands ();
 		if (serverHasInitCommands)
-			executeSequentially ();
+			return executeSequentially ();
 		else
-			executeParallely ();
+			return executeParallely ();
 	}
 
 	private boolean checkForServerInitCommands() {
@@ -138,98 +346,265 @@ public class SSHCommandExecutorService implements CommandExecutorService {
 			return true;
 	}
 
-	private void executeSequentially() {
+	/**
+	 * The commands share a single shell, so the ones to be shed are left out
+	 * when submitted, and the shell is queued by the highest priority of the
+	 * remaining commands.
+	 */
+	private CompletableFuture<Void> executeSequentially() {
 		this.logger.entry ();
-		this.isRunningInParallel = false;
-		executeCommandsSequentially ();
+		Command[] sequentialCommands = commandsNotShed ();
+		if (sequentialCommands.length == 0) {
+			this.logger.exit ();
+			return CompletableFuture.completedFuture (null);
+		}
+		ShellExecutorTask task;
+		task = new ShellExecutorTask (this.connection, this.server, sequentialCommands,
+				this.deadline);
+		final Runnable sequentialTask = withinDeadline (task);
+		final CommandPriority priority = highestPriority (sequentialCommands);
+		CompletableFuture<Void> sequentialExecution;
+		sequentialExecution = admitCommand (new Supplier<CompletableFuture<Void>> () {
+			@Override
+			public CompletableFuture<Void> get() {
+				return ThreadManager.getInstance ().runTaskAsync (TaskPool.Command,
+						sequentialTask, priority);
+			}
+		});
 		this.logger.exit ();
+		return sequentialExecution.handle (new BiFunction<Void, Throwable, Void> () {
+			@Override
+			public Void apply(Void result, Throwable failure) {
+				if (failure != null) {
+					SSHCommandExecutorService.this.logger.error (
+							"Sequential Command Execution on Server {} Failed",
+							SSHCommandExecutorService.this.server.id (), failure);
+					throw new CommandExecutionException (
+							"Sequential Execution Failed on server : "
+									+ SSHCommandExecutorService.this.server.id (), failure);
+				}
+				return null;
+			}
+		});
 	}
 
-	private void executeCommandsSequentially() {
-		ShellExecutorTask task;
-		task = new ShellExecutorTask (this.connection, this.server, this.commands);
-		this.sequentialCommandFuture = ThreadManager.getInstance ().submitTaskToThreadPool (task);
+	private Command[] commandsNotShed() {
+		List<Command> commandsNotShed = new ArrayList<Command> (this.commands.length);
+		for (Command command : this.commands)
+			if (!this.loadShedder.shed (this.server, command))
+				commandsNotShed.add (command);
+		return commandsNotShed.toArray (new Command[commandsNotShed.size ()]);
 	}
 
-	private void executeParallely() {
-		this.logger.entry ();
-		this.isRunningInParallel = true;
-		executeCommandsParallely ();
-		this.logger.exit ();
+	private CommandPriority highestPriority(Command[] prioritizedCommands) {
+		CommandPriority highestPriority = CommandPriority.Bulk;
+		for (Command command : prioritizedCommands)
+			if (CommandPriority.of (command).compareTo (highestPriority) < 0)
+				highestPriority = CommandPriority.of (command);
+		return highestPriority;
 	}
 
-	private void executeCommandsParallely() {
-		Future<?> taskFuture;
-		List<Future<?>> taskFutureList = new LinkedList<Future<?>> ();
+	/**
+	 * Starts all the commands not shed, and handles each command as it
+	 * completes.
+	 */
+	private CompletableFuture<Void> executeParallely() {
+		this.logger.entry ();
+		final List<Throwable> failureReasons;
+		failureReasons = Collections.synchronizedList (new LinkedList<Throwable> ());
+		Command[] parallelCommands = commandsNotShed ();
+		if (parallelCommands.length == 0) {
+			this.logger.exit ();
+			return CompletableFuture.completedFuture (null);
+		}
+		List<SSHConnection> connections = budgetedConnections (parallelCommands.length);
+		CompletableFuture<?>[] commandFutures = new CompletableFuture<?>[parallelCommands.length];
+		int commandIndex = 0;
 
-		for (Command command : this.commands) {
-			taskFuture = submitCommandForParallelExecution (command);
-			taskFutureList.add (taskFuture);
+		for (Command command : parallelCommands) {
+			SSHConnection connection = connections.get (commandIndex % connections.size ());
+			commandFutures[commandIndex++] = submitCommandForParallelExecution (connection,
+					command).whenComplete (commandCompletionHandler (command, failureReasons));
 		}
-		this.parallelCommandFutures = taskFutureList;
+		this.logger.exit ();
+		return CompletableFuture.allOf (commandFutures).handle (
+				new BiFunction<Void, Throwable, Void> () {
+					@Override
+					public Void apply(Void result, Throwable failure) {
+						wrapFailuresAndThrowIfNeeded (failureReasons);
+						return null;
+					}
+				});
+	}
 
+	private BiConsumer<Void, Throwable> commandCompletionHandler(final Command command,
+			final List<Throwable> failureReasons) {
+		return new BiConsumer<Void, Throwable> () {
+			@Override
+			public void accept(Void result, Throwable failure) {
+				String serverId = SSHCommandExecutorService.this.server.id ();
+				if (failure == null) {
+					SSHCommandExecutorService.this.logger.debug (
+							"Command {} completed on server {}", command.id (), serverId);
+					return;
+				}
+				failureReasons.add (new CommandExecutionException (
+						"Command Execution Failed With Errors on Server : " + serverId, failure));
+			}
+		};
 	}
 
-	private Future<?> submitCommandForParallelExecution(Command command) {
-		Future<?> taskFuture;
-		ParallelExecutorTask task;
-		task = new ParallelExecutorTask (this.connection, this.server, command);
-		taskFuture = ThreadManager.getInstance ().submitTaskToThreadPool (task);
-		return taskFuture;
+	/**
+	 * Connections required for the commands within the channel budget, limited
+	 * by the maximum connections of the server. Falls back to lesser
+	 * connections if a spill-over connection cannot be opened.
+	 */
+	private List<SSHConnection> budgetedConnections(int commandCount) {
+		int maxChannels = Math.max (1, maxChannelsPerConnection ());
+		int requiredConnections = (commandCount + maxChannels - 1) / maxChannels;
+		requiredConnections = Math.min (requiredConnections, maxConnectionCount ());
+		List<SSHConnection> connections = new ArrayList<SSHConnection> ();
+		connections.add (budgetedConnection (this.connection, maxChannels));
+		for (int count = 1; count < requiredConnections; count++) {
+			DefaultSSHConnection spillOverConnection = openSpillOverConnection ();
+			if (spillOverConnection == null)
+				break;
+			connections.add (budgetedConnection (spillOverConnection, maxChannels));
+		}
+		return connections;
 	}
 
-	private void waitForCommandsCompletion() {
-		if (this.isRunningInParallel)
-			waitForParallelExecutionCompletion ();
-		else
-			waitForSequentialExecitionCompletion ();
+	private SSHConnection budgetedConnection(SSHConnection connection, int maxChannels) {
+		ChannelBudget channelBudget = new ChannelBudget (maxChannels);
+		this.channelBudgets.add (channelBudget);
+		return new BudgetedSSHConnection (connection, channelBudget);
 	}
 
-	private void waitForSequentialExecitionCompletion() {
+	private DefaultSSHConnection openSpillOverConnection() {
+		DefaultSSHConnectionUtil spillOverHandle = getServerHandle (this.server);
 		try {
-			this.sequentialCommandFuture
-					.get (TimeDelay.largeDelayInMins.delay (), TimeUnit.MINUTES);
-		} catch (InterruptedException e) {
-			this.logger.error ("Thread Interrupted", e);
-			BotUtils.PropogateInterruptIfExist (e);
-		} catch (ExecutionException e) {
-			this.logger.error ("Sequential Command Execution on Server {} Failed: {}",
-					this.server.id (), e, e);
-			throw new CommandExecutionException ("Sequential Execution Failed on server : "
-					+ this.server.id (), e);
-		} catch (TimeoutException e) {
-			this.logger
-					.error ("Sequential execution on server {} unfinished", this.server.id (), e);
-			throw new CommandExecutionException (
-					"Sequential Execution Failed Due to Timeout on server : " + this.server.id (),
-					e);
+			DefaultSSHConnection spillOverConnection;
+			spillOverConnection = spillOverHandle.getAuthenticatedConnection ();
+			this.spillOverHandles.add (spillOverHandle);
+			this.spillOverConnections.add (spillOverConnection);
+			return spillOverConnection;
+		} catch (ServerConnectionException ex) {
+			this.logger.warn ("Unable to open spill-over connection to server {}",
+					this.server.id (), ex);
+			return null;
 		}
 	}
 
-	private void waitForParallelExecutionCompletion() {
-		List<Throwable> failureReasons = new LinkedList<Throwable> ();
-		for (Future<?> future : this.parallelCommandFutures) {
-			try {
-				handleCommandExecutorTaskFuture (future);
-			} catch (CommandExecutionException e) {
-				failureReasons.add (e);
+	int maxChannelsPerConnection() {
+		String maxChannels = ApplicationConfig.getInstance ().connectionMaxChannels ();
+		maxChannels = ServerOption.ConnectionMaxChannels.valueFor (this.server, maxChannels);
+		return BotUtils.convertStringToInt (maxChannels);
+	}
+
+	int maxConnectionCount() {
+		String maxCount = ApplicationConfig.getInstance ().connectionMaxCount ();
+		maxCount = ServerOption.ConnectionMaxCount.valueFor (this.server, maxCount);
+		return Math.max (1, BotUtils.convertStringToInt (maxCount));
+	}
+
+	private CompletableFuture<Void> submitCommandForParallelExecution(SSHConnection connection,
+			final Command command) {
+		final ParallelExecutorTask task;
+		task = new ParallelExecutorTask (connection, this.server, command);
+		if (SessionIOReactor.isEnabled ())
+			return admitCommand (nonBlockingExecution (task));
+		return admitCommand (new Supplier<CompletableFuture<Void>> () {
+			@Override
+			public CompletableFuture<Void> get() {
+				return ThreadManager.getInstance ().runTaskAsync (TaskPool.Command,
+						withinDeadline (unlessShed (command, task)), CommandPriority.of (command));
 			}
-		}
-		wrapFailuresAndThrowIfNeeded (failureReasons);
+		});
 	}
 
-	private void handleCommandExecutorTaskFuture(Future<?> future) {
-		try {
-			future.get (TimeDelay.largeDelayInMins.delay (), TimeUnit.MINUTES);
-		} catch (InterruptedException e) {
-			this.logger.error ("Thread Interrupted", e);
-			BotUtils.PropogateInterruptIfExist (e);
-		} catch (ExecutionException e) {
+	/**
+	 * Starting a session blocks, so a command admitted once an earlier command
+	 * completes on an I/O thread is started from the connection thread pool.
+	 */
+	private Supplier<CompletableFuture<Void>> nonBlockingExecution(
+			final ParallelExecutorTask task) {
+		final Supplier<CompletableFuture<Void>> startCommand;
+		startCommand = new Supplier<CompletableFuture<Void>> () {
+			@Override
+			public CompletableFuture<Void> get() {
+				return startCommandForNonBlockingExecution (task);
+			}
+		};
+		if (commandLimit ().limit () == 0)
+			return startCommand;
+		return new Supplier<CompletableFuture<Void>> () {
+			@Override
+			public CompletableFuture<Void> get() {
+				return ThreadManager.getInstance ().composeTaskAsync (TaskPool.Connection,
+						startCommand);
+			}
+		};
+	}
+
+	/**
+	 * @return stage of the command, started once admitted by the limit of the
+	 *         commands running at once on the server.
+	 */
+	private CompletableFuture<Void> admitCommand(Supplier<CompletableFuture<Void>> command) {
+		return commandLimit ().admit (this.deadline, command);
+	}
+
+	private ConcurrencyLimit commandLimit() {
+		return getAdmissionControl ().commandsOf (this.server);
+	}
+
+	AdmissionControl getAdmissionControl() {
+		return AdmissionControl.getSharedInstance ();
+	}
+
+	/**
+	 * @return the task, not run if the command is shed while it is queued.
+	 */
+	private Runnable unlessShed(final Command command, final Runnable task) {
+		return new Runnable () {
+			@Override
+			public void run() {
+				if (!SSHCommandExecutorService.this.loadShedder.shed (
+						SSHCommandExecutorService.this.server, command))
+					task.run ();
+			}
+		};
+	}
+
+	/**
+	 * @return the task, failing without running it if the deadline is reached
+	 *         while it is queued.
+	 */
+	private Runnable withinDeadline(final Runnable task) {
+		return new Runnable () {
+			@Override
+			public void run() {
+				checkDeadline ();
+				task.run ();
+			}
+		};
+	}
+
+	private void checkDeadline() {
+		if (this.deadline.isExpired ())
 			throw new CommandExecutionException (
-					"Command Execution Failed With Errors on Server : " + this.server.id (), e);
-		} catch (TimeoutException e) {
-			throw new CommandExecutionException ("Command Execution Unfinished on Server : "
-					+ this.server.id (), e);
+					"Run deadline exceeded before starting command on server : "
+							+ this.server.id ());
+	}
+
+	private CompletableFuture<Void> startCommandForNonBlockingExecution(ParallelExecutorTask task) {
+		try {
+			checkDeadline ();
+			return task.runAsynchronously (SessionIOReactor.getSharedInstance (), this.deadline);
+		} catch (RuntimeException ex) {
+			CompletableFuture<Void> failedFuture = new CompletableFuture<Void> ();
+			failedFuture.completeExceptionally (ex);
+			return failedFuture;
 		}
 	}
 
@@ -0,0 +1,544 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.novicehacks.autobot.config.ApplicationConfig;
+import com.novicehacks.autobot.core.BotUtils;
+import com.novicehacks.autobot.core.Deadline;
+import com.novicehacks.autobot.core.TaskPool;
+import com.novicehacks.autobot.core.ThreadManager;
+import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.executor.ssh.exception.ServerConnectionException;
+
+/**
+ * Keeps the authenticated {@link DefaultSSHConnection}s alive between the
+ * scheduled runs, so that a server is not connected and authenticated again on
+ * every run.
+ *
+ * <p>
+ * Idle connections are pooled by {@link Server#id()}, and are validated when
+ * borrowed, by a ping if they are not found alive within the last
+ * {@link #validationIntervalInMillis()}. The ping is bounded by the ping
+ * timeout and the run deadline, and a connection not answering in time is
+ * closed. Connections idle for more than <em>ConnectionPoolIdleTimeout</em>
+ * are evicted, and the count of idle connections across all the servers is
+ * capped by <em>ConnectionPoolMaxSize</em>.
+ * </p>
+ *
+ * <p>
+ * Idle connections are pinged every <em>ConnectionKeepaliveInterval</em> by
+ * {@link #keepAliveIdleConnections()}, so that the network does not drop them
+ * silently. Connections failing the ping are stale, and are reconnected ahead
+ * of the next run instead of failing it.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see DefaultSSHConnectionUtil
+ */
+public class SSHConnectionPool {
+	private final ConcurrentMap<String, Deque<PooledConnection>> idleConnections;
+	private final AtomicInteger idleConnectionCount = new AtomicInteger ();
+	private final AtomicLong hitCount = new AtomicLong ();
+	private final AtomicLong missCount = new AtomicLong ();
+	private final AtomicLong evictionCount = new AtomicLong ();
+	private final AtomicLong lastEvictionRun = new AtomicLong ();
+	private final AtomicLong keepaliveCount = new AtomicLong ();
+	private final AtomicLong staleCount = new AtomicLong ();
+	private final AtomicLong reconnectCount = new AtomicLong ();
+	private static final long EvictionRunIntervalInMillis = TimeUnit.MINUTES.toMillis (1);
+	private static final long PingTimeoutInMillis = TimeUnit.SECONDS.toMillis (10);
+	private static final long ValidationIntervalInMillis = TimeUnit.SECONDS.toMillis (30);
+	private static final long ReconnectTimeoutInMillis = TimeUnit.MINUTES.toMillis (1);
+	private Logger logger = LogManager.getLogger (SSHConnectionPool.class);
+
+	/**
+	 * Idle connection along with the time it is returned to the pool, and the
+	 * time it is last found alive.
+	 */
+	static final class PooledConnection {
+		private final Server server;
+		private final DefaultSSHConnection connection;
+		private final long idleSince;
+		private volatile long aliveSince;
+
+		PooledConnection (Server server, DefaultSSHConnection connection, long idleSince) {
+			this.server = server;
+			this.connection = connection;
+			this.idleSince = idleSince;
+			this.aliveSince = idleSince;
+		}
+
+		Server server() {
+			return this.server;
+		}
+
+		DefaultSSHConnection connection() {
+			return this.connection;
+		}
+
+		long idleSince() {
+			return this.idleSince;
+		}
+	}
+
+	SSHConnectionPool () {
+		this.idleConnections = new ConcurrentHashMap<String, Deque<PooledConnection>> ();
+	}
+
+	private static class SSHConnectionPoolSingleton {
+		private static final SSHConnectionPool instance = new SSHConnectionPool ();
+
+		private static SSHConnectionPool getInstance() {
+			return instance;
+		}
+	}
+
+	public static SSHConnectionPool getSharedInstance() {
+		return SSHConnectionPoolSingleton.getInstance ();
+	}
+
+	/**
+	 * @return true if connections are to be pooled as per the
+	 *         <em>ConnectionPoolEnabled</em> configuration.
+	 */
+	public boolean isEnabled() {
+		String poolEnabled = ApplicationConfig.getInstance ().connectionPoolEnabled ();
+		return BotUtils.convertStringToBoolean (poolEnabled);
+	}
+
+	/**
+	 * Borrows an idle connection of the server from the pool, with the ping of
+	 * a connection bounded by the ping timeout alone.
+	 *
+	 * @param server
+	 * @return a valid authenticated connection, or null if the pool has no
+	 *         valid connection for the server.
+	 * @see #borrowConnection(Server, Deadline)
+	 */
+	public DefaultSSHConnection borrowConnection(Server server) {
+		return borrowConnection (server, Deadline.after (pingTimeoutInMillis (),
+				TimeUnit.MILLISECONDS));
+	}
+
+	/**
+	 * Borrows an idle connection of the server from the pool. Connections that
+	 * are no more alive or idle for long are closed while borrowing, and the
+	 * ones not found alive recently are pinged, with the borrowing thread
+	 * waiting for the ping no longer than the ping timeout or the deadline.
+	 *
+	 * @param server
+	 * @param deadline
+	 *        of the run borrowing the connection.
+	 * @return a valid authenticated connection, or null if the pool has no
+	 *         valid connection for the server.
+	 */
+	public DefaultSSHConnection borrowConnection(Server server, Deadline deadline) {
+		Deque<PooledConnection> connections = idleConnectionsOf (server);
+		PooledConnection pooledConnection;
+		while ((pooledConnection = connections.pollFirst ()) != null) {
+			this.idleConnectionCount.decrementAndGet ();
+			if (isReusable (pooledConnection) && isValid (pooledConnection, deadline)) {
+				this.hitCount.incrementAndGet ();
+				this.logger.debug ("Reusing pooled connection of server {}", server.id ());
+				return pooledConnection.connection ();
+			}
+			evict (pooledConnection);
+		}
+		this.missCount.incrementAndGet ();
+		return null;
+	}
+
+	/**
+	 * Returns the connection to the pool for reusing it in the later runs. The
+	 * connection is closed if it is not alive or the pool is full.
+	 *
+	 * @param server
+	 * @param connection
+	 */
+	public void releaseConnection(Server server, DefaultSSHConnection connection) {
+		if (connection.isConnectionAlive () && reserveIdleSlot ()) {
+			PooledConnection pooledConnection;
+			pooledConnection = new PooledConnection (server, connection, now ());
+			idleConnectionsOf (server).offerFirst (pooledConnection);
+		} else {
+			this.logger.debug ("Connection of server {} not pooled, closing it", server.id ());
+			closeConnection (connection);
+		}
+		evictIdleConnectionsIfDue ();
+	}
+
+	private boolean reserveIdleSlot() {
+		int maxSize = maxSize ();
+		int count;
+		do {
+			count = this.idleConnectionCount.get ();
+			if (count >= maxSize)
+				return false;
+		} while (!this.idleConnectionCount.compareAndSet (count, count + 1));
+		return true;
+	}
+
+	/**
+	 * Checks for a valid idle connection of the server, without borrowing it.
+	 *
+	 * @param server
+	 * @return true if a later {@link #borrowConnection(Server)} will be a hit.
+	 */
+	public boolean hasReusableConnection(Server server) {
+		for (PooledConnection pooledConnection : idleConnectionsOf (server)) {
+			if (isReusable (pooledConnection))
+				return true;
+		}
+		return false;
+	}
+
+	private Deque<PooledConnection> idleConnectionsOf(Server server) {
+		Deque<PooledConnection> connections;
+		connections = this.idleConnections.get (server.id ());
+		if (connections == null) {
+			this.idleConnections.putIfAbsent (server.id (),
+					new ConcurrentLinkedDeque<PooledConnection> ());
+			connections = this.idleConnections.get (server.id ());
+		}
+		return connections;
+	}
+
+	private boolean isReusable(PooledConnection pooledConnection) {
+		return !isIdleTimedout (pooledConnection)
+				&& pooledConnection.connection ().isConnectionAlive ();
+	}
+
+	/**
+	 * A round trip with the server, only when the connection is not found alive
+	 * within the validation interval, as by the keepalive or an earlier borrow.
+	 * The session of the ping cannot be opened with a timeout, so the ping
+	 * runs on the <em>Connection</em> thread pool and is given up once the ping
+	 * timeout or the deadline is reached.
+	 */
+	private boolean isValid(PooledConnection pooledConnection, Deadline deadline) {
+		if (now () - pooledConnection.aliveSince < validationIntervalInMillis ())
+			return true;
+		long timeoutInMillis = Math.min (pingTimeoutInMillis (),
+				deadline.remaining (TimeUnit.MILLISECONDS));
+		Deadline pingDeadline = Deadline.after (timeoutInMillis, TimeUnit.MILLISECONDS);
+		boolean alive;
+		try {
+			alive = pingDeadline.bound (ping (pooledConnection.connection ())).get ();
+		} catch (ExecutionException ex) {
+			this.logger.debug ("Ping of pooled connection of server {} not completed",
+					pooledConnection.server ().id (), ex);
+			alive = false;
+		} catch (InterruptedException ex) {
+			BotUtils.PropogateInterruptIfExist (ex);
+			alive = false;
+		}
+		if (!alive)
+			return false;
+		pooledConnection.aliveSince = now ();
+		return true;
+	}
+
+	private boolean isIdleTimedout(PooledConnection pooledConnection) {
+		return now () - pooledConnection.idleSince () > idleTimeoutInMillis ();
+	}
+
+	private void evictIdleConnectionsIfDue() {
+		long lastRun = this.lastEvictionRun.get ();
+		long currentTime = now ();
+		if (currentTime - lastRun >= EvictionRunIntervalInMillis
+				&& this.lastEvictionRun.compareAndSet (lastRun, currentTime))
+			evictIdleConnections ();
+	}
+
+	/**
+	 * Closes all the pooled connections that are idle for more than the
+	 * configured idle timeout, or are no more alive.
+	 */
+	public void evictIdleConnections() {
+		for (Deque<PooledConnection> connections : this.idleConnections.values ()) {
+			for (PooledConnection pooledConnection : connections) {
+				if (!isReusable (pooledConnection) && connections.remove (pooledConnection)) {
+					this.idleConnectionCount.decrementAndGet ();
+					evict (pooledConnection);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Pings the idle connections not found alive within the keepalive interval.
+	 * Connections failing the ping, or not responding in time, are closed and
+	 * replaced by a new connection to the server.
+	 *
+	 * <p>
+	 * The pings and the reconnects run on the <em>Connection</em> thread pool,
+	 * and the keepalive waits for them no longer than the ping timeout, so that
+	 * it does not hold up the runs scheduled after it. A reconnect is bounded by
+	 * a timeout of its own, as the ping timeout may be spent by the failed ping,
+	 * and its connection is pooled whenever it completes. A connection found
+	 * alive is put back in the pool as soon as its ping completes, without
+	 * waiting for the others.
+	 * </p>
+	 */
+	public void keepAliveIdleConnections() {
+		evictIdleConnections ();
+		Deadline deadline = Deadline.after (pingTimeoutInMillis (), TimeUnit.MILLISECONDS);
+		List<CompletableFuture<Void>> keepalives = new LinkedList<CompletableFuture<Void>> ();
+		for (Deque<PooledConnection> connections : this.idleConnections.values ()) {
+			for (PooledConnection pooledConnection : connections) {
+				if (isKeepaliveDue (pooledConnection) && connections.remove (pooledConnection))
+					keepalives.add (keepAliveOrReconnect (pooledConnection, deadline));
+			}
+		}
+		awaitKeepalives (keepalives, deadline);
+	}
+
+	private boolean isKeepaliveDue(PooledConnection pooledConnection) {
+		return now () - pooledConnection.aliveSince >= keepaliveIntervalInMillis ();
+	}
+
+	/**
+	 * @return stage completed once the connection is back in the pool, or
+	 *         dropped from it.
+	 */
+	private CompletableFuture<Void> keepAliveOrReconnect(final PooledConnection pooledConnection,
+			final Deadline deadline) {
+		CompletableFuture<Boolean> ping = deadline.bound (ping (pooledConnection.connection ()));
+		return ping.handle (new BiFunction<Boolean, Throwable, Boolean> () {
+			@Override
+			public Boolean apply(Boolean alive, Throwable failure) {
+				if (failure != null)
+					SSHConnectionPool.this.logger.debug ("Ping of pooled connection not "
+							+ "completed", failure);
+				return failure == null && alive;
+			}
+		}).thenCompose (new Function<Boolean, CompletionStage<Void>> () {
+			@Override
+			public CompletionStage<Void> apply(Boolean alive) {
+				if (!alive)
+					return reconnectStale (pooledConnection);
+				keepAlive (pooledConnection);
+				return CompletableFuture.completedFuture (null);
+			}
+		});
+	}
+
+	private void keepAlive(PooledConnection pooledConnection) {
+		this.keepaliveCount.incrementAndGet ();
+		pooledConnection.aliveSince = now ();
+		idleConnectionsOf (pooledConnection.server ()).offerLast (pooledConnection);
+	}
+
+	/**
+	 * The reconnected connection is pooled as newly idle, so that it is not
+	 * evicted for the idle time of the stale one.
+	 */
+	private CompletableFuture<Void> reconnectStale(final PooledConnection pooledConnection) {
+		final Server server = pooledConnection.server ();
+		this.staleCount.incrementAndGet ();
+		this.logger.info ("Pooled connection of server {} is stale, reconnecting", server.id ());
+		closeConnection (pooledConnection.connection ());
+		BiFunction<DefaultSSHConnection, Throwable, Void> poolReconnected;
+		poolReconnected = new BiFunction<DefaultSSHConnection, Throwable, Void> () {
+			@Override
+			public Void apply(DefaultSSHConnection connection, Throwable failure) {
+				if (connection == null || failure != null) {
+					SSHConnectionPool.this.idleConnectionCount.decrementAndGet ();
+					return null;
+				}
+				SSHConnectionPool.this.reconnectCount.incrementAndGet ();
+				PooledConnection reconnected;
+				reconnected = new PooledConnection (server, connection, now ());
+				idleConnectionsOf (server).offerLast (reconnected);
+				return null;
+			}
+		};
+		Deadline deadline = Deadline.after (reconnectTimeoutInMillis (), TimeUnit.MILLISECONDS);
+		return reconnect (server, deadline).handle (poolReconnected);
+	}
+
+	private void awaitKeepalives(List<CompletableFuture<Void>> keepalives, Deadline deadline) {
+		CompletableFuture<Void> allKeepalives = CompletableFuture.allOf (keepalives
+				.toArray (new CompletableFuture<?>[keepalives.size ()]));
+		try {
+			allKeepalives.get (deadline.remaining (TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+		} catch (ExecutionException | TimeoutException ex) {
+			this.logger.debug ("Keepalive of pooled connections not completed in time", ex);
+		} catch (InterruptedException ex) {
+			BotUtils.PropogateInterruptIfExist (ex);
+		}
+	}
+
+	/**
+	 * @return stage completed with the result of the ping, run on the
+	 *         <em>Connection</em> thread pool.
+	 */
+	CompletableFuture<Boolean> ping(final DefaultSSHConnection connection) {
+		Supplier<Boolean> pingTask = new Supplier<Boolean> () {
+			@Override
+			public Boolean get() {
+				return connection.ping ();
+			}
+		};
+		return supplyOnConnectionPool (pingTask);
+	}
+
+	/**
+	 * @param server
+	 * @param deadline
+	 *        limiting the connect and key exchange timeouts.
+	 * @return stage completed with a new authenticated connection to the
+	 *         server, or null if the server cannot be connected.
+	 */
+	CompletableFuture<DefaultSSHConnection> reconnect(final Server server,
+			final Deadline deadline) {
+		Supplier<DefaultSSHConnection> reconnectTask = new Supplier<DefaultSSHConnection> () {
+			@Override
+			public DefaultSSHConnection get() {
+				try {
+					return new DefaultSSHConnectionUtil (server, deadline)
+							.getNewAuthenticatedConnection ();
+				} catch (ServerConnectionException ex) {
+					SSHConnectionPool.this.logger.warn (
+							"Unable to reconnect stale connection of server {}", server.id (), ex);
+					return null;
+				}
+			}
+		};
+		return supplyOnConnectionPool (reconnectTask);
+	}
+
+	private <T> CompletableFuture<T> supplyOnConnectionPool(final Supplier<T> task) {
+		final CompletableFuture<T> result = new CompletableFuture<T> ();
+		Runnable runnableTask = new Runnable () {
+			@Override
+			public void run() {
+				result.complete (task.get ());
+			}
+		};
+		ThreadManager.getInstance ().runTaskAsync (TaskPool.Connection, runnableTask)
+				.whenComplete (new BiConsumer<Void, Throwable> () {
+					@Override
+					public void accept(Void ignored, Throwable failure) {
+						if (failure != null)
+							result.completeExceptionally (failure);
+					}
+				});
+		return result;
+	}
+
+	/**
+	 * Closes all the idle connections in the pool.
+	 */
+	public void closeAllConnections() {
+		for (Deque<PooledConnection> connections : this.idleConnections.values ()) {
+			PooledConnection pooledConnection;
+			while ((pooledConnection = connections.pollFirst ()) != null) {
+				this.idleConnectionCount.decrementAndGet ();
+				closeConnection (pooledConnection.connection ());
+			}
+		}
+	}
+
+	private void evict(PooledConnection pooledConnection) {
+		this.evictionCount.incrementAndGet ();
+		closeConnection (pooledConnection.connection ());
+	}
+
+	private void closeConnection(DefaultSSHConnection connection) {
+		if (connection.isConnectionAvailable ())
+			connection.disconnect ();
+	}
+
+	int maxSize() {
+		String maxSize = ApplicationConfig.getInstance ().connectionPoolMaxSize ();
+		return BotUtils.convertStringToInt (maxSize);
+	}
+
+	long idleTimeoutInMillis() {
+		String idleTimeout = ApplicationConfig.getInstance ().connectionPoolIdleTimeoutInMins ();
+		return TimeUnit.MINUTES.toMillis (BotUtils.convertStringToInt (idleTimeout));
+	}
+
+	long pingTimeoutInMillis() {
+		return PingTimeoutInMillis;
+	}
+
+	long reconnectTimeoutInMillis() {
+		return ReconnectTimeoutInMillis;
+	}
+
+	long validationIntervalInMillis() {
+		return ValidationIntervalInMillis;
+	}
+
+	long keepaliveIntervalInMillis() {
+		String interval = ApplicationConfig.getInstance ().connectionKeepaliveIntervalInSecs ();
+		return TimeUnit.SECONDS.toMillis (BotUtils.convertStringToInt (interval));
+	}
+
+	long now() {
+		return System.currentTimeMillis ();
+	}
+
+	public long hitCount() {
+		return this.hitCount.get ();
+	}
+
+	public long missCount() {
+		return this.missCount.get ();
+	}
+
+	public long evictionCount() {
+		return this.evictionCount.get ();
+	}
+
+	public int idleConnectionCount() {
+		return this.idleConnectionCount.get ();
+	}
+
+	/**
+	 * @return pings that found the connection alive, each a reconnect avoided.
+	 */
+	public long keepaliveCount() {
+		return this.keepaliveCount.get ();
+	}
+
+	public long staleCount() {
+		return this.staleCount.get ();
+	}
+
+	public long reconnectCount() {
+		return this.reconnectCount.get ();
+	}
+
+	/**
+	 * @return hits, misses, evictions, keepalives and idle connections of the
+	 *         pool in a readable format for logging.
+	 */
+	public String statistics() {
+		return "hits=" + hitCount () + ", misses=" + missCount () + ", evictions="
+				+ evictionCount () + ", keepalives=" + keepaliveCount () + ", stale="
+				+ staleCount () + ", reconnects=" + reconnectCount () + ", idle="
+				+ idleConnectionCount ();
+	}
+}
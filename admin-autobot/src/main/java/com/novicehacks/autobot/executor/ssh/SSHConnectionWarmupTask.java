@@ -0,0 +1,72 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.novicehacks.autobot.core.types.RunnableTask;
+import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.executor.ssh.exception.ServerConnectionException;
+
+/**
+ * Opens and authenticates a connection to the server ahead of a scheduled run,
+ * and parks it in the {@link SSHConnectionPool} so that the run borrows it
+ * instead of connecting.
+ *
+ * <p>
+ * Nothing is done when the pool is disabled or already holds a valid
+ * connection of the server. Connection failures are only logged, the run will
+ * connect again on its own.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see SSHConnectionPool
+ */
+public class SSHConnectionWarmupTask implements RunnableTask {
+	private final Server server;
+	private boolean threadStarted = false;
+	private Logger logger = LogManager.getLogger (SSHConnectionWarmupTask.class);
+
+	public SSHConnectionWarmupTask (final Server server) {
+		if (server == null)
+			throw new IllegalArgumentException ("Server cannot be null for connection warmup");
+		this.server = server;
+	}
+
+	@Override
+	public void run() {
+		this.threadStarted = true;
+		this.logger.entry (this.server);
+		if (isWarmupRequired ())
+			openConnectionIntoPool ();
+		this.logger.exit ();
+	}
+
+	private boolean isWarmupRequired() {
+		SSHConnectionPool pool = getConnectionPool ();
+		return pool.isEnabled () && !pool.hasReusableConnection (this.server);
+	}
+
+	private void openConnectionIntoPool() {
+		try {
+			DefaultSSHConnectionUtil connectionUtil = getConnectionUtil ();
+			DefaultSSHConnection connection = connectionUtil.getAuthenticatedConnection ();
+			connectionUtil.disconnect (connection);
+			this.logger.debug ("Connection of server {} warmed up", this.server.id ());
+		} catch (ServerConnectionException ex) {
+			this.logger.warn ("Unable to warm up connection of server {}", this.server.id (), ex);
+		}
+	}
+
+	SSHConnectionPool getConnectionPool() {
+		return SSHConnectionPool.getSharedInstance ();
+	}
+
+	DefaultSSHConnectionUtil getConnectionUtil() {
+		return new DefaultSSHConnectionUtil (this.server);
+	}
+
+	@Override
+	public final boolean isThreadStarted() {
+		return this.threadStarted;
+	}
+}
@@ -18,4 +18,17 @@ public interface SSHSession {
 	public void execCommand(String command) throws IOException;
 
 	public void closeSession();
+
+	/**
+	 * @return true once the remote command or shell has exited, without
+	 *         waiting for it.
+	 */
+	public boolean isRemoteCompleted();
+
+	/**
+	 * @return true once the session can no longer be read, whether or not the
+	 *         remote has exited, as when the connection is dropped or closed.
+	 *         Does not wait.
+	 */
+	public boolean isRemoteClosed();
 }
@@ -0,0 +1,220 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.novicehacks.autobot.config.ApplicationConfig;
+import com.novicehacks.autobot.core.BotUtils;
+import com.novicehacks.autobot.core.types.Server;
+
+/**
+ * Per server circuit breaker, so that an unreachable server does not hold a
+ * thread for the whole connection timeout on every run.
+ *
+ * <p>
+ * The SSH port of a server is probed with a short <em>ServerProbeTimeout</em>
+ * before connecting. A server failing the probe or the connection is opened
+ * (skipped) for <em>CircuitBreakerBackoff</em>, doubled on every consecutive
+ * failure upto <em>CircuitBreakerMaxBackoff</em>. Once the back-off is over,
+ * the server is let through half-open for a single trial, which closes the
+ * circuit on success and opens it again on failure.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see DefaultSSHConnectionUtil
+ */
+public class ServerCircuitBreaker {
+	private static final int SSHPort = 22;
+	private static final int MaxBackoffShift = 20;
+	private final Map<String, CircuitState> circuits;
+	private Logger logger = LogManager.getLogger (ServerCircuitBreaker.class);
+
+	/**
+	 * States of the circuit of a server.
+	 */
+	public enum Circuit {
+		Closed, Open, HalfOpen
+	}
+
+	/**
+	 * Circuit of a single server along with its consecutive failures.
+	 */
+	private static final class CircuitState {
+		private Circuit circuit = Circuit.Closed;
+		private int consecutiveFailures;
+		private long openUntil;
+		private long skippedCount;
+
+		@Override
+		public String toString() {
+			return "circuit=" + this.circuit + ", failures=" + this.consecutiveFailures
+					+ ", skipped=" + this.skippedCount;
+		}
+	}
+
+	ServerCircuitBreaker () {
+		this.circuits = new TreeMap<String, CircuitState> ();
+	}
+
+	private static class ServerCircuitBreakerSingleton {
+		private static final ServerCircuitBreaker instance = new ServerCircuitBreaker ();
+
+		private static ServerCircuitBreaker getInstance() {
+			return instance;
+		}
+	}
+
+	public static ServerCircuitBreaker getSharedInstance() {
+		return ServerCircuitBreakerSingleton.getInstance ();
+	}
+
+	/**
+	 * @return true if unreachable servers are to be skipped as per the
+	 *         <em>CircuitBreakerEnabled</em> configuration.
+	 */
+	public boolean isEnabled() {
+		String enabled = ApplicationConfig.getInstance ().circuitBreakerEnabled ();
+		return BotUtils.convertStringToBoolean (enabled);
+	}
+
+	/**
+	 * Checks if commands can be run on the server in this run. A server with an
+	 * open circuit is let through half-open once its back-off is over.
+	 *
+	 * @param server
+	 * @return false if the server is to be skipped.
+	 */
+	public synchronized boolean allowExecution(Server server) {
+		CircuitState state = this.circuits.get (server.id ());
+		if (!isEnabled () || state == null || state.circuit == Circuit.Closed)
+			return true;
+		if (state.circuit == Circuit.Open && now () >= state.openUntil) {
+			this.logger.info ("Retrying server {} half-open after {} failures", server.id (),
+					state.consecutiveFailures);
+			state.circuit = Circuit.HalfOpen;
+			return true;
+		}
+		if (state.circuit == Circuit.HalfOpen)
+			return true;
+		state.skippedCount++;
+		return false;
+	}
+
+	/**
+	 * Probes the SSH port of the server, opening the circuit if it is not
+	 * reachable. Always succeeds when the circuit breaker is disabled.
+	 *
+	 * @param server
+	 * @return true if the server is reachable.
+	 */
+	public boolean probe(Server server) {
+		if (!isEnabled ())
+			return true;
+		if (isReachable (server.ipaddress ()))
+			return true;
+		this.logger.warn ("Server {} is not reachable on {}", server.id (), server.ipaddress ());
+		recordFailure (server);
+		return false;
+	}
+
+	boolean isReachable(String ipAddress) {
+		int probeTimeout = (int) TimeUnit.SECONDS.toMillis (probeTimeoutInSecs ());
+		try (Socket socket = new Socket ()) {
+			socket.connect (new InetSocketAddress (ipAddress, SSHPort), probeTimeout);
+			return true;
+		} catch (IOException | IllegalArgumentException ex) {
+			this.logger.debug ("Probe of {} failed", ipAddress, ex);
+			return false;
+		}
+	}
+
+	/**
+	 * Closes the circuit of the server after a successful connection.
+	 *
+	 * @param server
+	 */
+	public synchronized void recordSuccess(Server server) {
+		CircuitState state = this.circuits.remove (server.id ());
+		if (state != null && state.circuit != Circuit.Closed)
+			this.logger.info ("Server {} is reachable again, closing its circuit", server.id ());
+	}
+
+	/**
+	 * Opens the circuit of the server after a failed probe or connection, for
+	 * the back-off of its consecutive failures.
+	 *
+	 * @param server
+	 */
+	public synchronized void recordFailure(Server server) {
+		CircuitState state = this.circuits.get (server.id ());
+		if (state == null) {
+			state = new CircuitState ();
+			this.circuits.put (server.id (), state);
+		}
+		state.consecutiveFailures++;
+		state.circuit = Circuit.Open;
+		state.openUntil = now () + backoffInMillis (state.consecutiveFailures);
+		this.logger.warn ("Opened circuit of server {} for {} minutes after {} failures",
+				server.id (), TimeUnit.MILLISECONDS.toMinutes (state.openUntil - now ()),
+				state.consecutiveFailures);
+	}
+
+	/**
+	 * @param consecutiveFailures
+	 * @return back-off doubling with every failure, upto the maximum back-off.
+	 */
+	long backoffInMillis(int consecutiveFailures) {
+		long backoff = TimeUnit.MINUTES.toMillis (backoffInMins ());
+		long maxBackoff = TimeUnit.MINUTES.toMillis (maxBackoffInMins ());
+		int shift = Math.min (consecutiveFailures - 1, MaxBackoffShift);
+		return Math.min (backoff << shift, maxBackoff);
+	}
+
+	/**
+	 * @param server
+	 * @return current circuit of the server.
+	 */
+	public synchronized Circuit circuitOf(Server server) {
+		CircuitState state = this.circuits.get (server.id ());
+		return state == null ? Circuit.Closed : state.circuit;
+	}
+
+	/**
+	 * @return circuits of the servers that are not closed, in a readable format
+	 *         for logging, one server per line.
+	 */
+	public synchronized String statistics() {
+		StringBuilder statistics = new StringBuilder ();
+		for (Map.Entry<String, CircuitState> circuit : this.circuits.entrySet ()) {
+			statistics.append (System.lineSeparator ());
+			statistics.append (circuit.getKey ()).append (" : ").append (circuit.getValue ());
+		}
+		return statistics.toString ();
+	}
+
+	long probeTimeoutInSecs() {
+		String timeout = ApplicationConfig.getInstance ().serverProbeTimeoutInSecs ();
+		return Math.max (1, BotUtils.convertStringToInt (timeout));
+	}
+
+	long backoffInMins() {
+		String backoff = ApplicationConfig.getInstance ().circuitBreakerBackoffInMins ();
+		return Math.max (1, BotUtils.convertStringToInt (backoff));
+	}
+
+	long maxBackoffInMins() {
+		String maxBackoff = ApplicationConfig.getInstance ().circuitBreakerMaxBackoffInMins ();
+		return Math.max (backoffInMins (), BotUtils.convertStringToInt (maxBackoff));
+	}
+
+	long now() {
+		return System.currentTimeMillis ();
+	}
+}
@@ -0,0 +1,443 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.novicehacks.autobot.config.ApplicationConfig;
+import com.novicehacks.autobot.core.BotUtils;
+import com.novicehacks.autobot.core.Deadline;
+
+/**
+ * Reads the output of the sessions of all the servers from a small fixed set
+ * of I/O threads, instead of a thread blocked reading every session. The SSH
+ * library still runs a receiver thread per connection.
+ *
+ * <p>
+ * Sessions are spread across the <em>SSHIOThreads</em>, and each I/O thread
+ * keeps polling its sessions for the output that is ready, reading only what
+ * can be read without blocking. The output of a command is handed over on
+ * completion through a {@link CompletableFuture}, while the output of an
+ * interactive shell is handed to its {@link OutputListener} as it is read.
+ * </p>
+ *
+ * <p>
+ * The reactor polls instead of waiting on a readiness notification, as the
+ * SSH library has none across the sessions: its streams only block, and its
+ * channel conditions are waited on one session at a time. An I/O thread
+ * without any ready session backs off from 50 microseconds upto 10
+ * milliseconds between the passes, so an idle reactor still wakes up about a
+ * hundred times a second per thread, and the output of a quiet session is
+ * read upto 10 milliseconds late.
+ * </p>
+ *
+ * <p>
+ * A session is done once the remote has exited and its output is read. As a
+ * dropped or closed connection closes the channel without an exit, the
+ * session is also done once its connection is disconnected or reported lost,
+ * which is checked on every pass without waiting. The output of a closed
+ * shell is handed over as closed, while a command closed before its exit
+ * fails.
+ * </p>
+ *
+ * <p>
+ * Only the threads reading the sessions are saved. Every connection still has
+ * the receiver thread of the SSH library, which reads the socket and fills
+ * the buffers of its sessions, so the threads grow with the servers connected
+ * whichever backend is used.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see com.novicehacks.autobot.executor.ssh.parallel.ParallelExecutorTask
+ * @see com.novicehacks.autobot.executor.ssh.sequential.ShellExecutorTask
+ */
+public class SessionIOReactor {
+	public static final String NonBlockingBackend = "nonblocking";
+	private static final int ReadBufferSize = 8192;
+	private static final long MinIdleWaitInNanos = TimeUnit.MICROSECONDS.toNanos (50);
+	private static final long MaxIdleWaitInNanos = TimeUnit.MILLISECONDS.toNanos (10);
+	private IOThread[] ioThreads;
+	private final AtomicInteger nextIOThread = new AtomicInteger ();
+	private final AtomicLong registeredCount = new AtomicLong ();
+	private final AtomicLong completedCount = new AtomicLong ();
+	private final AtomicLong failedCount = new AtomicLong ();
+	private Logger logger = LogManager.getLogger (SessionIOReactor.class);
+
+	/**
+	 * Handles the output of an interactive session, as soon as it is read by
+	 * the reactor.
+	 */
+	public interface OutputListener {
+		/**
+		 * Called on the I/O thread, so it must not block.
+		 *
+		 * @param buff
+		 * @param length
+		 *        of the output read into the buffer, valid only until the call
+		 *        returns.
+		 */
+		void outputReceived(byte[] buff, int length);
+
+		/**
+		 * Called once the output of the session is closed, or cannot be read.
+		 */
+		void outputClosed();
+	}
+
+	/**
+	 * Session registered for reading its output.
+	 */
+	private abstract static class Registration {
+		private final SSHSession session;
+		private final InputStream outputStream;
+		private final InputStream errorStream;
+
+		Registration (SSHSession session) {
+			this.session = session;
+			this.outputStream = session.stdOutputStream ();
+			this.errorStream = session.stdErrorStream ();
+		}
+
+		abstract void received(byte[] buff, int length);
+
+		abstract boolean isCompleted() throws IOException, TimeoutException;
+
+		/**
+		 * @return true if the registration is cancelled, and the session is no
+		 *         longer to be read.
+		 */
+		abstract boolean isCancelled();
+
+		abstract void complete();
+
+		abstract void fail(Exception reason);
+	}
+
+	/**
+	 * Output of a remote command, collected until the command is completed.
+	 */
+	private static final class OutputCollection extends Registration {
+		private final ByteArrayOutputStream output;
+		private final CompletableFuture<byte[]> outputFuture;
+		private final long deadline;
+
+		OutputCollection (SSHSession session, long deadline) {
+			super (session);
+			this.output = new ByteArrayOutputStream ();
+			this.outputFuture = new CompletableFuture<byte[]> ();
+			this.deadline = deadline;
+		}
+
+		@Override
+		void received(byte[] buff, int length) {
+			this.output.write (buff, 0, length);
+		}
+
+		@Override
+		boolean isCompleted() throws IOException, TimeoutException {
+			if (super.session.isRemoteCompleted ())
+				return super.outputStream.available () == 0;
+			if (super.session.isRemoteClosed ())
+				throw new IOException ("Session closed before the remote command completed");
+			if (System.nanoTime () > this.deadline)
+				throw new TimeoutException ("Session output not completed in time");
+			return false;
+		}
+
+		@Override
+		boolean isCancelled() {
+			return false;
+		}
+
+		@Override
+		void complete() {
+			this.outputFuture.complete (this.output.toByteArray ());
+		}
+
+		@Override
+		void fail(Exception reason) {
+			this.outputFuture.completeExceptionally (reason);
+		}
+	}
+
+	/**
+	 * Output of an interactive shell, handed to its listener until the shell
+	 * is closed or the watch is cancelled.
+	 */
+	private static final class OutputWatch extends Registration {
+		private final OutputListener listener;
+		private final CompletableFuture<Void> watchFuture;
+
+		OutputWatch (SSHSession session, OutputListener listener) {
+			super (session);
+			this.listener = listener;
+			this.watchFuture = new CompletableFuture<Void> ();
+		}
+
+		@Override
+		void received(byte[] buff, int length) {
+			this.listener.outputReceived (buff, length);
+		}
+
+		@Override
+		boolean isCompleted() throws IOException {
+			if (super.session.isRemoteCompleted () || super.session.isRemoteClosed ())
+				return super.outputStream.available () == 0;
+			return false;
+		}
+
+		@Override
+		boolean isCancelled() {
+			return this.watchFuture.isDone ();
+		}
+
+		@Override
+		void complete() {
+			this.listener.outputClosed ();
+			this.watchFuture.complete (null);
+		}
+
+		@Override
+		void fail(Exception reason) {
+			this.listener.outputClosed ();
+			this.watchFuture.completeExceptionally (reason);
+		}
+	}
+
+	/**
+	 * Polls the sessions assigned to it, until the reactor is shutdown.
+	 */
+	private final class IOThread implements Runnable {
+		private final Queue<Registration> newRegistrations;
+		private final List<Registration> registrations;
+		private final byte[] readBuffer;
+		private final Thread thread;
+		private volatile boolean running = true;
+		private long idleWaitInNanos = MinIdleWaitInNanos;
+
+		IOThread (int index) {
+			this.newRegistrations = new ConcurrentLinkedQueue<Registration> ();
+			this.registrations = new LinkedList<Registration> ();
+			this.readBuffer = new byte[ReadBufferSize];
+			this.thread = new Thread (this, "autobot-ssh-io-" + index);
+			this.thread.setDaemon (true);
+		}
+
+		void register(Registration registration) {
+			this.newRegistrations.add (registration);
+			LockSupport.unpark (this.thread);
+		}
+
+		@Override
+		public void run() {
+			while (this.running) {
+				Registration registration;
+				while ((registration = this.newRegistrations.poll ()) != null)
+					this.registrations.add (registration);
+				if (pollRegistrations ())
+					this.idleWaitInNanos = MinIdleWaitInNanos;
+				else
+					waitWhileIdle ();
+			}
+			failRegistrations ();
+		}
+
+		private boolean pollRegistrations() {
+			boolean progress = false;
+			Iterator<Registration> registrationIterator = this.registrations.iterator ();
+			while (registrationIterator.hasNext ()) {
+				Registration registration = registrationIterator.next ();
+				if (registration.isCancelled ()) {
+					registrationIterator.remove ();
+					continue;
+				}
+				try {
+					progress |= readAvailable (registration, this.readBuffer);
+					if (registration.isCompleted ()) {
+						complete (registration);
+						registrationIterator.remove ();
+					}
+				} catch (IOException | TimeoutException | RuntimeException ex) {
+					fail (registration, ex);
+					registrationIterator.remove ();
+				}
+			}
+			return progress;
+		}
+
+		private void waitWhileIdle() {
+			LockSupport.parkNanos (this, this.idleWaitInNanos);
+			this.idleWaitInNanos = Math.min (this.idleWaitInNanos * 2, MaxIdleWaitInNanos);
+		}
+
+		private void failRegistrations() {
+			this.registrations.addAll (this.newRegistrations);
+			for (Registration registration : this.registrations)
+				fail (registration, new IOException ("Session I/O reactor is shutdown"));
+			this.registrations.clear ();
+		}
+
+		void shutdown() {
+			this.running = false;
+			LockSupport.unpark (this.thread);
+		}
+	}
+
+	SessionIOReactor () {}
+
+	private static class SessionIOReactorSingleton {
+		private static final SessionIOReactor instance = new SessionIOReactor ();
+
+		private static SessionIOReactor getInstance() {
+			return instance;
+		}
+	}
+
+	public static SessionIOReactor getSharedInstance() {
+		return SessionIOReactorSingleton.getInstance ();
+	}
+
+	/**
+	 * @return true if the output is to be read by the reactor as per the
+	 *         <em>SSHIOBackend</em> configuration.
+	 */
+	public static boolean isEnabled() {
+		String backend = ApplicationConfig.getInstance ().sshIOBackend ();
+		return NonBlockingBackend.equalsIgnoreCase (backend.trim ());
+	}
+
+	/**
+	 * Registers the session for reading its output, to be called after the
+	 * command is executed on the session. The error output is discarded.
+	 *
+	 * @param session
+	 * @param deadline
+	 *        of the run executing the command.
+	 * @return future completed with the output once the remote command is
+	 *         completed, or completed exceptionally if the session is closed
+	 *         before, or the output cannot be read within the deadline.
+	 */
+	public CompletableFuture<byte[]> collectOutput(SSHSession session, Deadline deadline) {
+		long timeout = deadline.remaining (TimeUnit.NANOSECONDS);
+		OutputCollection collection;
+		collection = new OutputCollection (session, System.nanoTime () + timeout);
+		register (collection);
+		return collection.outputFuture;
+	}
+
+	/**
+	 * Registers the interactive session for handing its output to the
+	 * listener as it is read, without a thread blocked on the session. The
+	 * error output is discarded.
+	 *
+	 * @param session
+	 * @param listener
+	 * @return future completed once the output of the session is closed, or
+	 *         the session is closed, or completed exceptionally if it cannot
+	 *         be read. Cancelling it stops the watch, without calling the
+	 *         listener again.
+	 */
+	public CompletableFuture<Void> watchOutput(SSHSession session, OutputListener listener) {
+		OutputWatch watch = new OutputWatch (session, listener);
+		register (watch);
+		return watch.watchFuture;
+	}
+
+	private void register(Registration registration) {
+		this.registeredCount.incrementAndGet ();
+		nextIOThread ().register (registration);
+	}
+
+	private IOThread nextIOThread() {
+		IOThread[] threads = ioThreads ();
+		int index = Math.abs (this.nextIOThread.getAndIncrement () % threads.length);
+		return threads[index];
+	}
+
+	private synchronized IOThread[] ioThreads() {
+		if (this.ioThreads == null) {
+			IOThread[] threads = new IOThread[ioThreadCount ()];
+			for (int index = 0; index < threads.length; index++) {
+				threads[index] = new IOThread (index);
+				threads[index].thread.start ();
+			}
+			this.logger.info ("Started {} session I/O threads", threads.length);
+			this.ioThreads = threads;
+		}
+		return this.ioThreads;
+	}
+
+	int ioThreadCount() {
+		String threads = ApplicationConfig.getInstance ().sshIOThreads ();
+		return Math.max (1, BotUtils.convertStringToInt (threads));
+	}
+
+	/**
+	 * Reads the output that can be read without blocking, and discards the
+	 * error output so that the session window stays open.
+	 *
+	 * @return true if any output is read.
+	 */
+	private boolean readAvailable(Registration registration, byte[] readBuffer)
+			throws IOException {
+		boolean progress = false;
+		int available;
+		while ((available = registration.outputStream.available ()) > 0) {
+			int read = registration.outputStream.read (readBuffer, 0,
+					Math.min (available, readBuffer.length));
+			if (read <= 0)
+				break;
+			registration.received (readBuffer, read);
+			progress = true;
+		}
+		while ((available = registration.errorStream.available ()) > 0) {
+			if (registration.errorStream.skip (available) <= 0)
+				break;
+			progress = true;
+		}
+		return progress;
+	}
+
+	private void complete(Registration registration) {
+		this.completedCount.incrementAndGet ();
+		registration.complete ();
+	}
+
+	private void fail(Registration registration, Exception reason) {
+		this.failedCount.incrementAndGet ();
+		registration.fail (reason);
+	}
+
+	/**
+	 * Stops the I/O threads, failing the sessions still registered. The
+	 * threads are started again on the next registration.
+	 */
+	public synchronized void shutdown() {
+		if (this.ioThreads != null)
+			for (IOThread ioThread : this.ioThreads)
+				ioThread.shutdown ();
+		this.ioThreads = null;
+	}
+
+	/**
+	 * @return sessions read by the reactor in a readable format for logging.
+	 */
+	public String statistics() {
+		return "registered=" + this.registeredCount.get () + ", completed="
+				+ this.completedCount.get () + ", failed=" + this.failedCount.get ();
+	}
+}
@@ -0,0 +1,80 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per server count of the command output bytes transferred on the wire, and
+ * the bytes delivered after decompression. The two are the same for servers
+ * without {@link OutputCompression}, and their ratio shows whether compression
+ * pays off for a server.
+ * 
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see OutputCompression
+ */
+public class TransferStatistics {
+	private final Map<String, long[]> transfers;
+	private static final int WireIndex = 0;
+	private static final int DeliveredIndex = 1;
+
+	TransferStatistics () {
+		this.transfers = new TreeMap<String, long[]> ();
+	}
+
+	private static class TransferStatisticsSingleton {
+		private static final TransferStatistics instance = new TransferStatistics ();
+
+		private static TransferStatistics getInstance() {
+			return instance;
+		}
+	}
+
+	public static TransferStatistics getSharedInstance() {
+		return TransferStatisticsSingleton.getInstance ();
+	}
+
+	/**
+	 * @param serverId
+	 * @param bytesOnWire
+	 *        bytes read from the session.
+	 * @param bytesDelivered
+	 *        bytes of the command output, after decompression.
+	 */
+	public synchronized void record(String serverId, long bytesOnWire, long bytesDelivered) {
+		long[] transfer = this.transfers.get (serverId);
+		if (transfer == null) {
+			transfer = new long[2];
+			this.transfers.put (serverId, transfer);
+		}
+		transfer[WireIndex] += bytesOnWire;
+		transfer[DeliveredIndex] += bytesDelivered;
+	}
+
+	public synchronized long bytesOnWire(String serverId) {
+		long[] transfer = this.transfers.get (serverId);
+		return transfer == null ? 0 : transfer[WireIndex];
+	}
+
+	public synchronized long bytesDelivered(String serverId) {
+		long[] transfer = this.transfers.get (serverId);
+		return transfer == null ? 0 : transfer[DeliveredIndex];
+	}
+
+	/**
+	 * @return bytes on wire and delivered of all the servers in a readable
+	 *         format for logging, one server per line.
+	 */
+	public synchronized String statistics() {
+		StringBuilder statistics = new StringBuilder ();
+		for (Map.Entry<String, long[]> transfer : this.transfers.entrySet ()) {
+			long onWire = transfer.getValue ()[WireIndex];
+			long delivered = transfer.getValue ()[DeliveredIndex];
+			statistics.append (System.lineSeparator ()).append (transfer.getKey ());
+			statistics.append (" : bytesOnWire=").append (onWire);
+			statistics.append (", bytesDelivered=").append (delivered);
+			if (delivered > 0)
+				statistics.append (String.format (", wireRatio=%.2f", (double) onWire / delivered));
+		}
+		return statistics.toString ();
+	}
+}
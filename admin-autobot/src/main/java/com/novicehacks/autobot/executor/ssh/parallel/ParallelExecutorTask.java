@@ -1,21 +1,30 @@
 package com.novicehacks.autobot.executor.ssh.parallel;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
+import java.util.function.BiFunction;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.novicehacks.autobot.core.BotUtils;
+import com.novicehacks.autobot.core.Deadline;
+import com.novicehacks.autobot.core.TaskPool;
 import com.novicehacks.autobot.core.ThreadManager;
 import com.novicehacks.autobot.core.types.Command;
 import com.novicehacks.autobot.core.types.RunnableTask;
 import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.executor.ssh.ByteCountingInputStream;
+import com.novicehacks.autobot.executor.ssh.OutputCompression;
 import com.novicehacks.autobot.executor.ssh.SSHConnection;
 import com.novicehacks.autobot.executor.ssh.SSHSession;
+import com.novicehacks.autobot.executor.ssh.SessionIOReactor;
+import com.novicehacks.autobot.executor.ssh.TransferStatistics;
 import com.novicehacks.autobot.executor.ssh.exception.CommandExecutionException;
 import com.novicehacks.autobot.executor.ssh.logger.ShellOutputLoggerTask;
 
@@ -23,6 +32,18 @@ import com.novicehacks.autobot.executor.ssh.logger.ShellOutputLoggerTask;
  * Executes each command on a server in a seperate session and in seperate
  * thread.
  * 
+ * <p>
+ * When {@link OutputCompression} is enabled for the server, the output is
+ * compressed on the server and decompressed while collecting it.
+ * </p>
+ * 
+ * <p>
+ * With the nonblocking <em>SSHIOBackend</em>, the task is started with
+ * {@link #runAsynchronously(SessionIOReactor, Deadline)} and the output is
+ * read by the {@link SessionIOReactor} until the run deadline, so no thread
+ * waits for the command to complete.
+ * </p>
+ * 
  * @author Sharath Chand Bhaskara for NoviceHacks!
  *
  */
@@ -32,6 +53,7 @@ public class ParallelExecutorTask implements RunnableTask {
 	private boolean createSessionStepFlag = false;
 	private boolean executeCommandStepFlag = false;
 	private boolean outputLoggingStepFlag = false;
+	private boolean outputCompressed = false;
 	private SSHConnection connection;
 	private SSHSession session;
 	private Server server;
@@ -75,6 +97,67 @@ public class ParallelExecutorTask implements RunnableTask {
 		this.outputLoggingStepFlag = true;
 	}
 
+	/**
+	 * Executes the command without waiting for it, the output is collected by
+	 * the reactor and logged once the command is completed.
+	 * 
+	 * @param reactor
+	 * @param deadline
+	 *        of the run, the command fails if its output is not read by then.
+	 * @return future completed once the output is submitted for logging.
+	 * @throws CommandExecutionException
+	 *         if unable to open session / execute command on the connection.
+	 */
+	public CompletableFuture<Void> runAsynchronously(SessionIOReactor reactor, Deadline deadline) {
+		this.threadStarted = true;
+		createSession ();
+		this.createSessionStepFlag = true;
+		CompletableFuture<byte[]> remoteOutput;
+		try {
+			startCommand ();
+			remoteOutput = reactor.collectOutput (this.session, deadline);
+		} catch (RuntimeException ex) {
+			endSession ();
+			throw ex;
+		}
+		return remoteOutput.handle (new BiFunction<byte[], Throwable, Void> () {
+			@Override
+			public Void apply(byte[] output, Throwable failure) {
+				completeWithOutput (output, failure);
+				return null;
+			}
+		});
+	}
+
+	private void completeWithOutput(byte[] output, Throwable failure) {
+		endSession ();
+		if (failure != null)
+			throw new CommandExecutionException ("Command Execution Failed : "
+					+ this.command.commandTxt (), failure);
+		try {
+			collectOutput (new ByteArrayInputStream (output));
+		} catch (IOException ex) {
+			throw new CommandExecutionException ("Unable to read command output : "
+					+ this.command.commandTxt (), ex);
+		}
+		this.executeCommandStepFlag = true;
+		logCommandOutputAsynchronously ();
+		this.outputLoggingStepFlag = true;
+	}
+
+	private void startCommand() {
+		String unixCommand = this.command.commandTxt ();
+		if (unixCommand == null)
+			throw new CommandExecutionException ("Invalid Command String in Command :"
+					+ this.command);
+		try {
+			startCommandInSession (unixCommand);
+		} catch (IOException ex) {
+			this.logger.error ("Failed to execute command on the session : {}", this.command, ex);
+			throw new CommandExecutionException ("Command Execution Failed : " + unixCommand, ex);
+		}
+	}
+
 	private void createSession() {
 		try {
 			this.session = this.connection.openSession ();
@@ -116,13 +199,32 @@ public class ParallelExecutorTask implements RunnableTask {
 	}
 
 	private void executeCommandInSessionAndCollectOutput(String unixCommand) throws IOException {
-		this.session.execCommand (unixCommand);
-		collectOutputFromSession ();
+		startCommandInSession (unixCommand);
+		collectOutput (this.session.stdOutputStream ());
+	}
+
+	private void startCommandInSession(String unixCommand) throws IOException {
+		this.outputCompressed = OutputCompression.isEnabled (this.server);
+		if (this.outputCompressed)
+			this.session.execCommand (OutputCompression.compressedCommand (unixCommand));
+		else
+			this.session.execCommand (unixCommand);
 	}
 
-	private void collectOutputFromSession() throws IOException {
-		InputStream inputStream = this.session.stdOutputStream ();
-		parseAndPopulateOutput (inputStream);
+	private void collectOutput(InputStream remoteOutput) throws IOException {
+		ByteCountingInputStream wireStream;
+		ByteCountingInputStream deliveredStream;
+		wireStream = new ByteCountingInputStream (remoteOutput);
+		deliveredStream = wireStream;
+		try {
+			if (this.outputCompressed)
+				deliveredStream = new ByteCountingInputStream (
+						OutputCompression.decompressed (wireStream));
+			parseAndPopulateOutput (deliveredStream);
+		} finally {
+			TransferStatistics.getSharedInstance ().record (this.server.id (),
+					wireStream.byteCount (), deliveredStream.byteCount ());
+		}
 	}
 
 	private void parseAndPopulateOutput(InputStream inputStream) throws IOException {
@@ -149,7 +251,7 @@ public class ParallelExecutorTask implements RunnableTask {
 		ShellOutputLoggerTask loggerTask;
 		loggerTask = getOutputLoggerTask ();
 		this.commandOutputLoggerTaskFuture = ThreadManager.getInstance ().submitTaskToThreadPool (
-				loggerTask);
+				TaskPool.Logging, loggerTask);
 	}
 
 	public Future<?> commandOutputLoggerTaskFuture() {
@@ -0,0 +1,77 @@
+package com.novicehacks.autobot.executor.ssh.sequential;
+
+/**
+ * Marker echoed by the shell after a command, along with the exit status of
+ * the command, so that the end of its output is known as soon as the command
+ * completes.
+ *
+ * <p>
+ * The marker is unique to the shell and the command, as <em>AUTOBOT_&lt;shell
+ * id&gt;_&lt;command sequence&gt;</em>. It is echoed with its prefix quoted
+ * apart, as in <em>echo "AUTOBOT""_1f2e_3:$?"</em>, so that the terminal echo
+ * of the line does not match the marker, only the line printed by the shell
+ * does. The exit status is read from <em>$?</em>, as set by the sh family of
+ * shells.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see ShellSessionController
+ */
+final class ShellCommandSentinel {
+	private static final String MarkerPrefix = "AUTOBOT";
+	private final String marker;
+	private final String echoCommand;
+	private final String echoOfShellSentinels;
+
+	ShellCommandSentinel (String shellId, long sequence) {
+		this.marker = MarkerPrefix + "_" + shellId + "_" + sequence + ":";
+		this.echoCommand = "echo \"" + MarkerPrefix + "\"\"_" + shellId + "_" + sequence + ":$?\"";
+		this.echoOfShellSentinels = MarkerPrefix + "\"\"_" + shellId + "_";
+	}
+
+	/**
+	 * @return marker printed by the shell, once the command completes.
+	 */
+	String marker() {
+		return this.marker;
+	}
+
+	/**
+	 * @return line to be written to the shell after the command.
+	 */
+	String echoCommand() {
+		return this.echoCommand;
+	}
+
+	/**
+	 * @param line
+	 *        of the shell output, without the line separator.
+	 * @return exit status of the command if the line is its marker, or null.
+	 */
+	Integer exitStatusIn(String line) {
+		int markerIndex = line.indexOf (this.marker);
+		if (markerIndex < 0)
+			return null;
+		String status = line.substring (markerIndex + this.marker.length ()).trim ();
+		try {
+			return Integer.valueOf (status);
+		} catch (NumberFormatException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * @param line
+	 *        of the shell output, without the line separator.
+	 * @return true if the line is the terminal echo of a marker of the shell,
+	 *         which is not a part of the output of any command.
+	 */
+	boolean isEchoOfSentinel(String line) {
+		return line.contains (this.echoOfShellSentinels);
+	}
+
+	@Override
+	public String toString() {
+		return marker ();
+	}
+}
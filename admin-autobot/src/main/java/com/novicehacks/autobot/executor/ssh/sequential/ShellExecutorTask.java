@@ -3,12 +3,17 @@ package com.novicehacks.autobot.executor.ssh.sequential;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.novicehacks.autobot.config.TimeDelay;
 import com.novicehacks.autobot.core.BotUtils;
+import com.novicehacks.autobot.core.Deadline;
+import com.novicehacks.autobot.core.TaskPool;
 import com.novicehacks.autobot.core.ThreadManager;
 import com.novicehacks.autobot.core.types.Command;
 import com.novicehacks.autobot.core.types.RunnableTask;
@@ -16,6 +21,7 @@ import com.novicehacks.autobot.core.types.Server;
 import com.novicehacks.autobot.executor.ssh.DefaultSSHConnection;
 import com.novicehacks.autobot.executor.ssh.SSHConnection;
 import com.novicehacks.autobot.executor.ssh.SSHSession;
+import com.novicehacks.autobot.executor.ssh.SessionIOReactor;
 import com.novicehacks.autobot.executor.ssh.exception.CommandExecutionException;
 import com.novicehacks.autobot.executor.ssh.logger.ShellOutputLoggerTask;
 
@@ -31,6 +37,18 @@ import com.novicehacks.autobot.executor.ssh.logger.ShellOutputLoggerTask;
  * SessionController} as shared object for controlling the execution of the
  * command executor and output gobbler
  * </p>
+ * <p>
+ * The completion of each command is read from the output, as the sentinel
+ * echoed after it, so the commands take only as long as they run on the
+ * server. The output logged so far is logged even if a command fails.
+ * </p>
+ * <p>
+ * When enabled by <em>WarmShellSessions</em>, the shell is kept open in the
+ * {@link WarmShellCache} once all the commands complete, and the next run of
+ * the server reuses it after a sentinel probe, without running the init
+ * commands again. A shell that fails the probe is closed, and a new shell is
+ * opened and initialized.
+ * </p>
  * 
  * @author Sharath Chand Bhaskara for NoviceHacks!
  * @see ShellSessionExecutor
@@ -48,17 +66,35 @@ public class ShellExecutorTask implements RunnableTask {
 	private InputStream remoteInputStream;
 	private OutputStream remoteOutputStream;
 	private Thread remoteConsumerThread;
+	private CompletableFuture<Void> remoteOutputWatch;
 	private Future<?> commandOutputLoggerTaskFuture;
 	private ShellSessionController sessionController;
+	private Deadline deadline;
 	private Logger logger = LogManager.getLogger (ShellExecutorTask.class);
 
 	public ShellExecutorTask (	DefaultSSHConnection connection,
 								Server unixServer,
 								Command[] unixCommands) {
+		this (connection, unixServer, unixCommands, Deadline.after (
+				TimeDelay.largeDelayInMins.delay (), TimeUnit.MINUTES));
+	}
+
+	/**
+	 * @param connection
+	 * @param unixServer
+	 * @param unixCommands
+	 * @param runDeadline
+	 *        of the run, limiting the wait for the completion of each command.
+	 */
+	public ShellExecutorTask (	DefaultSSHConnection connection,
+								Server unixServer,
+								Command[] unixCommands,
+								Deadline runDeadline) {
 		validateParams (connection, unixServer, unixCommands);
 		this.connection = connection;
 		this.server = unixServer;
 		this.executableCommands = unixCommands;
+		this.deadline = runDeadline;
 		this.sessionController = new ShellSessionController (unixServer);
 	}
 
@@ -75,16 +111,60 @@ public class ShellExecutorTask implements RunnableTask {
 	public void run() {
 		this.threadStarted = true;
 		this.logger.entry ();
-		createSessionAndInitiate ();
-		configureSessionController ();
-		startRemoteOutputConsumer ();
-		executeCommands ();
-		stopRemoteOutputConsumer ();
-		closeSessionAndShell ();
-		logShellOutputAsynchronously ();
+		boolean shellInitialized = adoptWarmShell ();
+		if (!shellInitialized) {
+			createSessionAndInitiate ();
+			configureSessionController ();
+			startRemoteOutputConsumer ();
+		}
+		boolean commandsCompleted = false;
+		try {
+			commandsCompleted = executeCommands (shellInitialized);
+		} finally {
+			releaseShell (commandsCompleted);
+			logShellOutputAsynchronously ();
+		}
 		this.logger.exit ();
 	}
 
+	/**
+	 * Takes the shell kept open by the previous run of the server, and probes
+	 * it before taking over its session, streams and controller.
+	 *
+	 * @return true if the shell is alive, and its init commands are already
+	 *         run.
+	 */
+	private boolean adoptWarmShell() {
+		if (!WarmShellCache.isEnabled (this.server))
+			return false;
+		WarmShell warmShell = getWarmShellCache ().take (this.server);
+		if (warmShell == null)
+			return false;
+		this.session = warmShell.session ();
+		this.remoteInputStream = warmShell.remoteInputStream ();
+		this.remoteOutputStream = warmShell.remoteOutputStream ();
+		this.remoteConsumerThread = warmShell.remoteConsumerThread ();
+		this.remoteOutputWatch = warmShell.remoteOutputWatch ();
+		this.sessionController = warmShell.sessionController ();
+		try {
+			if (getSequentialCommandExecutor ().isShellAlive ()) {
+				this.logger.debug ("Reusing the warm shell of server {}", this.server.id ());
+				return true;
+			}
+			getWarmShellCache ().recordDeadShell ();
+		} catch (InterruptedException e) {
+			this.logger.error ("Thread Interrupted", e);
+			BotUtils.PropogateInterruptIfExist (e);
+		}
+		warmShell.close ();
+		this.sessionController = new ShellSessionController (this.server);
+		return false;
+	}
+
+	WarmShellCache getWarmShellCache() {
+		return WarmShellCache.getSharedInstance ();
+	}
+
 	private void createSessionAndInitiate() {
 		this.logger.entry ();
 		try {
@@ -111,69 +191,79 @@ public class ShellExecutorTask implements RunnableTask {
 	}
 
 	/**
-	 * Starts a new thread, for processing the remote output
+	 * Registers the shell with the {@link SessionIOReactor} when the
+	 * nonblocking <em>SSHIOBackend</em> is enabled, else starts a new thread
+	 * for processing the remote output. A virtual thread when enabled in the
+	 * {@link ThreadManager}.
 	 */
 	private void startRemoteOutputConsumer() {
 		this.logger.entry ();
-		Runnable remoteConsumerTask;
-		remoteConsumerTask = getRemoteConsumerTask ();
-		this.remoteConsumerThread = new Thread (remoteConsumerTask);
-		this.remoteConsumerThread.setName ("RemoteConsumerThread-" + System.currentTimeMillis ());
-		this.remoteConsumerThread.start ();
+		if (SessionIOReactor.isEnabled ()) {
+			this.remoteOutputWatch = getSessionIOReactor ().watchOutput (this.session,
+					this.sessionController);
+		} else {
+			Runnable remoteConsumerTask;
+			remoteConsumerTask = getRemoteConsumerTask ();
+			this.remoteConsumerThread = ThreadManager.getInstance ().newIOThread (
+					remoteConsumerTask, "RemoteConsumerThread-" + System.currentTimeMillis ());
+			this.remoteConsumerThread.start ();
+		}
 		this.logger.exit ();
 	}
 
+	SessionIOReactor getSessionIOReactor() {
+		return SessionIOReactor.getSharedInstance ();
+	}
+
 	Runnable getRemoteConsumerTask() {
 		Runnable remoteConsumerTask;
 		remoteConsumerTask = new ShellSessionOutputGobblerTask (this.sessionController);
 		return remoteConsumerTask;
 	}
 
-	private void executeCommands() {
+	/**
+	 * @return true if all the commands completed, leaving the shell ready for
+	 *         the next run.
+	 */
+	private boolean executeCommands(boolean shellInitialized) {
 		this.logger.entry ();
 		try {
-			startExecutingCommandsSequentially ();
+			startExecutingCommandsSequentially (shellInitialized);
+			return true;
 		} catch (InterruptedException e) {
 			this.logger.error ("Thread Interrupted", e);
 			BotUtils.PropogateInterruptIfExist (e);
+			return false;
+		} finally {
+			this.logger.exit ();
 		}
-		this.logger.exit ();
 	}
 
-	private void startExecutingCommandsSequentially() throws InterruptedException {
+	private void startExecutingCommandsSequentially(boolean shellInitialized)
+			throws InterruptedException {
 		ShellSessionExecutor executor;
 		executor = getSequentialCommandExecutor ();
-		executor.startExecution ();
+		executor.startExecution (shellInitialized);
 	}
 
 	ShellSessionExecutor getSequentialCommandExecutor() {
 		return new ShellSessionExecutor (this.server, this.executableCommands,
-				this.sessionController);
-	}
-
-	/**
-	 * Kills the RemoteConsumer Thread by sending an interrupt to it.
-	 */
-	private void stopRemoteOutputConsumer() {
-		this.remoteConsumerThread.interrupt ();
+				this.sessionController, this.deadline);
 	}
 
 	/**
-	 * Closes the IO Streams and the session on the connection. To prevent
-	 * memory leaks
+	 * Keeps the shell open for the next run of the server, if enabled and all
+	 * the commands completed, else stops the consumer of the remote output and
+	 * closes the shell.
 	 */
-	private void closeSessionAndShell() {
-		closeInputAndOutputStreams ();
-		this.session.closeSession ();
-	}
-
-	private void closeInputAndOutputStreams() {
-		try {
-			this.remoteOutputStream.close ();
-			this.remoteInputStream.close ();
-		} catch (IOException e) {
-			this.logger.error ("IOException when closing Streams", e);
-		}
+	private void releaseShell(boolean commandsCompleted) {
+		WarmShell shell = new WarmShell (this.connection, this.session,
+				this.remoteInputStream, this.remoteOutputStream, this.remoteConsumerThread,
+				this.remoteOutputWatch, this.sessionController);
+		if (commandsCompleted && WarmShellCache.isEnabled (this.server) && !shell.isClosed ())
+			getWarmShellCache ().put (this.server, shell);
+		else
+			shell.close ();
 	}
 
 	/**
@@ -182,10 +272,10 @@ public class ShellExecutorTask implements RunnableTask {
 	 */
 	private void logShellOutputAsynchronously() {
 		ShellOutputLoggerTask loggerTask;
-		String commandOutput = this.sessionController.getCommandOutput ().toString ();
+		String commandOutput = this.sessionController.drainCommandOutput ().toString ();
 		loggerTask = new ShellOutputLoggerTask (commandOutput);
 		this.commandOutputLoggerTaskFuture = ThreadManager.getInstance ().submitTaskToThreadPool (
-				loggerTask);
+				TaskPool.Logging, loggerTask);
 	}
 
 	public Future<?> commandOutputLoggerTaskFuture() {
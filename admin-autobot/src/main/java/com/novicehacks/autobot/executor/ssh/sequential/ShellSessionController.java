@@ -2,10 +2,12 @@ package com.novicehacks.autobot.executor.ssh.sequential;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -13,98 +15,268 @@ import org.apache.logging.log4j.Logger;
 import com.novicehacks.autobot.core.BotUtils;
 import com.novicehacks.autobot.core.types.Command;
 import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.executor.ssh.SessionIOReactor;
+import com.novicehacks.autobot.executor.ssh.SessionIOReactor.OutputListener;
+import com.novicehacks.autobot.executor.ssh.exception.CommandExecutionException;
 import com.novicehacks.autobot.executor.ssh.logger.ShellOutputLoggerTaskHelper;
 
 /**
  * SharedObject for controlling Session Input and Output
- * 
+ *
+ * <p>
+ * Every command written to the shell is followed by the echo of a
+ * {@link ShellCommandSentinel}. The remote output is split into lines, and the
+ * lines up to the marker of the first pending command are its output, framed
+ * between its header and footer. The command is complete as soon as its marker
+ * is read, so the next command is written without any fixed wait, and the
+ * output of commands written all at once is split back in the same order.
+ * </p>
+ * <p>
+ * The thread writing the commands and the thread reading the shell share no
+ * lock. The pending commands are handed to the reading thread through a
+ * lock-free queue, and the exit status of each is handed back by parking the
+ * writing thread until the reading thread unparks it.
+ * </p>
+ * <p>
+ * The output is handed over by the {@link SessionIOReactor} shared by all the
+ * shells, or by a {@link ShellSessionOutputGobblerTask} reading the shell on
+ * its own thread.
+ * </p>
+ *
  * @author Sharath Chand Bhaskara for NoviceHacks!
  *
  */
-public class ShellSessionController {
+public class ShellSessionController implements OutputListener {
 	private Server server;
 	private InputStream remoteInputStream;
 	private OutputStream remoteOutputStream;
-	private volatile boolean initCommandExecutionStarted = false;
-	private volatile boolean commandExecutionStarted = false;
-	private Lock shellLock = new ReentrantLock (true);
-	private Condition SendInput = this.shellLock.newCondition ();
-	private Condition InputComplete = this.shellLock.newCondition ();
-	private StringBuilder commandOutput = new StringBuilder ();
+	private final String shellId = UUID.randomUUID ().toString ().substring (0, 8);
+	private final AtomicLong commandSequence = new AtomicLong ();
+	private final Queue<PendingCommand> pendingCommands;
+	private final Queue<String> commandOutput;
+	private String partialLine = "";
+	private volatile boolean remoteOutputClosed;
+	private volatile long lastOutputInNanos = System.nanoTime ();
 
 	private Logger logger = LogManager.getLogger (ShellSessionController.class);
 
-	protected ShellSessionController (Server server) {
-		this.server = server;
-	}
+	/**
+	 * Command written to the shell, and its output until its sentinel is read.
+	 * The output is written only by the thread reading the shell, and is
+	 * handed over to the awaiting thread along with the exit status.
+	 */
+	static final class PendingCommand {
+		private final ShellCommandSentinel sentinel;
+		private final Command command;
+		private final String header;
+		private final StringBuilder output = new StringBuilder ();
+		private volatile Integer exitStatus;
+		private volatile Thread waiter;
+
+		PendingCommand (ShellCommandSentinel sentinel, Command command, String header) {
+			this.sentinel = sentinel;
+			this.command = command;
+			this.header = header;
+		}
+
+		ShellCommandSentinel sentinel() {
+			return this.sentinel;
+		}
 
-	void acquireLockOnShell() throws InterruptedException {
-		this.shellLock.lockInterruptibly ();
+		boolean isCompleted() {
+			return this.exitStatus != null;
+		}
+
+		private void wakeWaiter() {
+			Thread waitingThread = this.waiter;
+			if (waitingThread != null)
+				LockSupport.unpark (waitingThread);
+		}
 	}
 
-	void releaseLockOnShell() {
-		this.shellLock.unlock ();
+	protected ShellSessionController (Server server) {
+		this.server = server;
+		this.pendingCommands = new ConcurrentLinkedQueue<PendingCommand> ();
+		this.commandOutput = new ConcurrentLinkedQueue<String> ();
 	}
 
-	void blockUntilSendInputSignalled() {
-		this.logger.trace ("Waiting for SendInput Signal");
-		this.SendInput.awaitUninterruptibly ();
-		this.logger.trace ("SendInput Signal Received");
+	/**
+	 * Queues the command to be awaited, after the ones already pending. The
+	 * commands have to be written to the shell in the order they are started,
+	 * and their header is taken as they are started.
+	 *
+	 * @param command
+	 *        whose output is to be added to the command output, framed between
+	 *        its header and footer, or null for the init commands.
+	 * @return command pending until its sentinel is read, to be awaited by
+	 *         {@link #awaitCommandComplete(PendingCommand, long, TimeUnit)}.
+	 */
+	PendingCommand startCommand(Command command) {
+		String header = command == null ? null : header (command);
+		PendingCommand pendingCommand = new PendingCommand (new ShellCommandSentinel (
+				this.shellId, this.commandSequence.incrementAndGet ()), command, header);
+		this.pendingCommands.add (pendingCommand);
+		return pendingCommand;
 	}
 
-	void signalInputComplete() {
-		this.logger.trace ("Signalling InputComplete");
-		this.InputComplete.signal ();
+	/**
+	 * Parks the calling thread until the thread reading the shell hands over
+	 * the exit status, without a lock shared with the reading thread.
+	 *
+	 * @param pendingCommand
+	 * @param timeout
+	 * @param unit
+	 * @return exit status of the command, once the marker of its sentinel is
+	 *         read from the remote output.
+	 * @throws CommandExecutionException
+	 *         if the marker is not read within the timeout, or the remote
+	 *         output is closed before it.
+	 * @throws InterruptedException
+	 */
+	int awaitCommandComplete(PendingCommand pendingCommand, long timeout, TimeUnit unit)
+			throws InterruptedException {
+		long deadlineInNanos = System.nanoTime () + unit.toNanos (timeout);
+		pendingCommand.waiter = Thread.currentThread ();
+		try {
+			Integer exitStatus;
+			while ((exitStatus = pendingCommand.exitStatus) == null) {
+				if (this.remoteOutputClosed)
+					throw new CommandExecutionException ("Shell closed before the completion of"
+							+ " command on server : " + this.server.id ());
+				long remainingInNanos = deadlineInNanos - System.nanoTime ();
+				if (remainingInNanos <= 0)
+					throw new CommandExecutionException ("Command not completed within "
+							+ unit.toMillis (timeout) + " ms on server : " + this.server.id ());
+				LockSupport.parkNanos (this, remainingInNanos);
+				if (Thread.interrupted ())
+					throw new InterruptedException ();
+			}
+			this.logger.trace ("Command {} completed with status {}", pendingCommand.sentinel,
+					exitStatus);
+			return exitStatus;
+		} finally {
+			pendingCommand.waiter = null;
+		}
 	}
 
-	void signalSendInputAndWaitForInputComplete() throws InterruptedException {
-		this.logger.trace ("Signalling SendInput");
-		this.SendInput.signal ();
-		this.logger.trace ("Waiting for InputComplete Signal");
-		this.InputComplete.await (1, TimeUnit.SECONDS);
-		this.logger.trace ("InputComplete Signal Received or Timedout");
+	/**
+	 * Parks the calling thread until no output is read from the shell for the
+	 * quiet time, as a prompt shown by the shell is followed by silence while
+	 * it waits for the input.
+	 *
+	 * @param quietTime
+	 * @param timeout
+	 * @param unit
+	 *        of the quiet time and the timeout.
+	 * @throws CommandExecutionException
+	 *         if the output does not go quiet within the timeout, or the remote
+	 *         output is closed before it.
+	 * @throws InterruptedException
+	 */
+	void awaitOutputQuiet(long quietTime, long timeout, TimeUnit unit) throws InterruptedException {
+		long quietTimeInNanos = unit.toNanos (quietTime);
+		long deadlineInNanos = System.nanoTime () + unit.toNanos (timeout);
+		long quietSinceInNanos = System.nanoTime ();
+		while (true) {
+			if (this.remoteOutputClosed)
+				throw new CommandExecutionException ("Shell closed before its prompt on server : "
+						+ this.server.id ());
+			long now = System.nanoTime ();
+			long lastOutputInNanos = this.lastOutputInNanos;
+			if (lastOutputInNanos - quietSinceInNanos > 0)
+				quietSinceInNanos = lastOutputInNanos;
+			long waitInNanos = quietSinceInNanos + quietTimeInNanos - now;
+			if (waitInNanos <= 0)
+				return;
+			long remainingInNanos = deadlineInNanos - now;
+			if (remainingInNanos <= 0)
+				throw new CommandExecutionException ("Shell output not quiet within "
+						+ unit.toMillis (timeout) + " ms on server : " + this.server.id ());
+			LockSupport.parkNanos (this, Math.min (waitInNanos, remainingInNanos));
+			if (Thread.interrupted ())
+				throw new InterruptedException ();
+		}
 	}
 
-	void appendHeaderToOutput(Command command) {
-		String data;
-		data = ShellOutputLoggerTaskHelper.getInstance ().headerService (this.server, command)
-				.header ();
-		this.commandOutput.append (data);
+	/**
+	 * Splits the output into lines, and hands them to the first of the pending
+	 * commands until its marker is read. A partial line is held until the rest
+	 * of it is read. Called only by the thread reading the shell, so the lines
+	 * are split without a lock.
+	 *
+	 * @param buff
+	 * @param length
+	 *        of the output read into the buffer.
+	 */
+	@Override
+	public void outputReceived(byte[] buff, int length) {
+		this.lastOutputInNanos = System.nanoTime ();
+		String data = byteArrayToString (buff, length);
+		this.logger.trace (data);
+		if (!this.partialLine.isEmpty ())
+			data = this.partialLine + data;
+		int lineStart = 0;
+		int lineEnd;
+		while ((lineEnd = data.indexOf ('\n', lineStart)) >= 0) {
+			processLine (stripCarriageReturn (data, lineStart, lineEnd));
+			lineStart = lineEnd + 1;
+		}
+		this.partialLine = data.substring (lineStart);
 	}
 
-	void appendFooterToOutput() {
-		String data;
-		data = ShellOutputLoggerTaskHelper.getInstance ().footerService ().footer ();
-		this.commandOutput.append (BotUtils.newLine ());
-		this.commandOutput.append (data);
+	private String stripCarriageReturn(String data, int lineStart, int lineEnd) {
+		int end = lineEnd;
+		while (end > lineStart && data.charAt (end - 1) == '\r')
+			end--;
+		return data.substring (lineStart, end);
 	}
 
-	void appendCommandOutput(byte[] buff) {
-		String data;
-		data = byteArrayToString (buff);
-		this.commandOutput.append (data.trim ());
+	private void processLine(String line) {
+		PendingCommand pendingCommand = this.pendingCommands.peek ();
+		if (pendingCommand == null)
+			return;
+		Integer status = pendingCommand.sentinel.exitStatusIn (line);
+		if (status != null) {
+			completeCommand (pendingCommand, status);
+		} else if (pendingCommand.command != null
+				&& !pendingCommand.sentinel.isEchoOfSentinel (line)) {
+			pendingCommand.output.append (line);
+			pendingCommand.output.append (BotUtils.newLine ());
+		}
 	}
 
-	String byteArrayToString(byte[] buff) {
-		String data;
-		data = new String (buff);
-		return data;
+	private void completeCommand(PendingCommand pendingCommand, int status) {
+		this.pendingCommands.poll ();
+		if (pendingCommand.command != null)
+			this.commandOutput.add (pendingCommand.header
+					+ pendingCommand.output.toString ().trim () + BotUtils.newLine () + footer ());
+		pendingCommand.exitStatus = status;
+		pendingCommand.wakeWaiter ();
 	}
 
-	public boolean isInitCommandExecutionStarted() {
-		return this.initCommandExecutionStarted;
+	/**
+	 * Fails the commands pending, as their markers can no longer be read.
+	 */
+	@Override
+	public void outputClosed() {
+		this.remoteOutputClosed = true;
+		for (PendingCommand pendingCommand : this.pendingCommands)
+			pendingCommand.wakeWaiter ();
 	}
 
-	public void setInitCommandExecutionStarted(boolean initCommandExecutionStarted) {
-		this.initCommandExecutionStarted = initCommandExecutionStarted;
+	private String header(Command command) {
+		return ShellOutputLoggerTaskHelper.getInstance ().headerService (this.server, command)
+				.header ();
 	}
 
-	public boolean isCommandExecutionStarted() {
-		return this.commandExecutionStarted;
+	private String footer() {
+		return ShellOutputLoggerTaskHelper.getInstance ().footerService ().footer ();
 	}
 
-	public void setCommandExecutionStarted(boolean commandExecutionStarted) {
-		this.commandExecutionStarted = commandExecutionStarted;
+	String byteArrayToString(byte[] buff, int length) {
+		String data;
+		data = new String (buff, 0, length);
+		return data;
 	}
 
 	/**
@@ -137,8 +309,38 @@ public class ShellSessionController {
 		this.remoteOutputStream = remoteOutputStream;
 	}
 
+	/**
+	 * @return output of the commands completed so far, in the order they were
+	 *         written.
+	 */
 	protected StringBuilder getCommandOutput() {
-		return this.commandOutput;
+		StringBuilder output = new StringBuilder ();
+		for (String completedOutput : this.commandOutput)
+			output.append (completedOutput);
+		return output;
+	}
+
+	/**
+	 * Removes the output of the commands completed so far, so that a shell kept
+	 * open for the next run logs only the output of the run.
+	 *
+	 * @return output of the commands completed so far, in the order they were
+	 *         written.
+	 */
+	protected StringBuilder drainCommandOutput() {
+		StringBuilder output = new StringBuilder ();
+		String completedOutput;
+		while ((completedOutput = this.commandOutput.poll ()) != null)
+			output.append (completedOutput);
+		return output;
+	}
+
+	/**
+	 * @return true once the remote output is closed, and no command can be
+	 *         completed on the shell.
+	 */
+	boolean isRemoteOutputClosed() {
+		return this.remoteOutputClosed;
 	}
 
 }
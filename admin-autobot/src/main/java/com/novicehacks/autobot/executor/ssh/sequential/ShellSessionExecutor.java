@@ -1,64 +1,190 @@
 package com.novicehacks.autobot.executor.ssh.sequential;
 
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.novicehacks.autobot.config.ApplicationConfig;
+import com.novicehacks.autobot.core.BotUtils;
+import com.novicehacks.autobot.core.Deadline;
 import com.novicehacks.autobot.core.types.Command;
 import com.novicehacks.autobot.core.types.Server;
-import com.novicehacks.autobot.executor.ssh.exception.CommandExecutionCompleteException;
+import com.novicehacks.autobot.core.types.ServerOption;
+import com.novicehacks.autobot.executor.ssh.exception.CommandExecutionException;
+import com.novicehacks.autobot.executor.ssh.sequential.ShellSessionController.PendingCommand;
 
 /**
  * Command Executor
- * 
+ *
+ * <p>
+ * Writes each command followed by the echo of its
+ * {@link ShellCommandSentinel}, and waits until the sentinel is read back
+ * before writing the next command, for no longer than the deadline.
+ * </p>
+ *
+ * <p>
+ * The init commands are written together, and awaited by the sentinel of the
+ * last of them. Init commands answering the prompts of the session, such as a
+ * password or a menu, would be discarded if typed ahead of the prompt. For
+ * such servers <em>ShellInitQuietTime</em> writes each init command once the
+ * output of the shell goes quiet for that time, and the sentinel only once the
+ * shell is reached after the last of them.
+ * </p>
+ *
+ * <p>
+ * When pipelined, all the commands are written together as soon as the init
+ * commands complete, so the server takes a single round trip along with the
+ * time the commands run, and their output is split back by the sentinels.
+ * Commands reading their input from the shell would read the commands after
+ * them, so pipelining is enabled only by <em>ShellPipelining</em>.
+ * </p>
+ *
+ * <p>
+ * A shell kept open from the previous run is probed with a sentinel before it
+ * is reused, and its init commands are not run again.
+ * </p>
+ *
  * @author Sharath Chand Bhaskara for NoviceHacks!
  *
  */
 public class ShellSessionExecutor {
+	private static final String PipelinePreamble = "stty -echo 2>/dev/null; PS1=''; PS2=''";
+	private static final String ProbeCommand = ":";
+	private static final long ProbeTimeoutInMillis = 5000;
 	private Server server;
 	private Command[] executableCommands;
 	private ShellSessionController sessionController;
+	private Deadline deadline;
 	private PrintStream remoteCommandWriter;
 
 	private Logger logger = LogManager.getLogger (ShellSessionExecutor.class);
 
 	protected ShellSessionExecutor (Server server,
 									Command[] executableCommands,
-									ShellSessionController controller) {
+									ShellSessionController controller,
+									Deadline deadline) {
 		this.server = server;
 		this.executableCommands = executableCommands;
 		this.sessionController = controller;
+		this.deadline = deadline;
 		this.remoteCommandWriter = new PrintStream (this.sessionController.getRemoteOutputStream ());
 	}
 
+	/**
+	 * @param server
+	 * @return true if the commands of the server are to be written at once, as
+	 *         per the <em>ShellPipelining</em> configuration or the server option
+	 *         of the same name.
+	 */
+	public static boolean isPipeliningEnabled(Server server) {
+		String pipelining = ApplicationConfig.getInstance ().shellPipelining ();
+		pipelining = ServerOption.ShellPipelining.valueFor (server, pipelining);
+		return BotUtils.convertStringToBoolean (pipelining);
+	}
+
 	protected void startExecution() throws InterruptedException {
+		startExecution (false);
+	}
+
+	/**
+	 * @param shellInitialized
+	 *        true if the init commands were run on the shell in an earlier run.
+	 * @throws InterruptedException
+	 */
+	protected void startExecution(boolean shellInitialized) throws InterruptedException {
 		this.logger.entry ();
-		this.sessionController.acquireLockOnShell ();
-		this.logger.trace ("Shell Lock acquired by Command Executor");
-		executeInitCommands ();
-		waitUntilOutputConsumed ();
-		executeExecutableCommands ();
-		waitUntilOutputConsumed ();
-		this.sessionController.releaseLockOnShell ();
-		this.logger.trace ("Shell Lock released by Command Executor");
+		if (!shellInitialized)
+			executeInitCommands ();
+		if (isPipeliningEnabled (this.server))
+			executePipelinedCommands ();
+		else
+			executeExecutableCommands ();
 		this.logger.exit ();
 	}
 
+	/**
+	 * @return time the output of the shell has to be quiet before an init
+	 *         command is written, as per the <em>ShellInitQuietTime</em>
+	 *         configuration or the server option of the same name, 0 if the
+	 *         init commands are written at once.
+	 */
+	long initQuietTimeInMillis() {
+		String quietTime = ApplicationConfig.getInstance ().shellInitQuietTimeInMillis ();
+		quietTime = ServerOption.ShellInitQuietTime.valueFor (this.server, quietTime);
+		return Math.max (0, BotUtils.convertStringToInt (quietTime));
+	}
+
+	/**
+	 * The init commands may answer the prompts before the session reaches a
+	 * shell, where the echo of a sentinel would be taken as an answer. So they
+	 * are written in turn, and only the sentinel of the last of them is
+	 * awaited.
+	 */
 	private void executeInitCommands() throws InterruptedException {
-		for (String initCommand : this.server.initCommands ()) {
-			this.logger.trace ("Executing Init Command {}", initCommand);
-			sendCommandToRemoteShell (initCommand, true, false);
-			waitUntilOutputConsumed ();
-			this.logger.trace ("Execution of Init Command ({}) Completed ", initCommand);
+		String[] initCommands = this.server.initCommands ();
+		if (initCommands == null || initCommands.length == 0)
+			return;
+		if (initQuietTimeInMillis () > 0) {
+			executeInitCommandsPacedByOutput (initCommands);
+			return;
+		}
+		for (int index = 0; index < initCommands.length - 1; index++) {
+			this.logger.trace ("Writing Init Command {}", initCommands[index]);
+			this.remoteCommandWriter.println (initCommands[index]);
+		}
+		String lastInitCommand = initCommands[initCommands.length - 1];
+		this.logger.trace ("Executing Init Command {}", lastInitCommand);
+		int exitStatus = awaitCommand (writeCommand (lastInitCommand, null));
+		this.logger.trace ("Execution of Init Commands Completed with status {}", exitStatus);
+	}
+
+	/**
+	 * Writes each init command once the output of the shell is quiet, so that
+	 * a prompt shown after the previous one does not discard it, and awaits
+	 * the sentinel of the no-op builtin once the output is quiet after the
+	 * last.
+	 */
+	private void executeInitCommandsPacedByOutput(String[] initCommands)
+			throws InterruptedException {
+		for (String initCommand : initCommands) {
+			awaitOutputQuiet ();
+			this.logger.trace ("Writing Init Command {}", initCommand);
+			this.remoteCommandWriter.println (initCommand);
+			this.remoteCommandWriter.flush ();
 		}
+		awaitOutputQuiet ();
+		int exitStatus = awaitCommand (writeCommand (ProbeCommand, null));
+		this.logger.trace ("Execution of Init Commands Completed with status {}", exitStatus);
 	}
 
-	private void waitUntilOutputConsumed() throws InterruptedException {
+	private void awaitOutputQuiet() throws InterruptedException {
+		this.sessionController.awaitOutputQuiet (initQuietTimeInMillis (),
+				this.deadline.remaining (TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Writes the no-op builtin of the shell followed by its sentinel, which
+	 * costs a single round trip on a healthy shell.
+	 *
+	 * @return true if the sentinel is read back within the probe timeout, and
+	 *         the shell can take the commands of the run.
+	 * @throws InterruptedException
+	 */
+	protected boolean isShellAlive() throws InterruptedException {
+		long timeoutInNanos = Math.min (TimeUnit.MILLISECONDS.toNanos (ProbeTimeoutInMillis),
+				this.deadline.remaining (TimeUnit.NANOSECONDS));
 		try {
-			waitUntilTheRemoteOutputIsConsumed ();
-		} catch (CommandExecutionCompleteException e) {
-			this.logger.debug ("Command Execution Complete : {}", e);
+			this.sessionController.awaitCommandComplete (writeCommand (ProbeCommand, null),
+					timeoutInNanos, TimeUnit.NANOSECONDS);
+			return !this.remoteCommandWriter.checkError ();
+		} catch (CommandExecutionException ex) {
+			this.logger.debug ("Shell of server {} failed the probe : {}", this.server.id (),
+					ex.getMessage ());
+			return false;
 		}
 	}
 
@@ -72,63 +198,58 @@ public class ShellSessionExecutor {
 		for (Command command : this.executableCommands) {
 			this.logger.trace ("Executing Command {} With Id : {}", command.commandTxt (),
 					command.id ());
-			this.sessionController.appendHeaderToOutput (command);
-			sendCommandToRemoteShell (command.commandTxt (), false, true);
-			waitUntilOutputConsumed ();
-			this.sessionController.appendFooterToOutput ();
-			this.logger.trace ("Execution Completed For Command {} With Id : {}",
-					command.commandTxt (), command.id ());
+			int exitStatus = awaitCommand (writeCommand (command.commandTxt (), command));
+			logExitStatus (command, exitStatus);
 		}
 	}
 
-	private void sendCommandToRemoteShell(	String command,
-											boolean isInitCommand,
-											boolean isExecutable) throws InterruptedException {
-		this.logger.entry ();
-		setCommandExecutionFlag (isInitCommand, isExecutable);
-		sendCommand (command);
-		this.logger.exit ();
-	}
-
-	private void sendCommand(String command) throws InterruptedException {
+	/**
+	 * The terminal echoes the input as soon as it is written, which would mix
+	 * the echo of all the commands into the output of the first of them. So the
+	 * echo and the prompts are turned off first, then all the commands are
+	 * written at once and awaited in the order they were written.
+	 */
+	private void executePipelinedCommands() throws InterruptedException {
 		this.logger.entry ();
-		this.sessionController.blockUntilSendInputSignalled ();
-		writeDataToRemoteStreamAndWait (command);
-		this.sessionController.signalInputComplete ();
+		awaitCommand (writeCommand (PipelinePreamble, null));
+		List<PendingCommand> pendingCommands;
+		pendingCommands = new ArrayList<PendingCommand> (this.executableCommands.length);
+		for (Command command : this.executableCommands)
+			pendingCommands.add (writeCommand (command.commandTxt (), command));
+		this.logger.debug ("Pipelined {} commands on server {}", pendingCommands.size (),
+				this.server.id ());
+		for (int index = 0; index < pendingCommands.size (); index++)
+			logExitStatus (this.executableCommands[index],
+					awaitCommand (pendingCommands.get (index)));
 		this.logger.exit ();
 	}
 
-	private void writeDataToRemoteStreamAndWait(final String command) throws InterruptedException {
-		char[] data = command.toCharArray ();
-		this.remoteCommandWriter.println (data);
-		waitForCommandToBeProcessed ();
-	}
-
-	private void waitForCommandToBeProcessed() throws InterruptedException {
-		// TODO optimal time to wait before executing the next command. If
-		// reduced the output will be garbled with faulty header and footer
-		// alignments.
-		Thread.sleep (500);
+	private void logExitStatus(Command command, int exitStatus) {
+		if (exitStatus == 0)
+			this.logger.trace ("Execution Completed For Command {} With Id : {}",
+					command.commandTxt (), command.id ());
+		else
+			this.logger.warn ("Command {} exited with status {} on server {}", command.id (),
+					exitStatus, this.server.id ());
 	}
 
-	private void setCommandExecutionFlag(boolean isInitCommand, boolean isExecutable) {
-		if (isInitCommand)
-			this.sessionController.setInitCommandExecutionStarted (true);
-		if (isExecutable)
-			this.sessionController.setCommandExecutionStarted (true);
+	/**
+	 * Writes the command followed by the echo of its sentinel.
+	 */
+	private PendingCommand writeCommand(String commandTxt, Command command) {
+		PendingCommand pendingCommand;
+		pendingCommand = this.sessionController.startCommand (command);
+		this.remoteCommandWriter.println (commandTxt);
+		this.remoteCommandWriter.println (pendingCommand.sentinel ().echoCommand ());
+		this.remoteCommandWriter.flush ();
+		return pendingCommand;
 	}
 
-	private void waitUntilTheRemoteOutputIsConsumed() throws InterruptedException,
-			CommandExecutionCompleteException {
-		this.logger.entry ();
-		this.sessionController.acquireLockOnShell ();
-		this.logger.trace ("Shell Lock Acquired by WaitForFinalOutput");
-		this.sessionController.blockUntilSendInputSignalled ();
-		this.logger.debug ("Final Output from the remote received, hence interrupting");
-		this.sessionController.releaseLockOnShell ();
-		this.logger.trace ("Shell Lock Relased by WaitForFinalOutput");
-		this.logger.exit ();
-		throw new CommandExecutionCompleteException ();
-
+	/**
+	 * @return exit status of the command, once its sentinel is read back.
+	 */
+	private int awaitCommand(PendingCommand pendingCommand) throws InterruptedException {
+		return this.sessionController.awaitCommandComplete (pendingCommand,
+				this.deadline.remaining (TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
 	}
 }
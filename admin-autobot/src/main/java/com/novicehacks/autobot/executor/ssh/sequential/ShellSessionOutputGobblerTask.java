@@ -6,12 +6,17 @@ import java.io.InputStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import com.novicehacks.autobot.core.BotUtils;
 import com.novicehacks.autobot.core.types.RunnableTask;
+import com.novicehacks.autobot.executor.ssh.SessionIOReactor;
 
 /**
  * Asynchronous Task to consume all the remote output.
- * 
+ *
+ * <p>
+ * Used by the blocking <em>SSHIOBackend</em>, the nonblocking backend has the
+ * output of all the shells read by the {@link SessionIOReactor} instead.
+ * </p>
+ *
  * @author Sharath Chand Bhaskara for NoviceHacks!
  *
  */
@@ -36,70 +41,29 @@ public class ShellSessionOutputGobblerTask implements RunnableTask {
 
 	private void startConsumingOutput() {
 		this.logger.entry ();
-		blockUntilCommandExecutionStarted ();
 		this.logger.trace ("Reading the remote output from the server");
 		readRemoteOutput ();
 		this.logger.exit ();
 	}
 
-	private void blockUntilCommandExecutionStarted() {
-		this.logger.entry ();
-		while (!this.sessionController.isInitCommandExecutionStarted ()) {}
-		this.logger.debug ("Init Command Received on Shell");
-		this.logger.exit ();
-	}
-
+	/**
+	 * Reads until the remote output is closed, blocking in the read until the
+	 * output is available.
+	 */
 	private void readRemoteOutput() {
 		this.logger.entry ();
-		try {
-			while (true) {
-				this.sessionController.acquireLockOnShell ();
-				this.logger.trace ("Shell Lock Acquired By Remote Consumer");
-				sendInputSignalAndWaitWhenRemoteOutputNotAvailable ();
-				if (outputAvailable ())
-					readAndLogCommandOutput ();
-				this.sessionController.releaseLockOnShell ();
-				this.logger.trace ("Shell Lock Released By Remote Consumer");
-			}
-		} catch (InterruptedException e) {
-			this.logger.trace ("Remote Output consumer thread interrupted");
-			BotUtils.DoNotPropogateInterrupt (e);
-		} catch (Exception e) {
-			this.logger.error ("Exception when reading remote server output", e);
-		}
-		this.logger.exit ();
-	}
-
-	private boolean outputAvailable() throws IOException {
-		if (this.remoteInputStream.available () > 0)
-			return true;
-		return false;
-	}
-
-	private void readAndLogCommandOutput() {
 		byte[] buff = new byte[8192];
 		try {
-			int len = this.remoteInputStream.read (buff);
-			if (len == -1)
-				return;
-			logOutputWhenNeeded (buff);
+			int len;
+			while ((len = this.remoteInputStream.read (buff)) != -1)
+				this.sessionController.outputReceived (buff, len);
+			this.logger.trace ("Remote output closed");
 		} catch (IOException ex) {
-			this.logger.error ("Failed While reading from Remote Consumer", ex);
-		}
-
-	}
-
-	private void logOutputWhenNeeded(byte[] buff) {
-		this.logger.trace (this.sessionController.byteArrayToString (buff));
-		if (this.sessionController.isCommandExecutionStarted ())
-			this.sessionController.appendCommandOutput (buff);
-	}
-
-	private void sendInputSignalAndWaitWhenRemoteOutputNotAvailable() throws IOException,
-			InterruptedException {
-		this.logger.entry ();
-		if (this.remoteInputStream.available () == 0) {
-			this.sessionController.signalSendInputAndWaitForInputComplete ();
+			this.logger.trace ("Remote output consumer stopped : {}", ex.getMessage ());
+		} catch (Exception e) {
+			this.logger.error ("Exception when reading remote server output", e);
+		} finally {
+			this.sessionController.outputClosed ();
 		}
 		this.logger.exit ();
 	}
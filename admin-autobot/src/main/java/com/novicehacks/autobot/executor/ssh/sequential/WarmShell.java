@@ -0,0 +1,109 @@
+package com.novicehacks.autobot.executor.ssh.sequential;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.novicehacks.autobot.executor.ssh.SSHConnection;
+import com.novicehacks.autobot.executor.ssh.SSHSession;
+
+/**
+ * Interactive shell opened by a {@link ShellExecutorTask}, along with its
+ * connection, streams, its {@link ShellSessionController} and the consumer of
+ * its output, kept open in the {@link WarmShellCache} between the runs of its
+ * server.
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see WarmShellCache
+ */
+final class WarmShell {
+	private final SSHConnection connection;
+	private final SSHSession session;
+	private final InputStream remoteInputStream;
+	private final OutputStream remoteOutputStream;
+	private final Thread remoteConsumerThread;
+	private final CompletableFuture<Void> remoteOutputWatch;
+	private final ShellSessionController sessionController;
+	private Logger logger = LogManager.getLogger (WarmShell.class);
+
+	WarmShell (	SSHConnection connection,
+				SSHSession session,
+				InputStream remoteInputStream,
+				OutputStream remoteOutputStream,
+				Thread remoteConsumerThread,
+				CompletableFuture<Void> remoteOutputWatch,
+				ShellSessionController sessionController) {
+		this.connection = connection;
+		this.session = session;
+		this.remoteInputStream = remoteInputStream;
+		this.remoteOutputStream = remoteOutputStream;
+		this.remoteConsumerThread = remoteConsumerThread;
+		this.remoteOutputWatch = remoteOutputWatch;
+		this.sessionController = sessionController;
+	}
+
+	SSHSession session() {
+		return this.session;
+	}
+
+	InputStream remoteInputStream() {
+		return this.remoteInputStream;
+	}
+
+	OutputStream remoteOutputStream() {
+		return this.remoteOutputStream;
+	}
+
+	Thread remoteConsumerThread() {
+		return this.remoteConsumerThread;
+	}
+
+	CompletableFuture<Void> remoteOutputWatch() {
+		return this.remoteOutputWatch;
+	}
+
+	ShellSessionController sessionController() {
+		return this.sessionController;
+	}
+
+	/**
+	 * The output of a shell read by the reactor is found closed only a while
+	 * after its channel, and a connection closed by the pool or the keepalive
+	 * leaves its shell behind. So the connection and the channel are checked
+	 * as well, without a round trip with the server.
+	 *
+	 * @return true once the output of the shell is closed, or its connection
+	 *         is disconnected or its channel closed, as when the connection is
+	 *         evicted from the pool or dropped.
+	 */
+	boolean isClosed() {
+		if (this.sessionController.isRemoteOutputClosed ())
+			return true;
+		if (!this.connection.isConnectionAvailable () || !this.connection.isAuthenticated ())
+			return true;
+		return this.session.isRemoteClosed ();
+	}
+
+	/**
+	 * Stops the consumer of the output, and closes the streams and the session
+	 * to prevent memory leaks. The consumer thread blocked in a read ends once
+	 * the streams are closed.
+	 */
+	void close() {
+		if (this.remoteOutputWatch != null)
+			this.remoteOutputWatch.cancel (false);
+		if (this.remoteConsumerThread != null)
+			this.remoteConsumerThread.interrupt ();
+		try {
+			this.remoteOutputStream.close ();
+			this.remoteInputStream.close ();
+		} catch (IOException e) {
+			this.logger.error ("IOException when closing Streams", e);
+		}
+		this.session.closeSession ();
+	}
+}
@@ -0,0 +1,133 @@
+package com.novicehacks.autobot.executor.ssh.sequential;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.novicehacks.autobot.config.ApplicationConfig;
+import com.novicehacks.autobot.core.BotUtils;
+import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.core.types.ServerOption;
+
+/**
+ * Keeps the initialized shell of a server open between its runs, when enabled
+ * by <em>WarmShellSessions</em> or the server option of the same name, so that
+ * its init commands are not run again on every run.
+ *
+ * <p>
+ * A shell is taken out of the cache for the run, so that it is used by a
+ * single run at a time, and is put back once all the commands complete. A
+ * shell whose output or channel is closed, or whose connection is no longer
+ * connected and authenticated, as when the connection is evicted from the pool
+ * or reconnected by the keepalive, is closed instead of being handed out,
+ * without waiting for the probe. The shell lives on its pooled connection, so
+ * it is kept only as long as the connection is pooled.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ * @see ShellExecutorTask
+ */
+public class WarmShellCache {
+	private final ConcurrentMap<String, WarmShell> warmShells;
+	private final AtomicLong hitCount = new AtomicLong ();
+	private final AtomicLong missCount = new AtomicLong ();
+	private final AtomicLong deadCount = new AtomicLong ();
+	private Logger logger = LogManager.getLogger (WarmShellCache.class);
+
+	WarmShellCache () {
+		this.warmShells = new ConcurrentHashMap<String, WarmShell> ();
+	}
+
+	private static class WarmShellCacheSingleton {
+		private static final WarmShellCache instance = new WarmShellCache ();
+
+		private static WarmShellCache getInstance() {
+			return instance;
+		}
+	}
+
+	public static WarmShellCache getSharedInstance() {
+		return WarmShellCacheSingleton.getInstance ();
+	}
+
+	/**
+	 * @param server
+	 * @return true if the shell of the server is to be kept open between its
+	 *         runs.
+	 */
+	public static boolean isEnabled(Server server) {
+		String warmShells = ApplicationConfig.getInstance ().warmShellSessions ();
+		warmShells = ServerOption.WarmShellSessions.valueFor (server, warmShells);
+		return BotUtils.convertStringToBoolean (warmShells);
+	}
+
+	/**
+	 * @param server
+	 * @return shell of the server left open by its previous run, or null if
+	 *         there is none still open.
+	 */
+	WarmShell take(Server server) {
+		WarmShell warmShell = this.warmShells.remove (server.id ());
+		if (warmShell != null && warmShell.isClosed ()) {
+			this.deadCount.incrementAndGet ();
+			warmShell.close ();
+			warmShell = null;
+		}
+		if (warmShell == null)
+			this.missCount.incrementAndGet ();
+		else
+			this.hitCount.incrementAndGet ();
+		return warmShell;
+	}
+
+	/**
+	 * Keeps the shell open for the next run of the server.
+	 *
+	 * @param server
+	 * @param warmShell
+	 */
+	void put(Server server, WarmShell warmShell) {
+		WarmShell replacedShell = this.warmShells.put (server.id (), warmShell);
+		if (replacedShell != null && replacedShell != warmShell)
+			replacedShell.close ();
+		this.logger.debug ("Shell of server {} kept open for the next run", server.id ());
+	}
+
+	/**
+	 * Records a shell handed out by {@link #take(Server)}, that failed the
+	 * probe before the run.
+	 */
+	void recordDeadShell() {
+		this.deadCount.incrementAndGet ();
+	}
+
+	/**
+	 * Closes all the shells kept open.
+	 */
+	public void closeAllShells() {
+		for (String serverId : this.warmShells.keySet ()) {
+			WarmShell warmShell = this.warmShells.remove (serverId);
+			if (warmShell != null)
+				warmShell.close ();
+		}
+	}
+
+	/**
+	 * @return count of the shells kept open.
+	 */
+	public int size() {
+		return this.warmShells.size ();
+	}
+
+	/**
+	 * @return warm shells reused, missing and found dead, in a readable format
+	 *         for logging.
+	 */
+	public String statistics() {
+		return "open=" + size () + ", hits=" + this.hitCount.get () + ", misses="
+				+ this.missCount.get () + ", dead=" + this.deadCount.get ();
+	}
+}
@@ -299,6 +299,379 @@ public class TestApplicationConfig {
 				expectedMonitoringFlag);
 	}
 
+	@Test
+	@Category ({ UnitTest.class })
+	public void setConnectionPoolEnabledValue() {
+		final String expectedPoolEnabledFlag = "false";
+
+		this.config.setConnectionPoolEnabled (expectedPoolEnabledFlag);
+
+		String poolEnabled = this.config.connectionPoolEnabled ();
+		assertEquals ("Connection pool enabled flag not loaded correctly", poolEnabled,
+				expectedPoolEnabledFlag);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void defaultConnectionPoolEnabledValue() {
+		final String expectedPoolEnabledFlag = ConfigurationProperty.ConnectionPoolEnabled
+				.defaultValue ();
+
+		this.config.setConnectionPoolEnabled (null);
+
+		String poolEnabled = this.config.connectionPoolEnabled ();
+		assertEquals ("Connection pool enabled default not loaded", expectedPoolEnabledFlag,
+				poolEnabled);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setCredentialCacheValues() {
+		final String expectedCacheFile = "./cache/credential.cache";
+		final String expectedExpiry = "15";
+
+		this.config.setCredentialCacheFile (expectedCacheFile);
+		this.config.setCredentialFailureExpiryInMins (expectedExpiry);
+
+		assertEquals ("Credential cache file not loaded correctly", expectedCacheFile,
+				this.config.credentialCacheFile ());
+		assertEquals ("Credential failure expiry not loaded correctly", expectedExpiry,
+				this.config.credentialFailureExpiryInMins ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setConnectionWarmupLeadTimeValue() {
+		final String expectedLeadTime = "120";
+
+		this.config.setConnectionWarmupLeadTimeInSecs (expectedLeadTime);
+
+		assertEquals ("Connection warmup lead time not loaded correctly", expectedLeadTime,
+				this.config.connectionWarmupLeadTimeInSecs ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setConnectionChannelValues() {
+		final String expectedMaxChannels = "4";
+		final String expectedMaxCount = "2";
+
+		this.config.setConnectionMaxChannels (expectedMaxChannels);
+		this.config.setConnectionMaxCount (expectedMaxCount);
+
+		assertEquals ("Connection max channels not loaded correctly", expectedMaxChannels,
+				this.config.connectionMaxChannels ());
+		assertEquals ("Connection max count not loaded correctly", expectedMaxCount,
+				this.config.connectionMaxCount ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setSSHAlgorithmValues() {
+		this.config.setSSHCiphers ("aes128-ctr");
+		this.config.setSSHMACs ("hmac-sha1");
+		this.config.setSSHHostKeyAlgorithms ("ssh-rsa");
+		this.config.setSSHKexGroupLength ("2048");
+
+		assertEquals ("Ciphers not loaded correctly", "aes128-ctr", this.config.sshCiphers ());
+		assertEquals ("MACs not loaded correctly", "hmac-sha1", this.config.sshMACs ());
+		assertEquals ("Host key algorithms not loaded correctly", "ssh-rsa",
+				this.config.sshHostKeyAlgorithms ());
+		assertEquals ("Kex group length not loaded correctly", "2048",
+				this.config.sshKexGroupLength ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setKnownHostsValues() {
+		this.config.setKnownHostsFile ("./hosts");
+		this.config.setStrictHostKeyChecking ("true");
+
+		assertEquals ("Known hosts file not loaded correctly", "./hosts",
+				this.config.knownHostsFile ());
+		assertEquals ("Strict host key checking not loaded correctly", "true",
+				this.config.strictHostKeyChecking ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setOutputCompressionValue() {
+		this.config.setOutputCompression ("true");
+
+		assertEquals ("Output compression not loaded correctly", "true",
+				this.config.outputCompression ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setCircuitBreakerEnabledValue() {
+		this.config.setCircuitBreakerEnabled ("false");
+
+		assertEquals ("Circuit breaker enabled not loaded correctly", "false",
+				this.config.circuitBreakerEnabled ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setServerProbeTimeoutValue() {
+		this.config.setServerProbeTimeout ("10");
+
+		assertEquals ("Server probe timeout not loaded correctly", "10",
+				this.config.serverProbeTimeoutInSecs ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setCircuitBreakerBackoffValue() {
+		this.config.setCircuitBreakerBackoff ("15");
+
+		assertEquals ("Circuit breaker backoff not loaded correctly", "15",
+				this.config.circuitBreakerBackoffInMins ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setCircuitBreakerMaxBackoffValue() {
+		this.config.setCircuitBreakerMaxBackoff ("120");
+
+		assertEquals ("Circuit breaker max backoff not loaded correctly", "120",
+				this.config.circuitBreakerMaxBackoffInMins ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setSSHIOBackendValue() {
+		this.config.setSSHIOBackend ("nonblocking");
+
+		assertEquals ("SSH I/O backend not loaded correctly", "nonblocking",
+				this.config.sshIOBackend ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setSSHIOThreadsValue() {
+		this.config.setSSHIOThreads ("4");
+
+		assertEquals ("SSH I/O threads not loaded correctly", "4", this.config.sshIOThreads ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setConnectionKeepaliveIntervalValue() {
+		this.config.setConnectionKeepaliveInterval ("300");
+
+		assertEquals ("Connection keepalive interval not loaded correctly", "300",
+				this.config.connectionKeepaliveIntervalInSecs ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setConnectionThreadsValue() {
+		this.config.setConnectionThreads ("8");
+
+		assertEquals ("Connection threads not loaded correctly", "8",
+				this.config.connectionThreads ());
+	}
+	@Test
+	@Category ({ UnitTest.class })
+	public void setConnectionQueueLimitValue() {
+		this.config.setConnectionQueueLimit ("64");
+
+		assertEquals ("Connection queue limit not loaded correctly", "64",
+				this.config.connectionQueueLimit ());
+	}
+	@Test
+	@Category ({ UnitTest.class })
+	public void setConnectionRejectionPolicyValue() {
+		this.config.setConnectionRejectionPolicy ("abort");
+
+		assertEquals ("Connection rejection policy not loaded correctly", "abort",
+				this.config.connectionRejectionPolicy ());
+	}
+	@Test
+	@Category ({ UnitTest.class })
+	public void setCommandThreadsValue() {
+		this.config.setCommandThreads ("8");
+
+		assertEquals ("Command threads not loaded correctly", "8",
+				this.config.commandThreads ());
+	}
+	@Test
+	@Category ({ UnitTest.class })
+	public void setCommandQueueLimitValue() {
+		this.config.setCommandQueueLimit ("64");
+
+		assertEquals ("Command queue limit not loaded correctly", "64",
+				this.config.commandQueueLimit ());
+	}
+	@Test
+	@Category ({ UnitTest.class })
+	public void setCommandRejectionPolicyValue() {
+		this.config.setCommandRejectionPolicy ("abort");
+
+		assertEquals ("Command rejection policy not loaded correctly", "abort",
+				this.config.commandRejectionPolicy ());
+	}
+	@Test
+	@Category ({ UnitTest.class })
+	public void setLoggingThreadsValue() {
+		this.config.setLoggingThreads ("8");
+
+		assertEquals ("Logging threads not loaded correctly", "8",
+				this.config.loggingThreads ());
+	}
+	@Test
+	@Category ({ UnitTest.class })
+	public void setLoggingQueueLimitValue() {
+		this.config.setLoggingQueueLimit ("64");
+
+		assertEquals ("Logging queue limit not loaded correctly", "64",
+				this.config.loggingQueueLimit ());
+	}
+	@Test
+	@Category ({ UnitTest.class })
+	public void setLoggingRejectionPolicyValue() {
+		this.config.setLoggingRejectionPolicy ("abort");
+
+		assertEquals ("Logging rejection policy not loaded correctly", "abort",
+				this.config.loggingRejectionPolicy ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setVirtualThreadsEnabledValue() {
+		this.config.setVirtualThreadsEnabled ("true");
+
+		assertEquals ("Virtual threads enabled not loaded correctly", "true",
+				this.config.virtualThreadsEnabled ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setSchedulerTickDurationInSecsValue() {
+		this.config.setSchedulerTickDurationInSecs ("5");
+
+		assertEquals ("Scheduler tick duration not loaded correctly", "5",
+				this.config.schedulerTickDurationInSecs ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setSchedulerWheelSizeValue() {
+		this.config.setSchedulerWheelSize ("1024");
+
+		assertEquals ("Scheduler wheel size not loaded correctly", "1024",
+				this.config.schedulerWheelSize ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setExecutionSpreadEnabledValue() {
+		this.config.setExecutionSpreadEnabled ("true");
+
+		assertEquals ("Execution spread enabled not loaded correctly", "true",
+				this.config.executionSpreadEnabled ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setExecutionJitterInSecsValue() {
+		this.config.setExecutionJitterInSecs ("30");
+
+		assertEquals ("Execution jitter not loaded correctly", "30",
+				this.config.executionJitterInSecs ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setLoadSheddingEnabledValue() {
+		this.config.setLoadSheddingEnabled ("false");
+
+		assertEquals ("Load shedding enabled not loaded correctly", "false",
+				this.config.loadSheddingEnabled ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setLoadSheddingQueueThresholdValue() {
+		this.config.setLoadSheddingQueueThreshold ("50");
+
+		assertEquals ("Load shedding queue threshold not loaded correctly", "50",
+				this.config.loadSheddingQueueThreshold ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setLoadSheddingDeadlineMarginValue() {
+		this.config.setLoadSheddingDeadlineMargin ("10");
+
+		assertEquals ("Load shedding deadline margin not loaded correctly", "10",
+				this.config.loadSheddingDeadlineMargin ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setMaxConcurrentServersValue() {
+		this.config.setMaxConcurrentServers ("25");
+
+		assertEquals ("Max concurrent servers not loaded correctly", "25",
+				this.config.maxConcurrentServers ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setMaxConcurrentCommandsValue() {
+		this.config.setMaxConcurrentCommands ("4");
+
+		assertEquals ("Max concurrent commands not loaded correctly", "4",
+				this.config.maxConcurrentCommands ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setMaxConcurrentHandshakesValue() {
+		this.config.setMaxConcurrentHandshakes ("8");
+
+		assertEquals ("Max concurrent handshakes not loaded correctly", "8",
+				this.config.maxConcurrentHandshakes ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setOverlapPolicyValue() {
+		this.config.setOverlapPolicy ("skip");
+
+		assertEquals ("Overlap policy not loaded correctly", "skip",
+				this.config.overlapPolicy ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setShellPipeliningValue() {
+		this.config.setShellPipelining ("true");
+
+		assertEquals ("Shell pipelining not loaded correctly", "true",
+				this.config.shellPipelining ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setWarmShellSessionsValue() {
+		this.config.setWarmShellSessions ("true");
+
+		assertEquals ("Warm shell sessions not loaded correctly", "true",
+				this.config.warmShellSessions ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void setShellInitQuietTimeValue() {
+		this.config.setShellInitQuietTime ("800");
+
+		assertEquals ("Shell init quiet time not loaded correctly", "800",
+				this.config.shellInitQuietTimeInMillis ());
+	}
+
 	@Test
 	@Category ({ UnitTest.class })
 	public void unloadCommandFilename() {
@@ -388,6 +761,334 @@ public class TestApplicationConfig {
 		testDefaultValue (ConfigurationProperty.TokenSeperator);
 	}
 
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadConnectionPoolMaxSize() {
+		this.config.setConnectionPoolMaxSize ("5");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.ConnectionPoolMaxSize);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadConnectionPoolIdleTimeout() {
+		this.config.setConnectionPoolIdleTimeoutInMins ("5");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.ConnectionPoolIdleTimeout);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadCredentialCacheFile() {
+		this.config.setCredentialCacheFile ("abcd");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.CredentialCacheFile);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadCredentialFailureExpiry() {
+		this.config.setCredentialFailureExpiryInMins ("5");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.CredentialFailureExpiry);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadConnectionWarmupLeadTime() {
+		this.config.setConnectionWarmupLeadTimeInSecs ("120");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.ConnectionWarmupLeadTime);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadConnectionMaxChannels() {
+		this.config.setConnectionMaxChannels ("4");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.ConnectionMaxChannels);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadConnectionMaxCount() {
+		this.config.setConnectionMaxCount ("2");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.ConnectionMaxCount);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadSSHAlgorithmConfig() {
+		this.config.setSSHCiphers ("aes128-ctr");
+		this.config.setSSHMACs ("hmac-sha1");
+		this.config.setSSHHostKeyAlgorithms ("ssh-rsa");
+		this.config.setSSHKexGroupLength ("2048");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.SSHCiphers);
+		testDefaultValue (ConfigurationProperty.SSHMACs);
+		testDefaultValue (ConfigurationProperty.SSHHostKeyAlgorithms);
+		testDefaultValue (ConfigurationProperty.SSHKexGroupLength);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadKnownHostsConfig() {
+		this.config.setKnownHostsFile ("./hosts");
+		this.config.setStrictHostKeyChecking ("true");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.KnownHostsFile);
+		testDefaultValue (ConfigurationProperty.StrictHostKeyChecking);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadOutputCompression() {
+		this.config.setOutputCompression ("true");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.OutputCompression);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadCircuitBreakerEnabled() {
+		this.config.setCircuitBreakerEnabled ("false");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.CircuitBreakerEnabled);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadServerProbeTimeout() {
+		this.config.setServerProbeTimeout ("10");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.ServerProbeTimeout);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadCircuitBreakerBackoff() {
+		this.config.setCircuitBreakerBackoff ("15");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.CircuitBreakerBackoff);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadCircuitBreakerMaxBackoff() {
+		this.config.setCircuitBreakerMaxBackoff ("120");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.CircuitBreakerMaxBackoff);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadSSHIOBackend() {
+		this.config.setSSHIOBackend ("nonblocking");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.SSHIOBackend);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadSSHIOThreads() {
+		this.config.setSSHIOThreads ("4");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.SSHIOThreads);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadConnectionKeepaliveInterval() {
+		this.config.setConnectionKeepaliveInterval ("300");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.ConnectionKeepaliveInterval);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadConnectionThreads() {
+		this.config.setConnectionThreads ("8");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.ConnectionThreads);
+	}
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadConnectionQueueLimit() {
+		this.config.setConnectionQueueLimit ("64");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.ConnectionQueueLimit);
+	}
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadConnectionRejectionPolicy() {
+		this.config.setConnectionRejectionPolicy ("abort");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.ConnectionRejectionPolicy);
+	}
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadCommandThreads() {
+		this.config.setCommandThreads ("8");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.CommandThreads);
+	}
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadCommandQueueLimit() {
+		this.config.setCommandQueueLimit ("64");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.CommandQueueLimit);
+	}
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadCommandRejectionPolicy() {
+		this.config.setCommandRejectionPolicy ("abort");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.CommandRejectionPolicy);
+	}
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadLoggingThreads() {
+		this.config.setLoggingThreads ("8");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.LoggingThreads);
+	}
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadLoggingQueueLimit() {
+		this.config.setLoggingQueueLimit ("64");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.LoggingQueueLimit);
+	}
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadLoggingRejectionPolicy() {
+		this.config.setLoggingRejectionPolicy ("abort");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.LoggingRejectionPolicy);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadVirtualThreadsEnabled() {
+		this.config.setVirtualThreadsEnabled ("true");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.VirtualThreadsEnabled);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadSchedulerTickDuration() {
+		this.config.setSchedulerTickDurationInSecs ("5");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.SchedulerTickDuration);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadSchedulerWheelSize() {
+		this.config.setSchedulerWheelSize ("1024");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.SchedulerWheelSize);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadExecutionSpreadEnabled() {
+		this.config.setExecutionSpreadEnabled ("true");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.ExecutionSpreadEnabled);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadExecutionJitter() {
+		this.config.setExecutionJitterInSecs ("30");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.ExecutionJitter);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadLoadSheddingEnabled() {
+		this.config.setLoadSheddingEnabled ("false");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.LoadSheddingEnabled);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadLoadSheddingQueueThreshold() {
+		this.config.setLoadSheddingQueueThreshold ("50");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.LoadSheddingQueueThreshold);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadLoadSheddingDeadlineMargin() {
+		this.config.setLoadSheddingDeadlineMargin ("10");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.LoadSheddingDeadlineMargin);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadMaxConcurrentServers() {
+		this.config.setMaxConcurrentServers ("25");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.MaxConcurrentServers);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadMaxConcurrentCommands() {
+		this.config.setMaxConcurrentCommands ("4");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.MaxConcurrentCommands);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadMaxConcurrentHandshakes() {
+		this.config.setMaxConcurrentHandshakes ("8");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.MaxConcurrentHandshakes);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadOverlapPolicy() {
+		this.config.setOverlapPolicy ("skip");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.OverlapPolicy);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadShellPipelining() {
+		this.config.setShellPipelining ("true");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.ShellPipelining);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadWarmShellSessions() {
+		this.config.setWarmShellSessions ("true");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.WarmShellSessions);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void unloadShellInitQuietTime() {
+		this.config.setShellInitQuietTime ("800");
+		this.config.unload ();
+		testDefaultValue (ConfigurationProperty.ShellInitQuietTime);
+	}
+
 	private void testDefaultValue(ConfigurationProperty property) {
 
 		switch (property) {
@@ -435,6 +1136,185 @@ public class TestApplicationConfig {
 			assertEquals (" Server filename did not reset", this.config.serverFilename (),
 					property.defaultValue ());
 			break;
+		case ConnectionPoolMaxSize:
+			assertEquals (" Connection pool max size did not reset",
+					this.config.connectionPoolMaxSize (), property.defaultValue ());
+			break;
+		case ConnectionPoolIdleTimeout:
+			assertEquals (" Connection pool idle timeout did not reset",
+					this.config.connectionPoolIdleTimeoutInMins (), property.defaultValue ());
+			break;
+		case CredentialCacheFile:
+			assertEquals (" Credential cache file did not reset",
+					this.config.credentialCacheFile (), property.defaultValue ());
+			break;
+		case CredentialFailureExpiry:
+			assertEquals (" Credential failure expiry did not reset",
+					this.config.credentialFailureExpiryInMins (), property.defaultValue ());
+			break;
+		case ConnectionWarmupLeadTime:
+			assertEquals (" Connection warmup lead time did not reset",
+					this.config.connectionWarmupLeadTimeInSecs (), property.defaultValue ());
+			break;
+		case ConnectionMaxChannels:
+			assertEquals (" Connection max channels did not reset",
+					this.config.connectionMaxChannels (), property.defaultValue ());
+			break;
+		case ConnectionMaxCount:
+			assertEquals (" Connection max count did not reset",
+					this.config.connectionMaxCount (), property.defaultValue ());
+			break;
+		case SSHCiphers:
+			assertEquals (" Ciphers did not reset", this.config.sshCiphers (),
+					property.defaultValue ());
+			break;
+		case SSHMACs:
+			assertEquals (" MACs did not reset", this.config.sshMACs (), property.defaultValue ());
+			break;
+		case SSHHostKeyAlgorithms:
+			assertEquals (" Host key algorithms did not reset",
+					this.config.sshHostKeyAlgorithms (), property.defaultValue ());
+			break;
+		case SSHKexGroupLength:
+			assertEquals (" Kex group length did not reset", this.config.sshKexGroupLength (),
+					property.defaultValue ());
+			break;
+		case KnownHostsFile:
+			assertEquals (" Known hosts file did not reset", this.config.knownHostsFile (),
+					property.defaultValue ());
+			break;
+		case StrictHostKeyChecking:
+			assertEquals (" Strict host key checking did not reset",
+					this.config.strictHostKeyChecking (), property.defaultValue ());
+			break;
+		case OutputCompression:
+			assertEquals (" Output compression did not reset", this.config.outputCompression (),
+					property.defaultValue ());
+			break;
+		case CircuitBreakerEnabled:
+			assertEquals (" Circuit breaker enabled did not reset",
+					this.config.circuitBreakerEnabled (), property.defaultValue ());
+			break;
+		case ServerProbeTimeout:
+			assertEquals (" Server probe timeout did not reset",
+					this.config.serverProbeTimeoutInSecs (), property.defaultValue ());
+			break;
+		case CircuitBreakerBackoff:
+			assertEquals (" Circuit breaker backoff did not reset",
+					this.config.circuitBreakerBackoffInMins (), property.defaultValue ());
+			break;
+		case CircuitBreakerMaxBackoff:
+			assertEquals (" Circuit breaker max backoff did not reset",
+					this.config.circuitBreakerMaxBackoffInMins (), property.defaultValue ());
+			break;
+		case SSHIOBackend:
+			assertEquals (" SSH I/O backend did not reset", this.config.sshIOBackend (),
+					property.defaultValue ());
+			break;
+		case SSHIOThreads:
+			assertEquals (" SSH I/O threads did not reset", this.config.sshIOThreads (),
+					property.defaultValue ());
+			break;
+		case ConnectionKeepaliveInterval:
+			assertEquals (" Connection keepalive interval did not reset",
+					this.config.connectionKeepaliveIntervalInSecs (), property.defaultValue ());
+			break;
+		case ConnectionThreads:
+			assertEquals (" Connection threads did not reset",
+					this.config.connectionThreads (), property.defaultValue ());
+			break;
+		case ConnectionQueueLimit:
+			assertEquals (" Connection queue limit did not reset",
+					this.config.connectionQueueLimit (), property.defaultValue ());
+			break;
+		case ConnectionRejectionPolicy:
+			assertEquals (" Connection rejection policy did not reset",
+					this.config.connectionRejectionPolicy (), property.defaultValue ());
+			break;
+		case CommandThreads:
+			assertEquals (" Command threads did not reset",
+					this.config.commandThreads (), property.defaultValue ());
+			break;
+		case CommandQueueLimit:
+			assertEquals (" Command queue limit did not reset",
+					this.config.commandQueueLimit (), property.defaultValue ());
+			break;
+		case CommandRejectionPolicy:
+			assertEquals (" Command rejection policy did not reset",
+					this.config.commandRejectionPolicy (), property.defaultValue ());
+			break;
+		case LoggingThreads:
+			assertEquals (" Logging threads did not reset",
+					this.config.loggingThreads (), property.defaultValue ());
+			break;
+		case LoggingQueueLimit:
+			assertEquals (" Logging queue limit did not reset",
+					this.config.loggingQueueLimit (), property.defaultValue ());
+			break;
+		case LoggingRejectionPolicy:
+			assertEquals (" Logging rejection policy did not reset",
+					this.config.loggingRejectionPolicy (), property.defaultValue ());
+			break;
+		case VirtualThreadsEnabled:
+			assertEquals (" Virtual threads enabled did not reset",
+					this.config.virtualThreadsEnabled (), property.defaultValue ());
+			break;
+		case SchedulerTickDuration:
+			assertEquals (" Scheduler tick duration did not reset",
+					this.config.schedulerTickDurationInSecs (), property.defaultValue ());
+			break;
+		case SchedulerWheelSize:
+			assertEquals (" Scheduler wheel size did not reset",
+					this.config.schedulerWheelSize (), property.defaultValue ());
+			break;
+		case ExecutionSpreadEnabled:
+			assertEquals (" Execution spread enabled did not reset",
+					this.config.executionSpreadEnabled (), property.defaultValue ());
+			break;
+		case ExecutionJitter:
+			assertEquals (" Execution jitter did not reset",
+					this.config.executionJitterInSecs (), property.defaultValue ());
+			break;
+		case LoadSheddingEnabled:
+			assertEquals (" Load shedding enabled did not reset",
+					this.config.loadSheddingEnabled (), property.defaultValue ());
+			break;
+		case LoadSheddingQueueThreshold:
+			assertEquals (" Load shedding queue threshold did not reset",
+					this.config.loadSheddingQueueThreshold (), property.defaultValue ());
+			break;
+		case LoadSheddingDeadlineMargin:
+			assertEquals (" Load shedding deadline margin did not reset",
+					this.config.loadSheddingDeadlineMargin (), property.defaultValue ());
+			break;
+		case MaxConcurrentServers:
+			assertEquals (" Max concurrent servers did not reset",
+					this.config.maxConcurrentServers (), property.defaultValue ());
+			break;
+		case MaxConcurrentCommands:
+			assertEquals (" Max concurrent commands did not reset",
+					this.config.maxConcurrentCommands (), property.defaultValue ());
+			break;
+		case MaxConcurrentHandshakes:
+			assertEquals (" Max concurrent handshakes did not reset",
+					this.config.maxConcurrentHandshakes (), property.defaultValue ());
+			break;
+		case OverlapPolicy:
+			assertEquals (" Overlap policy did not reset",
+					this.config.overlapPolicy (), property.defaultValue ());
+			break;
+		case ShellPipelining:
+			assertEquals (" Shell pipelining did not reset",
+					this.config.shellPipelining (), property.defaultValue ());
+			break;
+		case WarmShellSessions:
+			assertEquals (" Warm shell sessions did not reset",
+					this.config.warmShellSessions (), property.defaultValue ());
+			break;
+		case ShellInitQuietTime:
+			assertEquals (" Shell init quiet time did not reset",
+					this.config.shellInitQuietTimeInMillis (), property.defaultValue ());
+			break;
 		default:
 			Assert.fail ("Invalid Property passed by test method");
 		}
@@ -342,4 +342,545 @@ public class TestApplicationConfigLoader {
 				config.commandFilename ());
 	}
 
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingConnectionPoolConfig() {
+		// given
+		Properties props = new Properties ();
+		props.put ("ConnectionPoolEnabled", "false");
+		props.put ("ConnectionPoolMaxSize", "10");
+		props.put ("ConnectionPoolIdleTimeout", "15");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Connection pool enabled config not loaded", "false",
+				config.connectionPoolEnabled ());
+		assertEquals ("Connection pool max size config not loaded", "10",
+				config.connectionPoolMaxSize ());
+		assertEquals ("Connection pool idle timeout config not loaded", "15",
+				config.connectionPoolIdleTimeoutInMins ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingCredentialCacheConfig() {
+		// given
+		Properties props = new Properties ();
+		props.put ("CredentialCacheFile", "abcd");
+		props.put ("CredentialFailureExpiry", "15");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Credential cache file config not loaded", "abcd",
+				config.credentialCacheFile ());
+		assertEquals ("Credential failure expiry config not loaded", "15",
+				config.credentialFailureExpiryInMins ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingConnectionWarmupLeadTime() {
+		// given
+		Properties props = wrapIntoProperites ("ConnectionWarmupLeadTime", "120");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Connection warmup lead time config not loaded", "120",
+				config.connectionWarmupLeadTimeInSecs ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingConnectionChannelConfig() {
+		// given
+		Properties props = new Properties ();
+		props.put ("ConnectionMaxChannels", "4");
+		props.put ("ConnectionMaxCount", "2");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Connection max channels config not loaded", "4",
+				config.connectionMaxChannels ());
+		assertEquals ("Connection max count config not loaded", "2", config.connectionMaxCount ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingSSHAlgorithmAndKnownHostsConfig() {
+		// given
+		Properties props = new Properties ();
+		props.put ("SSHCiphers", "aes128-ctr");
+		props.put ("SSHMACs", "hmac-sha1");
+		props.put ("SSHHostKeyAlgorithms", "ssh-rsa");
+		props.put ("SSHKexGroupLength", "2048");
+		props.put ("KnownHostsFile", "./hosts");
+		props.put ("StrictHostKeyChecking", "true");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Ciphers config not loaded", "aes128-ctr", config.sshCiphers ());
+		assertEquals ("MACs config not loaded", "hmac-sha1", config.sshMACs ());
+		assertEquals ("Host key algorithms config not loaded", "ssh-rsa",
+				config.sshHostKeyAlgorithms ());
+		assertEquals ("Kex group length config not loaded", "2048", config.sshKexGroupLength ());
+		assertEquals ("Known hosts file config not loaded", "./hosts", config.knownHostsFile ());
+		assertEquals ("Strict host key checking config not loaded", "true",
+				config.strictHostKeyChecking ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingOutputCompression() {
+		// given
+		Properties props = wrapIntoProperites ("OutputCompression", "true");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Output compression config not loaded", "true", config.outputCompression ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingCircuitBreakerEnabled() {
+		// given
+		Properties props = wrapIntoProperites ("CircuitBreakerEnabled", "false");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Circuit breaker enabled config not loaded", "false",
+				config.circuitBreakerEnabled ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingServerProbeTimeout() {
+		// given
+		Properties props = wrapIntoProperites ("ServerProbeTimeout", "10");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Server probe timeout config not loaded", "10",
+				config.serverProbeTimeoutInSecs ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingCircuitBreakerBackoff() {
+		// given
+		Properties props = wrapIntoProperites ("CircuitBreakerBackoff", "15");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Circuit breaker backoff config not loaded", "15",
+				config.circuitBreakerBackoffInMins ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingCircuitBreakerMaxBackoff() {
+		// given
+		Properties props = wrapIntoProperites ("CircuitBreakerMaxBackoff", "120");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Circuit breaker max backoff config not loaded", "120",
+				config.circuitBreakerMaxBackoffInMins ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingSSHIOBackend() {
+		// given
+		Properties props = wrapIntoProperites ("SSHIOBackend", "nonblocking");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("SSH I/O backend config not loaded", "nonblocking", config.sshIOBackend ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingSSHIOThreads() {
+		// given
+		Properties props = wrapIntoProperites ("SSHIOThreads", "4");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("SSH I/O threads config not loaded", "4", config.sshIOThreads ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingConnectionKeepaliveInterval() {
+		// given
+		Properties props = wrapIntoProperites ("ConnectionKeepaliveInterval", "300");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Connection keepalive interval config not loaded", "300",
+				config.connectionKeepaliveIntervalInSecs ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingConnectionThreads() {
+		// given
+		Properties props = wrapIntoProperites ("ConnectionThreads", "8");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Connection threads config not loaded", "8",
+				config.connectionThreads ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingConnectionQueueLimit() {
+		// given
+		Properties props = wrapIntoProperites ("ConnectionQueueLimit", "64");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Connection queue limit config not loaded", "64",
+				config.connectionQueueLimit ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingConnectionRejectionPolicy() {
+		// given
+		Properties props = wrapIntoProperites ("ConnectionRejectionPolicy", "abort");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Connection rejection policy config not loaded", "abort",
+				config.connectionRejectionPolicy ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingCommandThreads() {
+		// given
+		Properties props = wrapIntoProperites ("CommandThreads", "8");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Command threads config not loaded", "8",
+				config.commandThreads ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingCommandQueueLimit() {
+		// given
+		Properties props = wrapIntoProperites ("CommandQueueLimit", "64");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Command queue limit config not loaded", "64",
+				config.commandQueueLimit ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingCommandRejectionPolicy() {
+		// given
+		Properties props = wrapIntoProperites ("CommandRejectionPolicy", "abort");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Command rejection policy config not loaded", "abort",
+				config.commandRejectionPolicy ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingLoggingThreads() {
+		// given
+		Properties props = wrapIntoProperites ("LoggingThreads", "8");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Logging threads config not loaded", "8",
+				config.loggingThreads ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingLoggingQueueLimit() {
+		// given
+		Properties props = wrapIntoProperites ("LoggingQueueLimit", "64");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Logging queue limit config not loaded", "64",
+				config.loggingQueueLimit ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingLoggingRejectionPolicy() {
+		// given
+		Properties props = wrapIntoProperites ("LoggingRejectionPolicy", "abort");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Logging rejection policy config not loaded", "abort",
+				config.loggingRejectionPolicy ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingVirtualThreadsEnabled() {
+		// given
+		Properties props = wrapIntoProperites ("VirtualThreadsEnabled", "true");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Virtual threads enabled config not loaded", "true",
+				config.virtualThreadsEnabled ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingSchedulerTickDuration() {
+		// given
+		Properties props = wrapIntoProperites ("SchedulerTickDuration", "5");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Scheduler tick duration config not loaded", "5",
+				config.schedulerTickDurationInSecs ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingSchedulerWheelSize() {
+		// given
+		Properties props = wrapIntoProperites ("SchedulerWheelSize", "1024");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Scheduler wheel size config not loaded", "1024",
+				config.schedulerWheelSize ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingExecutionSpreadEnabled() {
+		// given
+		Properties props = wrapIntoProperites ("ExecutionSpreadEnabled", "true");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Execution spread enabled config not loaded", "true",
+				config.executionSpreadEnabled ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingExecutionJitter() {
+		// given
+		Properties props = wrapIntoProperites ("ExecutionJitter", "30");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Execution jitter config not loaded", "30",
+				config.executionJitterInSecs ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingLoadSheddingEnabled() {
+		// given
+		Properties props = wrapIntoProperites ("LoadSheddingEnabled", "false");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Load shedding enabled config not loaded", "false",
+				config.loadSheddingEnabled ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingLoadSheddingQueueThreshold() {
+		// given
+		Properties props = wrapIntoProperites ("LoadSheddingQueueThreshold", "50");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Load shedding queue threshold config not loaded", "50",
+				config.loadSheddingQueueThreshold ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingLoadSheddingDeadlineMargin() {
+		// given
+		Properties props = wrapIntoProperites ("LoadSheddingDeadlineMargin", "10");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Load shedding deadline margin config not loaded", "10",
+				config.loadSheddingDeadlineMargin ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingMaxConcurrentServers() {
+		// given
+		Properties props = wrapIntoProperites ("MaxConcurrentServers", "25");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Max concurrent servers config not loaded", "25",
+				config.maxConcurrentServers ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingMaxConcurrentCommands() {
+		// given
+		Properties props = wrapIntoProperites ("MaxConcurrentCommands", "4");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Max concurrent commands config not loaded", "4",
+				config.maxConcurrentCommands ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingMaxConcurrentHandshakes() {
+		// given
+		Properties props = wrapIntoProperites ("MaxConcurrentHandshakes", "8");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Max concurrent handshakes config not loaded", "8",
+				config.maxConcurrentHandshakes ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingOverlapPolicy() {
+		// given
+		Properties props = wrapIntoProperites ("OverlapPolicy", "skip");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Overlap policy config not loaded", "skip",
+				config.overlapPolicy ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingShellPipelining() {
+		// given
+		Properties props = wrapIntoProperites ("ShellPipelining", "true");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Shell pipelining config not loaded", "true",
+				config.shellPipelining ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingWarmShellSessions() {
+		// given
+		Properties props = wrapIntoProperites ("WarmShellSessions", "true");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Warm shell sessions config not loaded", "true",
+				config.warmShellSessions ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void loadingShellInitQuietTime() {
+		// given
+		Properties props = wrapIntoProperites ("ShellInitQuietTime", "800");
+		ApplicationConfigLoader loader = new ApplicationConfigLoader ();
+		// when
+		loader.loadApplicationConfig (props);
+		ApplicationConfig config = ApplicationConfig.getInstance ();
+		// then
+		assertEquals ("Shell init quiet time config not loaded", "800",
+				config.shellInitQuietTimeInMillis ());
+	}
+
 }
@@ -19,6 +19,7 @@ import org.junit.rules.ExpectedException;
 
 import com.novicehacks.autobot.categories.UnitTest;
 import com.novicehacks.autobot.core.types.Command;
+import com.novicehacks.autobot.core.types.CommandPriority;
 import com.novicehacks.autobot.core.types.ShellCommand;
 
 public class TestCommandConfigLoader {
@@ -27,7 +28,8 @@ public class TestCommandConfigLoader {
 	@Rule
 	public ExpectedException expectedException = ExpectedException.none ();
 	private static final String[] DataSet = { "description:", "description:command:",
-			"description:command:id", "description:command:id:extra" };
+			"description:command:id", "description:command:id:bulk:extra",
+			"description:command:id:bulk", "description:command:id:urgent" };
 
 	@Before
 	public void setup() {
@@ -88,6 +90,44 @@ public class TestCommandConfigLoader {
 		fail ("Command config loaded with incomplete data");
 	}
 
+	@Test
+	@Category (UnitTest.class)
+	public void testCommandConfigWithPriority() throws IOException {
+		int dataSetIndex = 4;
+		when (configParser.getConfigFromFile ()).thenReturn (mockedConfig (dataSetIndex));
+
+		commandConfigLoader.loadCommandConfig ();
+
+		Command command = commandConfigLoader.getCommandConfig ().iterator ().next ();
+		Assert.assertEquals ("Priority not loaded", CommandPriority.Bulk, command.priority ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void testCommandConfigWithoutPriority() throws IOException {
+		int dataSetIndex = 2;
+		when (configParser.getConfigFromFile ()).thenReturn (mockedConfig (dataSetIndex));
+
+		commandConfigLoader.loadCommandConfig ();
+
+		Command command = commandConfigLoader.getCommandConfig ().iterator ().next ();
+		Assert.assertEquals ("Default priority not set", CommandPriority.Normal,
+				command.priority ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void testCommandConfigWithInvalidPriority() throws IOException {
+		int dataSetIndex = 5;
+		when (configParser.getConfigFromFile ()).thenReturn (mockedConfig (dataSetIndex));
+
+		expectedException.expect (ResourceLoadingException.class);
+		expectedException.expectMessage ("Command priority is invalid:urgent");
+		commandConfigLoader.loadCommandConfig ();
+
+		fail ("Command config loaded with invalid priority");
+	}
+
 	@Test
 	@Category (UnitTest.class)
 	public void testCommandConfigMultipleConfigurations() throws IOException {
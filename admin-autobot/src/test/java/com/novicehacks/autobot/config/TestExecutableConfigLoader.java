@@ -2,6 +2,7 @@ package com.novicehacks.autobot.config;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -10,6 +11,7 @@ import static org.mockito.Mockito.when;
 import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.hamcrest.CoreMatchers;
 import org.junit.Before;
@@ -22,8 +24,9 @@ import com.novicehacks.autobot.categories.UnitTest;
 import com.novicehacks.autobot.core.types.Executable;
 
 public class TestExecutableConfigLoader {
-	private static final String[] Dataset = { "command", "command:server", "command:server:extra",
-			"command2:server2" };
+	private static final String[] Dataset = { "command", "command:server",
+			"command:server:15m:extra", "command2:server2", "command3:server3:15m",
+			"command4:server4:never" };
 	private ExecutableConfigLoader executableConfigLoader;
 	private ResourceConfigParser mockParser;
 	@Rule
@@ -87,6 +90,35 @@ public class TestExecutableConfigLoader {
 		assertLoadedConfig (loadedConfig, dataSetIndex);
 	}
 
+	@Test
+	@Category (UnitTest.class)
+	public void testLoadingConfigWithSchedule() throws IOException {
+		int dataSetIndex = 4;
+		when (mockParser.getConfigFromFile ()).thenReturn (mockedConfig (dataSetIndex));
+
+		executableConfigLoader.loadExecutableConfig ();
+
+		Set<Executable> loadedConfig = executableConfigLoader.getExecutableConfig ();
+		assertLoadedConfig (loadedConfig, dataSetIndex);
+		Executable executable = loadedConfig.iterator ().next ();
+		assertTrue ("Schedule not loaded", executable.isScheduled ());
+		assertEquals ("Schedule interval not loaded", TimeUnit.MINUTES.toMillis (15), executable
+				.getSchedule ().intervalInMillis ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void testLoadingConfigWithInvalidSchedule() throws IOException {
+		int dataSetIndex = 5;
+		when (mockParser.getConfigFromFile ()).thenReturn (mockedConfig (dataSetIndex));
+
+		exception.expect (ResourceLoadingException.class);
+		exception.expectMessage ("Invalid schedule for executable:never");
+		executableConfigLoader.loadExecutableConfig ();
+
+		fail ("Executable config loaded with invalid schedule");
+	}
+
 	@Test
 	@Category (UnitTest.class)
 	public void testResouceNotFoundInConfigParser() throws IOException {
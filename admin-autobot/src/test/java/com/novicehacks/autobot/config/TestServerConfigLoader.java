@@ -23,6 +23,7 @@ import com.novicehacks.autobot.config.ResourceLoadingException;
 import com.novicehacks.autobot.config.ServerConfigLoader;
 import com.novicehacks.autobot.core.types.Server;
 import com.novicehacks.autobot.core.types.ServerCredential;
+import com.novicehacks.autobot.core.types.ServerOption;
 
 public class TestServerConfigLoader {
 	private ResourceConfigParser parser;
@@ -40,7 +41,9 @@ public class TestServerConfigLoader {
 			"serverid7:servername8:ipaddress8:init#command1:init#command2",//
 			"serverid8:servername8:ipaddress8:init#command1:username1:password1",//
 			"serverid9:servername9:ipaddress9:init#command1:init#command2:init#command3:username:password",
-			"serverid10:servername10:ipaddress10:init#command1:init#command2:username1:password1:username2:password2" };
+			"serverid10:servername10:ipaddress10:init#command1:init#command2:username1:password1:username2:password2",
+			"serverid11:servername11:ipaddress11:init#command1:option#ConnectionMaxChannels=4:option#ConnectionMaxCount=2:username:password",
+			"serverid12:servername12:ipaddress12:option#ConnectionMaxChannels:username:password" };
 
 	@Before
 	public void setup() {
@@ -217,6 +220,52 @@ public class TestServerConfigLoader {
 		assertCredentialConfiguration (server, true, passwords);
 	}
 
+	@Test
+	@Category (UnitTest.class)
+	public void testServerConfigWithOptions() throws IOException {
+		final int datasetIndex = 10;
+		final String[] expectedInitCommands = { "command1" };
+		when (parser.getConfigFromFile ()).thenReturn (mockedServerConfig (datasetIndex));
+
+		serverConfigLoader.loadServerConfiguration ();
+
+		Server server = assertBasicServerConfigAndReturnInstance (datasetIndex);
+		assertInitCommands (server, expectedInitCommands);
+		assertCredentialConfiguration (server, false, "username");
+		assertEquals ("Incorrect no. of options loaded", 2, server.options ().size ());
+		assertEquals ("Option loaded incorrectly", "4",
+				ServerOption.ConnectionMaxChannels.valueFor (server, "10"));
+		assertEquals ("Option loaded incorrectly", "2",
+				ServerOption.ConnectionMaxCount.valueFor (server, "1"));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void testServerConfigWithNoOptions() throws IOException {
+		final int datasetIndex = 2;
+		when (parser.getConfigFromFile ()).thenReturn (mockedServerConfig (datasetIndex));
+
+		serverConfigLoader.loadServerConfiguration ();
+
+		Server server = assertBasicServerConfigAndReturnInstance (datasetIndex);
+		assertEquals ("Options loaded for server without options", 0, server.options ().size ());
+		assertEquals ("Default value not used", "10",
+				ServerOption.ConnectionMaxChannels.valueFor (server, "10"));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void testServerConfigWithInvalidOption() throws IOException {
+		final int datasetIndex = 11;
+		when (parser.getConfigFromFile ()).thenReturn (mockedServerConfig (datasetIndex));
+
+		exception.expect (ResourceLoadingException.class);
+		exception.expectMessage ("Server option should be in key=value format");
+		serverConfigLoader.loadServerConfiguration ();
+
+		fail ("Invalid Server option config being loaded, without value");
+	}
+
 	@Test
 	@Category (UnitTest.class)
 	public void testResouceNotFoundInConfigParser() throws IOException {
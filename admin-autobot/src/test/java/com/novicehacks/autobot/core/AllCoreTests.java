@@ -4,9 +4,13 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
+import com.novicehacks.autobot.core.types.TestExecutableSchedule;
+
 @RunWith (Suite.class)
-@SuiteClasses ({ TestThreadManager.class, TestBotUtils.class,
-		TestGenericUncaughtExceptionHandler.class })
+@SuiteClasses ({ TestThreadManager.class, TestBoundedThreadPool.class,
+		TestThreadPerTaskExecutor.class, TestVirtualThreads.class, TestDeadline.class,
+		TestConcurrencyLimit.class, TestHashedTimingWheel.class, TestExecutableSchedule.class,
+		TestBotUtils.class, TestGenericUncaughtExceptionHandler.class })
 public class AllCoreTests {
 
 }
@@ -0,0 +1,167 @@
+package com.novicehacks.autobot.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+
+import com.novicehacks.autobot.categories.UnitTest;
+import com.novicehacks.autobot.core.types.CommandPriority;
+
+public class TestBoundedThreadPool {
+	private final CountDownLatch release = new CountDownLatch (1);
+	private BoundedThreadPool pool;
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none ();
+
+	@After
+	public void tearDown() {
+		this.release.countDown ();
+		if (this.pool != null)
+			this.pool.shutdownNow ();
+	}
+
+	private Callable<String> threadNameTask() {
+		return new Callable<String> () {
+			@Override
+			public String call() throws InterruptedException {
+				TestBoundedThreadPool.this.release.await ();
+				return Thread.currentThread ().getName ();
+			}
+		};
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void threadsAreNamedAfterPool() throws InterruptedException, ExecutionException {
+		// given
+		this.pool = new BoundedThreadPool ("test", 1, 1, BoundedThreadPool.CallerRunsPolicy);
+		this.release.countDown ();
+		// when
+		Future<String> threadName = this.pool.submit (threadNameTask ());
+		// then
+		assertEquals ("autobot-test-1", threadName.get ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void callerRunsTaskBeyondQueueLimit() throws InterruptedException,
+			ExecutionException {
+		// given
+		this.pool = new BoundedThreadPool ("test", 1, 1, BoundedThreadPool.CallerRunsPolicy);
+		this.pool.submit (threadNameTask ());
+		this.pool.submit (threadNameTask ());
+		this.release.countDown ();
+		// when
+		Future<String> threadName = this.pool.submit (threadNameTask ());
+		// then
+		assertEquals (Thread.currentThread ().getName (), threadName.get ());
+		assertEquals (1, this.pool.callerRunsCount ());
+		assertEquals (0, this.pool.rejectedCount ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void abortRejectsTaskBeyondQueueLimit() {
+		// given
+		this.pool = new BoundedThreadPool ("test", 1, 1, BoundedThreadPool.AbortPolicy);
+		this.pool.submit (threadNameTask ());
+		this.pool.submit (threadNameTask ());
+		// when
+		try {
+			this.pool.submit (threadNameTask ());
+		} catch (RejectedExecutionException ex) {
+			// then
+			assertEquals (1, this.pool.rejectedCount ());
+			assertTrue (this.pool.statistics ().contains ("queued=1/1"));
+			return;
+		}
+		throw new AssertionError ("Task beyond queue limit is not rejected");
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void poolIsBoundedByMaximumThreads() {
+		// given
+		this.pool = new BoundedThreadPool ("test", 2, 10, BoundedThreadPool.AbortPolicy);
+		// when
+		for (int count = 0; count < 5; count++)
+			this.pool.submit (threadNameTask ());
+		// then
+		assertEquals (2, this.pool.getPoolSize ());
+		assertEquals (3, this.pool.getQueue ().size ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void shutdownPoolRejectsTasks() {
+		// given
+		this.pool = new BoundedThreadPool ("test", 1, 1, BoundedThreadPool.CallerRunsPolicy);
+		this.pool.shutdown ();
+		// then
+		this.exception.expect (RejectedExecutionException.class);
+		// when
+		this.pool.submit (threadNameTask ());
+	}
+
+	private Runnable recordingTask(final String name, final List<String> runOrder,
+			final CountDownLatch completion) {
+		return new Runnable () {
+			@Override
+			public void run() {
+				runOrder.add (name);
+				completion.countDown ();
+			}
+		};
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void queuedTasksAreTakenByPriority() throws InterruptedException {
+		// given
+		this.pool = new BoundedThreadPool ("test", 1, 10, BoundedThreadPool.AbortPolicy);
+		this.pool.submit (threadNameTask ());
+		List<String> runOrder = Collections.synchronizedList (new ArrayList<String> ());
+		CountDownLatch completion = new CountDownLatch (4);
+		// when
+		this.pool.execute (new PrioritizedTask (CommandPriority.Bulk, recordingTask ("bulk",
+				runOrder, completion)));
+		this.pool.execute (recordingTask ("normal", runOrder, completion));
+		this.pool.execute (new PrioritizedTask (CommandPriority.Critical, recordingTask (
+				"critical-1", runOrder, completion)));
+		this.pool.execute (new PrioritizedTask (CommandPriority.Critical, recordingTask (
+				"critical-2", runOrder, completion)));
+		this.release.countDown ();
+		// then
+		assertTrue (completion.await (5, TimeUnit.SECONDS));
+		assertEquals (Arrays.asList ("critical-1", "critical-2", "normal", "bulk"), runOrder);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void queueUtilizationIsPercentageOfQueueLimit() {
+		// given
+		this.pool = new BoundedThreadPool ("test", 1, 4, BoundedThreadPool.AbortPolicy);
+		// when
+		for (int count = 0; count < 3; count++)
+			this.pool.submit (threadNameTask ());
+		// then
+		assertEquals (50, this.pool.queueUtilization ());
+	}
+}
@@ -0,0 +1,145 @@
+package com.novicehacks.autobot.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.novicehacks.autobot.categories.UnitTest;
+
+public class TestConcurrencyLimit {
+
+	private Supplier<CompletableFuture<String>> stage(final CompletableFuture<String> future,
+			final AtomicInteger startedCount) {
+		return new Supplier<CompletableFuture<String>> () {
+			@Override
+			public CompletableFuture<String> get() {
+				startedCount.incrementAndGet ();
+				return future;
+			}
+		};
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void acquireBeyondLimitTimesOutAtDeadline() throws InterruptedException {
+		// given
+		ConcurrencyLimit limit = new ConcurrencyLimit (1);
+		assertTrue (limit.acquire (null));
+		// when
+		boolean admitted = limit.acquire (Deadline.after (50, TimeUnit.MILLISECONDS));
+		// then
+		assertFalse (admitted);
+		assertEquals (1, limit.admittedCount ());
+		assertEquals (1, limit.queuedCount ());
+		assertTrue (limit.maxWaitTimeInMillis () >= 40);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void releasedPermitIsAcquiredAgain() throws InterruptedException {
+		// given
+		ConcurrencyLimit limit = new ConcurrencyLimit (1);
+		assertTrue (limit.acquire (null));
+		// when
+		limit.release ();
+		// then
+		assertTrue (limit.acquire (Deadline.after (0, TimeUnit.MILLISECONDS)));
+		assertEquals (0, limit.queuedCount ());
+		assertEquals (1, limit.running ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void stageBeyondLimitIsStartedOnceEarlierStageCompletes() {
+		// given
+		ConcurrencyLimit limit = new ConcurrencyLimit (1);
+		CompletableFuture<String> firstFuture = new CompletableFuture<String> ();
+		CompletableFuture<String> secondFuture = new CompletableFuture<String> ();
+		AtomicInteger startedCount = new AtomicInteger ();
+		CompletableFuture<String> first = limit.admit (null, stage (firstFuture, startedCount));
+		// when
+		CompletableFuture<String> second = limit.admit (null, stage (secondFuture,
+				startedCount));
+		// then
+		assertEquals (1, startedCount.get ());
+		assertEquals (1, limit.pendingCount ());
+		firstFuture.complete ("first");
+		assertEquals ("first", first.join ());
+		assertEquals (2, startedCount.get ());
+		secondFuture.complete ("second");
+		assertEquals ("second", second.join ());
+		assertEquals (1, limit.queuedCount ());
+		assertEquals (1, limit.peakRunning ());
+		assertEquals (0, limit.running ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void queuedStageFailsOnceDeadlineIsReached() throws InterruptedException {
+		// given
+		ConcurrencyLimit limit = new ConcurrencyLimit (1);
+		CompletableFuture<String> firstFuture = new CompletableFuture<String> ();
+		AtomicInteger startedCount = new AtomicInteger ();
+		limit.admit (null, stage (firstFuture, startedCount));
+		CompletableFuture<String> second = limit.admit (Deadline.after (0,
+				TimeUnit.MILLISECONDS), stage (new CompletableFuture<String> (), startedCount));
+		// when
+		firstFuture.complete ("first");
+		// then
+		try {
+			second.get ();
+			throw new AssertionError ("Stage admitted after the deadline");
+		} catch (ExecutionException ex) {
+			assertTrue (ex.getCause () instanceof TimeoutException);
+		}
+		assertEquals (1, startedCount.get ());
+		assertEquals (0, limit.running ());
+		assertTrue (limit.acquire (Deadline.after (0, TimeUnit.MILLISECONDS)));
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void stageFailingToStartReleasesPermit() {
+		// given
+		ConcurrencyLimit limit = new ConcurrencyLimit (1);
+		CompletableFuture<String> failed = limit.admit (null,
+				new Supplier<CompletableFuture<String>> () {
+					@Override
+					public CompletableFuture<String> get() {
+						throw new IllegalStateException ("not started");
+					}
+				});
+		AtomicInteger startedCount = new AtomicInteger ();
+		// when
+		limit.admit (null, stage (new CompletableFuture<String> (), startedCount));
+		// then
+		assertTrue (failed.isCompletedExceptionally ());
+		assertEquals (1, startedCount.get ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void zeroLimitAdmitsAllStages() {
+		// given
+		ConcurrencyLimit limit = new ConcurrencyLimit (0);
+		AtomicInteger startedCount = new AtomicInteger ();
+		// when
+		for (int count = 0; count < 5; count++)
+			limit.admit (null, stage (new CompletableFuture<String> (), startedCount));
+		// then
+		assertEquals (5, startedCount.get ());
+		assertEquals (5, limit.peakRunning ());
+		assertEquals (0, limit.queuedCount ());
+		assertTrue (limit.statistics ().startsWith ("limit=none"));
+	}
+}
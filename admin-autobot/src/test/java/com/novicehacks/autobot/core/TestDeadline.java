@@ -0,0 +1,102 @@
+package com.novicehacks.autobot.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.novicehacks.autobot.categories.UnitTest;
+
+public class TestDeadline {
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void remainingIsWithinTheBudget() {
+		// given
+		Deadline deadline = Deadline.after (1, TimeUnit.MINUTES);
+		// when
+		long remaining = deadline.remaining (TimeUnit.SECONDS);
+		// then
+		assertTrue (remaining <= 60 && remaining > 50);
+		assertFalse (deadline.isExpired ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void zeroBudgetIsExpired() {
+		// given
+		Deadline deadline = Deadline.after (0, TimeUnit.SECONDS);
+		// when
+		long remaining = deadline.remaining (TimeUnit.NANOSECONDS);
+		// then
+		assertEquals (0, remaining);
+		assertTrue (deadline.isExpired ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void timeoutIsClampedToTheRemainingBudget() {
+		// given
+		Deadline deadline = Deadline.after (10, TimeUnit.SECONDS);
+		// when
+		int shorterTimeout = deadline.clampTimeoutInMillis (500);
+		int longerTimeout = deadline.clampTimeoutInMillis (60000);
+		int noTimeout = deadline.clampTimeoutInMillis (0);
+		// then
+		assertEquals (500, shorterTimeout);
+		assertTrue (longerTimeout <= 10000 && longerTimeout > 9000);
+		assertTrue (noTimeout <= 10000 && noTimeout > 9000);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void expiredDeadlineClampsToAMillisecond() {
+		// given
+		Deadline deadline = Deadline.after (0, TimeUnit.SECONDS);
+		// when
+		int timeout = deadline.clampTimeoutInMillis (0);
+		// then
+		assertEquals (1, timeout);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void boundStageCompletesAsTheStage() throws InterruptedException, ExecutionException {
+		// given
+		Deadline deadline = Deadline.after (1, TimeUnit.MINUTES);
+		CompletableFuture<String> stage = new CompletableFuture<String> ();
+		// when
+		CompletableFuture<String> boundStage = deadline.bound (stage);
+		stage.complete ("completed");
+		// then
+		assertEquals ("completed", boundStage.get ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void boundStageFailsOnceTheDeadlineIsReached() throws InterruptedException {
+		// given
+		Deadline deadline = Deadline.after (50, TimeUnit.MILLISECONDS);
+		CompletableFuture<String> stage = new CompletableFuture<String> ();
+		// when
+		CompletableFuture<String> boundStage = deadline.bound (stage);
+		// then
+		try {
+			boundStage.get (5, TimeUnit.SECONDS);
+		} catch (ExecutionException ex) {
+			assertTrue (ex.getCause () instanceof TimeoutException);
+			assertFalse (stage.isDone ());
+			return;
+		} catch (TimeoutException ex) {
+			throw new AssertionError ("Bound stage not failed by the deadline");
+		}
+		throw new AssertionError ("Bound stage completed without the stage");
+	}
+}
@@ -0,0 +1,106 @@
+package com.novicehacks.autobot.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+
+import com.novicehacks.autobot.categories.UnitTest;
+
+public class TestHashedTimingWheel {
+	private static final long Tick = TimeUnit.SECONDS.toNanos (1);
+	private final HashedTimingWheel<String> wheel = new HashedTimingWheel<String> (1,
+			TimeUnit.SECONDS, 4, 0);
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none ();
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void itemIsNotDueBeforeItsDeadline() {
+		// given
+		this.wheel.scheduleAt ("disk", 2 * Tick + 1);
+		// when
+		List<String> dueItems = this.wheel.advanceTo (2 * Tick);
+		// then
+		assertTrue (dueItems.isEmpty ());
+		assertEquals (1, this.wheel.size ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void itemIsDueAtTheEndOfItsTick() {
+		// given
+		this.wheel.scheduleAt ("disk", 2 * Tick + 1);
+		// when
+		List<String> dueItems = this.wheel.advanceTo (3 * Tick);
+		// then
+		assertEquals (Arrays.asList ("disk"), dueItems);
+		assertEquals (0, this.wheel.size ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void itemsDueTogetherAreReturnedTogether() {
+		// given
+		this.wheel.scheduleAt ("disk", Tick / 2);
+		this.wheel.scheduleAt ("memory", Tick / 3);
+		this.wheel.scheduleAt ("inventory", 3 * Tick);
+		// when
+		List<String> dueItems = this.wheel.advanceTo (Tick);
+		// then
+		assertEquals (2, dueItems.size ());
+		assertTrue (dueItems.containsAll (Arrays.asList ("disk", "memory")));
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void itemBeyondTheWheelWaitsForItsRounds() {
+		// given
+		this.wheel.scheduleAt ("inventory", 9 * Tick + 1);
+		// when
+		List<String> earlyItems = this.wheel.advanceTo (9 * Tick);
+		List<String> dueItems = this.wheel.advanceTo (10 * Tick);
+		// then
+		assertTrue (earlyItems.isEmpty ());
+		assertEquals (Arrays.asList ("inventory"), dueItems);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void overdueItemIsDueOnTheNextTick() {
+		// given
+		this.wheel.advanceTo (5 * Tick);
+		this.wheel.scheduleAt ("disk", Tick);
+		// when
+		List<String> dueItems = this.wheel.advanceTo (6 * Tick);
+		// then
+		assertEquals (Arrays.asList ("disk"), dueItems);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void wheelSizeIsRoundedUpToAPowerOfTwo() {
+		// given
+		HashedTimingWheel<String> roundedWheel = new HashedTimingWheel<String> (1,
+				TimeUnit.SECONDS, 100);
+		// when
+		String statistics = roundedWheel.statistics ();
+		// then
+		assertTrue (statistics, statistics.startsWith ("buckets=128,"));
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void invalidTickDurationIsRejected() {
+		this.exception.expect (IllegalArgumentException.class);
+		new HashedTimingWheel<String> (0, TimeUnit.SECONDS, 4);
+	}
+}
@@ -5,11 +5,14 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hamcrest.CoreMatchers;
 import org.junit.After;
@@ -200,4 +203,97 @@ public class TestThreadManager {
 		// then
 		assertFalse ("New Thread Pool Should not be created", status);
 	}
+
+	@Test
+	@Category ({ UnitTest.class, FunctionalTest.class })
+	public void submitTaskToBoundedThreadPool() throws InterruptedException, ExecutionException {
+		// given
+		ThreadManager tm = ThreadManager.getInstance ();
+		Callable<String> task = new Callable<String> () {
+			@Override
+			public String call() {
+				return Thread.currentThread ().getName ();
+			}
+		};
+		// when
+		Future<String> f = tm.submitTaskToThreadPool (TaskPool.Logging, task);
+		// then
+		assertTrue (f.get ().startsWith ("autobot-logging-"));
+		assertTrue (tm.statistics ().contains ("logging : threads="));
+	}
+
+	@Test
+	@Category ({ UnitTest.class, FunctionalTest.class })
+	public void boundedThreadPoolsAreShutdownWithThreadPool() throws InterruptedException {
+		// given
+		ThreadManager tm = ThreadManager.getInstance ();
+		tm.submitTaskToThreadPool (TaskPool.Command, getWaitingTask (2));
+		// when
+		boolean status = tm.terminateAndWaitForTaskCompletion (1, TimeUnit.SECONDS);
+		// then
+		assertTrue ("Bounded thread pool tasks should have been completed", status);
+		assertEquals ("", tm.statistics ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class, FunctionalTest.class })
+	public void forcedThreadPoolIsReplacedWithoutGap() throws InterruptedException,
+			ExecutionException {
+		// given
+		ThreadManager tm = ThreadManager.getInstance ();
+		// when
+		boolean status = tm.createThreadPool (true);
+		// then
+		assertTrue ("New Thread Pool Should be created", status);
+		assertTrue (tm.isThreadPoolAvailable ());
+		assertEquals ("Completed", tm.submitTaskToThreadPool (getCallableTask ("Initiated",
+				"Completed")).get ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class, FunctionalTest.class })
+	public void concurrentSubmissionsAreAllExecuted() throws InterruptedException,
+			ExecutionException {
+		// given
+		final ThreadManager tm = ThreadManager.getInstance ();
+		final AtomicInteger executed = new AtomicInteger ();
+		final Runnable task = new Runnable () {
+			@Override
+			public void run() {
+				executed.incrementAndGet ();
+			}
+		};
+		Callable<Void> submitter = new Callable<Void> () {
+			@Override
+			public Void call() throws InterruptedException, ExecutionException {
+				List<Future<?>> futures = new ArrayList<Future<?>> ();
+				for (int count = 0; count < 100; count++)
+					futures.add (tm.submitTaskToThreadPool (TaskPool.Command, task));
+				for (Future<?> future : futures)
+					future.get ();
+				return null;
+			}
+		};
+		// when
+		List<Future<Void>> submitters = new ArrayList<Future<Void>> ();
+		for (int count = 0; count < 8; count++)
+			submitters.add (tm.submitTaskToThreadPool (submitter));
+		for (Future<Void> future : submitters)
+			future.get ();
+		// then
+		assertEquals (800, executed.get ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class, FunctionalTest.class })
+	public void submissionAfterShutdownFailsWithoutBlocking() throws InterruptedException {
+		// given
+		ThreadManager tm = ThreadManager.getInstance ();
+		tm.shutdownThreadPool ();
+		// then
+		assertFalse (tm.isThreadPoolAvailable ());
+		this.exception.expect (NullPointerException.class);
+		// when
+		tm.submitTaskToThreadPool (TaskPool.Logging, getWaitingTask (1));
+	}
 }
@@ -0,0 +1,109 @@
+package com.novicehacks.autobot.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+
+import com.novicehacks.autobot.categories.UnitTest;
+
+public class TestThreadPerTaskExecutor {
+	private final CountDownLatch release = new CountDownLatch (1);
+	private final ThreadPerTaskExecutor executor = new ThreadPerTaskExecutor (
+			new ThreadFactory () {
+				@Override
+				public Thread newThread(Runnable task) {
+					return new Thread (task, "test-thread");
+				}
+			});
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none ();
+
+	@After
+	public void tearDown() {
+		this.release.countDown ();
+		this.executor.shutdownNow ();
+	}
+
+	private Callable<String> waitingTask() {
+		return new Callable<String> () {
+			@Override
+			public String call() throws InterruptedException {
+				TestThreadPerTaskExecutor.this.release.await ();
+				return Thread.currentThread ().getName ();
+			}
+		};
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void everyTaskRunsOnItsOwnThread() throws InterruptedException, ExecutionException {
+		// given
+		Future<String> first = this.executor.submit (waitingTask ());
+		Future<String> second = this.executor.submit (waitingTask ());
+		// when
+		String statistics = this.executor.statistics ();
+		this.release.countDown ();
+		// then
+		assertEquals ("test-thread", first.get ());
+		assertEquals ("test-thread", second.get ());
+		assertEquals ("thread per task, active=2, started=2, completed=0", statistics);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void terminatesAfterRunningTasksComplete() throws InterruptedException {
+		// given
+		this.executor.submit (waitingTask ());
+		this.executor.shutdown ();
+		// when
+		boolean terminatedWhileRunning = this.executor.awaitTermination (10,
+				TimeUnit.MILLISECONDS);
+		this.release.countDown ();
+		boolean terminated = this.executor.awaitTermination (5, TimeUnit.SECONDS);
+		// then
+		assertFalse (terminatedWhileRunning);
+		assertTrue (terminated);
+		assertTrue (this.executor.isTerminated ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void shutdownNowInterruptsRunningTasks() throws InterruptedException,
+			ExecutionException {
+		// given
+		Future<String> task = this.executor.submit (waitingTask ());
+		// when
+		this.executor.shutdownNow ();
+		// then
+		assertTrue (this.executor.awaitTermination (5, TimeUnit.SECONDS));
+		this.exception.expectCause (CoreMatchers.isA (InterruptedException.class));
+		task.get ();
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void shutdownExecutorRejectsTasks() {
+		// given
+		this.executor.shutdown ();
+		// then
+		this.exception.expect (RejectedExecutionException.class);
+		// when
+		this.executor.submit (waitingTask ());
+	}
+}
@@ -0,0 +1,56 @@
+package com.novicehacks.autobot.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.concurrent.ThreadFactory;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.novicehacks.autobot.categories.UnitTest;
+
+public class TestVirtualThreads {
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void noFactoryWithoutVirtualThreadSupport() {
+		// given
+		assumeFalse (VirtualThreads.isSupported ());
+		// when
+		ThreadFactory factory = VirtualThreads.factory ("autobot-test-");
+		// then
+		assertNull (factory);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void factoryNamesVirtualThreads() {
+		// given
+		assumeTrue (VirtualThreads.isSupported ());
+		// when
+		Thread thread = VirtualThreads.factory ("autobot-test-").newThread (new Runnable () {
+			@Override
+			public void run() {}
+		});
+		// then
+		assertEquals ("autobot-test-1", thread.getName ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void platformThreadForIOWithoutVirtualThreadSupport() {
+		// given
+		assumeFalse (VirtualThreads.isSupported ());
+		Runnable task = new Runnable () {
+			@Override
+			public void run() {}
+		};
+		// when
+		Thread thread = ThreadManager.getInstance ().newIOThread (task, "autobot-test");
+		// then
+		assertEquals ("autobot-test", thread.getName ());
+	}
+}
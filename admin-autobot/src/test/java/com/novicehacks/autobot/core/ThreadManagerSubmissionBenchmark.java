@@ -0,0 +1,120 @@
+package com.novicehacks.autobot.core;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Contention benchmark of the task submission to the {@link ThreadManager},
+ * comparing the lock-free submission with the submission behind a fair
+ * {@link ReentrantLock} as it was done earlier.
+ *
+ * <p>
+ * Every round starts the submitter threads together, each submitting a no-op
+ * task repeatedly as a fan-out of commands does, and measures the time until
+ * all the tasks are submitted. Not a part of the test suites, it is run as a
+ * java application with optional arguments <em>submitters</em> and
+ * <em>submissionsPerSubmitter</em>.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ */
+public class ThreadManagerSubmissionBenchmark {
+	private static final int WarmupRounds = 3;
+	private static final int MeasuredRounds = 5;
+	private final int submitters;
+	private final int submissionsPerSubmitter;
+	private final ReentrantLock fairLock = new ReentrantLock (true);
+
+	private static final Runnable NoOpTask = new Runnable () {
+		@Override
+		public void run() {}
+	};
+
+	ThreadManagerSubmissionBenchmark (int submitters, int submissionsPerSubmitter) {
+		this.submitters = submitters;
+		this.submissionsPerSubmitter = submissionsPerSubmitter;
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		int submitters = args.length > 0 ? Integer.parseInt (args[0]) : 16;
+		int submissionsPerSubmitter = args.length > 1 ? Integer.parseInt (args[1]) : 20000;
+		ThreadManagerSubmissionBenchmark benchmark;
+		benchmark = new ThreadManagerSubmissionBenchmark (submitters, submissionsPerSubmitter);
+		ThreadManager.getInstance ().createThreadPool (true);
+		try {
+			benchmark.run ();
+		} finally {
+			ThreadManager.getInstance ().terminateAndWaitForTaskCompletion (1, TimeUnit.MINUTES);
+		}
+	}
+
+	private void run() throws InterruptedException {
+		System.out.println ("Submitters=" + this.submitters + ", submissions per submitter="
+				+ this.submissionsPerSubmitter);
+		for (int round = 0; round < WarmupRounds; round++) {
+			measure (true);
+			measure (false);
+		}
+		long lockedNanos = 0;
+		long lockFreeNanos = 0;
+		for (int round = 0; round < MeasuredRounds; round++) {
+			lockedNanos += measure (true);
+			lockFreeNanos += measure (false);
+		}
+		report ("Fair lock", lockedNanos);
+		report ("Lock-free", lockFreeNanos);
+	}
+
+	private void report(String submission, long totalNanos) {
+		long submissions = (long) this.submitters * this.submissionsPerSubmitter * MeasuredRounds;
+		double nanosPerSubmission = (double) totalNanos / submissions;
+		double submissionsPerMilli = submissions / (totalNanos / 1e6);
+		System.out.printf ("%-10s : %8.1f ns/submission, %10.1f submissions/ms%n", submission,
+				nanosPerSubmission, submissionsPerMilli);
+	}
+
+	/**
+	 * @return time taken to submit all the tasks, in nanoseconds.
+	 */
+	private long measure(final boolean locked) throws InterruptedException {
+		final CountDownLatch start = new CountDownLatch (1);
+		final CountDownLatch done = new CountDownLatch (this.submitters);
+		for (int index = 0; index < this.submitters; index++) {
+			Thread submitter = new Thread (new Runnable () {
+				@Override
+				public void run() {
+					try {
+						start.await ();
+						submitTasks (locked);
+					} catch (InterruptedException ex) {
+						Thread.currentThread ().interrupt ();
+					} finally {
+						done.countDown ();
+					}
+				}
+			}, "benchmark-submitter-" + index);
+			submitter.start ();
+		}
+		long startTime = System.nanoTime ();
+		start.countDown ();
+		done.await ();
+		return System.nanoTime () - startTime;
+	}
+
+	private void submitTasks(boolean locked) {
+		ThreadManager threadManager = ThreadManager.getInstance ();
+		for (int count = 0; count < this.submissionsPerSubmitter; count++) {
+			if (locked) {
+				this.fairLock.lock ();
+				try {
+					threadManager.submitTaskToThreadPool (NoOpTask);
+				} finally {
+					this.fairLock.unlock ();
+				}
+			} else {
+				threadManager.submitTaskToThreadPool (NoOpTask);
+			}
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package com.novicehacks.autobot.core.types;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+
+import com.novicehacks.autobot.categories.UnitTest;
+
+public class TestExecutableSchedule {
+	@Rule
+	public ExpectedException exception = ExpectedException.none ();
+
+	private long timeOf(int year, int month, int day, int hour, int minute) {
+		Calendar time = Calendar.getInstance ();
+		time.clear ();
+		time.set (year, month - 1, day, hour, minute);
+		return time.getTimeInMillis ();
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void intervalIsAddedToTheTime() {
+		// given
+		ExecutableSchedule schedule = ExecutableSchedule.parse ("15m");
+		// when
+		long nextRun = schedule.nextRunAfter (1000);
+		// then
+		assertTrue (schedule.isInterval ());
+		assertEquals (1000 + TimeUnit.MINUTES.toMillis (15), nextRun);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void intervalUnitsAreParsed() {
+		assertEquals (TimeUnit.SECONDS.toMillis (30), ExecutableSchedule.parse ("30s")
+				.intervalInMillis ());
+		assertEquals (TimeUnit.HOURS.toMillis (6), ExecutableSchedule.parse ("6H")
+				.intervalInMillis ());
+		assertEquals (TimeUnit.DAYS.toMillis (1), ExecutableSchedule.parse ("1d")
+				.intervalInMillis ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void commonIntervalIsCreatedFromTheDelay() {
+		// given
+		ExecutableSchedule schedule = ExecutableSchedule.every (6, TimeUnit.HOURS);
+		// when
+		long nextRun = schedule.nextRunAfter (0);
+		// then
+		assertTrue (schedule.isInterval ());
+		assertEquals (TimeUnit.HOURS.toMillis (6), nextRun);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void cronStepMatchesTheNextMinute() {
+		// given
+		ExecutableSchedule schedule = ExecutableSchedule.parse ("*/15 * * * *");
+		// when
+		long nextRun = schedule.nextRunAfter (timeOf (2026, 3, 10, 10, 7) + 30000);
+		// then
+		assertFalse (schedule.isInterval ());
+		assertEquals (timeOf (2026, 3, 10, 10, 15), nextRun);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void cronIsDueAfterTheGivenMinute() {
+		// given
+		ExecutableSchedule schedule = ExecutableSchedule.parse ("0 2 * * *");
+		// when
+		long nextRun = schedule.nextRunAfter (timeOf (2026, 3, 10, 2, 0));
+		// then
+		assertEquals (timeOf (2026, 3, 11, 2, 0), nextRun);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void cronDayOfWeekRangeSkipsTheWeekend() {
+		// given, 13th March 2026 is a friday
+		ExecutableSchedule schedule = ExecutableSchedule.parse ("30 6 * * 1-5");
+		// when
+		long nextRun = schedule.nextRunAfter (timeOf (2026, 3, 13, 7, 0));
+		// then
+		assertEquals (timeOf (2026, 3, 16, 6, 30), nextRun);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void cronListOfMonthsMovesToTheNextYear() {
+		// given
+		ExecutableSchedule schedule = ExecutableSchedule.parse ("0 0 1 1,7 *");
+		// when
+		long nextRun = schedule.nextRunAfter (timeOf (2026, 8, 1, 0, 0));
+		// then
+		assertEquals (timeOf (2027, 1, 1, 0, 0), nextRun);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void invalidIntervalIsRejected() {
+		this.exception.expect (IllegalArgumentException.class);
+		ExecutableSchedule.parse ("15x");
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void cronValueOutOfRangeIsRejected() {
+		this.exception.expect (IllegalArgumentException.class);
+		this.exception.expectMessage ("not within 0-23");
+		ExecutableSchedule.parse ("0 24 * * *");
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void cronNeverDueFails() {
+		// given
+		ExecutableSchedule schedule = ExecutableSchedule.parse ("0 0 31 2 *");
+		// then
+		this.exception.expect (IllegalStateException.class);
+		schedule.nextRunAfter (timeOf (2026, 1, 1, 0, 0));
+	}
+}
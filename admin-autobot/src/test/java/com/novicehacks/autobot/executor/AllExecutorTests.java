@@ -5,7 +5,8 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith (Suite.class)
-@SuiteClasses ({ TestCommandExecutorTask.class, TestServerExecutableCommandMap.class })
+@SuiteClasses ({ TestCommandExecutorTask.class, TestServerExecutableCommandMap.class,
+		TestExecutableScheduler.class, TestLoadShedder.class, TestServerRunGate.class })
 public class AllExecutorTests {
 
 }
@@ -4,19 +4,35 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
+import com.novicehacks.autobot.executor.ssh.BudgetedSSHConnectionTest;
+import com.novicehacks.autobot.executor.ssh.ChannelBudgetTest;
+import com.novicehacks.autobot.executor.ssh.CredentialAffinityCacheTest;
 import com.novicehacks.autobot.executor.ssh.DefaultSSHConnectionStringParameterizedTest;
 import com.novicehacks.autobot.executor.ssh.DefaultSSHConnectionTest;
 import com.novicehacks.autobot.executor.ssh.DefaultSSHConnectionTestWithoutMocking;
 import com.novicehacks.autobot.executor.ssh.DefaultSSHConnectionUtilTest;
 import com.novicehacks.autobot.executor.ssh.DefaultSSHSessionTest;
 import com.novicehacks.autobot.executor.ssh.DefaultSSHSessionTestWithoutMocking;
+import com.novicehacks.autobot.executor.ssh.HandshakeStatisticsTest;
+import com.novicehacks.autobot.executor.ssh.JumpHostTunnelsTest;
+import com.novicehacks.autobot.executor.ssh.KnownHostsCacheTest;
+import com.novicehacks.autobot.executor.ssh.SSHAlgorithmPreferencesTest;
 import com.novicehacks.autobot.executor.ssh.SSHCommandExecutorServiceTaskFunctionalTest;
+import com.novicehacks.autobot.executor.ssh.SSHCommandExecutorServiceTest;
 import com.novicehacks.autobot.executor.ssh.SSHCommandExecutorServiceTaskTest;
+import com.novicehacks.autobot.executor.ssh.SSHConnectionPoolTest;
+import com.novicehacks.autobot.executor.ssh.SSHConnectionWarmupTaskTest;
+import com.novicehacks.autobot.executor.ssh.ServerCircuitBreakerTest;
+import com.novicehacks.autobot.executor.ssh.SessionIOReactorTest;
+import com.novicehacks.autobot.executor.ssh.TransferStatisticsTest;
 import com.novicehacks.autobot.executor.ssh.logger.ShellOutputFooterServiceTest;
 import com.novicehacks.autobot.executor.ssh.logger.ShellOutputHeaderServiceTest;
 import com.novicehacks.autobot.executor.ssh.logger.ShellOutputLoggerTaskTest;
 import com.novicehacks.autobot.executor.ssh.parallel.ParallelCommandExecutorTaskTest;
 import com.novicehacks.autobot.executor.ssh.sequential.SequentialCommandExecutorTaskTest;
+import com.novicehacks.autobot.executor.ssh.sequential.ShellSessionControllerTest;
+import com.novicehacks.autobot.executor.ssh.sequential.ShellSessionExecutorTest;
+import com.novicehacks.autobot.executor.ssh.sequential.WarmShellCacheTest;
 
 @RunWith (Suite.class)
 @SuiteClasses ({ DefaultSSHConnectionStringParameterizedTest.class, DefaultSSHConnectionTest.class,
@@ -25,7 +41,13 @@ import com.novicehacks.autobot.executor.ssh.sequential.SequentialCommandExecutor
 		SequentialCommandExecutorTaskTest.class, SSHCommandExecutorServiceTaskFunctionalTest.class,
 		SSHCommandExecutorServiceTaskTest.class, DefaultSSHConnectionUtilTest.class,
 		ShellOutputLoggerTaskTest.class, ShellOutputHeaderServiceTest.class,
-		ShellOutputFooterServiceTest.class })
+		ShellOutputFooterServiceTest.class, SSHConnectionPoolTest.class,
+		CredentialAffinityCacheTest.class, SSHConnectionWarmupTaskTest.class,
+		ChannelBudgetTest.class, BudgetedSSHConnectionTest.class, SSHAlgorithmPreferencesTest.class,
+		KnownHostsCacheTest.class, HandshakeStatisticsTest.class, TransferStatisticsTest.class,
+		ServerCircuitBreakerTest.class, JumpHostTunnelsTest.class,
+		SessionIOReactorTest.class, SSHCommandExecutorServiceTest.class,
+		ShellSessionControllerTest.class, ShellSessionExecutorTest.class, WarmShellCacheTest.class })
 public class AllSSHTests {
 
 }
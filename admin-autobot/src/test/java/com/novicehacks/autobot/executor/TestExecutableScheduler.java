@@ -0,0 +1,177 @@
+package com.novicehacks.autobot.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.novicehacks.autobot.categories.UnitTest;
+import com.novicehacks.autobot.core.HashedTimingWheel;
+import com.novicehacks.autobot.core.types.Command;
+import com.novicehacks.autobot.core.types.ExecutableSchedule;
+import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.executor.ExecutableScheduler.ScheduledExecutable;
+
+public class TestExecutableScheduler {
+	private final List<ServerExecutableMap> submittedRuns = new LinkedList<ServerExecutableMap> ();
+	private final List<Long> scheduledTimes = new LinkedList<Long> ();
+	private ExecutableScheduler scheduler;
+	private Server server1;
+	private Server server2;
+
+	@Before
+	public void setUp() {
+		this.server1 = mock (Server.class);
+		when (this.server1.id ()).thenReturn ("S001");
+		this.server2 = mock (Server.class);
+		when (this.server2.id ()).thenReturn ("S002");
+		this.scheduler = newScheduler (false, 0);
+	}
+
+	private ExecutableScheduler newScheduler(boolean spreadEnabled, long jitterInMillis) {
+		HashedTimingWheel<ScheduledExecutable> timingWheel;
+		timingWheel = new HashedTimingWheel<ScheduledExecutable> (10, TimeUnit.MILLISECONDS, 8);
+		return new ExecutableScheduler (timingWheel, spreadEnabled, jitterInMillis) {
+			@Override
+			void submitRun(ServerExecutableMap executableMap, long scheduledTimeInMillis) {
+				TestExecutableScheduler.this.submittedRuns.add (executableMap);
+				TestExecutableScheduler.this.scheduledTimes.add (scheduledTimeInMillis);
+			}
+		};
+	}
+
+	private void schedule(Server server, String schedule) {
+		ScheduledExecutable executable = new ScheduledExecutable (server, mock (Command.class),
+				ExecutableSchedule.parse (schedule));
+		this.scheduler.scheduleFirstRun (executable, System.currentTimeMillis ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void dueExecutablesAreBatchedByServer() throws InterruptedException {
+		// given
+		schedule (this.server1, "1h");
+		schedule (this.server1, "2h");
+		schedule (this.server2, "1h");
+		Thread.sleep (30);
+		// when
+		this.scheduler.run ();
+		// then
+		assertEquals (1, this.submittedRuns.size ());
+		ServerExecutableMap executableMap = this.submittedRuns.get (0);
+		assertEquals (2, executableMap.size ());
+		assertEquals (2, executableMap.get (this.server1).size ());
+		assertEquals (1, executableMap.get (this.server2).size ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void runIsGivenTheEarliestScheduledTime() throws InterruptedException {
+		// given
+		long startTime = System.currentTimeMillis ();
+		schedule (this.server1, "1h");
+		Thread.sleep (20);
+		schedule (this.server2, "1h");
+		Thread.sleep (30);
+		// when
+		this.scheduler.run ();
+		// then
+		assertEquals (1, this.scheduledTimes.size ());
+		long scheduledTime = this.scheduledTimes.get (0);
+		assertTrue (scheduledTime >= startTime && scheduledTime < startTime + 20);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void executablesAreScheduledForTheirNextRun() throws InterruptedException {
+		// given
+		schedule (this.server1, "1h");
+		Thread.sleep (30);
+		this.scheduler.run ();
+		Thread.sleep (30);
+		// when
+		this.scheduler.run ();
+		// then
+		assertEquals (1, this.submittedRuns.size ());
+		assertTrue (this.scheduler.statistics (), this.scheduler.statistics ().contains (
+				"pending=1,"));
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void nothingIsSubmittedWithoutDueExecutables() {
+		// given
+		schedule (this.server1, "0 0 1 1 *");
+		// when
+		this.scheduler.run ();
+		// then
+		assertTrue (this.submittedRuns.isEmpty ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void spreadOffsetIsStableAndWithinTheInterval() {
+		// given
+		long intervalInMillis = TimeUnit.HOURS.toMillis (6);
+		// when
+		long offset = ExecutableScheduler.spreadOffsetInMillis ("S001", intervalInMillis);
+		long sameOffset = ExecutableScheduler.spreadOffsetInMillis ("S001", intervalInMillis);
+		long otherOffset = ExecutableScheduler.spreadOffsetInMillis ("S002", intervalInMillis);
+		// then
+		assertEquals (offset, sameOffset);
+		assertTrue (offset >= 0 && offset < intervalInMillis);
+		assertTrue ("Similar server ids bunched together",
+				Math.abs (offset - otherOffset) > TimeUnit.MINUTES.toMillis (1));
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void spreadOffsetsCoverTheInterval() {
+		// given
+		long intervalInMillis = TimeUnit.HOURS.toMillis (1);
+		int[] quarters = new int[4];
+		// when
+		for (int server = 0; server < 400; server++)
+			quarters[(int) (ExecutableScheduler.spreadOffsetInMillis ("S" + server,
+					intervalInMillis) * 4 / intervalInMillis)]++;
+		// then
+		for (int quarter : quarters)
+			assertTrue ("Servers not spread evenly : " + quarter, quarter > 60 && quarter < 140);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void spreadServersAreNotDueAtTheStart() throws InterruptedException {
+		// given
+		this.scheduler = newScheduler (true, 0);
+		schedule (this.server1, "1h");
+		schedule (this.server2, "1h");
+		Thread.sleep (30);
+		// when
+		this.scheduler.run ();
+		// then
+		assertTrue (this.submittedRuns.isEmpty ());
+		assertTrue (this.scheduler.statistics ().contains ("pending=2,"));
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void jitterIsWithinItsMaximum() {
+		// given
+		this.scheduler = newScheduler (false, 500);
+		// when
+		for (int run = 0; run < 100; run++) {
+			long jitter = this.scheduler.jitter ();
+			// then
+			assertTrue (jitter >= 0 && jitter <= 500);
+		}
+	}
+}
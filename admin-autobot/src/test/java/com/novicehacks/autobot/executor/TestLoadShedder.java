@@ -0,0 +1,109 @@
+package com.novicehacks.autobot.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.novicehacks.autobot.categories.UnitTest;
+import com.novicehacks.autobot.core.Deadline;
+import com.novicehacks.autobot.core.types.Command;
+import com.novicehacks.autobot.core.types.CommandPriority;
+import com.novicehacks.autobot.core.types.Server;
+
+public class TestLoadShedder {
+	private Server server;
+	private Command bulkCommand;
+	private Command criticalCommand;
+
+	@Before
+	public void setUp() {
+		this.server = mock (Server.class);
+		when (this.server.id ()).thenReturn ("S001");
+		this.bulkCommand = mock (Command.class);
+		when (this.bulkCommand.id ()).thenReturn ("C001");
+		when (this.bulkCommand.priority ()).thenReturn (CommandPriority.Bulk);
+		this.criticalCommand = mock (Command.class);
+		when (this.criticalCommand.id ()).thenReturn ("C002");
+		when (this.criticalCommand.priority ()).thenReturn (CommandPriority.Critical);
+	}
+
+	private LoadShedder loadShedder(Deadline deadline, boolean enabled,
+			final int queueUtilization) {
+		return new LoadShedder (deadline, enabled, 80, 20) {
+			@Override
+			int queueUtilization() {
+				return queueUtilization;
+			}
+		};
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void bulkCommandIsShedWhenQueueIsOverThreshold() {
+		// given
+		LoadShedder shedder = loadShedder (Deadline.after (1, TimeUnit.MINUTES), true, 80);
+		// when
+		boolean shed = shedder.shed (this.server, this.bulkCommand);
+		// then
+		assertTrue (shed);
+		assertEquals (1, shedder.shedCount ());
+		assertEquals (Arrays.asList ("S001:C001"), shedder.shedExecutables ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void bulkCommandIsShedWhenDeadlineIsNear() {
+		// given
+		LoadShedder shedder = loadShedder (Deadline.after (0, TimeUnit.MINUTES), true, 0);
+		// then
+		assertTrue (shedder.shed (this.server, this.bulkCommand));
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void bulkCommandIsRunWhenRunIsNotBehind() {
+		// given
+		LoadShedder shedder = loadShedder (Deadline.after (1, TimeUnit.MINUTES), true, 79);
+		// then
+		assertFalse (shedder.shed (this.server, this.bulkCommand));
+		assertEquals (0, shedder.shedCount ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void criticalCommandIsNeverShed() {
+		// given
+		LoadShedder shedder = loadShedder (Deadline.after (0, TimeUnit.MINUTES), true, 100);
+		// then
+		assertFalse (shedder.shed (this.server, this.criticalCommand));
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void commandWithoutPriorityIsNotShed() {
+		// given
+		LoadShedder shedder = loadShedder (Deadline.after (0, TimeUnit.MINUTES), true, 100);
+		Command command = mock (Command.class);
+		// then
+		assertFalse (shedder.shed (this.server, command));
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void disabledShedderNeverSheds() {
+		// given
+		LoadShedder shedder = loadShedder (Deadline.after (0, TimeUnit.MINUTES), false, 100);
+		// then
+		assertFalse (shedder.shed (this.server, this.bulkCommand));
+		assertFalse (LoadShedder.disabled ().shed (this.server, this.bulkCommand));
+	}
+}
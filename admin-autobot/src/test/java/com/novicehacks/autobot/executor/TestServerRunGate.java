@@ -0,0 +1,139 @@
+package com.novicehacks.autobot.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.novicehacks.autobot.categories.UnitTest;
+import com.novicehacks.autobot.core.types.Command;
+import com.novicehacks.autobot.core.types.Server;
+
+public class TestServerRunGate {
+	private final List<Collection<Command>> executedCommands;
+	private final List<CompletableFuture<Void>> executions;
+	private ServerRunGate gate;
+	private Server server;
+	private Command command1;
+	private Command command2;
+
+	public TestServerRunGate () {
+		this.executedCommands = new LinkedList<Collection<Command>> ();
+		this.executions = new LinkedList<CompletableFuture<Void>> ();
+	}
+
+	@Before
+	public void setUp() {
+		this.gate = new ServerRunGate ();
+		this.server = mock (Server.class);
+		when (this.server.id ()).thenReturn ("S001");
+		this.command1 = mock (Command.class);
+		this.command2 = mock (Command.class);
+	}
+
+	private ServerRunGate.ServerExecution execution() {
+		return new ServerRunGate.ServerExecution () {
+			@Override
+			public CompletableFuture<Void> execute(Collection<Command> commands) {
+				CompletableFuture<Void> execution = new CompletableFuture<Void> ();
+				TestServerRunGate.this.executedCommands.add (new ArrayList<Command> (commands));
+				TestServerRunGate.this.executions.add (execution);
+				return execution;
+			}
+		};
+	}
+
+	private CompletableFuture<Void> run(long runId, OverlapPolicy policy, Command... commands) {
+		return this.gate.run (this.server, runId, Arrays.asList (commands), policy, execution ());
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void runOfIdleServerIsStarted() {
+		// when
+		CompletableFuture<Void> run = run (1, OverlapPolicy.Skip, this.command1);
+		// then
+		assertSame (this.executions.get (0), run);
+		assertTrue (this.gate.isRunning (this.server));
+		this.executions.get (0).complete (null);
+		assertFalse (this.gate.isRunning (this.server));
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void overlappingRunIsSkipped() {
+		// given
+		run (1, OverlapPolicy.Skip, this.command1);
+		// when
+		CompletableFuture<Void> overlappingRun = run (2, OverlapPolicy.Skip, this.command1);
+		// then
+		assertNull (overlappingRun);
+		assertEquals (1, this.executions.size ());
+		assertTrue (this.gate.statistics ().contains ("skipped=1,"));
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void overlappingRunsAreCoalescedIntoOneRun() {
+		// given
+		run (1, OverlapPolicy.Coalesce, this.command1);
+		CompletableFuture<Void> secondRun = run (2, OverlapPolicy.Coalesce, this.command1);
+		CompletableFuture<Void> thirdRun = run (3, OverlapPolicy.Coalesce, this.command2);
+		// when
+		this.executions.get (0).complete (null);
+		// then
+		assertSame (secondRun, thirdRun);
+		assertEquals (2, this.executions.size ());
+		assertEquals (Arrays.asList (this.command1, this.command2), this.executedCommands.get (1));
+		this.executions.get (1).complete (null);
+		assertTrue (thirdRun.isDone ());
+		assertFalse (this.gate.isRunning (this.server));
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void overlappingRunsAreQueuedInOrder() {
+		// given
+		run (1, OverlapPolicy.Queue, this.command1);
+		CompletableFuture<Void> secondRun = run (2, OverlapPolicy.Queue, this.command1);
+		CompletableFuture<Void> thirdRun = run (3, OverlapPolicy.Queue, this.command2);
+		// when
+		this.executions.get (0).complete (null);
+		// then
+		assertEquals (2, this.executions.size ());
+		this.executions.get (1).complete (null);
+		assertTrue (secondRun.isDone ());
+		assertFalse (thirdRun.isDone ());
+		assertEquals (3, this.executions.size ());
+		assertEquals (Arrays.asList (this.command2), this.executedCommands.get (2));
+		assertTrue (this.gate.statistics ().contains ("queued=2"));
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void failedRunStartsTheNextRun() {
+		// given
+		run (1, OverlapPolicy.Queue, this.command1);
+		CompletableFuture<Void> secondRun = run (2, OverlapPolicy.Queue, this.command2);
+		// when
+		this.executions.get (0).completeExceptionally (new IllegalStateException ("failed"));
+		// then
+		assertEquals (2, this.executions.size ());
+		this.executions.get (1).complete (null);
+		assertTrue (secondRun.isDone () && !secondRun.isCompletedExceptionally ());
+	}
+}
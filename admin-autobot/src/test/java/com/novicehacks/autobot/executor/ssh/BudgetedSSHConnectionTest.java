@@ -0,0 +1,76 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.novicehacks.autobot.categories.UnitTest;
+
+public class BudgetedSSHConnectionTest {
+	private SSHConnection connection;
+	private SSHSession session;
+	private ChannelBudget channelBudget;
+	private BudgetedSSHConnection budgetedConnection;
+
+	@Before
+	public void setUp() throws IOException {
+		this.connection = mock (SSHConnection.class);
+		this.session = mock (SSHSession.class);
+		when (this.connection.openSession ()).thenReturn (this.session);
+		this.channelBudget = new ChannelBudget (2);
+		this.budgetedConnection = new BudgetedSSHConnection (this.connection, this.channelBudget);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	@Category (UnitTest.class)
+	public void instantiateWithNullBudget() {
+		new BudgetedSSHConnection (this.connection, null);
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void openSessionTakesChannel() throws IOException {
+		// when
+		this.budgetedConnection.openSession ();
+		// then
+		assertEquals (1, this.channelBudget.channelsInUse ());
+		verify (this.connection).openSession ();
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void closeSessionReturnsChannelOnlyOnce() throws IOException {
+		// given
+		SSHSession budgetedSession = this.budgetedConnection.openSession ();
+		// when
+		budgetedSession.closeSession ();
+		budgetedSession.closeSession ();
+		// then
+		assertEquals (0, this.channelBudget.channelsInUse ());
+		verify (this.session, times (2)).closeSession ();
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void failedSessionReturnsChannel() throws IOException {
+		// given
+		when (this.connection.openSession ()).thenThrow (new IOException ("Channel refused"));
+		// when
+		try {
+			this.budgetedConnection.openSession ();
+			fail ("Session opened on a failing connection");
+		} catch (IOException ex) {
+			// then
+			assertEquals (0, this.channelBudget.channelsInUse ());
+		}
+	}
+}
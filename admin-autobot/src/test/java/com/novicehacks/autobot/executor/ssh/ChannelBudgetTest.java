@@ -0,0 +1,80 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.novicehacks.autobot.categories.UnitTest;
+
+public class ChannelBudgetTest {
+
+	@Test (expected = IllegalArgumentException.class)
+	@Category (UnitTest.class)
+	public void instantiateWithZeroBudget() {
+		new ChannelBudget (0);
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void acquireWithinBudgetIsNotQueued() throws InterruptedException {
+		// given
+		ChannelBudget budget = new ChannelBudget (2);
+		// when
+		budget.acquire ();
+		budget.acquire ();
+		// then
+		assertEquals (2, budget.channelsInUse ());
+		assertEquals (2, budget.peakChannelsInUse ());
+		assertEquals (2, budget.openedCount ());
+		assertEquals (0, budget.queuedCount ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void releaseReturnsChannelToBudget() throws InterruptedException {
+		// given
+		ChannelBudget budget = new ChannelBudget (1);
+		budget.acquire ();
+		// when
+		budget.release ();
+		budget.acquire ();
+		// then
+		assertEquals (1, budget.channelsInUse ());
+		assertEquals (1, budget.peakChannelsInUse ());
+		assertEquals (0, budget.queuedCount ());
+	}
+
+	@Test (timeout = 5000)
+	@Category (UnitTest.class)
+	public void acquireBeyondBudgetWaitsForRelease() throws InterruptedException {
+		// given
+		final ChannelBudget budget = new ChannelBudget (1);
+		final CountDownLatch acquired = new CountDownLatch (1);
+		budget.acquire ();
+		Thread waitingThread = new Thread (new Runnable () {
+			@Override
+			public void run() {
+				try {
+					budget.acquire ();
+					acquired.countDown ();
+				} catch (InterruptedException e) {
+					Thread.currentThread ().interrupt ();
+				}
+			}
+		});
+		// when
+		waitingThread.start ();
+		boolean acquiredBeforeRelease = acquired.await (200, TimeUnit.MILLISECONDS);
+		budget.release ();
+		// then
+		assertTrue ("Channel acquired beyond budget", !acquiredBeforeRelease);
+		assertTrue ("Waiting channel not acquired", acquired.await (2, TimeUnit.SECONDS));
+		assertEquals (1, budget.queuedCount ());
+		assertEquals (1, budget.peakChannelsInUse ());
+	}
+}
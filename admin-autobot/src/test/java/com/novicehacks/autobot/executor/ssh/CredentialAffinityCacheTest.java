@@ -0,0 +1,240 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.novicehacks.autobot.categories.UnitTest;
+import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.core.types.ServerCredential;
+
+public class CredentialAffinityCacheTest {
+	private Server server;
+	private ServerCredential first;
+	private ServerCredential second;
+	private ServerCredential third;
+	private Path cacheFolder;
+	private TestCache cache;
+
+	private class TestCache extends CredentialAffinityCache {
+		long currentTime = 0;
+
+		@Override
+		Path cacheFilePath() {
+			return CredentialAffinityCacheTest.this.cacheFolder.resolve ("credential.cache");
+		}
+
+		@Override
+		long failureExpiryInMillis() {
+			return 1000;
+		}
+
+		@Override
+		long now() {
+			return this.currentTime;
+		}
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		this.first = credential ("first");
+		this.second = credential ("second");
+		this.third = credential ("third");
+		this.server = mock (Server.class);
+		when (this.server.id ()).thenReturn ("S001");
+		when (this.server.credentials ()).thenReturn (
+				new ServerCredential[] { this.first, this.second, this.third });
+		this.cacheFolder = Files.createTempDirectory ("autobot");
+		this.cache = new TestCache ();
+	}
+
+	private ServerCredential credential(String loginid) {
+		ServerCredential credential = new ServerCredential ();
+		credential.setLoginid (loginid);
+		credential.setPassword ("secret-" + loginid);
+		return credential;
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Files.deleteIfExists (this.cache.cacheFilePath ());
+		Files.deleteIfExists (this.cache.secretFilePath ());
+		Files.deleteIfExists (this.cacheFolder);
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void credentialsInConfiguredOrderWhenCacheIsEmpty() {
+		// when
+		List<ServerCredential> credentials = this.cache.credentialsInOrder (this.server);
+		// then
+		assertEquals (3, credentials.size ());
+		assertSame (this.first, credentials.get (0));
+		assertSame (this.second, credentials.get (1));
+		assertSame (this.third, credentials.get (2));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void successfulCredentialIsTriedFirst() {
+		// when
+		this.cache.recordSuccess (this.server, this.third);
+		List<ServerCredential> credentials = this.cache.credentialsInOrder (this.server);
+		// then
+		assertSame (this.third, credentials.get (0));
+		assertSame (this.first, credentials.get (1));
+		assertSame (this.second, credentials.get (2));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void failedCredentialIsTriedLastUntilExpiry() {
+		// given
+		this.cache.recordFailure (this.server, this.first);
+		// when
+		List<ServerCredential> credentials = this.cache.credentialsInOrder (this.server);
+		// then
+		assertEquals (3, credentials.size ());
+		assertSame (this.second, credentials.get (0));
+		assertSame (this.first, credentials.get (2));
+		// when
+		this.cache.currentTime = 1000;
+		credentials = this.cache.credentialsInOrder (this.server);
+		// then
+		assertEquals (3, credentials.size ());
+		assertSame (this.first, credentials.get (0));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void failureOfPreferredCredentialDropsAffinity() {
+		// given
+		this.cache.recordSuccess (this.server, this.second);
+		// when
+		this.cache.recordFailure (this.server, this.second);
+		this.cache.currentTime = 1000;
+		List<ServerCredential> credentials = this.cache.credentialsInOrder (this.server);
+		// then
+		assertSame (this.first, credentials.get (0));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void cacheIsPersistedAcrossInstances() {
+		// given
+		this.cache.recordSuccess (this.server, this.third);
+		this.cache.recordFailure (this.server, this.first);
+		// when
+		TestCache reloaded = new TestCache ();
+		List<ServerCredential> credentials = reloaded.credentialsInOrder (this.server);
+		// then
+		assertEquals (3, credentials.size ());
+		assertSame (this.third, credentials.get (0));
+		assertSame (this.second, credentials.get (1));
+		assertSame (this.first, credentials.get (2));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void allCredentialsAreTriedWhenAllHaveFailed() {
+		// given
+		this.cache.recordFailure (this.server, this.first);
+		this.cache.recordFailure (this.server, this.second);
+		this.cache.recordFailure (this.server, this.third);
+		// when
+		List<ServerCredential> credentials = this.cache.credentialsInOrder (this.server);
+		// then
+		assertEquals (3, credentials.size ());
+		assertSame (this.first, credentials.get (0));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void changedPasswordIsNotHeldBackByOldFailure() {
+		// given
+		this.cache.recordFailure (this.server, this.first);
+		// when
+		this.first.setPassword ("rotated-first");
+		List<ServerCredential> credentials = this.cache.credentialsInOrder (this.server);
+		// then
+		assertSame (this.first, credentials.get (0));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void passwordsAreNotPersisted() throws IOException {
+		// when
+		this.cache.recordSuccess (this.server, this.first);
+		this.cache.recordFailure (this.server, this.second);
+		// then
+		String content = new String (Files.readAllBytes (this.cache.cacheFilePath ()),
+				StandardCharsets.UTF_8);
+		assertTrue ("Login id not persisted", content.contains ("first"));
+		assertFalse ("Password persisted to cache file", content.contains ("secret-"));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void failureIsNotRecordedByPlainHashOfPassword() throws IOException,
+			NoSuchAlgorithmException {
+		// when
+		this.cache.recordFailure (this.server, this.second);
+		// then
+		byte[] plainHash = MessageDigest.getInstance ("SHA-256").digest (
+				"second\u0000secret-second".getBytes (StandardCharsets.UTF_8));
+		StringBuilder plainHashHex = new StringBuilder ();
+		for (byte hashByte : plainHash)
+			plainHashHex.append (String.format ("%02x", hashByte));
+		String content = new String (Files.readAllBytes (this.cache.cacheFilePath ()),
+				StandardCharsets.UTF_8);
+		assertTrue ("Failure not persisted", content.contains ("S001.failed."));
+		assertFalse ("Plain hash persisted", content.contains (plainHashHex.toString ()));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void cacheFilesAreReadableByOwnerOnly() throws IOException {
+		Assume.assumeTrue (this.cacheFolder.getFileSystem ().supportedFileAttributeViews ()
+				.contains ("posix"));
+		// when
+		this.cache.recordFailure (this.server, this.first);
+		// then
+		assertEquals ("rw-------", PosixFilePermissions.toString (Files
+				.getPosixFilePermissions (this.cache.cacheFilePath ())));
+		assertEquals ("rw-------", PosixFilePermissions.toString (Files
+				.getPosixFilePermissions (this.cache.secretFilePath ())));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void expiredFailuresAreDroppedOnLoad() throws IOException {
+		// given
+		this.cache.recordFailure (this.server, this.first);
+		// when
+		TestCache reloaded = new TestCache ();
+		reloaded.currentTime = 1000;
+		reloaded.recordSuccess (this.server, this.second);
+		// then
+		String content = new String (Files.readAllBytes (this.cache.cacheFilePath ()),
+				StandardCharsets.UTF_8);
+		assertFalse ("Expired failure persisted", content.contains ("S001.failed."));
+	}
+}
@@ -16,10 +16,13 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.rules.ExpectedException;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import ch.ethz.ssh2.Connection;
 import ch.ethz.ssh2.ConnectionInfo;
+import ch.ethz.ssh2.ConnectionMonitor;
+import ch.ethz.ssh2.ServerHostKeyVerifier;
 import ch.ethz.ssh2.Session;
 
 import com.novicehacks.autobot.categories.FunctionalTest;
@@ -194,6 +197,41 @@ public class DefaultSSHConnectionTest {
 		assertNotNull (session);
 	}
 
+	@Test
+	@Category (UnitTest.class)
+	public void sessionIsClosedOnceConnectionIsLost() throws Exception {
+		// given
+		this.sshConnection.connect ();
+		this.sshConnection.authenticateConnectionWithUsernameAndPassword (this.username,
+				this.password);
+		SSHSession session = this.sshConnection.openSession ();
+		ArgumentCaptor<ConnectionMonitor> monitor;
+		monitor = ArgumentCaptor.forClass (ConnectionMonitor.class);
+		verify (this.connection).addConnectionMonitor (monitor.capture ());
+		boolean closedWhileConnected = session.isRemoteClosed ();
+		// when
+		monitor.getValue ().connectionLost (new IOException ("Connection reset"));
+		// then
+		assertFalse ("Session cannot be closed while connected", closedWhileConnected);
+		assertTrue ("Session should be closed once the connection is lost",
+				session.isRemoteClosed ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void sessionIsClosedOnceConnectionIsDisconnected() throws Exception {
+		// given
+		this.sshConnection.connect ();
+		this.sshConnection.authenticateConnectionWithUsernameAndPassword (this.username,
+				this.password);
+		SSHSession session = this.sshConnection.openSession ();
+		// when
+		this.sshConnection.disconnect ();
+		// then
+		assertTrue ("Session should be closed once the connection is disconnected",
+				session.isRemoteClosed ());
+	}
+
 	@Test
 	@Category (UnitTest.class)
 	public void openSessionBeforeConnectTest() throws Exception {
@@ -268,4 +306,47 @@ public class DefaultSSHConnectionTest {
 		verify (this.connection, never ()).close ();
 	}
 
+	@Test
+	@Category (UnitTest.class)
+	public void connectWithHostKeyVerifierAndPreferences() throws Exception {
+		// given
+		DefaultSSHConnection connection;
+		ServerHostKeyVerifier verifier = mock (ServerHostKeyVerifier.class);
+		connection = new DefaultSSHConnection ("127.0.0.1", this.connectionFactory);
+		connection.setHostKeyVerifier (verifier);
+		connection.setAlgorithmPreferences (new SSHAlgorithmPreferences ("aes128-ctr", "", "",
+				"0"));
+		// when
+		connection.connect ();
+		// then
+		verify (this.connection).setClient2ServerCiphers (new String[] { "aes128-ctr" });
+		verify (this.connection).connect (verifier, 0, 0);
+		assertTrue ("Handshake duration not recorded", connection.handshakeDurationInMillis () >= 0);
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void connectThroughTunnelVerifiesServerHostKey() throws Exception {
+		// given
+		DefaultSSHConnection connection;
+		ServerHostKeyVerifier verifier = mock (ServerHostKeyVerifier.class);
+		ArgumentCaptor<ServerHostKeyVerifier> verifierCaptor;
+		verifierCaptor = ArgumentCaptor.forClass (ServerHostKeyVerifier.class);
+		when (this.connectionFactory.createConnection ("127.0.0.1", 2022)).thenReturn (
+				this.connection);
+		connection = new DefaultSSHConnection ("10.1.1.5", this.connectionFactory);
+		connection.setHostKeyVerifier (verifier);
+		connection.connectThrough (2022);
+		// when
+		connection.connect ();
+		verify (this.connection).connect (verifierCaptor.capture (), Mockito.eq (0),
+				Mockito.eq (0));
+		verifierCaptor.getValue ().verifyServerHostKey ("127.0.0.1", 2022, "ssh-rsa",
+				new byte[] { 1 });
+		// then
+		assertTrue ("Connection should be tunnelled", connection.isTunnelled ());
+		verify (this.connectionFactory).createConnection ("127.0.0.1", 2022);
+		verify (verifier).verifyServerHostKey ("10.1.1.5", 2022, "ssh-rsa", new byte[] { 1 });
+	}
+
 }
@@ -1,5 +1,7 @@
 package com.novicehacks.autobot.executor.ssh;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.atLeast;
@@ -17,7 +19,9 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.rules.ExpectedException;
+import org.mockito.Mockito;
 
+import ch.ethz.ssh2.ChannelCondition;
 import ch.ethz.ssh2.Session;
 
 import com.novicehacks.autobot.categories.FunctionalTest;
@@ -330,4 +334,35 @@ public class DefaultSSHSessionTest {
 		fail ("Session cannot be closed multiple times");
 	}
 
+	@Test
+	@Category (UnitTest.class)
+	public void remoteIsCompletedAfterExitAndEndOfOutput() {
+		// given
+		when (this.remoteSession.waitForCondition (Mockito.anyInt (), Mockito.eq (1L)))
+				.thenReturn (ChannelCondition.EOF);
+		when (this.remoteSession.getExitStatus ()).thenReturn (null);
+		// when
+		boolean completedBeforeExit = this.sshSession.isRemoteCompleted ();
+		when (this.remoteSession.getExitStatus ()).thenReturn (0);
+		boolean completedAfterExit = this.sshSession.isRemoteCompleted ();
+		// then
+		assertFalse ("Remote cannot complete before exit", completedBeforeExit);
+		assertTrue ("Remote should complete after exit", completedAfterExit);
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void remoteIsClosedOnceSessionIsClosedWithoutWaiting() {
+		// given
+		when (this.remoteSession.getExitStatus ()).thenReturn (null);
+		// when
+		boolean closedWhileOpen = this.sshSession.isRemoteClosed ();
+		this.sshSession.closeSession ();
+		boolean closedAfterClose = this.sshSession.isRemoteClosed ();
+		// then
+		assertFalse ("Remote cannot be closed while the session is open", closedWhileOpen);
+		assertTrue ("Remote should be closed once the session is closed", closedAfterClose);
+		verify (this.remoteSession, never ()).waitForCondition (Mockito.anyInt (),
+				Mockito.anyLong ());
+	}
 }
@@ -0,0 +1,36 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.novicehacks.autobot.categories.UnitTest;
+import com.novicehacks.autobot.executor.ssh.HandshakeStatistics.HandshakeRecord;
+
+public class HandshakeStatisticsTest {
+
+	@Test
+	@Category (UnitTest.class)
+	public void recordsHandshakesPerServer() {
+		// given
+		HandshakeStatistics statistics = new HandshakeStatistics ();
+		// when
+		statistics.record ("S001", 100, "cipher=aes128-ctr");
+		statistics.record ("S001", 300, "cipher=aes256-ctr");
+		statistics.record ("S002", 50, "cipher=aes128-ctr");
+		// then
+		HandshakeRecord record = statistics.recordOf ("S001");
+		assertEquals (2, record.count ());
+		assertEquals (200, record.averageMillis ());
+		assertEquals (100, record.minMillis ());
+		assertEquals (300, record.maxMillis ());
+		assertEquals (300, record.lastMillis ());
+		assertEquals ("cipher=aes256-ctr", record.lastAlgorithms ());
+		assertEquals (1, statistics.recordOf ("S002").count ());
+		assertNull (statistics.recordOf ("S003"));
+		assertTrue (statistics.statistics ().contains ("S002 : handshakes=1"));
+	}
+}
@@ -0,0 +1,196 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+import org.mockito.Mockito;
+
+import ch.ethz.ssh2.Connection;
+import ch.ethz.ssh2.LocalStreamForwarder;
+
+import com.novicehacks.autobot.categories.UnitTest;
+import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.executor.ssh.exception.ServerConnectionException;
+
+public class JumpHostTunnelsTest {
+	private Server jumpHost;
+	private Server server;
+	private Connection connection;
+	private LocalStreamForwarder channel;
+	private DefaultSSHConnection.ConnectionFactory connectionFactory;
+	private TestTunnels tunnels;
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none ();
+
+	private class TestTunnels extends JumpHostTunnels {
+		int connectCount = 0;
+		DefaultSSHConnection jumpHostConnection;
+
+		@Override
+		Server serverOf(String serverId) {
+			return "B001".equals (serverId) ? JumpHostTunnelsTest.this.jumpHost : null;
+		}
+
+		@Override
+		DefaultSSHConnection connectToJumpHost(Server jumpHostServer) {
+			this.connectCount++;
+			this.jumpHostConnection = new DefaultSSHConnection ("10.0.0.1",
+					JumpHostTunnelsTest.this.connectionFactory);
+			try {
+				this.jumpHostConnection.connect ();
+				this.jumpHostConnection.authenticateConnectionWithUsernameAndPassword ("abc",
+						"def");
+			} catch (IOException ex) {
+				throw new ServerConnectionException ("Unable to connect jump host", ex);
+			}
+			return this.jumpHostConnection;
+		}
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		this.jumpHost = mock (Server.class);
+		when (this.jumpHost.id ()).thenReturn ("B001");
+		this.server = behindJumpHost ("S001", "10.1.1.1", "B001");
+		this.connection = mock (Connection.class);
+		this.channel = mock (LocalStreamForwarder.class);
+		when (this.channel.getInputStream ()).thenReturn (
+				new ByteArrayInputStream ("SSH-2.0-OpenSSH\r\n".getBytes (StandardCharsets.UTF_8)));
+		when (this.channel.getOutputStream ()).thenReturn (new ByteArrayOutputStream ());
+		when (this.connection.authenticateWithPassword ("abc", "def")).thenReturn (true);
+		when (this.connection.createLocalStreamForwarder (Mockito.anyString (), Mockito.eq (22)))
+				.thenReturn (this.channel);
+		this.connectionFactory = mock (DefaultSSHConnection.ConnectionFactory.class);
+		when (this.connectionFactory.createConnection (Mockito.anyString ())).thenReturn (
+				this.connection);
+		this.tunnels = new TestTunnels ();
+	}
+
+	@After
+	public void tearDown() {
+		this.tunnels.closeAllTunnels ();
+	}
+
+	private Server behindJumpHost(String id, String ipAddress, String jumpHostId) {
+		Server tunnelledServer = mock (Server.class);
+		when (tunnelledServer.id ()).thenReturn (id);
+		when (tunnelledServer.ipaddress ()).thenReturn (ipAddress);
+		when (tunnelledServer.options ()).thenReturn (
+				Collections.singletonMap ("JumpHost", jumpHostId));
+		return tunnelledServer;
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void serverWithoutJumpHostIsNotTunnelled() {
+		assertFalse (JumpHostTunnels.isTunnelled (this.jumpHost));
+		assertTrue (JumpHostTunnels.isTunnelled (this.server));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void tunnelIsReusedForServer() throws IOException {
+		// when
+		int firstPort = this.tunnels.forwardedPort (this.server);
+		int secondPort = this.tunnels.forwardedPort (this.server);
+		// then
+		assertEquals (firstPort, secondPort);
+		verify (this.connection, never ()).createLocalStreamForwarder ("10.1.1.1", 22);
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void tunnelIsPipedToChannelOnJumpHost() throws IOException {
+		// given
+		int localPort = this.tunnels.forwardedPort (this.server);
+		// when
+		String banner;
+		try (Socket socket = new Socket (InetAddress.getLoopbackAddress (), localPort)) {
+			InputStream input = socket.getInputStream ();
+			byte[] buffer = new byte[64];
+			int length = input.read (buffer);
+			banner = new String (buffer, 0, length, StandardCharsets.UTF_8);
+		}
+		// then
+		assertTrue (banner.startsWith ("SSH-2.0-OpenSSH"));
+		verify (this.connection).createLocalStreamForwarder ("10.1.1.1", 22);
+		verify (this.channel, timeout (1000)).close ();
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void tunnelListensOnLoopbackOnly() throws IOException {
+		// given
+		LoopbackTunnel tunnel = new LoopbackTunnel (this.tunnels.connectToJumpHost (
+				this.jumpHost), "10.1.1.1", 22);
+		try {
+			// then
+			assertTrue (tunnel.localAddress ().isLoopbackAddress ());
+			assertTrue (tunnel.localPort () > 0);
+		} finally {
+			tunnel.close ();
+		}
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void serversShareJumpHostConnection() throws IOException {
+		// given
+		Server otherServer = behindJumpHost ("S002", "10.1.1.2", "B001");
+		// when
+		int firstPort = this.tunnels.forwardedPort (this.server);
+		int secondPort = this.tunnels.forwardedPort (otherServer);
+		// then
+		assertEquals (1, this.tunnels.connectCount);
+		assertFalse (firstPort == secondPort);
+		assertTrue (this.tunnels.statistics ().contains ("B001 : connects=1"));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void lostJumpHostConnectionIsReconnected() throws IOException {
+		// given
+		int lostPort = this.tunnels.forwardedPort (this.server);
+		this.tunnels.jumpHostConnection.disconnect ();
+		// when
+		this.tunnels.forwardedPort (this.server);
+		// then
+		assertEquals (2, this.tunnels.connectCount);
+		this.exception.expect (ConnectException.class);
+		new Socket (InetAddress.getLoopbackAddress (), lostPort).close ();
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void unknownJumpHostIsRefused() throws IOException {
+		// given
+		Server misconfiguredServer = behindJumpHost ("S003", "10.1.1.3", "B404");
+		// then
+		this.exception.expect (ServerConnectionException.class);
+		// when
+		this.tunnels.forwardedPort (misconfiguredServer);
+	}
+}
@@ -0,0 +1,115 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.novicehacks.autobot.categories.UnitTest;
+
+public class KnownHostsCacheTest {
+	private static final String Host = "192.168.1.10";
+	private static final String Algorithm = "ssh-rsa";
+	private File knownHostsFolder;
+	private TestCache cache;
+
+	private class TestCache extends KnownHostsCache {
+		boolean strict = false;
+
+		@Override
+		File knownHostsFile() {
+			return new File (KnownHostsCacheTest.this.knownHostsFolder, "known_hosts");
+		}
+
+		@Override
+		boolean isStrictHostKeyChecking() {
+			return this.strict;
+		}
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		this.knownHostsFolder = Files.createTempDirectory ("autobot").toFile ();
+		this.cache = new TestCache ();
+	}
+
+	@After
+	public void tearDown() {
+		this.cache.knownHostsFile ().delete ();
+		this.knownHostsFolder.delete ();
+	}
+
+	private byte[] rsaHostKey() throws IOException, NoSuchAlgorithmException {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance ("RSA");
+		generator.initialize (1024);
+		RSAPublicKey publicKey = (RSAPublicKey) generator.generateKeyPair ().getPublic ();
+		ByteArrayOutputStream hostKey = new ByteArrayOutputStream ();
+		DataOutputStream hostKeyWriter = new DataOutputStream (hostKey);
+		writeBytes (hostKeyWriter, Algorithm.getBytes ("US-ASCII"));
+		writeBytes (hostKeyWriter, publicKey.getPublicExponent ().toByteArray ());
+		writeBytes (hostKeyWriter, publicKey.getModulus ().toByteArray ());
+		return hostKey.toByteArray ();
+	}
+
+	private void writeBytes(DataOutputStream writer, byte[] bytes) throws IOException {
+		writer.writeInt (bytes.length);
+		writer.write (bytes);
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void newHostKeyIsTrustedAndPersisted() throws Exception {
+		// given
+		byte[] hostKey = rsaHostKey ();
+		// when
+		boolean verified = this.cache.verifyServerHostKey (Host, 22, Algorithm, hostKey);
+		// then
+		assertTrue ("New host key not trusted", verified);
+		assertTrue ("Known hosts file not written", this.cache.knownHostsFile ().exists ());
+		KnownHostsCache reloaded = new TestCache ();
+		assertTrue ("Persisted host key not verified",
+				reloaded.verifyServerHostKey (Host, 22, Algorithm, hostKey));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void unknownHostHasNoPreferredAlgorithms() {
+		assertNull (this.cache.preferredHostKeyAlgorithms (Host));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void changedHostKeyAcceptedWhenNotStrict() throws Exception {
+		// given
+		this.cache.verifyServerHostKey (Host, 22, Algorithm, rsaHostKey ());
+		// when
+		boolean verified = this.cache.verifyServerHostKey (Host, 22, Algorithm, rsaHostKey ());
+		// then
+		assertTrue ("Changed host key refused when not strict", verified);
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void changedHostKeyRefusedWhenStrict() throws Exception {
+		// given
+		this.cache.strict = true;
+		this.cache.verifyServerHostKey (Host, 22, Algorithm, rsaHostKey ());
+		// when
+		boolean verified = this.cache.verifyServerHostKey (Host, 22, Algorithm, rsaHostKey ());
+		// then
+		assertFalse ("Changed host key accepted when strict", verified);
+	}
+}
@@ -0,0 +1,89 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import ch.ethz.ssh2.Connection;
+import ch.ethz.ssh2.DHGexParameters;
+
+import com.novicehacks.autobot.categories.UnitTest;
+
+public class SSHAlgorithmPreferencesTest {
+
+	@Test
+	@Category (UnitTest.class)
+	public void unsupportedAlgorithmsAreDropped() {
+		// when
+		SSHAlgorithmPreferences preferences = new SSHAlgorithmPreferences (
+				"aes128-ctr, chacha20, aes128-cbc", "hmac-sha1-96,umac-64", "ssh-rsa,ssh-ed25519",
+				"0");
+		// then
+		assertArrayEquals (new String[] { "aes128-ctr", "aes128-cbc" }, preferences.ciphers ());
+		assertArrayEquals (new String[] { "hmac-sha1-96" }, preferences.macs ());
+		assertArrayEquals (new String[] { "ssh-rsa" }, preferences.hostKeyAlgorithms ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void invalidKexGroupLengthIsIgnored() {
+		// when
+		SSHAlgorithmPreferences preferences = new SSHAlgorithmPreferences ("", "", "", "512");
+		// then
+		assertEquals (0, preferences.kexGroupLength ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void emptyPreferencesKeepLibraryDefaults() {
+		// given
+		Connection connection = mock (Connection.class);
+		SSHAlgorithmPreferences preferences = new SSHAlgorithmPreferences ("", "", "", "0");
+		// when
+		preferences.applyTo (connection, null);
+		// then
+		verify (connection, never ()).setClient2ServerCiphers (any (String[].class));
+		verify (connection, never ()).setClient2ServerMACs (any (String[].class));
+		verify (connection, never ()).setServerHostKeyAlgorithms (any (String[].class));
+		verify (connection, never ()).setDHGexParameters (any (DHGexParameters.class));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void preferencesAreAppliedToConnection() {
+		// given
+		Connection connection = mock (Connection.class);
+		String[] ciphers = { "aes128-ctr" };
+		String[] macs = { "hmac-sha1" };
+		SSHAlgorithmPreferences preferences = new SSHAlgorithmPreferences ("aes128-ctr",
+				"hmac-sha1", "ssh-dss", "2048");
+		// when
+		preferences.applyTo (connection, new String[] { "ssh-rsa" });
+		// then
+		verify (connection).setClient2ServerCiphers (ciphers);
+		verify (connection).setServer2ClientCiphers (ciphers);
+		verify (connection).setClient2ServerMACs (macs);
+		verify (connection).setServer2ClientMACs (macs);
+		verify (connection).setServerHostKeyAlgorithms (new String[] { "ssh-dss" });
+		verify (connection).setDHGexParameters (any (DHGexParameters.class));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void knownHostKeyAlgorithmsUsedWhenNotPreferred() {
+		// given
+		Connection connection = mock (Connection.class);
+		String[] knownHostKeyAlgorithms = { "ssh-dss", "ssh-rsa" };
+		SSHAlgorithmPreferences preferences = new SSHAlgorithmPreferences ("", "", "", "0");
+		// when
+		preferences.applyTo (connection, knownHostKeyAlgorithms);
+		// then
+		verify (connection).setServerHostKeyAlgorithms (knownHostKeyAlgorithms);
+	}
+}
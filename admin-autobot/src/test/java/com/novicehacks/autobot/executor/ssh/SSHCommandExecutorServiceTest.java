@@ -0,0 +1,209 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import ch.ethz.ssh2.Connection;
+import ch.ethz.ssh2.Session;
+
+import com.novicehacks.autobot.categories.UnitTest;
+import com.novicehacks.autobot.core.Deadline;
+import com.novicehacks.autobot.core.ThreadManager;
+import com.novicehacks.autobot.core.types.Command;
+import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.executor.ssh.exception.CommandExecutionException;
+import com.novicehacks.autobot.executor.ssh.exception.ServerConnectionException;
+
+public class SSHCommandExecutorServiceTest {
+	private Server server;
+	private Command command1;
+	private Command command2;
+	private RuntimeException connectFailure;
+	private int disconnectCount;
+	private Connection connection;
+	private DefaultSSHConnection sshConnection;
+	private SSHCommandExecutorService executorService;
+	private final CountDownLatch release = new CountDownLatch (1);
+
+	@Before
+	public void setUp() throws InterruptedException, IOException {
+		ThreadManager.getInstance ().createThreadPool ();
+		this.connection = mock (Connection.class);
+		when (this.connection.openSession ()).thenThrow (new IOException ("Channel refused"));
+		this.sshConnection = authenticatedConnection ();
+		this.server = mock (Server.class);
+		when (this.server.id ()).thenReturn ("S001");
+		when (this.server.initCommands ()).thenReturn (new String[] { });
+		this.command1 = mock (Command.class);
+		when (this.command1.commandTxt ()).thenReturn ("uptime");
+		this.command2 = mock (Command.class);
+		when (this.command2.commandTxt ()).thenReturn ("df -k");
+		this.executorService = executorService (Deadline.after (1, TimeUnit.MINUTES));
+	}
+
+	private SSHCommandExecutorService executorService(Deadline deadline) {
+		return new SSHCommandExecutorService (this.server, Arrays.asList (this.command1,
+				this.command2), deadline) {
+			@Override
+			DefaultSSHConnection authenticatedConnection() {
+				if (SSHCommandExecutorServiceTest.this.connectFailure != null)
+					throw SSHCommandExecutorServiceTest.this.connectFailure;
+				return SSHCommandExecutorServiceTest.this.sshConnection;
+			}
+
+			@Override
+			void disconnetServer() {
+				SSHCommandExecutorServiceTest.this.disconnectCount++;
+			}
+
+			@Override
+			int maxConnectionCount() {
+				return 1;
+			}
+		};
+	}
+
+	/**
+	 * Authenticated connection, on which sessions cannot be opened unless
+	 * stubbed otherwise.
+	 */
+	private DefaultSSHConnection authenticatedConnection() throws IOException {
+		when (this.connection.authenticateWithPassword ("abc", "def")).thenReturn (true);
+		DefaultSSHConnection.ConnectionFactory connectionFactory;
+		connectionFactory = mock (DefaultSSHConnection.ConnectionFactory.class);
+		when (connectionFactory.createConnection (Mockito.anyString ())).thenReturn (
+				this.connection);
+		DefaultSSHConnection authenticatedConnection;
+		authenticatedConnection = new DefaultSSHConnection ("127.0.0.1", connectionFactory);
+		authenticatedConnection.connect ();
+		authenticatedConnection.authenticateConnectionWithUsernameAndPassword ("abc", "def");
+		return authenticatedConnection;
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		this.release.countDown ();
+		ThreadManager.getInstance ().createThreadPool (true);
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void connectFailureFailsPipelineWithoutExecution() throws InterruptedException,
+			TimeoutException {
+		// given
+		this.connectFailure = new ServerConnectionException ("Unable to connect");
+		// when
+		try {
+			this.executorService.executeCommandsAsynchronously ().get (5, TimeUnit.SECONDS);
+		} catch (ExecutionException ex) {
+			// then
+			assertTrue (ex.getCause () instanceof ServerConnectionException);
+			assertEquals (0, this.disconnectCount);
+			return;
+		}
+		throw new AssertionError ("Pipeline completed without a connection");
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void commandFailuresAreCollectedAndServerDisconnected() throws InterruptedException,
+			TimeoutException {
+		// given
+		// when
+		try {
+			this.executorService.executeCommandsAsynchronously ().get (5, TimeUnit.SECONDS);
+		} catch (ExecutionException ex) {
+			// then
+			CommandExecutionException failure = (CommandExecutionException) ex.getCause ();
+			assertEquals (2, failure.getMultipleReasons ().size ());
+			assertEquals (1, this.disconnectCount);
+			return;
+		}
+		throw new AssertionError ("Pipeline completed without a connection");
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void blockingExecutionWrapsCommandFailures() {
+		// given
+		// when
+		try {
+			this.executorService.executeCommands ();
+		} catch (CommandExecutionException ex) {
+			// then
+			assertEquals (2, ex.getMultipleReasons ().size ());
+			assertEquals (1, this.disconnectCount);
+			return;
+		}
+		throw new AssertionError ("Commands completed without a connection");
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void expiredDeadlineFailsWithoutStartingCommands() throws InterruptedException,
+			TimeoutException, IOException {
+		// given
+		this.executorService = executorService (Deadline.after (0, TimeUnit.SECONDS));
+		// when
+		try {
+			this.executorService.executeCommandsAsynchronously ().get (5, TimeUnit.SECONDS);
+		} catch (ExecutionException ex) {
+			// then, failed by the deadline or by the commands refused to start
+			assertTrue (ex.getCause () instanceof TimeoutException
+					|| ex.getCause () instanceof CommandExecutionException);
+			assertEquals (1, this.disconnectCount);
+			verify (this.connection, never ()).openSession ();
+			return;
+		}
+		throw new AssertionError ("Pipeline completed after the deadline");
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void deadlineFailsRunningCommandsPromptly() throws InterruptedException,
+			TimeoutException, IOException {
+		// given
+		doAnswer (new Answer<Session> () {
+			@Override
+			public Session answer(InvocationOnMock invocation) throws InterruptedException,
+					IOException {
+				SSHCommandExecutorServiceTest.this.release.await ();
+				throw new IOException ("Connection closed");
+			}
+		}).when (this.connection).openSession ();
+		this.executorService = executorService (Deadline.after (200, TimeUnit.MILLISECONDS));
+		// when
+		long startTime = System.nanoTime ();
+		try {
+			this.executorService.executeCommandsAsynchronously ().get (5, TimeUnit.SECONDS);
+		} catch (ExecutionException ex) {
+			// then
+			long elapsed = TimeUnit.NANOSECONDS.toMillis (System.nanoTime () - startTime);
+			assertTrue (ex.getCause () instanceof TimeoutException);
+			assertTrue ("Failed after " + elapsed + " ms", elapsed < 2000);
+			assertEquals (1, this.disconnectCount);
+			return;
+		}
+		throw new AssertionError ("Pipeline completed while commands are blocked");
+	}
+}
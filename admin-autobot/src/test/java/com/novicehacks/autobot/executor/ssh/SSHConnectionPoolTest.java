@@ -0,0 +1,368 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+import ch.ethz.ssh2.Connection;
+import ch.ethz.ssh2.Session;
+
+import com.novicehacks.autobot.categories.UnitTest;
+import com.novicehacks.autobot.core.Deadline;
+import com.novicehacks.autobot.core.types.Server;
+
+public class SSHConnectionPoolTest {
+	private Server server;
+	private Connection connection;
+	private DefaultSSHConnection.ConnectionFactory connectionFactory;
+	private TestPool pool;
+
+	private static class TestPool extends SSHConnectionPool {
+		long currentTime = 0;
+		int maxSize = 2;
+		DefaultSSHConnection reconnection;
+		CompletableFuture<DefaultSSHConnection> pendingReconnect;
+		Deadline reconnectDeadline;
+		CompletableFuture<Boolean> pendingPing;
+		long validationInterval = 30000;
+
+		@Override
+		int maxSize() {
+			return this.maxSize;
+		}
+
+		@Override
+		long idleTimeoutInMillis() {
+			return 1000;
+		}
+
+		@Override
+		long now() {
+			return this.currentTime;
+		}
+
+		@Override
+		long pingTimeoutInMillis() {
+			return 200;
+		}
+
+		@Override
+		long validationIntervalInMillis() {
+			return this.validationInterval;
+		}
+
+		@Override
+		long keepaliveIntervalInMillis() {
+			return 100;
+		}
+
+		@Override
+		CompletableFuture<Boolean> ping(DefaultSSHConnection connection) {
+			if (this.pendingPing != null)
+				return this.pendingPing;
+			return CompletableFuture.completedFuture (connection.ping ());
+		}
+
+		@Override
+		CompletableFuture<DefaultSSHConnection> reconnect(Server server, Deadline deadline) {
+			this.reconnectDeadline = deadline;
+			if (this.pendingReconnect != null)
+				return this.pendingReconnect;
+			return CompletableFuture.completedFuture (this.reconnection);
+		}
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		this.server = mock (Server.class);
+		when (this.server.id ()).thenReturn ("S001");
+		this.connection = mock (Connection.class);
+		when (this.connection.authenticateWithPassword ("abc", "def")).thenReturn (true);
+		this.connectionFactory = mock (DefaultSSHConnection.ConnectionFactory.class);
+		when (this.connectionFactory.createConnection (Mockito.anyString ())).thenReturn (
+				this.connection);
+		this.pool = new TestPool ();
+	}
+
+	private DefaultSSHConnection authenticatedConnection() throws IOException {
+		DefaultSSHConnection sshConnection;
+		sshConnection = new DefaultSSHConnection ("127.0.0.1", this.connectionFactory);
+		sshConnection.connect ();
+		sshConnection.authenticateConnectionWithUsernameAndPassword ("abc", "def");
+		return sshConnection;
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void borrowFromEmptyPoolIsMiss() {
+		// when
+		DefaultSSHConnection borrowed = this.pool.borrowConnection (this.server);
+		// then
+		assertNull ("Empty pool should not return a connection", borrowed);
+		assertEquals (1, this.pool.missCount ());
+		assertEquals (0, this.pool.hitCount ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void borrowReleasedConnectionIsHit() throws IOException {
+		// given
+		DefaultSSHConnection sshConnection = authenticatedConnection ();
+		this.pool.releaseConnection (this.server, sshConnection);
+		// when
+		DefaultSSHConnection borrowed = this.pool.borrowConnection (this.server);
+		// then
+		assertSame (sshConnection, borrowed);
+		assertEquals (1, this.pool.hitCount ());
+		assertEquals (0, this.pool.idleConnectionCount ());
+		verify (this.connection, never ()).close ();
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void borrowPingsConnectionNotFoundAliveRecently() throws IOException {
+		// given
+		when (this.connection.openSession ()).thenThrow (new IOException ("Connection reset"));
+		this.pool.releaseConnection (this.server, authenticatedConnection ());
+		this.pool.validationInterval = 0;
+		// when
+		DefaultSSHConnection borrowed = this.pool.borrowConnection (this.server);
+		// then
+		assertNull ("Connection failing the ping should not be reused", borrowed);
+		assertEquals (1, this.pool.evictionCount ());
+		verify (this.connection).close ();
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void borrowGivesUpPingNotAnsweredWithinRunDeadline() throws IOException {
+		// given
+		this.pool.releaseConnection (this.server, authenticatedConnection ());
+		this.pool.validationInterval = 0;
+		this.pool.pendingPing = new CompletableFuture<Boolean> ();
+		Deadline runDeadline = Deadline.after (20, TimeUnit.MILLISECONDS);
+		// when
+		long start = System.nanoTime ();
+		DefaultSSHConnection borrowed = this.pool.borrowConnection (this.server, runDeadline);
+		long elapsedInMillis = TimeUnit.NANOSECONDS.toMillis (System.nanoTime () - start);
+		// then
+		assertNull ("Connection not answering the ping should not be reused", borrowed);
+		assertTrue ("Borrow should not wait beyond the run deadline", elapsedInMillis < 180);
+		assertEquals (1, this.pool.evictionCount ());
+		verify (this.connection).close ();
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void releaseUnauthenticatedConnectionClosesIt() throws IOException {
+		// given
+		DefaultSSHConnection sshConnection;
+		sshConnection = new DefaultSSHConnection ("127.0.0.1", this.connectionFactory);
+		sshConnection.connect ();
+		// when
+		this.pool.releaseConnection (this.server, sshConnection);
+		// then
+		verify (this.connection).close ();
+		assertEquals (0, this.pool.idleConnectionCount ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void releaseWhenPoolIsFullClosesConnection() throws IOException {
+		// given
+		this.pool.maxSize = 1;
+		this.pool.releaseConnection (this.server, authenticatedConnection ());
+		// when
+		this.pool.releaseConnection (this.server, authenticatedConnection ());
+		// then
+		verify (this.connection).close ();
+		assertEquals (1, this.pool.idleConnectionCount ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void borrowIdleTimedoutConnectionEvictsIt() throws IOException {
+		// given
+		this.pool.releaseConnection (this.server, authenticatedConnection ());
+		// when
+		this.pool.currentTime = 5000;
+		DefaultSSHConnection borrowed = this.pool.borrowConnection (this.server);
+		// then
+		assertNull ("Idle timed out connection should not be reused", borrowed);
+		assertEquals (1, this.pool.evictionCount ());
+		verify (this.connection).close ();
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void evictIdleConnectionsClosesTimedoutConnections() throws IOException {
+		// given
+		this.pool.releaseConnection (this.server, authenticatedConnection ());
+		// when
+		this.pool.currentTime = 5000;
+		this.pool.evictIdleConnections ();
+		// then
+		assertEquals (0, this.pool.idleConnectionCount ());
+		assertEquals (1, this.pool.evictionCount ());
+		verify (this.connection).close ();
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void closeAllConnectionsEmptiesPool() throws IOException {
+		// given
+		this.pool.releaseConnection (this.server, authenticatedConnection ());
+		// when
+		this.pool.closeAllConnections ();
+		// then
+		assertEquals (0, this.pool.idleConnectionCount ());
+		verify (this.connection).close ();
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void hasReusableConnectionDoesNotBorrow() throws IOException {
+		// given
+		this.pool.releaseConnection (this.server, authenticatedConnection ());
+		// when
+		boolean reusable = this.pool.hasReusableConnection (this.server);
+		// then
+		assertTrue ("Pooled connection not reported reusable", reusable);
+		assertEquals (1, this.pool.idleConnectionCount ());
+		assertEquals (0, this.pool.hitCount ());
+		// when
+		this.pool.currentTime = 1001;
+		// then
+		assertFalse ("Timed out connection reported reusable",
+				this.pool.hasReusableConnection (this.server));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void keepaliveKeepsRespondingConnection() throws IOException {
+		// given
+		when (this.connection.openSession ()).thenReturn (mock (Session.class));
+		DefaultSSHConnection sshConnection = authenticatedConnection ();
+		this.pool.releaseConnection (this.server, sshConnection);
+		// when
+		this.pool.currentTime = 100;
+		this.pool.keepAliveIdleConnections ();
+		// then
+		assertEquals (1, this.pool.keepaliveCount ());
+		assertEquals (0, this.pool.reconnectCount ());
+		assertSame (sshConnection, this.pool.borrowConnection (this.server));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void keepaliveIsSkippedWithinInterval() throws IOException {
+		// given
+		this.pool.releaseConnection (this.server, authenticatedConnection ());
+		// when
+		this.pool.currentTime = 50;
+		this.pool.keepAliveIdleConnections ();
+		// then
+		verify (this.connection, never ()).openSession ();
+		assertEquals (0, this.pool.keepaliveCount ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void keepaliveReconnectsStaleConnection() throws IOException {
+		// given
+		when (this.connection.openSession ()).thenThrow (new IOException ("Connection reset"));
+		this.pool.releaseConnection (this.server, authenticatedConnection ());
+		this.pool.reconnection = authenticatedConnection ();
+		// when
+		this.pool.currentTime = 100;
+		this.pool.keepAliveIdleConnections ();
+		// then
+		verify (this.connection).close ();
+		assertEquals (1, this.pool.staleCount ());
+		assertEquals (1, this.pool.reconnectCount ());
+		assertEquals (1, this.pool.idleConnectionCount ());
+		assertTrue (this.pool.statistics ().contains ("keepalives=0, stale=1, reconnects=1"));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void reconnectedConnectionIsPooledAsNewlyIdle() throws IOException {
+		// given
+		when (this.connection.openSession ()).thenThrow (new IOException ("Connection reset"));
+		this.pool.releaseConnection (this.server, authenticatedConnection ());
+		DefaultSSHConnection reconnection = authenticatedConnection ();
+		this.pool.reconnection = reconnection;
+		// when
+		this.pool.currentTime = 900;
+		this.pool.keepAliveIdleConnections ();
+		this.pool.currentTime = 1500;
+		// then
+		assertTrue (this.pool.reconnectDeadline.remaining (TimeUnit.MILLISECONDS) > this.pool
+				.pingTimeoutInMillis ());
+		assertSame (reconnection, this.pool.borrowConnection (this.server));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void keepaliveDropsStaleConnectionIfReconnectFails() throws IOException {
+		// given
+		when (this.connection.openSession ()).thenThrow (new IOException ("Connection reset"));
+		this.pool.releaseConnection (this.server, authenticatedConnection ());
+		// when
+		this.pool.currentTime = 100;
+		this.pool.keepAliveIdleConnections ();
+		// then
+		assertEquals (1, this.pool.staleCount ());
+		assertEquals (0, this.pool.reconnectCount ());
+		assertEquals (0, this.pool.idleConnectionCount ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void keepaliveDoesNotWaitForReconnectBeyondPingTimeout() throws IOException {
+		// given
+		Server otherServer = mock (Server.class);
+		when (otherServer.id ()).thenReturn ("S002");
+		Connection staleConnection = mock (Connection.class);
+		when (staleConnection.authenticateWithPassword ("abc", "def")).thenReturn (true);
+		when (staleConnection.openSession ()).thenThrow (new IOException ("Connection reset"));
+		when (this.connectionFactory.createConnection ("127.0.0.2")).thenReturn (staleConnection);
+		DefaultSSHConnection staleSSHConnection;
+		staleSSHConnection = new DefaultSSHConnection ("127.0.0.2", this.connectionFactory);
+		staleSSHConnection.connect ();
+		staleSSHConnection.authenticateConnectionWithUsernameAndPassword ("abc", "def");
+		when (this.connection.openSession ()).thenReturn (mock (Session.class));
+		DefaultSSHConnection aliveConnection = authenticatedConnection ();
+		this.pool.releaseConnection (otherServer, staleSSHConnection);
+		this.pool.releaseConnection (this.server, aliveConnection);
+		this.pool.pendingReconnect = new CompletableFuture<DefaultSSHConnection> ();
+		// when
+		this.pool.currentTime = 100;
+		long startTime = System.nanoTime ();
+		this.pool.keepAliveIdleConnections ();
+		long waitInMillis = (System.nanoTime () - startTime) / 1000000;
+		// then
+		assertTrue ("Keepalive waited " + waitInMillis + " ms", waitInMillis < 2000);
+		assertSame (aliveConnection, this.pool.borrowConnection (this.server));
+		assertEquals (1, this.pool.staleCount ());
+		// when
+		this.pool.pendingReconnect.complete (null);
+		// then
+		assertEquals (0, this.pool.idleConnectionCount ());
+	}
+}
@@ -0,0 +1,89 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.novicehacks.autobot.categories.UnitTest;
+import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.executor.ssh.exception.ServerConnectionException;
+
+public class SSHConnectionWarmupTaskTest {
+	private Server server;
+	private SSHConnectionPool pool;
+	private TestWarmupTask task;
+
+	private class TestWarmupTask extends SSHConnectionWarmupTask {
+		int connectionAttempts = 0;
+
+		TestWarmupTask (Server server) {
+			super (server);
+		}
+
+		@Override
+		SSHConnectionPool getConnectionPool() {
+			return SSHConnectionWarmupTaskTest.this.pool;
+		}
+
+		@Override
+		DefaultSSHConnectionUtil getConnectionUtil() {
+			this.connectionAttempts++;
+			throw new ServerConnectionException ("Server not reachable");
+		}
+	}
+
+	@Before
+	public void setUp() {
+		this.server = mock (Server.class);
+		when (this.server.id ()).thenReturn ("S001");
+		this.pool = mock (SSHConnectionPool.class);
+		this.task = new TestWarmupTask (this.server);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	@Category (UnitTest.class)
+	public void instantiateWithNullServer() {
+		new SSHConnectionWarmupTask (null);
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void noWarmupWhenPoolIsDisabled() {
+		// given
+		when (this.pool.isEnabled ()).thenReturn (false);
+		// when
+		this.task.run ();
+		// then
+		assertTrue (this.task.isThreadStarted ());
+		assertEquals ("Connection opened with pool disabled", 0, this.task.connectionAttempts);
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void noWarmupWhenPoolHasConnection() {
+		// given
+		when (this.pool.isEnabled ()).thenReturn (true);
+		when (this.pool.hasReusableConnection (this.server)).thenReturn (true);
+		// when
+		this.task.run ();
+		// then
+		assertEquals ("Connection opened though pooled", 0, this.task.connectionAttempts);
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void connectionFailureIsNotPropagated() {
+		// given
+		when (this.pool.isEnabled ()).thenReturn (true);
+		when (this.pool.hasReusableConnection (this.server)).thenReturn (false);
+		// when
+		this.task.run ();
+		// then
+		assertEquals ("Connection not attempted", 1, this.task.connectionAttempts);
+	}
+}
@@ -0,0 +1,134 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.novicehacks.autobot.categories.UnitTest;
+import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.executor.ssh.ServerCircuitBreaker.Circuit;
+
+public class ServerCircuitBreakerTest {
+	private Server server;
+	private TestCircuitBreaker circuitBreaker;
+
+	private static class TestCircuitBreaker extends ServerCircuitBreaker {
+		long currentTime = 0;
+		boolean reachable = false;
+
+		@Override
+		boolean isReachable(String ipAddress) {
+			return this.reachable;
+		}
+
+		@Override
+		long backoffInMins() {
+			return 10;
+		}
+
+		@Override
+		long maxBackoffInMins() {
+			return 30;
+		}
+
+		@Override
+		long now() {
+			return this.currentTime;
+		}
+	}
+
+	@Before
+	public void setUp() {
+		this.server = mock (Server.class);
+		when (this.server.id ()).thenReturn ("S001");
+		when (this.server.ipaddress ()).thenReturn ("10.0.0.1");
+		this.circuitBreaker = new TestCircuitBreaker ();
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void unknownServerIsAllowed() {
+		assertTrue (this.circuitBreaker.allowExecution (this.server));
+		assertEquals (Circuit.Closed, this.circuitBreaker.circuitOf (this.server));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void failedProbeOpensCircuit() {
+		// when
+		boolean reachable = this.circuitBreaker.probe (this.server);
+		// then
+		assertFalse (reachable);
+		assertEquals (Circuit.Open, this.circuitBreaker.circuitOf (this.server));
+		assertFalse (this.circuitBreaker.allowExecution (this.server));
+		assertTrue (this.circuitBreaker.statistics ().contains ("S001 : circuit=Open, failures=1"));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void openCircuitTurnsHalfOpenAfterBackoff() {
+		// given
+		this.circuitBreaker.probe (this.server);
+		// when
+		this.circuitBreaker.currentTime = TimeUnit.MINUTES.toMillis (10);
+		// then
+		assertTrue (this.circuitBreaker.allowExecution (this.server));
+		assertEquals (Circuit.HalfOpen, this.circuitBreaker.circuitOf (this.server));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void successfulTrialClosesCircuit() {
+		// given
+		this.circuitBreaker.probe (this.server);
+		this.circuitBreaker.currentTime = TimeUnit.MINUTES.toMillis (10);
+		this.circuitBreaker.allowExecution (this.server);
+		this.circuitBreaker.reachable = true;
+		// when
+		assertTrue (this.circuitBreaker.probe (this.server));
+		this.circuitBreaker.recordSuccess (this.server);
+		// then
+		assertEquals (Circuit.Closed, this.circuitBreaker.circuitOf (this.server));
+		assertEquals ("", this.circuitBreaker.statistics ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void failedTrialDoublesBackoff() {
+		// given
+		this.circuitBreaker.probe (this.server);
+		this.circuitBreaker.currentTime = TimeUnit.MINUTES.toMillis (10);
+		this.circuitBreaker.allowExecution (this.server);
+		// when
+		this.circuitBreaker.probe (this.server);
+		// then
+		this.circuitBreaker.currentTime = TimeUnit.MINUTES.toMillis (29);
+		assertFalse (this.circuitBreaker.allowExecution (this.server));
+		this.circuitBreaker.currentTime = TimeUnit.MINUTES.toMillis (30);
+		assertTrue (this.circuitBreaker.allowExecution (this.server));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void backoffIsCappedByMaxBackoff() {
+		assertEquals (TimeUnit.MINUTES.toMillis (10), this.circuitBreaker.backoffInMillis (1));
+		assertEquals (TimeUnit.MINUTES.toMillis (20), this.circuitBreaker.backoffInMillis (2));
+		assertEquals (TimeUnit.MINUTES.toMillis (30), this.circuitBreaker.backoffInMillis (3));
+		assertEquals (TimeUnit.MINUTES.toMillis (30), this.circuitBreaker.backoffInMillis (50));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void unresolvableServerIsNotReachable() {
+		ServerCircuitBreaker realCircuitBreaker = new ServerCircuitBreaker ();
+		assertFalse (realCircuitBreaker.isReachable ("unknown.host.invalid"));
+	}
+}
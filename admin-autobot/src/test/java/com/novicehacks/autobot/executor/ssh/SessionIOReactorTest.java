@@ -0,0 +1,226 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.novicehacks.autobot.categories.UnitTest;
+import com.novicehacks.autobot.core.Deadline;
+
+public class SessionIOReactorTest {
+	private SessionIOReactor reactor;
+	private Deadline deadline;
+
+	@Before
+	public void setUp() {
+		this.deadline = Deadline.after (1, TimeUnit.MINUTES);
+		this.reactor = new SessionIOReactor () {
+			@Override
+			int ioThreadCount() {
+				return 1;
+			}
+		};
+	}
+
+	@After
+	public void tearDown() {
+		this.reactor.shutdown ();
+	}
+
+	private SSHSession sessionWithOutput(InputStream output) {
+		SSHSession session = mock (SSHSession.class);
+		when (session.stdOutputStream ()).thenReturn (output);
+		when (session.stdErrorStream ()).thenReturn (
+				new ByteArrayInputStream ("error".getBytes ()));
+		return session;
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void outputIsCollectedOnceRemoteIsCompleted() throws Exception {
+		// given
+		SSHSession session = sessionWithOutput (new ByteArrayInputStream ("output".getBytes ()));
+		when (session.isRemoteCompleted ()).thenReturn (false, false, true);
+		// when
+		CompletableFuture<byte[]> output = this.reactor.collectOutput (session, this.deadline);
+		// then
+		assertArrayEquals ("output".getBytes (), output.get (5, TimeUnit.SECONDS));
+		assertEquals ("registered=1, completed=1, failed=0", this.reactor.statistics ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void sessionsAreReadBySharedIOThread() throws Exception {
+		// given
+		SSHSession firstSession, secondSession;
+		firstSession = sessionWithOutput (new ByteArrayInputStream ("first".getBytes ()));
+		secondSession = sessionWithOutput (new ByteArrayInputStream ("second".getBytes ()));
+		when (firstSession.isRemoteCompleted ()).thenReturn (true);
+		when (secondSession.isRemoteCompleted ()).thenReturn (true);
+		// when
+		CompletableFuture<byte[]> firstOutput;
+		firstOutput = this.reactor.collectOutput (firstSession, this.deadline);
+		CompletableFuture<byte[]> secondOutput;
+		secondOutput = this.reactor.collectOutput (secondSession, this.deadline);
+		// then
+		assertArrayEquals ("first".getBytes (), firstOutput.get (5, TimeUnit.SECONDS));
+		assertArrayEquals ("second".getBytes (), secondOutput.get (5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void readFailureCompletesExceptionally() throws Exception {
+		// given
+		InputStream failingStream = mock (InputStream.class);
+		when (failingStream.available ()).thenThrow (new IOException ("Connection reset"));
+		SSHSession session = sessionWithOutput (failingStream);
+		// when
+		CompletableFuture<byte[]> output = this.reactor.collectOutput (session, this.deadline);
+		// then
+		try {
+			output.get (5, TimeUnit.SECONDS);
+		} catch (ExecutionException ex) {
+			assertTrue (ex.getCause () instanceof IOException);
+		}
+		assertTrue (output.isCompletedExceptionally ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void collectionFailsOnceRunDeadlineIsReached() throws Exception {
+		// given
+		SSHSession session = sessionWithOutput (new ByteArrayInputStream (new byte[0]));
+		when (session.isRemoteCompleted ()).thenReturn (false);
+		Deadline runDeadline = Deadline.after (50, TimeUnit.MILLISECONDS);
+		// when
+		CompletableFuture<byte[]> output = this.reactor.collectOutput (session, runDeadline);
+		// then
+		try {
+			output.get (5, TimeUnit.SECONDS);
+			fail ("Output cannot be collected past the run deadline");
+		} catch (ExecutionException ex) {
+			assertTrue (ex.getCause () instanceof TimeoutException);
+		}
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void shutdownFailsPendingSessions() throws Exception {
+		// given
+		SSHSession session = sessionWithOutput (new ByteArrayInputStream (new byte[0]));
+		when (session.isRemoteCompleted ()).thenReturn (false);
+		CompletableFuture<byte[]> output = this.reactor.collectOutput (session, this.deadline);
+		// when
+		this.reactor.shutdown ();
+		// then
+		try {
+			output.get (5, TimeUnit.SECONDS);
+		} catch (ExecutionException ex) {
+			assertTrue (ex.getCause () instanceof IOException);
+		} catch (TimeoutException ex) {
+			throw new AssertionError ("Pending session not failed on shutdown", ex);
+		}
+	}
+
+	/**
+	 * Listener collecting the output of a watched shell.
+	 */
+	private static final class CollectingListener implements SessionIOReactor.OutputListener {
+		private final StringBuffer output = new StringBuffer ();
+		private final CountDownLatch closed = new CountDownLatch (1);
+
+		@Override
+		public void outputReceived(byte[] buff, int length) {
+			this.output.append (new String (buff, 0, length));
+		}
+
+		@Override
+		public void outputClosed() {
+			this.closed.countDown ();
+		}
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void watchedOutputIsHandedToTheListenerUntilClosed() throws Exception {
+		// given
+		SSHSession session = sessionWithOutput (new ByteArrayInputStream ("$ uptime".getBytes ()));
+		when (session.isRemoteCompleted ()).thenReturn (false, false, true);
+		CollectingListener listener = new CollectingListener ();
+		// when
+		CompletableFuture<Void> watch = this.reactor.watchOutput (session, listener);
+		// then
+		watch.get (5, TimeUnit.SECONDS);
+		assertTrue (listener.closed.await (5, TimeUnit.SECONDS));
+		assertEquals ("$ uptime", listener.output.toString ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void watchIsClosedWhenSessionIsClosedWithoutExit() throws Exception {
+		// given
+		SSHSession session = sessionWithOutput (new ByteArrayInputStream ("$ uptime".getBytes ()));
+		when (session.isRemoteCompleted ()).thenReturn (false);
+		when (session.isRemoteClosed ()).thenReturn (false, true);
+		CollectingListener listener = new CollectingListener ();
+		// when
+		CompletableFuture<Void> watch = this.reactor.watchOutput (session, listener);
+		// then
+		watch.get (5, TimeUnit.SECONDS);
+		assertTrue (listener.closed.await (5, TimeUnit.SECONDS));
+		assertEquals ("$ uptime", listener.output.toString ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void collectionFailsWhenSessionIsClosedWithoutExit() throws Exception {
+		// given
+		SSHSession session = sessionWithOutput (new ByteArrayInputStream ("partial".getBytes ()));
+		when (session.isRemoteCompleted ()).thenReturn (false);
+		when (session.isRemoteClosed ()).thenReturn (true);
+		// when
+		CompletableFuture<byte[]> output = this.reactor.collectOutput (session, this.deadline);
+		// then
+		try {
+			output.get (5, TimeUnit.SECONDS);
+			fail ("Output of a session closed without exit cannot be completed");
+		} catch (ExecutionException ex) {
+			assertTrue (ex.getCause () instanceof IOException);
+		}
+		assertEquals ("registered=1, completed=0, failed=1", this.reactor.statistics ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void cancelledWatchIsNoLongerRead() throws Exception {
+		// given
+		InputStream output = mock (InputStream.class);
+		SSHSession session = sessionWithOutput (output);
+		when (session.isRemoteCompleted ()).thenReturn (false);
+		CollectingListener listener = new CollectingListener ();
+		CompletableFuture<Void> watch = this.reactor.watchOutput (session, listener);
+		// when
+		watch.cancel (false);
+		Thread.sleep (50);
+		// then
+		assertEquals (1, listener.closed.getCount ());
+		assertTrue (watch.isCancelled ());
+	}
+}
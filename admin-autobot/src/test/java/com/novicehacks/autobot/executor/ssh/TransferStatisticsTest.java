@@ -0,0 +1,54 @@
+package com.novicehacks.autobot.executor.ssh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.novicehacks.autobot.categories.UnitTest;
+
+public class TransferStatisticsTest {
+
+	@Test
+	@Category (UnitTest.class)
+	public void recordsTransfersPerServer() {
+		// given
+		TransferStatistics statistics = new TransferStatistics ();
+		// when
+		statistics.record ("S001", 100, 400);
+		statistics.record ("S001", 50, 200);
+		// then
+		assertEquals (150, statistics.bytesOnWire ("S001"));
+		assertEquals (600, statistics.bytesDelivered ("S001"));
+		assertEquals (0, statistics.bytesOnWire ("S002"));
+		assertTrue (statistics.statistics ().contains ("S001 : bytesOnWire=150, bytesDelivered=600"));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void countingStreamCountsBytesRead() throws IOException {
+		// given
+		ByteCountingInputStream stream;
+		stream = new ByteCountingInputStream (new ByteArrayInputStream (new byte[10]));
+		// when
+		stream.read ();
+		stream.read (new byte[4], 0, 4);
+		stream.skip (2);
+		stream.read (new byte[10], 0, 10);
+		// then
+		assertEquals (10, stream.byteCount ());
+		assertEquals (-1, stream.read ());
+		assertEquals (10, stream.byteCount ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void compressedCommandPipesOutputToGzip() {
+		assertEquals ("( ps -eaf | grep java ) | gzip -c",
+				OutputCompression.compressedCommand ("ps -eaf | grep java"));
+	}
+}
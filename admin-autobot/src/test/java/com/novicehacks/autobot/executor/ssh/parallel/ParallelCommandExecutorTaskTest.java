@@ -15,8 +15,12 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 import org.hamcrest.CoreMatchers;
 import org.junit.Before;
@@ -29,11 +33,14 @@ import org.mockito.MockitoAnnotations;
 
 import com.novicehacks.autobot.categories.FunctionalTest;
 import com.novicehacks.autobot.categories.UnitTest;
+import com.novicehacks.autobot.core.Deadline;
 import com.novicehacks.autobot.core.ThreadManager;
 import com.novicehacks.autobot.core.types.Command;
 import com.novicehacks.autobot.core.types.Server;
 import com.novicehacks.autobot.executor.ssh.SSHConnection;
 import com.novicehacks.autobot.executor.ssh.SSHSession;
+import com.novicehacks.autobot.executor.ssh.SessionIOReactor;
+import com.novicehacks.autobot.executor.ssh.TransferStatistics;
 import com.novicehacks.autobot.executor.ssh.exception.CommandExecutionException;
 import com.novicehacks.autobot.executor.ssh.logger.ShellOutputLoggerTask;
 import com.novicehacks.autobot.executor.ssh.parallel.ParallelExecutorTask;
@@ -262,4 +269,54 @@ public class ParallelCommandExecutorTaskTest {
 		verify (this.outputLoggerTask, times (1)).run ();
 		assertTrue ("Output Logger Thread not Started", this.outputLoggerTask.isThreadStarted ());
 	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void compressedCommandOutput() throws IOException {
+		// given
+		mockCollaboratorsWithBasicOperations ();
+		when (this.server.options ()).thenReturn (
+				Collections.singletonMap ("OutputCompression", "true"));
+		String expected = "compressed command output";
+		ByteArrayOutputStream compressedOutput = new ByteArrayOutputStream ();
+		try (GZIPOutputStream _gzip = new GZIPOutputStream (compressedOutput) ) {
+			_gzip.write (expected.getBytes ());
+		}
+		doReturn (new ByteArrayInputStream (compressedOutput.toByteArray ())).when (this.session)
+				.stdOutputStream ();
+
+		TransferStatistics statistics = TransferStatistics.getSharedInstance ();
+		long bytesOnWire = statistics.bytesOnWire ("T001");
+
+		ParallelExecutorTask commandExecutor;
+		commandExecutor = new ParallelExecutorTask (this.connection, this.server, this.command);
+		// when
+		commandExecutor.run ();
+		String actual = commandExecutor.commandOutputFromRemote ().trim ();
+		// then
+		verify (this.session, times (1)).execCommand ("( df -k ) | gzip -c");
+		assertEquals ("Command output should be decompressed", expected, actual);
+		assertEquals (compressedOutput.size (), statistics.bytesOnWire ("T001") - bytesOnWire);
+	}
+
+	@Test
+	@Category ({ UnitTest.class })
+	public void nonBlockingExecutionCollectsOutputFromReactor() throws Exception {
+		// given
+		mockCollaboratorsWithBasicOperations ();
+		when (this.session.isRemoteCompleted ()).thenReturn (true);
+		ParallelExecutorTask commandExecutor;
+		commandExecutor = new ParallelExecutorTask (this.connection, this.server, this.command);
+		// when
+		Future<?> taskFuture;
+		taskFuture = commandExecutor.runAsynchronously (SessionIOReactor.getSharedInstance (),
+				Deadline.after (1, TimeUnit.MINUTES));
+		taskFuture.get (5, TimeUnit.SECONDS);
+		// then
+		verify (this.session, times (1)).execCommand ("df -k");
+		verify (this.session, times (1)).closeSession ();
+		assertEquals ("sample output", commandExecutor.commandOutputFromRemote ().trim ());
+		assertTrue (commandExecutor.isOutputLoggingCompleted ());
+	}
+
 }
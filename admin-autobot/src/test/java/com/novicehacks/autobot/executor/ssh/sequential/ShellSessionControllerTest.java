@@ -0,0 +1,141 @@
+package com.novicehacks.autobot.executor.ssh.sequential;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.novicehacks.autobot.categories.UnitTest;
+import com.novicehacks.autobot.core.types.Command;
+import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.executor.ssh.exception.CommandExecutionException;
+import com.novicehacks.autobot.executor.ssh.sequential.ShellSessionController.PendingCommand;
+
+public class ShellSessionControllerTest {
+	private ShellSessionController controller;
+
+	@Before
+	public void setUp() {
+		Server server = mock (Server.class);
+		when (server.id ()).thenReturn ("S001");
+		this.controller = new ShellSessionController (server);
+	}
+
+	private Command command(String id) {
+		Command command = mock (Command.class);
+		when (command.id ()).thenReturn (id);
+		when (command.commandTxt ()).thenReturn ("command " + id);
+		when (command.description ()).thenReturn ("description " + id);
+		return command;
+	}
+
+	private void receive(String output) {
+		byte[] buff = output.getBytes ();
+		this.controller.outputReceived (buff, buff.length);
+	}
+
+	private String marker(PendingCommand pendingCommand) {
+		return pendingCommand.sentinel ().marker ();
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void commandCompletesWhenItsSentinelIsRead() throws InterruptedException {
+		// given
+		PendingCommand uptime = this.controller.startCommand (command ("C001"));
+		// when
+		receive ("$ uptime\r\n" + uptime.sentinel ().echoCommand () + "\r\n 10:00 up 3 da");
+		receive ("ys\r\n" + marker (uptime) + "0\r\n$ ");
+		// then
+		assertEquals (0, this.controller.awaitCommandComplete (uptime, 1, TimeUnit.SECONDS));
+		String output = this.controller.getCommandOutput ().toString ();
+		assertTrue (output.contains ("10:00 up 3 days"));
+		assertTrue (output.contains ("C001"));
+		assertFalse (output.contains ("AUTOBOT"));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void exitStatusOfTheCommandIsReturned() throws InterruptedException {
+		// given
+		PendingCommand listing = this.controller.startCommand (command ("C001"));
+		// when
+		receive ("ls: cannot access missing\n" + marker (listing) + "2\n");
+		// then
+		assertEquals (2, this.controller.awaitCommandComplete (listing, 1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void outputOfInitCommandsIsNotFramed() throws InterruptedException {
+		// given
+		PendingCommand init = this.controller.startCommand (null);
+		// when
+		receive ("Password changed\n" + marker (init) + "0\n");
+		// then
+		assertEquals (0, this.controller.awaitCommandComplete (init, 1, TimeUnit.SECONDS));
+		assertEquals ("", this.controller.getCommandOutput ().toString ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void onlyTheMarkerOfTheCommandIsMatched() {
+		// given
+		ShellCommandSentinel previous = this.controller.startCommand (null).sentinel ();
+		ShellCommandSentinel sentinel = this.controller.startCommand (null).sentinel ();
+		// then
+		assertEquals (Integer.valueOf (0), sentinel.exitStatusIn (sentinel.marker () + "0"));
+		assertNull (sentinel.exitStatusIn (previous.marker () + "0"));
+		assertNull (sentinel.exitStatusIn (sentinel.echoCommand ()));
+		assertTrue (sentinel.isEchoOfSentinel ("$ " + previous.echoCommand ()));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void pipelinedOutputIsSplitInTheOrderOfTheCommands() throws InterruptedException {
+		// given
+		PendingCommand first = this.controller.startCommand (command ("C001"));
+		PendingCommand second = this.controller.startCommand (command ("C002"));
+		PendingCommand third = this.controller.startCommand (command ("C003"));
+		// when
+		receive ("first output\n" + marker (first) + "0\nsecond ");
+		receive ("output\n" + marker (second) + "1\n" + marker (third) + "0\n");
+		// then
+		assertEquals (0, this.controller.awaitCommandComplete (first, 1, TimeUnit.SECONDS));
+		assertEquals (1, this.controller.awaitCommandComplete (second, 1, TimeUnit.SECONDS));
+		assertEquals (0, this.controller.awaitCommandComplete (third, 1, TimeUnit.SECONDS));
+		String output = this.controller.getCommandOutput ().toString ();
+		int firstOutput = output.indexOf ("first output");
+		int secondHeader = output.indexOf ("C002");
+		int secondOutput = output.indexOf ("second output");
+		int thirdHeader = output.indexOf ("C003");
+		assertTrue (output.indexOf ("C001") < firstOutput);
+		assertTrue (firstOutput < secondHeader);
+		assertTrue (secondHeader < secondOutput);
+		assertTrue (secondOutput < thirdHeader);
+	}
+
+	@Test (expected = CommandExecutionException.class)
+	@Category (UnitTest.class)
+	public void commandFailsWhenSentinelIsNotReadInTime() throws InterruptedException {
+		PendingCommand pendingCommand = this.controller.startCommand (command ("C001"));
+		receive ("still running\n");
+		this.controller.awaitCommandComplete (pendingCommand, 10, TimeUnit.MILLISECONDS);
+	}
+
+	@Test (expected = CommandExecutionException.class)
+	@Category (UnitTest.class)
+	public void commandFailsWhenRemoteOutputIsClosed() throws InterruptedException {
+		PendingCommand pendingCommand = this.controller.startCommand (command ("C001"));
+		this.controller.outputClosed ();
+		this.controller.awaitCommandComplete (pendingCommand, 1, TimeUnit.SECONDS);
+	}
+}
@@ -0,0 +1,145 @@
+package com.novicehacks.autobot.executor.ssh.sequential;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.novicehacks.autobot.categories.UnitTest;
+import com.novicehacks.autobot.core.Deadline;
+import com.novicehacks.autobot.core.types.Command;
+import com.novicehacks.autobot.core.types.Server;
+
+public class ShellSessionExecutorTest {
+	private static final long PromptDelayInMillis = 100;
+	private Server server;
+	private ShellSessionController controller;
+
+	@Before
+	public void setUp() {
+		this.server = mock (Server.class);
+		when (this.server.id ()).thenReturn ("S001");
+		when (this.server.initCommands ()).thenReturn (new String[] { "su - admin", "secret" });
+		this.controller = new ShellSessionController (this.server);
+	}
+
+	/**
+	 * Shell asking for a password a while after <em>su</em>, discarding the
+	 * input typed ahead of the prompt as a terminal does on TCSAFLUSH, and
+	 * answering the echo of the sentinels.
+	 */
+	private static final class PromptingShell extends OutputStream {
+		private final ShellSessionController controller;
+		private final StringBuilder line = new StringBuilder ();
+		private final List<String> acceptedLines;
+		private final List<String> discardedLines;
+		private volatile boolean prompting;
+
+		PromptingShell (ShellSessionController controller) {
+			this.controller = controller;
+			this.acceptedLines = Collections.synchronizedList (new ArrayList<String> ());
+			this.discardedLines = Collections.synchronizedList (new ArrayList<String> ());
+		}
+
+		@Override
+		public void write(int b) {
+			if (b == '\n') {
+				lineWritten (this.line.toString ());
+				this.line.setLength (0);
+			} else {
+				this.line.append ((char) b);
+			}
+		}
+
+		private void lineWritten(String input) {
+			if (this.prompting) {
+				this.discardedLines.add (input);
+				return;
+			}
+			this.acceptedLines.add (input);
+			if (input.equals ("su - admin"))
+				showPasswordPrompt ();
+			else if (input.startsWith ("echo \""))
+				output (input.replace ("echo \"", "").replace ("\"\"", "").replace (":$?\"", ":0")
+						+ "\n");
+		}
+
+		private void showPasswordPrompt() {
+			this.prompting = true;
+			new Thread (new Runnable () {
+				@Override
+				public void run() {
+					try {
+						Thread.sleep (PromptDelayInMillis);
+					} catch (InterruptedException ex) {
+						Thread.currentThread ().interrupt ();
+					}
+					PromptingShell.this.prompting = false;
+					output ("Password: ");
+				}
+			}).start ();
+		}
+
+		private void output(String output) {
+			byte[] buff = output.getBytes ();
+			this.controller.outputReceived (buff, buff.length);
+		}
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void initCommandsAreNotTypedAheadOfThePrompt() throws InterruptedException {
+		// given
+		PromptingShell shell = new PromptingShell (this.controller);
+		this.controller.setRemoteOutputStream (shell);
+		ShellSessionExecutor executor = new ShellSessionExecutor (this.server, new Command[0],
+				this.controller, Deadline.after (5, TimeUnit.SECONDS)) {
+			@Override
+			long initQuietTimeInMillis() {
+				return 2 * PromptDelayInMillis;
+			}
+		};
+		// when
+		executor.startExecution ();
+		// then
+		assertEquals (Collections.emptyList (), shell.discardedLines);
+		assertEquals (Arrays.asList ("su - admin", "secret", ":"), shell.acceptedLines.subList (0,
+				3));
+		assertTrue (shell.acceptedLines.get (3).startsWith ("echo \""));
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void initCommandsAreWrittenAtOnceWithoutQuietTime() throws InterruptedException {
+		// given
+		when (this.server.initCommands ()).thenReturn (new String[] { "cd /tmp", "umask 022" });
+		PromptingShell shell = new PromptingShell (this.controller);
+		this.controller.setRemoteOutputStream (shell);
+		ShellSessionExecutor executor = new ShellSessionExecutor (this.server, new Command[0],
+				this.controller, Deadline.after (5, TimeUnit.SECONDS)) {
+			@Override
+			long initQuietTimeInMillis() {
+				return 0;
+			}
+		};
+		// when
+		long startTime = System.nanoTime ();
+		executor.startExecution ();
+		long elapsedInMillis = TimeUnit.NANOSECONDS.toMillis (System.nanoTime () - startTime);
+		// then
+		assertTrue ("Init commands took " + elapsedInMillis + " ms", elapsedInMillis < 1000);
+		assertEquals (Arrays.asList ("cd /tmp", "umask 022"), shell.acceptedLines.subList (0, 2));
+		assertTrue (shell.acceptedLines.get (2).startsWith ("echo \""));
+	}
+}
@@ -0,0 +1,154 @@
+package com.novicehacks.autobot.executor.ssh.sequential;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.novicehacks.autobot.core.types.Command;
+import com.novicehacks.autobot.core.types.SSHServer;
+import com.novicehacks.autobot.core.types.ShellCommand;
+import com.novicehacks.autobot.executor.ssh.sequential.ShellSessionController.PendingCommand;
+
+/**
+ * Throughput benchmark of the handoff between the thread reading a shell and
+ * the thread awaiting its commands in the {@link ShellSessionController},
+ * comparing the lock-free handoff with the handoff behind a fair
+ * {@link ReentrantLock} and its {@link Condition}, as it was done earlier.
+ *
+ * <p>
+ * Every round pipelines the commands, and a reader thread hands a multi
+ * megabyte shell output to the controller in chunks of 8 KB, while the
+ * awaiting thread waits for each command in turn. Not a part of the test
+ * suites, it is run as a java application with optional arguments
+ * <em>megabytes</em> and <em>commands</em>.
+ * </p>
+ *
+ * @author Sharath Chand Bhaskara for NoviceHacks!
+ */
+public class ShellSessionHandoffBenchmark {
+	private static final int WarmupRounds = 3;
+	private static final int MeasuredRounds = 5;
+	private static final int ChunkSize = 8192;
+	private static final String OutputLine = "root      1021     1  0 10:00 ?        00:00:01 "
+			+ "/usr/sbin/sshd -D -o AuthorizedKeysCommand\r\n";
+	private final int megabytes;
+	private final int commandCount;
+	private final List<Command> commands;
+	private final ReentrantLock fairLock = new ReentrantLock (true);
+	private final Condition outputHandedOver = this.fairLock.newCondition ();
+
+	ShellSessionHandoffBenchmark (int megabytes, int commandCount) {
+		this.megabytes = megabytes;
+		this.commandCount = commandCount;
+		this.commands = new ArrayList<Command> (commandCount);
+		for (int index = 0; index < commandCount; index++) {
+			ShellCommand command = new ShellCommand ("");
+			command.setId ("C" + index);
+			command.setCommandTxt ("ps -eaf");
+			command.setDescription ("Processes");
+			this.commands.add (command);
+		}
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		int megabytes = args.length > 0 ? Integer.parseInt (args[0]) : 16;
+		int commandCount = args.length > 1 ? Integer.parseInt (args[1]) : 30;
+		new ShellSessionHandoffBenchmark (megabytes, commandCount).run ();
+	}
+
+	private void run() throws InterruptedException {
+		System.out.println ("Output=" + this.megabytes + " MB, commands=" + this.commandCount);
+		for (int round = 0; round < WarmupRounds; round++) {
+			measure (true);
+			measure (false);
+		}
+		long lockedNanos = 0;
+		long lockFreeNanos = 0;
+		for (int round = 0; round < MeasuredRounds; round++) {
+			lockedNanos += measure (true);
+			lockFreeNanos += measure (false);
+		}
+		report ("Fair lock", lockedNanos);
+		report ("Lock-free", lockFreeNanos);
+	}
+
+	private void report(String handoff, long totalNanos) {
+		double megabytesPerSecond = (double) this.megabytes * MeasuredRounds
+				/ (totalNanos / 1e9);
+		System.out.printf ("%-10s : %8.1f ms/round, %8.1f MB/s%n", handoff, totalNanos
+				/ 1e6 / MeasuredRounds, megabytesPerSecond);
+	}
+
+	/**
+	 * @return time taken to hand over the output of all the commands, in
+	 *         nanoseconds.
+	 */
+	private long measure(final boolean locked) throws InterruptedException {
+		SSHServer server = new SSHServer ("");
+		server.setId ("S001");
+		final ShellSessionController controller = new ShellSessionController (server);
+		List<PendingCommand> pendingCommands = new ArrayList<PendingCommand> ();
+		for (Command command : this.commands)
+			pendingCommands.add (controller.startCommand (command));
+		final byte[] output = shellOutput (pendingCommands);
+		Thread reader = new Thread (new Runnable () {
+			@Override
+			public void run() {
+				handOver (controller, output, locked);
+			}
+		}, "benchmark-shell-reader");
+		long startTime = System.nanoTime ();
+		reader.start ();
+		for (PendingCommand pendingCommand : pendingCommands)
+			if (locked)
+				awaitLocked (pendingCommand);
+			else
+				controller.awaitCommandComplete (pendingCommand, 1, TimeUnit.MINUTES);
+		long elapsedNanos = System.nanoTime () - startTime;
+		reader.join ();
+		return elapsedNanos;
+	}
+
+	private byte[] shellOutput(List<PendingCommand> pendingCommands) {
+		long linesPerCommand = (long) this.megabytes * 1024 * 1024 / OutputLine.length ()
+				/ pendingCommands.size ();
+		StringBuilder output = new StringBuilder ();
+		for (PendingCommand pendingCommand : pendingCommands) {
+			for (long line = 0; line < linesPerCommand; line++)
+				output.append (OutputLine);
+			output.append (pendingCommand.sentinel ().marker ()).append ("0\r\n");
+		}
+		return output.toString ().getBytes ();
+	}
+
+	private void handOver(ShellSessionController controller, byte[] output, boolean locked) {
+		byte[] chunk = new byte[ChunkSize];
+		for (int offset = 0; offset < output.length; offset += ChunkSize) {
+			int length = Math.min (ChunkSize, output.length - offset);
+			System.arraycopy (output, offset, chunk, 0, length);
+			if (locked) {
+				this.fairLock.lock ();
+				try {
+					controller.outputReceived (chunk, length);
+					this.outputHandedOver.signal ();
+				} finally {
+					this.fairLock.unlock ();
+				}
+			} else {
+				controller.outputReceived (chunk, length);
+			}
+		}
+	}
+
+	private void awaitLocked(PendingCommand pendingCommand) throws InterruptedException {
+		this.fairLock.lock ();
+		try {
+			while (!pendingCommand.isCompleted ())
+				this.outputHandedOver.await (1, TimeUnit.SECONDS);
+		} finally {
+			this.fairLock.unlock ();
+		}
+	}
+}
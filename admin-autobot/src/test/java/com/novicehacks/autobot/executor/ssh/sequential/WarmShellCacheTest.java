@@ -0,0 +1,182 @@
+package com.novicehacks.autobot.executor.ssh.sequential;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.novicehacks.autobot.categories.UnitTest;
+import com.novicehacks.autobot.core.Deadline;
+import com.novicehacks.autobot.core.types.Command;
+import com.novicehacks.autobot.core.types.Server;
+import com.novicehacks.autobot.executor.ssh.SSHConnection;
+import com.novicehacks.autobot.executor.ssh.SSHSession;
+
+public class WarmShellCacheTest {
+	private WarmShellCache cache;
+	private Server server;
+	private SSHConnection connection;
+
+	@Before
+	public void setUp() {
+		this.cache = new WarmShellCache ();
+		this.server = mock (Server.class);
+		when (this.server.id ()).thenReturn ("S001");
+		this.connection = mock (SSHConnection.class);
+		when (this.connection.isConnectionAvailable ()).thenReturn (true);
+		when (this.connection.isAuthenticated ()).thenReturn (true);
+	}
+
+	private WarmShell warmShell(SSHSession session, ShellSessionController controller) {
+		return new WarmShell (this.connection, session, new ByteArrayInputStream (new byte[0]),
+				new ByteArrayOutputStream (), null, null, controller);
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void shellKeptOpenIsTakenOnlyOnce() {
+		// given
+		WarmShell warmShell = warmShell (mock (SSHSession.class), new ShellSessionController (
+				this.server));
+		this.cache.put (this.server, warmShell);
+		// when
+		WarmShell firstTake = this.cache.take (this.server);
+		WarmShell secondTake = this.cache.take (this.server);
+		// then
+		assertSame (warmShell, firstTake);
+		assertNull (secondTake);
+		assertEquals ("open=0, hits=1, misses=1, dead=0", this.cache.statistics ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void shellWithClosedOutputIsClosedInsteadOfTaken() {
+		// given
+		SSHSession session = mock (SSHSession.class);
+		ShellSessionController controller = new ShellSessionController (this.server);
+		this.cache.put (this.server, warmShell (session, controller));
+		// when
+		controller.outputClosed ();
+		WarmShell warmShell = this.cache.take (this.server);
+		// then
+		assertNull (warmShell);
+		verify (session).closeSession ();
+		assertEquals ("open=0, hits=0, misses=1, dead=1", this.cache.statistics ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void shellOnDisconnectedConnectionIsClosedInsteadOfTaken() {
+		// given
+		SSHSession session = mock (SSHSession.class);
+		this.cache.put (this.server, warmShell (session, new ShellSessionController (this.server)));
+		// when
+		when (this.connection.isConnectionAvailable ()).thenReturn (false);
+		WarmShell warmShell = this.cache.take (this.server);
+		// then
+		assertNull (warmShell);
+		verify (session).closeSession ();
+		assertEquals ("open=0, hits=0, misses=1, dead=1", this.cache.statistics ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void shellWithClosedChannelIsClosedInsteadOfTaken() {
+		// given
+		SSHSession session = mock (SSHSession.class);
+		this.cache.put (this.server, warmShell (session, new ShellSessionController (this.server)));
+		// when
+		when (session.isRemoteClosed ()).thenReturn (true);
+		WarmShell warmShell = this.cache.take (this.server);
+		// then
+		assertNull (warmShell);
+		verify (session).closeSession ();
+		assertEquals ("open=0, hits=0, misses=1, dead=1", this.cache.statistics ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void replacedShellIsClosed() {
+		// given
+		SSHSession replacedSession = mock (SSHSession.class);
+		SSHSession session = mock (SSHSession.class);
+		ShellSessionController controller = new ShellSessionController (this.server);
+		// when
+		this.cache.put (this.server, warmShell (replacedSession, controller));
+		this.cache.put (this.server, warmShell (session, controller));
+		// then
+		verify (replacedSession).closeSession ();
+		verify (session, never ()).closeSession ();
+		assertEquals (1, this.cache.size ());
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void outputOfEarlierRunIsNotLoggedAgain() throws InterruptedException {
+		// given
+		ShellSessionController controller = new ShellSessionController (this.server);
+		Command command = mock (Command.class);
+		when (command.id ()).thenReturn ("C001");
+		ShellSessionController.PendingCommand pendingCommand = controller.startCommand (command);
+		byte[] output = ("uptime output\n" + pendingCommand.sentinel ().marker () + "0\n")
+				.getBytes ();
+		controller.outputReceived (output, output.length);
+		controller.awaitCommandComplete (pendingCommand, 1, TimeUnit.SECONDS);
+		// when
+		String firstRun = controller.drainCommandOutput ().toString ();
+		String secondRun = controller.drainCommandOutput ().toString ();
+		// then
+		assertTrue (firstRun.contains ("uptime output"));
+		assertEquals ("", secondRun);
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void shellAnsweringTheProbeIsAlive() throws InterruptedException {
+		// given
+		final ShellSessionController controller = new ShellSessionController (this.server);
+		controller.setRemoteOutputStream (new ByteArrayOutputStream () {
+			@Override
+			public void flush() {
+				String echoCommand = toString ().trim ();
+				echoCommand = echoCommand.substring (echoCommand.lastIndexOf ('\n') + 1);
+				byte[] marker = (echoCommand.replace ("echo \"", "").replace ("\"\"", "")
+						.replace (":$?\"", ":0") + "\n").getBytes ();
+				controller.outputReceived (marker, marker.length);
+			}
+		});
+		ShellSessionExecutor executor = new ShellSessionExecutor (this.server, new Command[0],
+				controller, Deadline.after (1, TimeUnit.SECONDS));
+		// when
+		boolean alive = executor.isShellAlive ();
+		// then
+		assertTrue (alive);
+	}
+
+	@Test
+	@Category (UnitTest.class)
+	public void silentShellFailsTheProbe() throws InterruptedException {
+		// given
+		ShellSessionController controller = new ShellSessionController (this.server);
+		controller.setRemoteOutputStream (new ByteArrayOutputStream ());
+		ShellSessionExecutor executor = new ShellSessionExecutor (this.server, new Command[0],
+				controller, Deadline.after (50, TimeUnit.MILLISECONDS));
+		// when
+		boolean alive = executor.isShellAlive ();
+		// then
+		assertFalse (alive);
+	}
+}